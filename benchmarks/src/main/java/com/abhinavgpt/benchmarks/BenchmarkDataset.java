@@ -0,0 +1,124 @@
+package com.abhinavgpt.benchmarks;
+
+import com.abhinavgpt.books.Book;
+import com.abhinavgpt.utils.DatasetReader;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * The bestseller dataset scaled to {@link #size} rows, both as a CSV file for the readers and
+ * as parsed books for everything downstream.
+ * <p>
+ * The first copy is {@code data.csv} as is. Every further copy suffixes the titles, so each
+ * copy adds new works, and from the fourth copy on also the authors, so the author count grows
+ * with the data (at roughly a quarter of the rate) instead of staying at the sample's ~250.
+ * The source file is taken from the {@code books.dataset} system property, falling back to
+ * {@code domain-model/data.csv} relative to the working directory.
+ */
+@State(Scope.Benchmark)
+public class BenchmarkDataset {
+
+    private static final String HEADER = "Name,Author,User Rating,Reviews,Price,Year,Genre";
+
+    @Param({"550", "10000", "100000"})
+    public int size;
+
+    private Path csvFile;
+    private List<Book> books;
+    private String sampleAuthor;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        List<Book> source = new DatasetReader().readBooksFromSource(locateSource().toString());
+        if (source.isEmpty()) {
+            throw new IllegalStateException("No books could be read from " + locateSource());
+        }
+        books = scale(source, size);
+        sampleAuthor = source.get(0).author();
+
+        csvFile = Files.createTempFile("books-" + size + "-", ".csv");
+        try (BufferedWriter writer = Files.newBufferedWriter(csvFile, StandardCharsets.UTF_8)) {
+            writer.write(HEADER);
+            writer.newLine();
+            for (Book book : books) {
+                writer.write(toCsvRow(book));
+                writer.newLine();
+            }
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        Files.deleteIfExists(csvFile);
+    }
+
+    public Path getCsvFile() {
+        return csvFile;
+    }
+
+    public List<Book> getBooks() {
+        return books;
+    }
+
+    /**
+     * An author from the original sample, present in every dataset size.
+     */
+    public String getSampleAuthor() {
+        return sampleAuthor;
+    }
+
+    static Path locateSource() {
+        String configured = System.getProperty("books.dataset");
+        if (configured != null) {
+            return Path.of(configured);
+        }
+        for (Path candidate : List.of(Path.of("domain-model", "data.csv"), Path.of("..", "domain-model", "data.csv"))) {
+            if (Files.isReadable(candidate)) {
+                return candidate;
+            }
+        }
+        return Path.of("data.csv");
+    }
+
+    private static List<Book> scale(List<Book> source, int size) {
+        List<Book> scaled = new ArrayList<>(size);
+        for (int row = 0; row < size; row++) {
+            Book book = source.get(row % source.size());
+            int copy = row / source.size();
+            if (copy == 0) {
+                scaled.add(book);
+                continue;
+            }
+            String author = copy < 4 ? book.author() : book.author() + " " + (copy / 4);
+            scaled.add(new Book(book.title() + " (" + copy + ")", author, book.userRating(),
+                book.reviewCount(), book.price(), book.year(), book.genre()));
+        }
+        return scaled;
+    }
+
+    private static String toCsvRow(Book book) {
+        return String.join(",", quote(book.title()), quote(book.author()),
+            String.format(Locale.ROOT, "%.1f", book.userRating()), Integer.toString(book.reviewCount()),
+            Integer.toString(book.price()), Integer.toString(book.year()), quote(book.genre()));
+    }
+
+    private static String quote(String field) {
+        if (field.indexOf(',') < 0 && field.indexOf('"') < 0 && field.indexOf('\n') < 0) {
+            return field;
+        }
+        return '"' + field.replace("\"", "\"\"") + '"';
+    }
+}
@@ -0,0 +1,110 @@
+package com.abhinavgpt.benchmarks;
+
+import com.abhinavgpt.books.Book;
+import com.abhinavgpt.utils.CsvTokenizer;
+import com.abhinavgpt.utils.DatasetReader;
+import com.abhinavgpt.utils.MappedDatasetReader;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of turning CSV into books: one row at a time through {@link CsvTokenizer}, and whole
+ * files through each reader.
+ */
+@Fork(1)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+public class CsvParsingBenchmark {
+
+    /**
+     * A plain row and a quoted one with an embedded comma and escaped quotes, since the
+     * tokenizer takes a different path through its state machine for each.
+     */
+    @State(Scope.Thread)
+    public static class Rows {
+
+        private char[] plainRow;
+        private char[] quotedRow;
+
+        @Setup
+        public void setUp() {
+            plainRow = "10-Day Green Smoothie Cleanse,JJ Smith,4.7,17350,8,2016,Non Fiction".toCharArray();
+            quotedRow = "\"The Five Love Languages: How to Express \"\"Heartfelt\"\" Commitment, to Your Mate\",Gary Chapman,4.8,25554,8,2019,Non Fiction"
+                    .toCharArray();
+        }
+    }
+
+    /**
+     * The whole scaled dataset held in memory, so tokenizing it measures no I/O.
+     */
+    @State(Scope.Benchmark)
+    public static class FileContents {
+
+        private char[] chars;
+
+        @Setup
+        public void setUp(BenchmarkDataset dataset) throws IOException {
+            chars = Files.readString(dataset.getCsvFile(), StandardCharsets.UTF_8).toCharArray();
+        }
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.AverageTime)
+    @OutputTimeUnit(TimeUnit.NANOSECONDS)
+    public Book parsePlainRow(Rows rows) throws IOException {
+        return parseRow(rows.plainRow);
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.AverageTime)
+    @OutputTimeUnit(TimeUnit.NANOSECONDS)
+    public Book parseQuotedRow(Rows rows) throws IOException {
+        return parseRow(rows.quotedRow);
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.AverageTime)
+    @OutputTimeUnit(TimeUnit.MICROSECONDS)
+    public void tokenizeInMemoryFile(FileContents contents, Blackhole blackhole) throws IOException {
+        CsvTokenizer tokenizer = new CsvTokenizer(contents.chars, 0, contents.chars.length);
+        while (tokenizer.nextRecord()) {
+            blackhole.consume(tokenizer.fieldAsInt(3));
+        }
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.AverageTime)
+    @OutputTimeUnit(TimeUnit.MICROSECONDS)
+    public List<Book> loadWithDatasetReader(BenchmarkDataset dataset) {
+        return new DatasetReader().readBooksFromSource(dataset.getCsvFile().toString());
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.AverageTime)
+    @OutputTimeUnit(TimeUnit.MICROSECONDS)
+    public List<Book> loadWithMappedDatasetReader(BenchmarkDataset dataset) {
+        return new MappedDatasetReader().readBooksFromSource(dataset.getCsvFile().toString());
+    }
+
+    private static Book parseRow(char[] row) throws IOException {
+        CsvTokenizer tokenizer = new CsvTokenizer(row, 0, row.length);
+        tokenizer.nextRecord();
+        return new Book(tokenizer.field(0), tokenizer.field(1), tokenizer.fieldAsDouble(2),
+            tokenizer.fieldAsInt(3), tokenizer.fieldAsInt(4), tokenizer.fieldAsInt(5), tokenizer.field(6));
+    }
+}
@@ -0,0 +1,126 @@
+package com.abhinavgpt.benchmarks;
+
+import com.abhinavgpt.books.Book;
+import com.abhinavgpt.books.BookQuery;
+import com.abhinavgpt.books.BookRepository;
+import com.abhinavgpt.books.BookRepositoryImpl;
+import com.abhinavgpt.books.ColumnarBookRepository;
+import com.abhinavgpt.books.ConcurrentBookRepository;
+import com.abhinavgpt.books.PartitionedBookRepository;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+/**
+ * Index construction and every {@link BookRepository} query, for each implementation. The
+ * partitioned repository gets one partition per year.
+ */
+@Fork(1)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class RepositoryBenchmark {
+
+    @State(Scope.Benchmark)
+    public static class Repositories {
+
+        @Param({"impl", "columnar", "concurrent", "partitioned"})
+        public String implementation;
+
+        private BookRepository repository;
+        private String author;
+        private BookQuery query;
+
+        @Setup
+        public void setUp(BenchmarkDataset dataset) {
+            repository = build(implementation, dataset.getBooks());
+            author = dataset.getSampleAuthor();
+            query = BookQuery.builder()
+                    .genre("Fiction")
+                    .ratingBetween(4.5, 5.0)
+                    .orderBy(BookQuery.Order.REVIEWS_DESC)
+                    .limit(20)
+                    .build();
+        }
+    }
+
+    static BookRepository build(String implementation, List<Book> books) {
+        return switch (implementation) {
+            case "impl" -> new BookRepositoryImpl(books);
+            case "columnar" -> new ColumnarBookRepository(books);
+            case "concurrent" -> new ConcurrentBookRepository(books);
+            case "partitioned" -> PartitionedBookRepository.fromPartitions(new ArrayList<>(books.stream()
+                    .collect(Collectors.groupingBy(Book::year, TreeMap::new, Collectors.toList()))
+                    .values()));
+            default -> throw new IllegalArgumentException("Unknown repository: " + implementation);
+        };
+    }
+
+    @Benchmark
+    @OutputTimeUnit(TimeUnit.MICROSECONDS)
+    public BookRepository buildIndexes(Repositories repositories, BenchmarkDataset dataset) {
+        return build(repositories.implementation, dataset.getBooks());
+    }
+
+    @Benchmark
+    public List<Book> getBooksByAuthor(Repositories repositories) {
+        return repositories.repository.getBooksByAuthor(repositories.author);
+    }
+
+    @Benchmark
+    public List<Book> getUniqueBooksByAuthor(Repositories repositories) {
+        return repositories.repository.getUniqueBooksByAuthor(repositories.author);
+    }
+
+    @Benchmark
+    public int getBookCountByAuthor(Repositories repositories) {
+        return repositories.repository.getBookCountByAuthor(repositories.author);
+    }
+
+    @Benchmark
+    public Map<String, Integer> getBooksAndPricesByAuthor(Repositories repositories) {
+        return repositories.repository.getBooksAndPricesByAuthor(repositories.author);
+    }
+
+    @Benchmark
+    public List<Book> getBooksByRating(Repositories repositories) {
+        return repositories.repository.getBooksByRating(4.8);
+    }
+
+    @Benchmark
+    public List<Book> getBooksByRatingRange(Repositories repositories) {
+        return repositories.repository.getBooksByRatingRange(4.5, 4.9);
+    }
+
+    @Benchmark
+    public List<String> getAllAuthors(Repositories repositories) {
+        return repositories.repository.getAllAuthors();
+    }
+
+    @Benchmark
+    public List<Book> getAllUniqueBooks(Repositories repositories) {
+        return repositories.repository.getAllUniqueBooks();
+    }
+
+    @Benchmark
+    @OutputTimeUnit(TimeUnit.MICROSECONDS)
+    public List<Book> findBooks(Repositories repositories) {
+        return repositories.repository.findBooks(repositories.query);
+    }
+}
@@ -0,0 +1,100 @@
+package com.abhinavgpt.benchmarks;
+
+import com.abhinavgpt.books.AggregationResult;
+import com.abhinavgpt.books.Book;
+import com.abhinavgpt.books.BookAggregation;
+import com.abhinavgpt.books.BookLeaderboards;
+import com.abhinavgpt.books.BookRepository;
+import com.abhinavgpt.books.BookService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * {@link BookService#getMostProlificAuthorsWithBookCount(int)} in its three regimes: a fresh
+ * service (leaderboard built on the call), a warm leaderboard with the result cache bypassed,
+ * and a result-cache hit. Search and aggregation are included as the other index-backed calls.
+ */
+@Fork(1)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class ServiceBenchmark {
+
+    @State(Scope.Benchmark)
+    public static class Services {
+
+        @Param({"10", "100"})
+        public int limit;
+
+        private BookRepository repository;
+        private BookService service;
+        private BookLeaderboards leaderboards;
+        private BookAggregation genreByYear;
+        private BookAggregation reviewsByAuthor;
+
+        @Setup
+        public void setUp(BenchmarkDataset dataset) {
+            repository = RepositoryBenchmark.build("impl", dataset.getBooks());
+            service = new BookService(repository);
+            service.getMostProlificAuthorsWithBookCount(limit);
+            service.searchBooks("warm up", 1);
+            genreByYear = BookAggregation.builder()
+                    .groupBy(BookAggregation.Dimension.GENRE, BookAggregation.Dimension.YEAR)
+                    .build();
+            reviewsByAuthor = BookAggregation.builder()
+                    .groupBy(BookAggregation.Dimension.AUTHOR)
+                    .uniqueBooks()
+                    .build();
+            service.aggregate(genreByYear);
+            leaderboards = BookLeaderboards.fromBooks(
+                repository.getAllBooksIncludingDuplicates(), repository.getAllUniqueBooks());
+        }
+    }
+
+    @Benchmark
+    @OutputTimeUnit(TimeUnit.MICROSECONDS)
+    public Map<String, Integer> prolificAuthorsOnFreshService(Services services) {
+        return new BookService(services.repository).getMostProlificAuthorsWithBookCount(services.limit);
+    }
+
+    @Benchmark
+    public List<BookLeaderboards.AuthorBookCount> prolificAuthorsFromLeaderboard(Services services) {
+        return services.leaderboards.getTopAuthorsByBookCount(services.limit);
+    }
+
+    @Benchmark
+    public Map<String, Integer> prolificAuthorsCached(Services services) {
+        return services.service.getMostProlificAuthorsWithBookCount(services.limit);
+    }
+
+    @Benchmark
+    @OutputTimeUnit(TimeUnit.MICROSECONDS)
+    public List<Book> searchBooks(Services services) {
+        return services.service.searchBooks("the", services.limit);
+    }
+
+    @Benchmark
+    public AggregationResult aggregateFromCube(Services services) {
+        return services.service.aggregate(services.genreByYear);
+    }
+
+    @Benchmark
+    @OutputTimeUnit(TimeUnit.MICROSECONDS)
+    public AggregationResult aggregateByAuthor(Services services) {
+        return services.service.aggregate(services.reviewsByAuthor);
+    }
+}
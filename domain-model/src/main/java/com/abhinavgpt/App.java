@@ -1,11 +1,7 @@
 package com.abhinavgpt;
 
-import com.abhinavgpt.books.Book;
 import com.abhinavgpt.utils.DatasetReader;
 
-
-import java.util.List;
-
 public class App
 {
     public static void main( String[] args )
@@ -16,11 +12,12 @@ public class App
         }
         String csvPath = args[0];
         DatasetReader reader = new DatasetReader();
-        List<Book> books = reader.readBooksFromSource(csvPath);
-        System.out.println("Loaded books: " + books.size());
-        for (int i = 0; i < Math.min(3, books.size()); i++) {
-            Book b = books.get(i);
-            System.out.println((i+1) + ". " + b.title() + " by " + b.author());
-        }
+        int[] printedBooks = {0};
+        long loadedBooks = reader.forEachBookInSource(csvPath, b -> {
+            if (printedBooks[0] < 3) {
+                System.out.println(++printedBooks[0] + ". " + b.title() + " by " + b.author());
+            }
+        });
+        System.out.println("Loaded books: " + loadedBooks);
     }
 }
@@ -1,42 +1,147 @@
 package com.abhinavgpt;
 
 import com.abhinavgpt.books.Book;
+import com.abhinavgpt.books.BookDatasetReloader;
 import com.abhinavgpt.books.BookRepository;
 import com.abhinavgpt.books.BookRepositoryImpl;
 import com.abhinavgpt.books.BookService;
-import com.abhinavgpt.utils.DatasetReader;
+import com.abhinavgpt.books.PartitionedBookRepository;
+import com.abhinavgpt.export.BookExporter;
+import com.abhinavgpt.metrics.InstrumentedDataReader;
+import com.abhinavgpt.metrics.MetricsRegistry;
+import com.abhinavgpt.utils.DataReader;
+import com.abhinavgpt.utils.RejectedRowsReport;
 
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.Arrays;
 import java.util.List;
 import java.util.Map;
 
+/**
+ * Walks through the service's features.
+ *
+ * <pre>
+ * java com.abhinavgpt.Driver [--metrics] [--watch] [--rejected-rows=report.csv] [--export=books.jsonl.gz] [dataset.csv ...]
+ * java com.abhinavgpt.Driver --scale-test[=rows,rows,...]
+ * </pre>
+ *
+ * Several datasets (e.g. one per year) are loaded in parallel into a
+ * {@link PartitionedBookRepository}; without any, {@code data.csv} is used.
+ * {@code --rejected-rows} streams every skipped row's line number and reason to a
+ * CSV report. {@code --export} writes every loaded entry with a {@link BookExporter}, in the
+ * format named by the file's extension. {@code --scale-test} instead runs {@link ScaleTest} on generated datasets of
+ * the given sizes (1M, 10M and 100M rows by default).
+ */
 public class Driver {
     
-    public static void main(String[] args) {
+    public static void main(String[] args) throws IOException {
+        for (String arg : args) {
+            if (arg.equals("--scale-test")) {
+                ScaleTest.run(ScaleTest.DEFAULT_SIZES);
+                return;
+            }
+            if (arg.startsWith("--scale-test=")) {
+                ScaleTest.run(Arrays.stream(arg.substring("--scale-test=".length()).split(","))
+                        .map(size -> Long.parseLong(size.trim().replace("_", "")))
+                        .toList());
+                return;
+            }
+        }
+        
+        List<String> sources = Arrays.stream(args).filter(arg -> !arg.startsWith("--")).toList();
+        if (sources.isEmpty()) {
+            sources = List.of("data.csv");
+        }
         System.out.println("=== Amazon Bestsellers Book Database ===");
-        System.out.println("Loading dataset from data.csv...\n");
+        System.out.println("Loading dataset from " + String.join(", ", sources) + "...\n");
         
-        try {
-            DatasetReader csvDatasetReader = new DatasetReader();
-            List<Book> allBooksFromDataset = csvDatasetReader.readBooksFromSource("data.csv");
+        String rejectedRowsTarget = optionValue(args, "--rejected-rows=");
+        String exportTarget = optionValue(args, "--export=");
+        
+        try (RejectedRowsReport rejectedRows = rejectedRowsTarget != null
+                ? RejectedRowsReport.toFile(Path.of(rejectedRowsTarget))
+                : new RejectedRowsReport(Writer.nullWriter())) {
+            MetricsRegistry metrics = List.of(args).contains("--metrics") ? new MetricsRegistry() : MetricsRegistry.disabled();
+            DataReader csvDatasetReader = InstrumentedDataReader.csv(metrics, rejectedRows);
+            List<String> datasetSources = sources;
+            BookRepository bookRepository = metrics.time("load.repository", () -> datasetSources.size() == 1
+                ? BookRepositoryImpl.fromStream(csvDatasetReader.streamBooksFromSource(datasetSources.get(0)))
+                : PartitionedBookRepository.load(datasetSources, csvDatasetReader));
+            List<Book> allBooksFromDataset = bookRepository.getAllBooksIncludingDuplicates();
             
             if (allBooksFromDataset.isEmpty()) {
-                System.err.println("No books were loaded from the dataset. Please check the data.csv file.");
+                System.err.println("No books were loaded from the dataset. Please check " + String.join(", ", sources) + ".");
                 return;
             }
             
             System.out.println("Successfully loaded " + allBooksFromDataset.size() + " books from the dataset.\n");
+            if (rejectedRows.getRejectedCount() > 0) {
+                System.out.println("Skipped " + rejectedRows.getRejectedCount() + " invalid rows: " + rejectedRows.getCountsByReason()
+                    + (rejectedRowsTarget != null ? " (details in " + rejectedRowsTarget + ")" : "") + "\n");
+            }
             
-            BookRepository optimizedBookRepository = new BookRepositoryImpl(allBooksFromDataset);
-            BookService bookService = new BookService(optimizedBookRepository);
+            if (exportTarget != null) {
+                long start = System.nanoTime();
+                long exported = BookExporter.forFile(Path.of(exportTarget)).export(allBooksFromDataset, Path.of(exportTarget));
+                System.out.printf("Exported %d books to %s in %d ms.%n%n", exported, exportTarget,
+                    (System.nanoTime() - start) / 1_000_000);
+            }
+            
+            BookService bookService = new BookService(bookRepository, metrics);
             
             demonstrateAllBookDatabaseFeatures(bookService);
             
+            if (metrics.isEnabled()) {
+                System.out.println();
+                System.out.print(bookService.getMetricsSnapshot().toText());
+            }
+            
+            if (List.of(args).contains("--watch")) {
+                if (sources.size() == 1) {
+                    watchDatasetForChanges(bookService, csvDatasetReader, Path.of(sources.get(0)));
+                } else {
+                    System.err.println("--watch supports a single dataset file.");
+                }
+            }
+            
         } catch (Exception e) {
             System.err.println("An error occurred while running the application: " + e.getMessage());
             e.printStackTrace();
         }
     }
     
+    private static String optionValue(String[] args, String prefix) {
+        return Arrays.stream(args)
+                .filter(arg -> arg.startsWith(prefix))
+                .map(arg -> arg.substring(prefix.length()))
+                .findFirst()
+                .orElse(null);
+    }
+    
+    private static void watchDatasetForChanges(BookService service, DataReader reader, Path dataset) throws InterruptedException {
+        System.out.println("Watching " + dataset + " for changes (Ctrl+C to stop)...");
+        BookDatasetReloader reloader = BookDatasetReloader.watch(service, dataset,
+                path -> reader.streamBooksFromSource(path.toString()), BookRepositoryImpl::fromStream,
+                Duration.ofSeconds(1), Driver::reportReload);
+        try {
+            Thread.currentThread().join();
+        } finally {
+            reloader.close();
+        }
+    }
+    
+    private static void reportReload(BookDatasetReloader.ReloadResult result) {
+        if (result.succeeded()) {
+            System.out.printf("Reloaded %d books in %d ms%n", result.bookCount(), result.duration().toMillis());
+        } else {
+            System.err.println("Dataset reload failed after " + result.duration().toMillis() + " ms, keeping previous data: "
+                + result.error());
+        }
+    }
+    
     private static void demonstrateAllBookDatabaseFeatures(BookService service) {
         System.out.println("=== FEATURE DEMONSTRATIONS ===\n");
         
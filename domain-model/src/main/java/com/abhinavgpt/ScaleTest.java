@@ -0,0 +1,152 @@
+package com.abhinavgpt;
+
+import com.abhinavgpt.books.Book;
+import com.abhinavgpt.books.BookAggregation;
+import com.abhinavgpt.books.BookQuery;
+import com.abhinavgpt.books.BookRepository;
+import com.abhinavgpt.books.BookRepositoryImpl;
+import com.abhinavgpt.books.BookService;
+import com.abhinavgpt.metrics.LatencyHistogram;
+import com.abhinavgpt.utils.DatasetReader;
+import com.abhinavgpt.utils.SyntheticDatasetGenerator;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.function.Consumer;
+
+/**
+ * Scale test run by {@code Driver --scale-test[=rows,rows,...]}. For each size a synthetic
+ * dataset is generated to a temporary CSV, loaded and indexed through the regular reader and
+ * service, and hit with a seeded mix of queries; generation, load and index times, query
+ * throughput, per-query latency percentiles and retained heap are reported. Sizes the heap
+ * cannot hold are skipped with a note rather than run into an {@link OutOfMemoryError}.
+ */
+final class ScaleTest {
+
+    static final List<Long> DEFAULT_SIZES = List.of(1_000_000L, 10_000_000L, 100_000_000L);
+
+    private static final long SEED = 42L;
+    private static final int QUERIES = 20_000;
+    private static final int WARMUP_QUERIES = 2_000;
+    private static final long ESTIMATED_HEAP_BYTES_PER_ROW = 400;
+
+    private ScaleTest() {
+    }
+
+    static void run(List<Long> sizes) throws IOException {
+        System.out.println("=== SCALE TEST ===");
+        System.out.printf("Max heap: %,d MB%n%n", Runtime.getRuntime().maxMemory() >> 20);
+
+        for (long rows : sizes) {
+            System.out.printf("--- %,d rows ---%n", rows);
+            long neededBytes = rows * ESTIMATED_HEAP_BYTES_PER_ROW;
+            if (neededBytes > Runtime.getRuntime().maxMemory()) {
+                System.out.printf("Skipped: needs roughly %,d MB of heap; rerun with a larger -Xmx.%n%n", neededBytes >> 20);
+                continue;
+            }
+            runSize(rows);
+            System.out.println();
+        }
+    }
+
+    private static void runSize(long rows) throws IOException {
+        Path csv = Files.createTempFile("books-" + rows + "-", ".csv");
+        try {
+            long startNanos = System.nanoTime();
+            new SyntheticDatasetGenerator(SEED).writeCsv(csv, rows);
+            long generateNanos = System.nanoTime() - startNanos;
+            System.out.printf("Generate: %,d ms (%,d MB CSV)%n", generateNanos / 1_000_000, Files.size(csv) >> 20);
+
+            long heapBeforeLoad = usedHeapBytes();
+            startNanos = System.nanoTime();
+            BookRepository repository = BookRepositoryImpl.fromStream(new DatasetReader().streamBooksFromSource(csv.toString()));
+            long loadNanos = System.nanoTime() - startNanos;
+            int loadedRows = repository.getAllBooksIncludingDuplicates().size();
+            System.out.printf("Load: %,d ms (%,.0f rows/s, %,d unique works)%n", loadNanos / 1_000_000,
+                loadedRows * 1e9 / Math.max(1, loadNanos), repository.getAllUniqueBooks().size());
+
+            BookService service = new BookService(repository);
+            startNanos = System.nanoTime();
+            service.getMostProlificAuthorsWithBookCount(10);
+            service.searchBooks("the", 10);
+            service.getAuthorSuggestions("a", 10);
+            service.aggregate(BookAggregation.builder().groupBy(BookAggregation.Dimension.GENRE).build());
+            System.out.printf("Index: %,d ms%n", (System.nanoTime() - startNanos) / 1_000_000);
+
+            runWorkload(service, repository, WARMUP_QUERIES, new LinkedHashMap<>());
+            Map<String, LatencyHistogram> latencies = new LinkedHashMap<>();
+            startNanos = System.nanoTime();
+            runWorkload(service, repository, QUERIES, latencies);
+            long workloadNanos = System.nanoTime() - startNanos;
+            System.out.printf("Workload: %,d queries in %,d ms (%,.0f queries/s)%n", QUERIES,
+                workloadNanos / 1_000_000, QUERIES * 1e9 / Math.max(1, workloadNanos));
+            latencies.forEach((name, histogram) -> {
+                LatencyHistogram.Snapshot snapshot = histogram.snapshot();
+                System.out.printf("  %-16s %,7d calls | p50 %,9d us | p99 %,9d us | max %,9d us%n", name,
+                    snapshot.count(), snapshot.p50Nanos() / 1_000, snapshot.p99Nanos() / 1_000, snapshot.maxNanos() / 1_000);
+            });
+
+            long retainedBytes = Math.max(0, usedHeapBytes() - heapBeforeLoad);
+            System.out.printf("Heap: %,d MB retained (%,d bytes/row)%n", retainedBytes >> 20,
+                retainedBytes / Math.max(1, loadedRows));
+        } finally {
+            Files.deleteIfExists(csv);
+        }
+    }
+
+    /**
+     * Runs a seeded mix weighted towards the cheap lookups a query server sees most, with
+     * inputs drawn from the loaded data so most queries hit.
+     */
+    private static void runWorkload(BookService service, BookRepository repository, int queries,
+                                    Map<String, LatencyHistogram> latencies) {
+        SplittableRandom random = new SplittableRandom(SEED);
+        List<String> authors = service.getAllAuthorsInDataset();
+        List<Book> books = repository.getAllBooksIncludingDuplicates();
+        List<Consumer<SplittableRandom>> mix = new ArrayList<>();
+        List<String> names = new ArrayList<>();
+
+        addQuery(mix, names, "authorCount", 6, r -> service.getTotalBookCountByAuthor(authors.get(r.nextInt(authors.size()))));
+        addQuery(mix, names, "authorPrices", 3, r -> service.getBookPricesByAuthor(authors.get(r.nextInt(authors.size()))));
+        addQuery(mix, names, "rating", 3, r -> service.classifyBooksByUserRating((33 + r.nextInt(17)) / 10.0));
+        addQuery(mix, names, "ratingRange", 2, r -> service.getBooksRatedBetween(4.8, 4.9));
+        addQuery(mix, names, "search", 3, r -> {
+            String title = books.get(r.nextInt(books.size())).title().toLowerCase();
+            service.searchBooks(title.substring(0, Math.min(8, title.length())), 10);
+        });
+        addQuery(mix, names, "findBooks", 2, r -> service.findBooks(BookQuery.builder()
+            .genre(r.nextBoolean() ? "Fiction" : "Non Fiction")
+            .year(SyntheticDatasetGenerator.FIRST_YEAR + r.nextInt(SyntheticDatasetGenerator.LAST_YEAR - SyntheticDatasetGenerator.FIRST_YEAR + 1))
+            .orderBy(BookQuery.Order.REVIEWS_DESC)
+            .limit(10)
+            .build()));
+        addQuery(mix, names, "topAuthors", 1, r -> service.getMostProlificAuthorsWithBookCount(10));
+
+        for (int i = 0; i < queries; i++) {
+            int pick = random.nextInt(mix.size());
+            long startNanos = System.nanoTime();
+            mix.get(pick).accept(random);
+            latencies.computeIfAbsent(names.get(pick), name -> new LatencyHistogram()).record(System.nanoTime() - startNanos);
+        }
+    }
+
+    private static void addQuery(List<Consumer<SplittableRandom>> mix, List<String> names, String name, int weight,
+                                 Consumer<SplittableRandom> query) {
+        for (int i = 0; i < weight; i++) {
+            mix.add(query);
+            names.add(name);
+        }
+    }
+
+    private static long usedHeapBytes() {
+        Runtime runtime = Runtime.getRuntime();
+        System.gc();
+        return runtime.totalMemory() - runtime.freeMemory();
+    }
+}
@@ -0,0 +1,12 @@
+package com.abhinavgpt.books;
+
+/**
+ * Summary of one measure over the entries of a group. Percentiles use the nearest-rank method,
+ * so they are always values that occur in the group.
+ */
+public record AggregateStats(long count, double sum, double min, double max, double p50, double p90, double p99) {
+
+    public double mean() {
+        return count == 0 ? 0.0 : sum / count;
+    }
+}
@@ -0,0 +1,42 @@
+package com.abhinavgpt.books;
+
+import java.util.EnumSet;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Precomputed genre-by-year cube: the (genre, year) groups and their genre, year and grand-total
+ * rollups over every bestseller entry, built in one pass. Percentiles cannot be combined from
+ * finer groups, so each rollup is aggregated from the entries rather than from the cells.
+ */
+final class AggregationCube {
+
+    private static final List<Set<BookAggregation.Dimension>> ROLLUPS = List.of(
+        EnumSet.of(BookAggregation.Dimension.GENRE, BookAggregation.Dimension.YEAR),
+        EnumSet.of(BookAggregation.Dimension.GENRE),
+        EnumSet.of(BookAggregation.Dimension.YEAR),
+        EnumSet.noneOf(BookAggregation.Dimension.class));
+
+    private final Map<Set<BookAggregation.Dimension>, AggregationResult> resultsByDimensions = new HashMap<>();
+
+    AggregationCube(List<Book> allBooks) {
+        List<AggregationResult> results = BookAggregator.aggregate(allBooks, null, ROLLUPS);
+        for (int i = 0; i < ROLLUPS.size(); i++) {
+            resultsByDimensions.put(ROLLUPS.get(i), results.get(i));
+        }
+    }
+
+    /**
+     * Whether the cube holds the answer: every entry, no filter, grouped by genre and/or year.
+     */
+    static boolean covers(BookAggregation aggregation) {
+        return aggregation.getFilter() == null && !aggregation.isUniqueBooks()
+            && ROLLUPS.contains(aggregation.getDimensions());
+    }
+
+    AggregationResult get(BookAggregation aggregation) {
+        return resultsByDimensions.get(aggregation.getDimensions());
+    }
+}
@@ -0,0 +1,54 @@
+package com.abhinavgpt.books;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Groups produced by a {@link BookAggregation}, ordered by author, genre, year and then rating.
+ * Results are immutable and may be shared between threads.
+ */
+public final class AggregationResult {
+
+    public record Group(BookAggregation.GroupKey key, long count,
+                        AggregateStats price, AggregateStats reviews, AggregateStats rating) {
+
+        public AggregateStats stats(BookAggregation.Measure measure) {
+            return switch (measure) {
+                case PRICE -> price;
+                case REVIEWS -> reviews;
+                case RATING -> rating;
+            };
+        }
+    }
+
+    private final Set<BookAggregation.Dimension> dimensions;
+    private final List<Group> groups;
+    private final Map<BookAggregation.GroupKey, Group> groupsByKey;
+
+    AggregationResult(Set<BookAggregation.Dimension> dimensions, List<Group> groups) {
+        this.dimensions = Collections.unmodifiableSet(dimensions);
+        this.groups = List.copyOf(groups);
+        this.groupsByKey = new HashMap<>(groups.size() * 2);
+        for (Group group : groups) {
+            groupsByKey.put(group.key(), group);
+        }
+    }
+
+    public Set<BookAggregation.Dimension> getDimensions() {
+        return dimensions;
+    }
+
+    public List<Group> getGroups() {
+        return groups;
+    }
+
+    /**
+     * The group with exactly this key, or null when no entry fell into it.
+     */
+    public Group getGroup(BookAggregation.GroupKey key) {
+        return groupsByKey.get(key);
+    }
+}
@@ -0,0 +1,103 @@
+package com.abhinavgpt.books;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.function.Function;
+
+/**
+ * {@link CompletableFuture} front end to a {@link BookService} for fan-out workloads.
+ * <p>
+ * Every call runs on its own virtual thread, so thousands of outstanding requests cost no
+ * platform threads. A semaphore caps how many of them query the service at once; the rest
+ * wait on their virtual threads, not on the caller's thread, so submitting never blocks.
+ */
+public final class AsyncBookService implements AutoCloseable {
+
+    public static final int DEFAULT_MAX_CONCURRENCY = 64;
+
+    private final BookService bookService;
+    private final ExecutorService executor;
+    private final Semaphore permits;
+
+    public AsyncBookService(BookService bookService) {
+        this(bookService, DEFAULT_MAX_CONCURRENCY);
+    }
+
+    public AsyncBookService(BookService bookService, int maxConcurrency) {
+        if (maxConcurrency < 1) {
+            throw new IllegalArgumentException("Concurrency limit must be at least 1");
+        }
+        this.bookService = Objects.requireNonNull(bookService, "bookService");
+        this.executor = Executors.newVirtualThreadPerTaskExecutor();
+        this.permits = new Semaphore(maxConcurrency);
+    }
+
+    /**
+     * Runs any query against the service under the concurrency limit.
+     */
+    public <T> CompletableFuture<T> submit(Function<BookService, T> query) {
+        return CompletableFuture.supplyAsync(() -> {
+            try {
+                permits.acquire();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new CompletionException(e);
+            }
+            try {
+                return query.apply(bookService);
+            } finally {
+                permits.release();
+            }
+        }, executor);
+    }
+
+    public CompletableFuture<Integer> getTotalBookCountByAuthor(String author) {
+        return submit(service -> service.getTotalBookCountByAuthor(author));
+    }
+
+    public CompletableFuture<Map<String, Integer>> getBookPricesByAuthor(String author) {
+        return submit(service -> service.getBookPricesByAuthor(author));
+    }
+
+    public CompletableFuture<List<Book>> classifyBooksByUserRating(double rating) {
+        return submit(service -> service.classifyBooksByUserRating(rating));
+    }
+
+    public CompletableFuture<Map<String, Integer>> getTotalBookCountsByAuthors(Collection<String> authors) {
+        List<String> snapshot = new ArrayList<>(authors);
+        return submit(service -> service.getTotalBookCountsByAuthors(snapshot));
+    }
+
+    public CompletableFuture<Map<String, Map<String, Integer>>> getBookPricesByAuthors(Collection<String> authors) {
+        List<String> snapshot = new ArrayList<>(authors);
+        return submit(service -> service.getBookPricesByAuthors(snapshot));
+    }
+
+    public CompletableFuture<List<Book>> findBooks(BookQuery query) {
+        return submit(service -> service.findBooks(query));
+    }
+
+    public CompletableFuture<List<Book>> searchBooks(String query, int limit) {
+        return submit(service -> service.searchBooks(query, limit));
+    }
+
+    public int getAvailablePermits() {
+        return permits.availablePermits();
+    }
+
+    /**
+     * Stops accepting work and waits for queries already submitted to finish.
+     */
+    @Override
+    public void close() {
+        executor.close();
+    }
+}
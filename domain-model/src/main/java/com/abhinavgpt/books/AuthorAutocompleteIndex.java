@@ -0,0 +1,216 @@
+package com.abhinavgpt.books;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Type-ahead over author names, backed by a radix trie of normalized names.
+ * <p>
+ * Every name is indexed from its start and from the start of each later word, so "kin" finds
+ * "Jeff Kinney". Authors are numbered by rank (total reviews of their unique books, then book
+ * count, then name) and each trie node caches the ids of its best {@code topN} distinct authors,
+ * so a lookup costs O(prefix + N) however many authors share the prefix. Asking for more than
+ * {@code topN} results falls back to scanning the keys under the node. Trailing spaces in a
+ * prefix are kept, so "adult " does not match "Adults".
+ */
+public final class AuthorAutocompleteIndex {
+
+    public record AuthorSuggestion(String author, int bookCount, long totalReviews) {
+    }
+
+    static final int DEFAULT_TOP_N = 10;
+
+    private static final Comparator<AuthorSuggestion> RANKING = Comparator
+            .comparingLong(AuthorSuggestion::totalReviews).reversed()
+            .thenComparing(Comparator.comparingInt(AuthorSuggestion::bookCount).reversed())
+            .thenComparing(AuthorSuggestion::author);
+
+    private final AuthorSuggestion[] authorsByRank;
+    private final String[] keys;
+    private final int[] authorRankByKey;
+    private final int topN;
+    private final Node root;
+
+    private static final class Node {
+        private final char[] firstChars;
+        private final String[] labels;
+        private final Node[] children;
+        private final int[] topAuthorRanks;
+        private final int firstKey;
+        private final int lastKeyExclusive;
+
+        private Node(char[] firstChars, String[] labels, Node[] children, int[] topAuthorRanks,
+                     int firstKey, int lastKeyExclusive) {
+            this.firstChars = firstChars;
+            this.labels = labels;
+            this.children = children;
+            this.topAuthorRanks = topAuthorRanks;
+            this.firstKey = firstKey;
+            this.lastKeyExclusive = lastKeyExclusive;
+        }
+    }
+
+    private record IndexKey(String key, int authorRank) {
+    }
+
+    private AuthorAutocompleteIndex(List<Book> allBooks, List<Book> uniqueBooks, int topN) {
+        this.topN = topN;
+
+        Map<String, AuthorSuggestion> authorsByKey = new LinkedHashMap<>();
+        for (Book book : allBooks) {
+            authorsByKey.merge(normalize(book.author()), new AuthorSuggestion(book.author(), 1, 0),
+                (existing, added) -> new AuthorSuggestion(existing.author(), existing.bookCount() + 1, 0));
+        }
+        Map<String, Long> reviewsByKey = new LinkedHashMap<>();
+        for (Book book : uniqueBooks) {
+            reviewsByKey.merge(normalize(book.author()), (long) book.reviewCount(), Long::sum);
+        }
+
+        List<Map.Entry<String, AuthorSuggestion>> rankedAuthors = authorsByKey.entrySet().stream()
+                .map(entry -> Map.entry(entry.getKey(), new AuthorSuggestion(entry.getValue().author(),
+                    entry.getValue().bookCount(), reviewsByKey.getOrDefault(entry.getKey(), 0L))))
+                .sorted(Map.Entry.comparingByValue(RANKING))
+                .toList();
+        this.authorsByRank = rankedAuthors.stream().map(Map.Entry::getValue).toArray(AuthorSuggestion[]::new);
+
+        List<IndexKey> indexKeys = new ArrayList<>();
+        for (int rank = 0; rank < rankedAuthors.size(); rank++) {
+            String name = rankedAuthors.get(rank).getKey();
+            for (int start = 0; start < name.length(); start++) {
+                if (start == 0 || (name.charAt(start - 1) == ' ' && name.charAt(start) != ' ')) {
+                    indexKeys.add(new IndexKey(name.substring(start), rank));
+                }
+            }
+        }
+        indexKeys.sort(Comparator.comparing(IndexKey::key).thenComparingInt(IndexKey::authorRank));
+        this.keys = indexKeys.stream().map(IndexKey::key).toArray(String[]::new);
+        this.authorRankByKey = indexKeys.stream().mapToInt(IndexKey::authorRank).toArray();
+
+        this.root = buildNode(0, keys.length, 0);
+    }
+
+    /**
+     * Builds the index from every yearly entry (for book counts and display names) and the
+     * deduplicated books (for review totals, so a title listed in several years counts once).
+     */
+    public static AuthorAutocompleteIndex fromBooks(List<Book> allBooks, List<Book> uniqueBooks) {
+        return fromBooks(allBooks, uniqueBooks, DEFAULT_TOP_N);
+    }
+
+    public static AuthorAutocompleteIndex fromBooks(List<Book> allBooks, List<Book> uniqueBooks, int topN) {
+        if (topN < 1) {
+            throw new IllegalArgumentException("Top-N must be at least 1");
+        }
+        return new AuthorAutocompleteIndex(allBooks, uniqueBooks, topN);
+    }
+
+    public List<AuthorSuggestion> suggest(String prefix, int limit) {
+        if (limit < 0) {
+            throw new IllegalArgumentException("Limit cannot be negative");
+        }
+        Node node = findNode(prefix == null ? "" : prefix.toLowerCase().stripLeading());
+        if (node == null || limit == 0) {
+            return List.of();
+        }
+
+        int[] ranks = limit <= topN ? node.topAuthorRanks : distinctRanksInRange(node, limit);
+        List<AuthorSuggestion> suggestions = new ArrayList<>(Math.min(limit, ranks.length));
+        for (int i = 0; i < ranks.length && i < limit; i++) {
+            suggestions.add(authorsByRank[ranks[i]]);
+        }
+        return List.copyOf(suggestions);
+    }
+
+    public int getAuthorCount() {
+        return authorsByRank.length;
+    }
+
+    private Node findNode(String prefix) {
+        Node node = root;
+        int position = 0;
+        while (position < prefix.length()) {
+            int child = Arrays.binarySearch(node.firstChars, prefix.charAt(position));
+            if (child < 0) {
+                return null;
+            }
+            String label = node.labels[child];
+            int compared = Math.min(label.length(), prefix.length() - position);
+            if (!prefix.regionMatches(position, label, 0, compared)) {
+                return null;
+            }
+            position += compared;
+            node = node.children[child];
+        }
+        return node;
+    }
+
+    /**
+     * Builds the node for {@code keys[from, to)}, which all share their first {@code depth}
+     * characters. Keys are sorted, so each child's common prefix is that of its first and last key.
+     */
+    private Node buildNode(int from, int to, int depth) {
+        int firstChildKey = from;
+        while (firstChildKey < to && keys[firstChildKey].length() == depth) {
+            firstChildKey++;
+        }
+
+        List<Character> firstChars = new ArrayList<>();
+        List<String> labels = new ArrayList<>();
+        List<Node> children = new ArrayList<>();
+        for (int groupStart = firstChildKey; groupStart < to; ) {
+            char firstChar = keys[groupStart].charAt(depth);
+            int groupEnd = groupStart + 1;
+            while (groupEnd < to && keys[groupEnd].charAt(depth) == firstChar) {
+                groupEnd++;
+            }
+            int childDepth = commonPrefixLength(keys[groupStart], keys[groupEnd - 1]);
+            firstChars.add(firstChar);
+            labels.add(keys[groupStart].substring(depth, childDepth));
+            children.add(buildNode(groupStart, groupEnd, childDepth));
+            groupStart = groupEnd;
+        }
+
+        IntArrayList candidateRanks = new IntArrayList();
+        for (int key = from; key < firstChildKey; key++) {
+            candidateRanks.add(authorRankByKey[key]);
+        }
+        for (Node child : children) {
+            for (int rank : child.topAuthorRanks) {
+                candidateRanks.add(rank);
+            }
+        }
+
+        char[] childChars = new char[firstChars.size()];
+        for (int i = 0; i < childChars.length; i++) {
+            childChars[i] = firstChars.get(i);
+        }
+        return new Node(childChars, labels.toArray(String[]::new), children.toArray(Node[]::new),
+            Arrays.stream(candidateRanks.toArray()).sorted().distinct().limit(topN).toArray(), from, to);
+    }
+
+    private int[] distinctRanksInRange(Node node, int limit) {
+        BitSet ranks = new BitSet(authorsByRank.length);
+        for (int key = node.firstKey; key < node.lastKeyExclusive; key++) {
+            ranks.set(authorRankByKey[key]);
+        }
+        return ranks.stream().limit(limit).toArray();
+    }
+
+    private static int commonPrefixLength(String first, String second) {
+        int length = Math.min(first.length(), second.length());
+        int common = 0;
+        while (common < length && first.charAt(common) == second.charAt(common)) {
+            common++;
+        }
+        return common;
+    }
+
+    private static String normalize(String author) {
+        return author.toLowerCase().trim();
+    }
+}
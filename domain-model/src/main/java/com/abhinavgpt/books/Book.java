@@ -1,46 +1,109 @@
 package com.abhinavgpt.books;
 
-public record Book(String title, String author, double userRating, int reviewCount, int price, int year, String genre)
+/**
+ * One yearly bestseller entry. Instances are immutable values compared by all seven fields,
+ * with the accessors, equality and string form a record would have. Book is a class rather
+ * than a record only so that {@link #validated} can build an entry from values a bulk loader
+ * has already checked with {@link #validate} without checking them a second time; the public
+ * constructor still rejects invalid values.
+ */
+public final class Book
 {
+	private final String title;
+	private final String author;
+	private final double userRating;
+	private final int reviewCount;
+	private final int price;
+	private final int year;
+	private final String genre;
 
-	public Book
+	public Book(String title, String author, double userRating, int reviewCount, int price, int year, String genre)
 	{
-		validateAllInputParameters(title, author, userRating, reviewCount, price, year, genre);
+		this(checked(title, author, userRating, reviewCount, price, year, genre), author, userRating, reviewCount, price,
+			 year, genre, true);
 	}
 
-	private static void validateAllInputParameters(String title, String author, double userRating, int reviewCount, int price,
-									   int year, String genre)
+	private Book(String title, String author, double userRating, int reviewCount, int price, int year, String genre,
+				 boolean valid)
 	{
-		if (title == null || title.trim().isEmpty())
+		this.title = title;
+		this.author = author;
+		this.userRating = userRating;
+		this.reviewCount = reviewCount;
+		this.price = price;
+		this.year = year;
+		this.genre = genre;
+	}
+
+	/**
+	 * Builds a book from values for which {@link #validate} has just returned null, without
+	 * validating them again. Passing anything else breaks the guarantees every other
+	 * {@code Book} has.
+	 */
+	public static Book validated(String title, String author, double userRating, int reviewCount, int price,
+								 int year, String genre)
+	{
+		assert validate(title, author, userRating, reviewCount, price, year, genre) == null;
+		return new Book(title, author, userRating, reviewCount, price, year, genre, true);
+	}
+
+	private static String checked(String title, String author, double userRating, int reviewCount, int price,
+								  int year, String genre)
+	{
+		RejectReason violation = validate(title, author, userRating, reviewCount, price, year, genre);
+		if (violation != null)
+		{
+			throw new IllegalArgumentException(violation.description());
+		}
+		return title;
+	}
+
+	/**
+	 * Checks the values a book would be built from without throwing, so bulk loaders can skip
+	 * bad rows cheaply. Returns null when the values are valid.
+	 */
+	public static RejectReason validate(String title, String author, double userRating, int reviewCount, int price,
+										 int year, String genre)
+	{
+		if (title == null || title.isBlank())
 		{
-			throw new IllegalArgumentException("Title cannot be null or blank");
+			return RejectReason.BLANK_TITLE;
 		}
-		if (author == null || author.trim().isEmpty())
+		if (author == null || author.isBlank())
 		{
-			throw new IllegalArgumentException("Author cannot be null or blank");
+			return RejectReason.BLANK_AUTHOR;
 		}
-		if (userRating < 0 || userRating > 5)
+		if (!(userRating >= 0 && userRating <= 5))
 		{
-			throw new IllegalArgumentException("User rating must be between 0 and 5");
+			return RejectReason.RATING_OUT_OF_RANGE;
 		}
 		if (reviewCount < 0)
 		{
-			throw new IllegalArgumentException("Review count cannot be negative");
+			return RejectReason.NEGATIVE_REVIEWS;
 		}
 		if (price < 0)
 		{
-			throw new IllegalArgumentException("Price cannot be negative");
+			return RejectReason.NEGATIVE_PRICE;
 		}
 		if (year < 1900 || year > 2030)
 		{
-			throw new IllegalArgumentException("Year must be between 1900 and 2030");
+			return RejectReason.YEAR_OUT_OF_RANGE;
 		}
-		if (genre == null || genre.trim().isEmpty())
+		if (genre == null || genre.isBlank())
 		{
-			throw new IllegalArgumentException("Genre cannot be null or blank");
+			return RejectReason.BLANK_GENRE;
 		}
+		return null;
 	}
 
+	public String title() { return title; }
+	public String author() { return author; }
+	public double userRating() { return userRating; }
+	public int reviewCount() { return reviewCount; }
+	public int price() { return price; }
+	public int year() { return year; }
+	public String genre() { return genre; }
+
 	public String getTitle() { return title; }
 	public String getAuthor() { return author; }
 	public double getUserRating() { return userRating; }
@@ -49,6 +112,38 @@ public record Book(String title, String author, double userRating, int reviewCou
 	public int getYear() { return year; }
 	public String getGenre() { return genre; }
 
+	@Override
+	public boolean equals(Object other)
+	{
+		return this == other || other instanceof Book book
+			&& title.equals(book.title)
+			&& author.equals(book.author)
+			&& Double.compare(userRating, book.userRating) == 0
+			&& reviewCount == book.reviewCount
+			&& price == book.price
+			&& year == book.year
+			&& genre.equals(book.genre);
+	}
+
+	@Override
+	public int hashCode()
+	{
+		int hash = title.hashCode();
+		hash = 31 * hash + author.hashCode();
+		hash = 31 * hash + Double.hashCode(userRating);
+		hash = 31 * hash + reviewCount;
+		hash = 31 * hash + price;
+		hash = 31 * hash + year;
+		return 31 * hash + genre.hashCode();
+	}
+
+	@Override
+	public String toString()
+	{
+		return "Book[title=" + title + ", author=" + author + ", userRating=" + userRating + ", reviewCount="
+			+ reviewCount + ", price=" + price + ", year=" + year + ", genre=" + genre + "]";
+	}
+
 	public void printFormattedBookDetails()
 	{
 		System.out.printf("""
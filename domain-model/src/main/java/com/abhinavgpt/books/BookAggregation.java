@@ -0,0 +1,111 @@
+package com.abhinavgpt.books;
+
+import java.util.Collections;
+import java.util.EnumSet;
+import java.util.Set;
+
+/**
+ * An aggregation request: which dimensions to group bestseller entries by, and optionally which
+ * entries to include. Every group reports count, sum, min, max, mean and percentiles of
+ * {@link Measure#PRICE}, {@link Measure#REVIEWS} and {@link Measure#RATING}.
+ *
+ * <pre>
+ * BookAggregation.builder()
+ *     .groupBy(Dimension.GENRE, Dimension.YEAR)
+ *     .build();                                       // average price per genre per year
+ *
+ * BookAggregation.builder()
+ *     .groupBy(Dimension.AUTHOR)
+ *     .uniqueBooks()
+ *     .filter(BookQuery.builder().genre("Fiction").build())
+ *     .build();                                       // reviews per fiction author, one entry per work
+ * </pre>
+ *
+ * With no dimensions there is a single group covering everything that passed the filter.
+ */
+public final class BookAggregation {
+
+    public enum Dimension {
+        AUTHOR,
+        GENRE,
+        YEAR,
+        /** The rating, in its steps of 0.1. */
+        RATING
+    }
+
+    public enum Measure {
+        PRICE,
+        REVIEWS,
+        RATING
+    }
+
+    /**
+     * Identity of one group. Dimensions that are not grouped by are null. Authors are grouped
+     * by normalized name and labelled with the spelling of their first entry.
+     */
+    public record GroupKey(String author, String genre, Integer year, Double rating) {
+    }
+
+    private final Set<Dimension> dimensions;
+    private final BookQuery filter;
+    private final boolean uniqueBooks;
+
+    private BookAggregation(Set<Dimension> dimensions, BookQuery filter, boolean uniqueBooks) {
+        this.dimensions = Collections.unmodifiableSet(dimensions);
+        this.filter = filter;
+        this.uniqueBooks = uniqueBooks;
+    }
+
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    public Set<Dimension> getDimensions() {
+        return dimensions;
+    }
+
+    /**
+     * The entries to include, or null for all. Only the query's conditions are used; its order
+     * and limit are ignored.
+     */
+    public BookQuery getFilter() {
+        return filter;
+    }
+
+    /**
+     * Whether the aggregation runs over the newest edition of each work instead of every
+     * yearly bestseller entry.
+     */
+    public boolean isUniqueBooks() {
+        return uniqueBooks;
+    }
+
+    public static final class Builder {
+
+        private final Set<Dimension> dimensions = EnumSet.noneOf(Dimension.class);
+        private BookQuery filter;
+        private boolean uniqueBooks;
+
+        private Builder() {
+        }
+
+        public Builder groupBy(Dimension... groupDimensions) {
+            Collections.addAll(dimensions, groupDimensions);
+            return this;
+        }
+
+        public Builder filter(BookQuery query) {
+            this.filter = query;
+            return this;
+        }
+
+        public Builder uniqueBooks() {
+            this.uniqueBooks = true;
+            return this;
+        }
+
+        public BookAggregation build() {
+            return new BookAggregation(EnumSet.copyOf(dimensions), filter, uniqueBooks);
+        }
+    }
+}
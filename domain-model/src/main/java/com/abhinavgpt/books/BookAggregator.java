@@ -0,0 +1,303 @@
+package com.abhinavgpt.books;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Single-pass evaluator for {@link BookAggregation}s.
+ * <p>
+ * Each entry's grouped dimensions are packed into one long (author and genre as dictionary
+ * codes, the year and the rating step as they are), which is looked up in an open-addressing
+ * table of group accumulators. Dictionaries find a spelling they have seen by its raw string
+ * and normalize only new ones, so past the first sighting of each spelling the pass allocates
+ * nothing per entry. Accumulators keep only primitives: prices and review counts are appended
+ * to int lists and ratings, which have just 51 possible steps, are counted per step, with the
+ * rare rating between steps kept exactly on the side. Percentiles are read from the sorted
+ * lists and the rating counts once the pass is over. Grouping by rating groups by the nearest
+ * step. Several groupings can share one pass, which is how {@link AggregationCube} builds all
+ * of its rollups at once.
+ */
+final class BookAggregator {
+
+    private static final int AUTHOR_SHIFT = 34;
+    private static final int GENRE_SHIFT = 22;
+    private static final int YEAR_SHIFT = 6;
+    private static final int MAX_AUTHOR_CODES = 1 << 24;
+    private static final int MAX_GENRE_CODES = 1 << 12;
+
+    private static final Comparator<BookAggregation.GroupKey> GROUP_ORDER = Comparator
+            .comparing(BookAggregation.GroupKey::author, Comparator.nullsFirst(Comparator.<String>naturalOrder()))
+            .thenComparing(BookAggregation.GroupKey::genre, Comparator.nullsFirst(Comparator.<String>naturalOrder()))
+            .thenComparing(BookAggregation.GroupKey::year, Comparator.nullsFirst(Comparator.<Integer>naturalOrder()))
+            .thenComparing(BookAggregation.GroupKey::rating, Comparator.nullsFirst(Comparator.<Double>naturalOrder()));
+
+    private BookAggregator() {
+    }
+
+    static AggregationResult aggregate(List<Book> books, BookAggregation aggregation) {
+        return aggregate(books, aggregation.getFilter(), List.of(aggregation.getDimensions())).get(0);
+    }
+
+    /**
+     * Evaluates every grouping over the entries that match the filter (all of them when it is
+     * null) in a single pass.
+     */
+    static List<AggregationResult> aggregate(List<Book> books, BookQuery filter,
+                                             List<Set<BookAggregation.Dimension>> groupings) {
+        Dictionary authors = new Dictionary(MAX_AUTHOR_CODES);
+        Dictionary genres = new Dictionary(MAX_GENRE_CODES);
+        GroupTable[] tables = new GroupTable[groupings.size()];
+        boolean encodeAuthors = false;
+        boolean encodeGenres = false;
+        for (int i = 0; i < tables.length; i++) {
+            tables[i] = new GroupTable(groupings.get(i));
+            encodeAuthors |= tables[i].byAuthor;
+            encodeGenres |= tables[i].byGenre;
+        }
+
+        for (Book book : books) {
+            if (filter != null && !filter.matches(book)) {
+                continue;
+            }
+            int authorCode = encodeAuthors ? authors.encode(book.author()) : 0;
+            int genreCode = encodeGenres ? genres.encode(book.genre()) : 0;
+            int ratingTenths = RatingScale.toTenths(book.userRating());
+            for (GroupTable table : tables) {
+                table.accumulatorFor(authorCode, genreCode, book.year(), ratingTenths)
+                        .add(book.price(), book.reviewCount(), book.userRating());
+            }
+        }
+
+        List<AggregationResult> results = new ArrayList<>(tables.length);
+        for (GroupTable table : tables) {
+            results.add(table.toResult(authors, genres));
+        }
+        return results;
+    }
+
+    /**
+     * Codes for normalized values, labelled with the first spelling seen. Each spelling is
+     * normalized once, the first time it is seen; after that it is found by its raw string.
+     */
+    private static final class Dictionary {
+
+        private final int maxCodes;
+        private final Map<String, Integer> codeBySpelling = new HashMap<>();
+        private final Map<String, Integer> codeByValue = new HashMap<>();
+        private final List<String> labels = new ArrayList<>();
+
+        Dictionary(int maxCodes) {
+            this.maxCodes = maxCodes;
+        }
+
+        int encode(String value) {
+            Integer code = codeBySpelling.get(value);
+            if (code != null) {
+                return code;
+            }
+            String normalized = BookQuery.normalize(value);
+            code = codeByValue.get(normalized);
+            if (code == null) {
+                if (labels.size() == maxCodes) {
+                    throw new IllegalStateException("Too many distinct values to aggregate: " + maxCodes);
+                }
+                code = labels.size();
+                codeByValue.put(normalized, code);
+                labels.add(value);
+            }
+            codeBySpelling.put(value, code);
+            return code;
+        }
+
+        String label(int code) {
+            return labels.get(code);
+        }
+    }
+
+    private static final class GroupAccumulator {
+
+        final long key;
+        final IntArrayList prices = new IntArrayList();
+        final IntArrayList reviewCounts = new IntArrayList();
+        final int[] entriesByRatingTenths = new int[RatingScale.BUCKET_COUNT];
+        double[] offGridRatings = new double[0];
+        int offGridRatingCount;
+
+        GroupAccumulator(long key) {
+            this.key = key;
+        }
+
+        void add(int price, int reviewCount, double rating) {
+            prices.add(price);
+            reviewCounts.add(reviewCount);
+            if (RatingScale.isRepresentable(rating)) {
+                entriesByRatingTenths[RatingScale.toTenths(rating)]++;
+                return;
+            }
+            if (offGridRatingCount == offGridRatings.length) {
+                offGridRatings = Arrays.copyOf(offGridRatings, Math.max(4, offGridRatingCount * 2));
+            }
+            offGridRatings[offGridRatingCount++] = rating;
+        }
+    }
+
+    private static final class GroupTable {
+
+        private final Set<BookAggregation.Dimension> dimensions;
+        private final boolean byAuthor;
+        private final boolean byGenre;
+        private final boolean byYear;
+        private final boolean byRating;
+        private long[] keys = new long[16];
+        private GroupAccumulator[] accumulators = new GroupAccumulator[16];
+        private int size;
+
+        GroupTable(Set<BookAggregation.Dimension> dimensions) {
+            this.dimensions = dimensions;
+            this.byAuthor = dimensions.contains(BookAggregation.Dimension.AUTHOR);
+            this.byGenre = dimensions.contains(BookAggregation.Dimension.GENRE);
+            this.byYear = dimensions.contains(BookAggregation.Dimension.YEAR);
+            this.byRating = dimensions.contains(BookAggregation.Dimension.RATING);
+        }
+
+        GroupAccumulator accumulatorFor(int authorCode, int genreCode, int year, int ratingTenths) {
+            long key = (byAuthor ? (long) authorCode << AUTHOR_SHIFT : 0)
+                | (byGenre ? (long) genreCode << GENRE_SHIFT : 0)
+                | (byYear ? (long) year << YEAR_SHIFT : 0)
+                | (byRating ? ratingTenths : 0);
+            int mask = keys.length - 1;
+            for (int slot = hash(key) & mask; ; slot = (slot + 1) & mask) {
+                GroupAccumulator accumulator = accumulators[slot];
+                if (accumulator == null) {
+                    accumulator = new GroupAccumulator(key);
+                    keys[slot] = key;
+                    accumulators[slot] = accumulator;
+                    if (++size * 2 > keys.length) {
+                        grow();
+                    }
+                    return accumulator;
+                }
+                if (keys[slot] == key) {
+                    return accumulator;
+                }
+            }
+        }
+
+        private void grow() {
+            GroupAccumulator[] previous = accumulators;
+            keys = new long[previous.length * 2];
+            accumulators = new GroupAccumulator[previous.length * 2];
+            int mask = keys.length - 1;
+            for (GroupAccumulator accumulator : previous) {
+                if (accumulator == null) {
+                    continue;
+                }
+                int slot = hash(accumulator.key) & mask;
+                while (accumulators[slot] != null) {
+                    slot = (slot + 1) & mask;
+                }
+                keys[slot] = accumulator.key;
+                accumulators[slot] = accumulator;
+            }
+        }
+
+        AggregationResult toResult(Dictionary authors, Dictionary genres) {
+            List<AggregationResult.Group> groups = new ArrayList<>(size);
+            for (GroupAccumulator accumulator : accumulators) {
+                if (accumulator == null) {
+                    continue;
+                }
+                long key = accumulator.key;
+                BookAggregation.GroupKey groupKey = new BookAggregation.GroupKey(
+                    byAuthor ? authors.label((int) (key >>> AUTHOR_SHIFT)) : null,
+                    byGenre ? genres.label((int) ((key >>> GENRE_SHIFT) & (MAX_GENRE_CODES - 1))) : null,
+                    byYear ? (int) ((key >>> YEAR_SHIFT) & 0xFFFF) : null,
+                    byRating ? RatingScale.fromTenths((int) (key & ((1 << YEAR_SHIFT) - 1))) : null);
+                groups.add(new AggregationResult.Group(groupKey, accumulator.prices.size(),
+                    statsOf(accumulator.prices), statsOf(accumulator.reviewCounts),
+                    statsOfRatings(accumulator.entriesByRatingTenths,
+                        Arrays.copyOf(accumulator.offGridRatings, accumulator.offGridRatingCount))));
+            }
+            groups.sort(Comparator.comparing(AggregationResult.Group::key, GROUP_ORDER));
+            return new AggregationResult(dimensions, groups);
+        }
+
+        private static int hash(long key) {
+            long mixed = key * 0x9E3779B97F4A7C15L;
+            return (int) (mixed ^ (mixed >>> 32));
+        }
+    }
+
+    private static AggregateStats statsOf(IntArrayList values) {
+        int[] sorted = values.toArray();
+        Arrays.sort(sorted);
+        long sum = 0;
+        for (int value : sorted) {
+            sum += value;
+        }
+        int count = sorted.length;
+        return new AggregateStats(count, sum, sorted[0], sorted[count - 1],
+            sorted[nearestRank(0.50, count)], sorted[nearestRank(0.90, count)], sorted[nearestRank(0.99, count)]);
+    }
+
+    /**
+     * Stats of the on-step rating counts together with the ratings between steps. Sums are
+     * taken in tenths where possible, so groups without off-step ratings add up exactly.
+     */
+    private static AggregateStats statsOfRatings(int[] entriesByRatingTenths, double[] offGridRatings) {
+        Arrays.sort(offGridRatings);
+        long count = offGridRatings.length;
+        long tenthsSum = 0;
+        double offGridSum = 0;
+        for (double rating : offGridRatings) {
+            offGridSum += rating;
+        }
+        for (int tenths = 0; tenths < entriesByRatingTenths.length; tenths++) {
+            count += entriesByRatingTenths[tenths];
+            tenthsSum += (long) tenths * entriesByRatingTenths[tenths];
+        }
+        return new AggregateStats(count, tenthsSum / 10.0 + offGridSum,
+            ratingAtRank(entriesByRatingTenths, offGridRatings, 0),
+            ratingAtRank(entriesByRatingTenths, offGridRatings, count - 1),
+            ratingAtRank(entriesByRatingTenths, offGridRatings, nearestRank(0.50, count)),
+            ratingAtRank(entriesByRatingTenths, offGridRatings, nearestRank(0.90, count)),
+            ratingAtRank(entriesByRatingTenths, offGridRatings, nearestRank(0.99, count)));
+    }
+
+    /**
+     * The rating at the zero-based index in ascending order, walking the step counts and the
+     * sorted off-step ratings together.
+     */
+    private static double ratingAtRank(int[] entriesByRatingTenths, double[] offGridRatings, long index) {
+        long seen = 0;
+        int nextOffGrid = 0;
+        for (int tenths = 0; tenths < entriesByRatingTenths.length; tenths++) {
+            double step = RatingScale.fromTenths(tenths);
+            for (; nextOffGrid < offGridRatings.length && offGridRatings[nextOffGrid] < step; nextOffGrid++, seen++) {
+                if (seen == index) {
+                    return offGridRatings[nextOffGrid];
+                }
+            }
+            seen += entriesByRatingTenths[tenths];
+            if (seen > index) {
+                return step;
+            }
+        }
+        if (index - seen < offGridRatings.length - nextOffGrid) {
+            return offGridRatings[(int) (index - seen) + nextOffGrid];
+        }
+        throw new IllegalStateException("Rank beyond the group's entries: " + index);
+    }
+
+    /**
+     * Zero-based index of the nearest-rank percentile among {@code count} sorted values.
+     */
+    private static int nearestRank(double percentile, long count) {
+        return (int) Math.max(0, Math.ceil(percentile * count) - 1);
+    }
+}
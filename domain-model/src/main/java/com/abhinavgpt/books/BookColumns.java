@@ -0,0 +1,314 @@
+package com.abhinavgpt.books;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.function.IntFunction;
+
+/**
+ * Column-oriented, dictionary-encoded copy of a book dataset together with its row-id
+ * indexes. Every column is a primitive array indexed by row, strings are replaced by codes
+ * into per-column dictionaries, and the indexes are int posting lists of rows.
+ * <p>
+ * Ratings are stored in tenths. A rating between two steps is marked {@link #OFF_GRID} in
+ * that column and kept exactly in a side table of rows and ratings; such rows are left out
+ * of the rating postings.
+ * <p>
+ * Deduplicated postings follow the rules of {@link BookRepositoryImpl}: a work (normalized
+ * title and author) keeps the position of its first row and resolves to its newest edition,
+ * with later rows winning ties.
+ */
+final class BookColumns implements RowColumns {
+
+    static final short OFF_GRID = -1;
+
+    final int rowCount;
+    final int[] titleCodes;
+    final int[] authorCodes;
+    final int[] genreCodes;
+    final short[] ratingTenths;
+    final int[] reviewCounts;
+    final int[] prices;
+    final int[] years;
+    final int[] workIds;
+    /** Rows whose rating is between two steps, ascending, and their exact ratings. */
+    final int[] offGridRows;
+    final double[] offGridRatings;
+
+    final String[] titleDictionary;
+    final String[] authorDictionary;
+    final String[] genreDictionary;
+
+    /** Normalized author names, sorted by their UTF-8 bytes so they can be binary searched. */
+    final String[] authorKeys;
+    final int[][] rowsByAuthorKey;
+    final int[][] uniqueRowsByAuthorKey;
+    final int[][] rowsByRatingTenths;
+    final int[][] uniqueRowsByRatingTenths;
+    final int[] allUniqueRows;
+    /** Author dictionary codes in the order of {@link BookRepository#getAllAuthors()}. */
+    final int[] sortedAuthorCodes;
+    /** Normalized title and author of each work, by work id. */
+    final BookRepositoryImpl.WorkKey[] workKeys;
+
+    private BookColumns(Iterator<Book> books) {
+        IntArrayList titleColumn = new IntArrayList(1024);
+        IntArrayList authorColumn = new IntArrayList(1024);
+        IntArrayList genreColumn = new IntArrayList(1024);
+        IntArrayList ratingColumn = new IntArrayList(1024);
+        IntArrayList reviewColumn = new IntArrayList(1024);
+        IntArrayList priceColumn = new IntArrayList(1024);
+        IntArrayList yearColumn = new IntArrayList(1024);
+        IntArrayList workColumn = new IntArrayList(1024);
+        IntArrayList authorKeyColumn = new IntArrayList(1024);
+        IntArrayList offGridRowList = new IntArrayList();
+        List<Double> offGridRatingList = new ArrayList<>();
+
+        Map<String, Integer> titleCodeByValue = new HashMap<>();
+        Map<String, Integer> authorCodeByValue = new HashMap<>();
+        Map<String, Integer> genreCodeByValue = new HashMap<>();
+        Map<String, Integer> authorKeyByValue = new HashMap<>();
+        Map<BookRepositoryImpl.WorkKey, Integer> workIdByKey = new HashMap<>();
+
+        while (books.hasNext()) {
+            Book book = Objects.requireNonNull(books.next(), "book");
+            titleColumn.add(encode(titleCodeByValue, book.title()));
+            authorColumn.add(encode(authorCodeByValue, book.author()));
+            genreColumn.add(encode(genreCodeByValue, book.genre()));
+            if (RatingScale.isRepresentable(book.userRating())) {
+                ratingColumn.add(RatingScale.toTenths(book.userRating()));
+            } else {
+                offGridRowList.add(ratingColumn.size());
+                offGridRatingList.add(book.userRating());
+                ratingColumn.add(OFF_GRID);
+            }
+            reviewColumn.add(book.reviewCount());
+            priceColumn.add(book.price());
+            yearColumn.add(book.year());
+
+            String authorKey = normalize(book.author());
+            authorKeyColumn.add(encode(authorKeyByValue, authorKey));
+            workColumn.add(encode(workIdByKey, new BookRepositoryImpl.WorkKey(normalize(book.title()), authorKey)));
+        }
+
+        rowCount = titleColumn.size();
+        titleCodes = titleColumn.toArray();
+        authorCodes = authorColumn.toArray();
+        genreCodes = genreColumn.toArray();
+        ratingTenths = new short[rowCount];
+        for (int row = 0; row < rowCount; row++) {
+            ratingTenths[row] = (short) ratingColumn.get(row);
+        }
+        reviewCounts = reviewColumn.toArray();
+        prices = priceColumn.toArray();
+        years = yearColumn.toArray();
+        workIds = workColumn.toArray();
+        offGridRows = offGridRowList.toArray();
+        offGridRatings = offGridRatingList.stream().mapToDouble(Double::doubleValue).toArray();
+        int[] authorKeyByRow = authorKeyColumn.toArray();
+
+        titleDictionary = toDictionary(titleCodeByValue, String[]::new);
+        authorDictionary = toDictionary(authorCodeByValue, String[]::new);
+        genreDictionary = toDictionary(genreCodeByValue, String[]::new);
+        workKeys = toDictionary(workIdByKey, BookRepositoryImpl.WorkKey[]::new);
+
+        String[] authorKeysByFirstAppearance = toDictionary(authorKeyByValue, String[]::new);
+        Integer[] keyOrder = new Integer[authorKeysByFirstAppearance.length];
+        byte[][] encodedKeys = new byte[keyOrder.length][];
+        for (int i = 0; i < keyOrder.length; i++) {
+            keyOrder[i] = i;
+            encodedKeys[i] = authorKeysByFirstAppearance[i].getBytes(StandardCharsets.UTF_8);
+        }
+        Arrays.sort(keyOrder, (a, b) -> Arrays.compareUnsigned(encodedKeys[a], encodedKeys[b]));
+        int[] sortedPositionByKey = new int[keyOrder.length];
+        authorKeys = new String[keyOrder.length];
+        for (int position = 0; position < keyOrder.length; position++) {
+            sortedPositionByKey[keyOrder[position]] = position;
+            authorKeys[position] = authorKeysByFirstAppearance[keyOrder[position]];
+        }
+
+        IntArrayList[] authorPostings = newPostings(authorKeys.length);
+        IntArrayList[] ratingPostings = newPostings(RatingScale.BUCKET_COUNT);
+        IntArrayList allRows = new IntArrayList(Math.max(rowCount, 1));
+        for (int row = 0; row < rowCount; row++) {
+            authorPostings[sortedPositionByKey[authorKeyByRow[row]]].add(row);
+            if (ratingTenths[row] != OFF_GRID) {
+                ratingPostings[ratingTenths[row]].add(row);
+            }
+            allRows.add(row);
+        }
+
+        WorkDeduplicator deduplicator = new WorkDeduplicator(workKeys.length);
+        rowsByAuthorKey = new int[authorPostings.length][];
+        uniqueRowsByAuthorKey = new int[authorPostings.length][];
+        for (int key = 0; key < authorPostings.length; key++) {
+            rowsByAuthorKey[key] = authorPostings[key].toArray();
+            uniqueRowsByAuthorKey[key] = deduplicator.newestEditionPerWork(authorPostings[key]);
+        }
+        rowsByRatingTenths = new int[ratingPostings.length][];
+        uniqueRowsByRatingTenths = new int[ratingPostings.length][];
+        for (int tenths = 0; tenths < ratingPostings.length; tenths++) {
+            rowsByRatingTenths[tenths] = ratingPostings[tenths].toArray();
+            uniqueRowsByRatingTenths[tenths] = deduplicator.newestEditionPerWork(ratingPostings[tenths]);
+        }
+        allUniqueRows = deduplicator.newestEditionPerWork(allRows);
+
+        sortedAuthorCodes = Arrays.stream(authorDictionary)
+                .sorted(Comparator.naturalOrder())
+                .mapToInt(authorCodeByValue::get)
+                .toArray();
+    }
+
+    static BookColumns fromBooks(List<Book> books) {
+        return new BookColumns(books.iterator());
+    }
+
+    static BookColumns fromBooks(Iterator<Book> books) {
+        return new BookColumns(books);
+    }
+
+    static String normalize(String value) {
+        return value.toLowerCase().trim();
+    }
+
+    @Override
+    public int rowCount() {
+        return rowCount;
+    }
+
+    @Override
+    public Book materialize(int row) {
+        return new Book(
+            titleDictionary[titleCodes[row]],
+            authorDictionary[authorCodes[row]],
+            rating(row),
+            reviewCounts[row],
+            prices[row],
+            years[row],
+            genreDictionary[genreCodes[row]]
+        );
+    }
+
+    @Override
+    public int year(int row) {
+        return years[row];
+    }
+
+    @Override
+    public int price(int row) {
+        return prices[row];
+    }
+
+    @Override
+    public int reviewCount(int row) {
+        return reviewCounts[row];
+    }
+
+    @Override
+    public double rating(int row) {
+        short tenths = ratingTenths[row];
+        return tenths != OFF_GRID ? RatingScale.fromTenths(tenths) : offGridRatings[Arrays.binarySearch(offGridRows, row)];
+    }
+
+    @Override
+    public int genreCode(int row) {
+        return genreCodes[row];
+    }
+
+    @Override
+    public int genreCount() {
+        return genreDictionary.length;
+    }
+
+    @Override
+    public String genre(int genreCode) {
+        return genreDictionary[genreCode];
+    }
+
+    @Override
+    public int workId(int row) {
+        return workIds[row];
+    }
+
+    @Override
+    public int workCount() {
+        return workKeys.length;
+    }
+
+    @Override
+    public BookRepositoryImpl.WorkKey workKey(int workId) {
+        return workKeys[workId];
+    }
+
+    @Override
+    public int authorKeyCount() {
+        return authorKeys.length;
+    }
+
+    @Override
+    public String authorKey(int authorKey) {
+        return authorKeys[authorKey];
+    }
+
+    @Override
+    public int[] rowsOfAuthorKey(int authorKey) {
+        return rowsByAuthorKey[authorKey];
+    }
+
+    private static <K> int encode(Map<K, Integer> codes, K value) {
+        Integer code = codes.get(value);
+        if (code == null) {
+            code = codes.size();
+            codes.put(value, code);
+        }
+        return code;
+    }
+
+    private static <K> K[] toDictionary(Map<K, Integer> codes, IntFunction<K[]> newArray) {
+        K[] dictionary = newArray.apply(codes.size());
+        codes.forEach((value, code) -> dictionary[code] = value);
+        return dictionary;
+    }
+
+    private static IntArrayList[] newPostings(int count) {
+        IntArrayList[] postings = new IntArrayList[count];
+        for (int i = 0; i < count; i++) {
+            postings[i] = new IntArrayList();
+        }
+        return postings;
+    }
+
+    private final class WorkDeduplicator {
+
+        private final int[] slotByWork;
+
+        WorkDeduplicator(int workCount) {
+            this.slotByWork = new int[workCount];
+            Arrays.fill(slotByWork, -1);
+        }
+
+        int[] newestEditionPerWork(IntArrayList rows) {
+            IntArrayList chosenRows = new IntArrayList(rows.size());
+            for (int i = 0; i < rows.size(); i++) {
+                int row = rows.get(i);
+                int slot = slotByWork[workIds[row]];
+                if (slot < 0) {
+                    slotByWork[workIds[row]] = chosenRows.size();
+                    chosenRows.add(row);
+                } else if (years[chosenRows.get(slot)] <= years[row]) {
+                    chosenRows.set(slot, row);
+                }
+            }
+            for (int i = 0; i < chosenRows.size(); i++) {
+                slotByWork[workIds[chosenRows.get(i)]] = -1;
+            }
+            return chosenRows.toArray();
+        }
+    }
+}
@@ -0,0 +1,206 @@
+package com.abhinavgpt.books;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Objects;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.stream.Stream;
+import java.util.zip.CRC32C;
+
+/**
+ * Keeps a {@link BookService} serving the latest version of a dataset file without restarting.
+ * <p>
+ * A background thread polls the file's modification time and size. A change is acted on once
+ * the file has looked the same for two polls in a row, so a file that is still being written is
+ * not picked up half-way. The file is then hashed, and only if its content really changed is it
+ * parsed and indexed, still on the background thread, by a repository factory that defaults
+ * to {@link BookRepositoryImpl#fromStream}, and swapped into the service with
+ * {@link BookService#replaceRepository}. Queries keep running against the old repository
+ * throughout. A failed or empty parse leaves the old data serving. Every reload is reported to
+ * an optional listener; the reloader itself prints nothing.
+ */
+public final class BookDatasetReloader implements AutoCloseable {
+
+    public record ReloadResult(Instant completedAt, boolean succeeded, Duration duration, int bookCount, String error) {
+    }
+
+    private record FileSignature(long lastModifiedMillis, long size) {
+    }
+
+    private final BookService bookService;
+    private final Path source;
+    private final Function<Path, Stream<Book>> bookSource;
+    private final Function<Stream<Book>, ? extends BookRepository> repositoryFactory;
+    private final Consumer<ReloadResult> reloadListener;
+    private final ScheduledExecutorService poller;
+    private final AtomicLong successfulReloads = new AtomicLong();
+    private final AtomicLong failedReloads = new AtomicLong();
+
+    private FileSignature loadedSignature;
+    private FileSignature pendingSignature;
+    private long loadedContentHash;
+    private volatile ReloadResult lastReload;
+
+    private BookDatasetReloader(BookService bookService, Path source, Function<Path, Stream<Book>> bookSource,
+                                Function<Stream<Book>, ? extends BookRepository> repositoryFactory,
+                                Consumer<ReloadResult> reloadListener) {
+        this.bookService = Objects.requireNonNull(bookService, "bookService");
+        this.source = Objects.requireNonNull(source, "source");
+        this.bookSource = Objects.requireNonNull(bookSource, "bookSource");
+        this.repositoryFactory = Objects.requireNonNull(repositoryFactory, "repositoryFactory");
+        this.reloadListener = reloadListener != null ? reloadListener : result -> { };
+        this.poller = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "book-dataset-reloader");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * Starts watching {@code source}. The service is assumed to be serving the file's current
+     * content; {@code bookSource} parses the file when it changes and {@code repositoryFactory}
+     * builds the repository that replaces the service's current one.
+     */
+    public static BookDatasetReloader watch(BookService bookService, Path source, Function<Path, Stream<Book>> bookSource,
+                                            Function<Stream<Book>, ? extends BookRepository> repositoryFactory,
+                                            Duration pollInterval, Consumer<ReloadResult> reloadListener) {
+        BookDatasetReloader reloader = new BookDatasetReloader(bookService, source, bookSource, repositoryFactory,
+            reloadListener);
+        synchronized (reloader) {
+            reloader.loadedSignature = reloader.readSignature();
+            reloader.loadedContentHash = reloader.hashContent();
+        }
+        long intervalMillis = Math.max(1, pollInterval.toMillis());
+        reloader.poller.scheduleWithFixedDelay(reloader::poll, intervalMillis, intervalMillis, TimeUnit.MILLISECONDS);
+        return reloader;
+    }
+
+    public static BookDatasetReloader watch(BookService bookService, Path source, Function<Path, Stream<Book>> bookSource,
+                                            Duration pollInterval, Consumer<ReloadResult> reloadListener) {
+        return watch(bookService, source, bookSource, BookRepositoryImpl::fromStream, pollInterval, reloadListener);
+    }
+
+    public static BookDatasetReloader watch(BookService bookService, Path source, Function<Path, Stream<Book>> bookSource,
+                                            Duration pollInterval) {
+        return watch(bookService, source, bookSource, pollInterval, null);
+    }
+
+    /**
+     * Parses and swaps in the file right away, whether or not it changed.
+     */
+    public synchronized ReloadResult reloadNow() {
+        FileSignature signature = readSignature();
+        long contentHash = hashContent();
+        ReloadResult result = reload();
+        if (result.succeeded()) {
+            loadedSignature = signature;
+            loadedContentHash = contentHash;
+        }
+        pendingSignature = null;
+        return result;
+    }
+
+    public ReloadResult getLastReload() {
+        return lastReload;
+    }
+
+    public long getSuccessfulReloadCount() {
+        return successfulReloads.get();
+    }
+
+    public long getFailedReloadCount() {
+        return failedReloads.get();
+    }
+
+    @Override
+    public void close() {
+        poller.shutdownNow();
+    }
+
+    private synchronized void poll() {
+        try {
+            FileSignature signature = readSignature();
+            if (signature == null || signature.equals(loadedSignature)) {
+                pendingSignature = null;
+                return;
+            }
+            if (!signature.equals(pendingSignature)) {
+                pendingSignature = signature;
+                return;
+            }
+
+            pendingSignature = null;
+            long contentHash = hashContent();
+            if (contentHash == loadedContentHash) {
+                loadedSignature = signature;
+                return;
+            }
+            // A failed version is not retried until the file changes again.
+            boolean reloaded = reload().succeeded();
+            loadedSignature = signature;
+            if (reloaded) {
+                loadedContentHash = contentHash;
+            }
+        } catch (RuntimeException e) {
+            System.err.println("Error polling dataset: " + source + " - " + e.getMessage());
+        }
+    }
+
+    private ReloadResult reload() {
+        long startNanos = System.nanoTime();
+        ReloadResult result;
+        try {
+            BookRepository repository = repositoryFactory.apply(bookSource.apply(source));
+            int bookCount = repository.getAllBooksIncludingDuplicates().size();
+            if (bookCount == 0) {
+                result = failure(startNanos, "No books were parsed from " + source);
+            } else {
+                bookService.replaceRepository(repository);
+                result = new ReloadResult(Instant.now(), true, Duration.ofNanos(System.nanoTime() - startNanos), bookCount, null);
+            }
+        } catch (RuntimeException e) {
+            result = failure(startNanos, e.toString());
+        }
+
+        (result.succeeded() ? successfulReloads : failedReloads).incrementAndGet();
+        lastReload = result;
+        reloadListener.accept(result);
+        return result;
+    }
+
+    private static ReloadResult failure(long startNanos, String error) {
+        return new ReloadResult(Instant.now(), false, Duration.ofNanos(System.nanoTime() - startNanos), 0, error);
+    }
+
+    private FileSignature readSignature() {
+        try {
+            BasicFileAttributes attributes = Files.readAttributes(source, BasicFileAttributes.class);
+            return new FileSignature(attributes.lastModifiedTime().toMillis(), attributes.size());
+        } catch (IOException e) {
+            return null;
+        }
+    }
+
+    private long hashContent() {
+        CRC32C checksum = new CRC32C();
+        byte[] buffer = new byte[64 * 1024];
+        try (InputStream input = Files.newInputStream(source)) {
+            for (int read = input.read(buffer); read >= 0; read = input.read(buffer)) {
+                checksum.update(buffer, 0, read);
+            }
+        } catch (IOException e) {
+            return -1;
+        }
+        return checksum.getValue();
+    }
+}
@@ -0,0 +1,159 @@
+package com.abhinavgpt.books;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.function.Predicate;
+
+/**
+ * Ranked views of a dataset, sorted once when the leaderboards are built so that any top-k
+ * request is a prefix of an immutable list. Ad-hoc rankings with a filter go through
+ * {@link #topK}, which keeps a bounded heap of k candidates instead of sorting every match.
+ */
+public final class BookLeaderboards {
+
+    public record AuthorBookCount(String author, int bookCount) {
+    }
+
+    static final Comparator<Book> MOST_REVIEWED = Comparator.comparingInt(Book::reviewCount).reversed();
+    static final Comparator<Book> HIGHEST_RATED = Comparator.comparingDouble(Book::userRating).reversed()
+            .thenComparing(MOST_REVIEWED);
+    static final Comparator<Book> CHEAPEST = Comparator.comparingInt(Book::price);
+
+    private final List<AuthorBookCount> authorsByBookCount;
+    private final List<Book> uniqueBooksByReviews;
+    private final List<Book> uniqueBooksByRating;
+    private final Map<String, List<Book>> cheapestUniqueBooksByGenre;
+    private final Map<Integer, List<Book>> cheapestBooksByYear;
+
+    private BookLeaderboards(List<Book> allBooks, List<Book> uniqueBooks, Map<String, AuthorBookCount> authorCounts) {
+        Map<String, AuthorBookCount> bookCountByAuthor = authorCounts != null ? authorCounts : new LinkedHashMap<>();
+        Map<Integer, List<Book>> booksByYear = new HashMap<>();
+        for (Book book : allBooks) {
+            if (authorCounts == null) {
+                bookCountByAuthor.merge(book.author().toLowerCase().trim(), new AuthorBookCount(book.author(), 1),
+                    (existing, added) -> new AuthorBookCount(existing.author(), existing.bookCount() + 1));
+            }
+            booksByYear.computeIfAbsent(book.year(), year -> new ArrayList<>()).add(book);
+        }
+
+        Map<String, List<Book>> uniqueBooksByGenre = new HashMap<>();
+        for (Book book : uniqueBooks) {
+            uniqueBooksByGenre.computeIfAbsent(book.genre().toLowerCase().trim(), genre -> new ArrayList<>()).add(book);
+        }
+
+        this.authorsByBookCount = bookCountByAuthor.values().stream()
+                .sorted(Comparator.comparingInt(AuthorBookCount::bookCount).reversed()
+                        .thenComparing(AuthorBookCount::author))
+                .toList();
+        this.uniqueBooksByReviews = uniqueBooks.stream().sorted(MOST_REVIEWED).toList();
+        this.uniqueBooksByRating = uniqueBooks.stream().sorted(HIGHEST_RATED).toList();
+        this.cheapestUniqueBooksByGenre = sortEachGroup(uniqueBooksByGenre);
+        this.cheapestBooksByYear = sortEachGroup(booksByYear);
+    }
+
+    /**
+     * Builds the leaderboards from every yearly entry (used for author counts and per-year
+     * rankings) and the deduplicated books (used for per-book and per-genre rankings).
+     */
+    public static BookLeaderboards fromBooks(List<Book> allBooks, List<Book> uniqueBooks) {
+        return new BookLeaderboards(allBooks, uniqueBooks, null);
+    }
+
+    /**
+     * Builds the leaderboards from the repository's rows. A repository that does not expose
+     * its rows (only the core lookups) still gets author counts, taken from
+     * {@link BookRepository#getAllAuthors()} and {@link BookRepository#getBookCountByAuthor}.
+     */
+    public static BookLeaderboards fromRepository(BookRepository repository) {
+        List<Book> allBooks = repository.getAllBooksIncludingDuplicates();
+        List<Book> uniqueBooks = repository.getAllUniqueBooks();
+        if (!allBooks.isEmpty()) {
+            return new BookLeaderboards(allBooks, uniqueBooks, null);
+        }
+        Map<String, AuthorBookCount> bookCountByAuthor = new LinkedHashMap<>();
+        for (String author : repository.getAllAuthors()) {
+            bookCountByAuthor.computeIfAbsent(author.toLowerCase().trim(),
+                key -> new AuthorBookCount(author, repository.getBookCountByAuthor(author)));
+        }
+        return new BookLeaderboards(allBooks, uniqueBooks, bookCountByAuthor);
+    }
+
+    public List<AuthorBookCount> getTopAuthorsByBookCount(int limit) {
+        return prefix(authorsByBookCount, limit);
+    }
+
+    public List<Book> getMostReviewedBooks(int limit) {
+        return prefix(uniqueBooksByReviews, limit);
+    }
+
+    public List<Book> getHighestRatedBooks(int limit) {
+        return prefix(uniqueBooksByRating, limit);
+    }
+
+    public List<Book> getCheapestBooksByGenre(String genre, int limit) {
+        if (genre == null) {
+            return prefix(List.of(), limit);
+        }
+        return prefix(cheapestUniqueBooksByGenre.getOrDefault(genre.toLowerCase().trim(), List.of()), limit);
+    }
+
+    public List<Book> getCheapestBooksByYear(int year, int limit) {
+        return prefix(cheapestBooksByYear.getOrDefault(year, List.of()), limit);
+    }
+
+    /**
+     * Returns the first {@code limit} items accepted by the filter in comparator order, using a
+     * bounded heap: O(n log k) time and O(k) extra space. Ties keep their input order.
+     */
+    public static <T> List<T> topK(Iterable<? extends T> items, Predicate<? super T> filter,
+                                   Comparator<? super T> comparator, int limit) {
+        checkLimit(limit);
+        if (limit == 0) {
+            return List.of();
+        }
+
+        Comparator<Ranked<T>> ranking = Comparator.<Ranked<T>, T>comparing(Ranked::item, comparator)
+                .thenComparingLong(Ranked::sequence);
+        PriorityQueue<Ranked<T>> worstFirst = new PriorityQueue<>(limit + 1, ranking.reversed());
+        long sequence = 0;
+        for (T item : items) {
+            if (!filter.test(item)) continue;
+            Ranked<T> candidate = new Ranked<>(item, sequence++);
+            if (worstFirst.size() < limit) {
+                worstFirst.add(candidate);
+            } else if (ranking.compare(candidate, worstFirst.peek()) < 0) {
+                worstFirst.poll();
+                worstFirst.add(candidate);
+            }
+        }
+
+        List<Ranked<T>> ranked = new ArrayList<>(worstFirst);
+        ranked.sort(ranking);
+        return ranked.stream().map(Ranked::item).toList();
+    }
+
+    private record Ranked<T>(T item, long sequence) {
+    }
+
+    private static <K> Map<K, List<Book>> sortEachGroup(Map<K, List<Book>> groups) {
+        Map<K, List<Book>> sortedGroups = new HashMap<>(groups.size() * 2);
+        groups.forEach((key, books) -> sortedGroups.put(key, books.stream().sorted(CHEAPEST).toList()));
+        return sortedGroups;
+    }
+
+    private static <T> List<T> prefix(List<T> ranked, int limit) {
+        checkLimit(limit);
+        return ranked.subList(0, Math.min(limit, ranked.size()));
+    }
+
+    private static void checkLimit(int limit) {
+        if (limit < 0) {
+            throw new IllegalArgumentException("Limit cannot be negative");
+        }
+    }
+}
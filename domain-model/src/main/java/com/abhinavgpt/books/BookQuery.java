@@ -0,0 +1,206 @@
+package com.abhinavgpt.books;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Immutable multi-predicate query over bestseller entries, e.g. "Fiction from 2014-2016 rated
+ * at least 4.7, or anything by Jeff Kinney, most reviewed first, top 10".
+ * <p>
+ * A query is a disjunction of clauses. Within a clause, every constrained dimension (genre,
+ * author, year, rating) must match, and several values for one dimension are alternatives.
+ * Matching is case-insensitive for genres and authors. Results are individual yearly entries,
+ * so a title that was a bestseller in several matching years is returned once per year.
+ *
+ * <pre>
+ * BookQuery query = BookQuery.builder()
+ *         .genre("Fiction").yearBetween(2014, 2016).ratingAtLeast(4.7)
+ *         .or()
+ *         .author("Jeff Kinney")
+ *         .orderBy(BookQuery.Order.REVIEWS_DESC)
+ *         .limit(10)
+ *         .build();
+ * </pre>
+ */
+public final class BookQuery {
+
+    public enum Order {
+        DATASET_ORDER(null),
+        RATING_DESC(Comparator.comparingDouble(Book::userRating).reversed()),
+        REVIEWS_DESC(Comparator.comparingInt(Book::reviewCount).reversed()),
+        PRICE_ASC(Comparator.comparingInt(Book::price)),
+        PRICE_DESC(Comparator.comparingInt(Book::price).reversed()),
+        YEAR_DESC(Comparator.comparingInt(Book::year).reversed());
+
+        private final Comparator<Book> comparator;
+
+        Order(Comparator<Book> comparator) {
+            this.comparator = comparator;
+        }
+
+        /**
+         * Comparator for this order, or null for dataset order. Ties keep dataset order.
+         */
+        Comparator<Book> comparator() {
+            return comparator;
+        }
+    }
+
+    /**
+     * One conjunctive clause. Empty sets and open bounds leave a dimension unconstrained.
+     */
+    record Clause(Set<String> genres, Set<String> authors, int minYear, int maxYear,
+                  double minRating, double maxRating) {
+
+        boolean constrainsYear() {
+            return minYear != Integer.MIN_VALUE || maxYear != Integer.MAX_VALUE;
+        }
+
+        boolean constrainsRating() {
+            return minRating > 0 || maxRating < 5;
+        }
+
+        boolean matches(Book book) {
+            return (genres.isEmpty() || genres.contains(normalize(book.genre())))
+                && (authors.isEmpty() || authors.contains(normalize(book.author())))
+                && book.year() >= minYear && book.year() <= maxYear
+                && book.userRating() >= minRating && book.userRating() <= maxRating;
+        }
+    }
+
+    private final List<Clause> clauses;
+    private final Order order;
+    private final int limit;
+
+    private BookQuery(List<Clause> clauses, Order order, int limit) {
+        this.clauses = List.copyOf(clauses);
+        this.order = order;
+        this.limit = limit;
+    }
+
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    public Order getOrder() {
+        return order;
+    }
+
+    /**
+     * Maximum number of results, or {@link Integer#MAX_VALUE} when unlimited.
+     */
+    public int getLimit() {
+        return limit;
+    }
+
+    public boolean matches(Book book) {
+        for (Clause clause : clauses) {
+            if (clause.matches(book)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    List<Clause> clauses() {
+        return clauses;
+    }
+
+    static String normalize(String value) {
+        return value.toLowerCase().trim();
+    }
+
+    public static final class Builder {
+
+        private final List<Clause> completedClauses = new ArrayList<>();
+        private Set<String> genres = new LinkedHashSet<>();
+        private Set<String> authors = new LinkedHashSet<>();
+        private int minYear = Integer.MIN_VALUE;
+        private int maxYear = Integer.MAX_VALUE;
+        private double minRating = 0;
+        private double maxRating = 5;
+        private Order order = Order.DATASET_ORDER;
+        private int limit = Integer.MAX_VALUE;
+
+        private Builder() {
+        }
+
+        public Builder genre(String... genreNames) {
+            for (String genre : genreNames) {
+                genres.add(normalize(genre));
+            }
+            return this;
+        }
+
+        public Builder author(String... authorNames) {
+            for (String author : authorNames) {
+                authors.add(normalize(author));
+            }
+            return this;
+        }
+
+        public Builder year(int year) {
+            return yearBetween(year, year);
+        }
+
+        public Builder yearBetween(int fromYear, int toYear) {
+            minYear = Math.max(minYear, fromYear);
+            maxYear = Math.min(maxYear, toYear);
+            return this;
+        }
+
+        public Builder ratingAtLeast(double minRating) {
+            return ratingBetween(minRating, 5.0);
+        }
+
+        public Builder ratingBetween(double fromRating, double toRating) {
+            if (!RatingScale.overlapsScale(fromRating, toRating)) {
+                minRating = Double.POSITIVE_INFINITY;
+                return this;
+            }
+            minRating = Math.max(minRating, fromRating);
+            maxRating = Math.min(maxRating, toRating);
+            return this;
+        }
+
+        /**
+         * Closes the current clause and starts an alternative one.
+         */
+        public Builder or() {
+            completedClauses.add(currentClause());
+            genres = new LinkedHashSet<>();
+            authors = new LinkedHashSet<>();
+            minYear = Integer.MIN_VALUE;
+            maxYear = Integer.MAX_VALUE;
+            minRating = 0;
+            maxRating = 5;
+            return this;
+        }
+
+        public Builder orderBy(Order resultOrder) {
+            order = resultOrder != null ? resultOrder : Order.DATASET_ORDER;
+            return this;
+        }
+
+        public Builder limit(int maxResults) {
+            if (maxResults < 0) {
+                throw new IllegalArgumentException("Limit cannot be negative");
+            }
+            limit = maxResults;
+            return this;
+        }
+
+        public BookQuery build() {
+            List<Clause> clauses = new ArrayList<>(completedClauses);
+            clauses.add(currentClause());
+            return new BookQuery(clauses, order, limit);
+        }
+
+        private Clause currentClause() {
+            return new Clause(Set.copyOf(genres), Set.copyOf(authors), minYear, maxYear, minRating, maxRating);
+        }
+    }
+}
@@ -0,0 +1,207 @@
+package com.abhinavgpt.books;
+
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.function.IntToDoubleFunction;
+import java.util.function.IntUnaryOperator;
+import java.util.stream.IntStream;
+
+/**
+ * Evaluates {@link BookQuery} against a fixed list of rows using per-value bitmaps.
+ * <p>
+ * Genres, years and rating steps have few distinct values, so each keeps a dense bitmap of
+ * its rows; the rare rating between two steps is kept in a row list and compared exactly.
+ * Authors are numerous, so they keep int posting lists that are turned into a
+ * bitmap only when a query names them. A clause is the word-level AND of its dimensions,
+ * each the OR of its values, and clauses are ORed together. Ordering and limits are pushed
+ * down: an ordered query walks a precomputed row permutation for that order and stops at the
+ * limit, unless the match set is small enough that sorting just the hits is cheaper.
+ * <p>
+ * An engine over {@link RowColumns} builds its bitmaps and orders from the columns, reuses
+ * their author postings, and materializes only the rows it returns.
+ */
+final class BookQueryEngine {
+
+    private static final int SORT_HITS_THRESHOLD_DIVISOR = 64;
+
+    private final List<Book> rows;
+    private final IntToDoubleFunction ratingOfRow;
+    private final Function<BookQuery.Order, Comparator<Integer>> rowComparators;
+    private final Map<String, BitSet> rowsByGenre = new HashMap<>();
+    private final Map<String, int[]> rowsByAuthor = new HashMap<>();
+    private final BitSet[] rowsByYearOffset;
+    private final BitSet[] rowsByRatingTenths = new BitSet[RatingScale.BUCKET_COUNT];
+    private final int[] offGridRatingRows;
+    private final int minYear;
+    private final Map<BookQuery.Order, int[]> rowOrderByQueryOrder = new EnumMap<>(BookQuery.Order.class);
+
+    BookQueryEngine(List<Book> rows) {
+        this(rows, row -> rows.get(row).year(), row -> rows.get(row).userRating(),
+            order -> Comparator.comparing(rows::get, order.comparator()));
+        Map<String, IntArrayList> authorPostings = new HashMap<>();
+        for (int row = 0; row < rows.size(); row++) {
+            Book book = rows.get(row);
+            rowsByGenre.computeIfAbsent(BookQuery.normalize(book.genre()), key -> new BitSet(rows.size())).set(row);
+            authorPostings.computeIfAbsent(BookQuery.normalize(book.author()), key -> new IntArrayList()).add(row);
+        }
+        authorPostings.forEach((author, postings) -> rowsByAuthor.put(author, postings.toArray()));
+    }
+
+    /**
+     * Indexes the years and ratings; the caller adds the genres and authors.
+     */
+    private BookQueryEngine(List<Book> rows, IntUnaryOperator yearOfRow, IntToDoubleFunction ratingOfRow,
+                            Function<BookQuery.Order, Comparator<Integer>> rowComparators) {
+        this.rows = rows;
+        this.ratingOfRow = ratingOfRow;
+        this.rowComparators = rowComparators;
+        int[] yearByRow = new int[rows.size()];
+        for (int row = 0; row < yearByRow.length; row++) {
+            yearByRow[row] = yearOfRow.applyAsInt(row);
+        }
+        this.minYear = IntStream.of(yearByRow).min().orElse(0);
+        this.rowsByYearOffset = new BitSet[yearByRow.length == 0 ? 0 : IntStream.of(yearByRow).max().getAsInt() - minYear + 1];
+
+        IntArrayList offGridRows = new IntArrayList();
+        for (int row = 0; row < yearByRow.length; row++) {
+            bitmapAt(rowsByYearOffset, yearByRow[row] - minYear).set(row);
+            double rating = ratingOfRow.applyAsDouble(row);
+            if (RatingScale.isRepresentable(rating)) {
+                bitmapAt(rowsByRatingTenths, RatingScale.toTenths(rating)).set(row);
+            } else {
+                offGridRows.add(row);
+            }
+        }
+        this.offGridRatingRows = offGridRows.toArray();
+    }
+
+    static BookQueryEngine fromColumns(RowColumns columns) {
+        int rowCount = columns.rowCount();
+        BookQueryEngine engine = new BookQueryEngine(new LazyMaterializedList<>(rowCount, columns::materialize),
+            columns::year, columns::rating, order -> columnOrder(columns, order));
+        String[] genreKeys = new String[columns.genreCount()];
+        for (int code = 0; code < genreKeys.length; code++) {
+            genreKeys[code] = BookQuery.normalize(columns.genre(code));
+        }
+        for (int row = 0; row < rowCount; row++) {
+            engine.rowsByGenre.computeIfAbsent(genreKeys[columns.genreCode(row)], key -> new BitSet(rowCount)).set(row);
+        }
+        for (int key = 0; key < columns.authorKeyCount(); key++) {
+            engine.rowsByAuthor.put(columns.authorKey(key), columns.rowsOfAuthorKey(key));
+        }
+        return engine;
+    }
+
+    List<Book> execute(BookQuery query) {
+        BitSet matches = new BitSet(rows.size());
+        for (BookQuery.Clause clause : query.clauses()) {
+            matches.or(evaluate(clause));
+        }
+
+        int limit = query.getLimit();
+        Comparator<Book> comparator = query.getOrder().comparator();
+        List<Book> results = new ArrayList<>(Math.min(limit, matches.cardinality()));
+
+        if (comparator == null) {
+            for (int row = matches.nextSetBit(0); row >= 0 && results.size() < limit; row = matches.nextSetBit(row + 1)) {
+                results.add(rows.get(row));
+            }
+        } else if (matches.cardinality() <= rows.size() / SORT_HITS_THRESHOLD_DIVISOR) {
+            matches.stream()
+                    .boxed()
+                    .sorted(rowComparators.apply(query.getOrder()))
+                    .limit(limit)
+                    .forEach(row -> results.add(rows.get(row)));
+        } else {
+            for (int row : rowOrder(query.getOrder())) {
+                if (results.size() == limit) break;
+                if (matches.get(row)) results.add(rows.get(row));
+            }
+        }
+        return List.copyOf(results);
+    }
+
+    private BitSet evaluate(BookQuery.Clause clause) {
+        BitSet result = new BitSet(rows.size());
+        result.set(0, rows.size());
+
+        if (!clause.genres().isEmpty()) {
+            BitSet genreMatches = new BitSet(rows.size());
+            for (String genre : clause.genres()) {
+                BitSet genreRows = rowsByGenre.get(genre);
+                if (genreRows != null) genreMatches.or(genreRows);
+            }
+            result.and(genreMatches);
+        }
+        if (!clause.authors().isEmpty()) {
+            BitSet authorMatches = new BitSet(rows.size());
+            for (String author : clause.authors()) {
+                for (int row : rowsByAuthor.getOrDefault(author, new int[0])) {
+                    authorMatches.set(row);
+                }
+            }
+            result.and(authorMatches);
+        }
+        if (clause.constrainsYear()) {
+            BitSet yearMatches = new BitSet(rows.size());
+            long fromOffset = Math.max(0L, (long) clause.minYear() - minYear);
+            long toOffset = Math.min(rowsByYearOffset.length - 1L, (long) clause.maxYear() - minYear);
+            for (long offset = fromOffset; offset <= toOffset; offset++) {
+                BitSet yearRows = rowsByYearOffset[(int) offset];
+                if (yearRows != null) yearMatches.or(yearRows);
+            }
+            result.and(yearMatches);
+        }
+        if (clause.constrainsRating()) {
+            BitSet ratingMatches = new BitSet(rows.size());
+            if (RatingScale.overlapsScale(clause.minRating(), clause.maxRating())) {
+                int maxTenths = RatingScale.floorTenths(clause.maxRating());
+                for (int tenths = RatingScale.ceilTenths(clause.minRating()); tenths <= maxTenths; tenths++) {
+                    if (rowsByRatingTenths[tenths] != null) ratingMatches.or(rowsByRatingTenths[tenths]);
+                }
+            }
+            for (int row : offGridRatingRows) {
+                double rating = ratingOfRow.applyAsDouble(row);
+                if (rating >= clause.minRating() && rating <= clause.maxRating()) ratingMatches.set(row);
+            }
+            result.and(ratingMatches);
+        }
+        return result;
+    }
+
+    private synchronized int[] rowOrder(BookQuery.Order order) {
+        return rowOrderByQueryOrder.computeIfAbsent(order, key -> IntStream.range(0, rows.size())
+                .boxed()
+                .sorted(rowComparators.apply(key))
+                .mapToInt(Integer::intValue)
+                .toArray());
+    }
+
+    /**
+     * Row order for a query order, read from the columns; ties keep dataset order, as with
+     * {@link BookQuery.Order#comparator()}.
+     */
+    private static Comparator<Integer> columnOrder(RowColumns columns, BookQuery.Order order) {
+        return switch (order) {
+            case DATASET_ORDER -> Comparator.naturalOrder();
+            case RATING_DESC -> Comparator.comparingDouble((Integer row) -> columns.rating(row)).reversed();
+            case REVIEWS_DESC -> Comparator.comparingInt((Integer row) -> columns.reviewCount(row)).reversed();
+            case PRICE_ASC -> Comparator.comparingInt((Integer row) -> columns.price(row));
+            case PRICE_DESC -> Comparator.comparingInt((Integer row) -> columns.price(row)).reversed();
+            case YEAR_DESC -> Comparator.comparingInt((Integer row) -> columns.year(row)).reversed();
+        };
+    }
+
+    private BitSet bitmapAt(BitSet[] bitmaps, int index) {
+        if (bitmaps[index] == null) {
+            bitmaps[index] = new BitSet(rows.size());
+        }
+        return bitmaps[index];
+    }
+}
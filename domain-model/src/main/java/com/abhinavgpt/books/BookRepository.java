@@ -1,7 +1,10 @@
 package com.abhinavgpt.books;
 
+import java.util.ArrayList;
+import java.util.Comparator;
 import java.util.List;
 import java.util.Map;
+import java.util.stream.Stream;
 
 public interface BookRepository {
     
@@ -15,7 +18,108 @@ public interface BookRepository {
         return getBooksByAuthor(author);
     }
     
+    /**
+     * Deduplicated books rated between the bounds, inclusive, highest rating first. Each
+     * rating's books appear as {@link #getBooksByRating(double)} returns them. The default
+     * walks the steps of 0.1, so repositories that can hold ratings between steps override it.
+     */
+    default List<Book> getBooksByRatingRange(double minRating, double maxRating) {
+        if (!RatingScale.overlapsScale(minRating, maxRating)) {
+            return List.of();
+        }
+        List<Book> booksInRange = new ArrayList<>();
+        for (int tenths = RatingScale.floorTenths(maxRating); tenths >= RatingScale.ceilTenths(minRating); tenths--) {
+            booksInRange.addAll(getBooksByRating(RatingScale.fromTenths(tenths)));
+        }
+        return booksInRange;
+    }
+    
+    /**
+     * Bestseller entries matching the query, in the query's order and up to its limit.
+     * The default implementation scans {@link #getAllBooksIncludingDuplicates()}.
+     */
+    default List<Book> findBooks(BookQuery query) {
+        Comparator<Book> comparator = query.getOrder().comparator();
+        Stream<Book> matches = getAllBooksIncludingDuplicates().stream().filter(query::matches);
+        return (comparator != null ? matches.sorted(comparator) : matches)
+                .limit(query.getLimit())
+                .toList();
+    }
+    
+    /**
+     * Every yearly entry by the author, duplicates included. Repositories that only keep unique
+     * books answer with {@link #getBooksByAuthor(String)}.
+     */
+    default List<Book> getAllBooksByAuthorIncludingDuplicates(String author) {
+        return getBooksByAuthor(author);
+    }
+    
+    /**
+     * Every entry with the rating, duplicates included. Repositories that only keep unique books
+     * answer with {@link #getBooksByRating(double)}.
+     */
+    default List<Book> getAllBooksByRatingIncludingDuplicates(double rating) {
+        return getBooksByRating(rating);
+    }
+    
+    /**
+     * Works that were bestsellers in more than one year, keyed by normalized title and author
+     * in order of first appearance, with all of their entries. The default reads them from
+     * {@link #getWorkTimelines()}.
+     */
+    default Map<String, List<Book>> getDuplicateBooksAcrossYears() {
+        return getWorkTimelines().getDuplicateBooksAcrossYears();
+    }
+    
+    /**
+     * Per-work edition timelines. The default builds them from
+     * {@link #getAllBooksIncludingDuplicates()} on every call; repositories that assign work
+     * ids while loading return the timelines they already hold.
+     */
+    default WorkTimelines getWorkTimelines() {
+        return WorkTimelines.fromBooks(getAllBooksIncludingDuplicates());
+    }
+    
     default List<Book> getAllUniqueBooks() {
         return List.of();
     }
-}
\ No newline at end of file
+    
+    default List<Book> getAllBooksIncludingDuplicates() {
+        return getAllUniqueBooks();
+    }
+    
+    /**
+     * Counter that moves forward whenever the repository's contents change, so derived
+     * indexes and caches know when to rebuild. Immutable repositories always return 0.
+     */
+    default long getDataVersion() {
+        return 0;
+    }
+    
+    /*
+     * Paged variants. Each wraps the matching lookup in a PagedResult keyed by the query and its
+     * arguments, so a cursor only continues the query that produced it; the lookup itself runs
+     * only when a page or stream is requested.
+     */
+    
+    default PagedResult<String> getAllAuthorsPaged() {
+        return PagedResult.of("authors", this::getDataVersion, this::getAllAuthors);
+    }
+    
+    default PagedResult<Book> getAllUniqueBooksPaged() {
+        return PagedResult.of("uniqueBooks", this::getDataVersion, this::getAllUniqueBooks);
+    }
+    
+    default PagedResult<Book> getBooksByRatingPaged(double rating) {
+        return PagedResult.of("rating:" + rating, this::getDataVersion, () -> getBooksByRating(rating));
+    }
+    
+    default PagedResult<Book> getBooksByRatingRangePaged(double minRating, double maxRating) {
+        return PagedResult.of("ratingRange:" + minRating + ":" + maxRating, this::getDataVersion,
+            () -> getBooksByRatingRange(minRating, maxRating));
+    }
+    
+    default PagedResult<Map.Entry<String, List<Book>>> getDuplicateBooksAcrossYearsPaged() {
+        return PagedResult.of("duplicatesAcrossYears", this::getDataVersion, () -> getDuplicateBooksAcrossYears().entrySet());
+    }
+}
@@ -1,58 +1,121 @@
 package com.abhinavgpt.books;
 
 import java.util.*;
-import java.util.function.Predicate;
+import java.util.function.Supplier;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 public final class BookRepositoryImpl implements BookRepository {
     
     private final List<Book> allBooksInDataset;
     private final Map<String, List<Book>> booksByAuthorHashMap;
-    private final Map<Double, List<Book>> booksByRatingHashMap;
+    private final RatingIndex booksByRatingIndex;
     private final Map<String, Integer> bookCountByAuthorHashMap;
     private final List<String> uniqueAuthorsList;
+    private final Map<String, List<Book>> uniqueBooksByAuthorHashMap;
+    private final RatingIndex uniqueBooksByRatingIndex;
+    private final List<Book> allUniqueBooksList;
+    private final WorkTimelines workTimelines;
+    private final LazyIndex<BookQueryEngine> bookQueryEngine;
     
     public BookRepositoryImpl(List<Book> books) {
-        this.allBooksInDataset = List.copyOf(books != null ? books : List.of());
-        this.booksByAuthorHashMap = precomputeBooksByAuthorHashMap();
-        this.booksByRatingHashMap = precomputeBooksByRatingHashMap();
-        this.bookCountByAuthorHashMap = precomputeBookCountByAuthorHashMap();
-        this.uniqueAuthorsList = precomputeUniqueAuthorsList();
-    }
-    
-    private Map<String, List<Book>> precomputeBooksByAuthorHashMap() {
-        return allBooksInDataset.stream()
-                .collect(Collectors.groupingBy(
-                    book -> book.author().toLowerCase().trim(),
-                    HashMap::new,
-                    Collectors.toList()
-                ));
+        this((books != null ? books : List.<Book>of()).iterator());
     }
     
-    private Map<Double, List<Book>> precomputeBooksByRatingHashMap() {
-        return allBooksInDataset.stream()
-                .collect(Collectors.groupingBy(
-                    Book::userRating,
-                    HashMap::new,
-                    Collectors.toList()
-                ));
+    /**
+     * Builds the repository directly from a stream of books, indexing each row as it
+     * arrives so the source never has to be materialized as an intermediate list.
+     * The stream is closed once it has been consumed.
+     */
+    public static BookRepositoryImpl fromStream(Stream<Book> books) {
+        try (books) {
+            return new BookRepositoryImpl(books.iterator());
+        }
     }
     
-    private Map<String, Integer> precomputeBookCountByAuthorHashMap() {
-        return allBooksInDataset.stream()
-                .collect(Collectors.groupingBy(
-                    book -> book.author().toLowerCase().trim(),
-                    HashMap::new,
-                    Collectors.collectingAndThen(Collectors.toList(), List::size)
-                ));
+    private BookRepositoryImpl(Iterator<Book> books) {
+        List<Book> indexedBooks = new ArrayList<>();
+        Map<String, List<Book>> booksByAuthor = new HashMap<>();
+        List<List<Book>> booksByRatingTenths = newRatingBuckets(ArrayList::new);
+        Set<String> uniqueAuthors = new HashSet<>();
+        WorkTimelines.Builder workTimelinesBuilder = new WorkTimelines.Builder();
+        Map<String, Map<WorkKey, Book>> newestEditionByAuthor = new HashMap<>();
+        List<Map<WorkKey, Book>> newestEditionByRatingTenths = newRatingBuckets(LinkedHashMap::new);
+        List<Book> offGridBooks = new ArrayList<>();
+        
+        while (books.hasNext()) {
+            Book book = Objects.requireNonNull(books.next(), "book");
+            String authorKey = book.author().toLowerCase().trim();
+            WorkKey workKey = new WorkKey(book.title().toLowerCase().trim(), authorKey);
+            
+            indexedBooks.add(book);
+            booksByAuthor.computeIfAbsent(authorKey, key -> new ArrayList<>()).add(book);
+            uniqueAuthors.add(book.author());
+            
+            workTimelinesBuilder.add(workKey);
+            newestEditionByAuthor.computeIfAbsent(authorKey, key -> new LinkedHashMap<>())
+                    .merge(workKey, book, BookRepositoryImpl::newerEdition);
+            if (OffGridBooks.isOffGrid(book)) {
+                offGridBooks.add(book);
+            } else {
+                int ratingTenths = RatingScale.toTenths(book.userRating());
+                booksByRatingTenths.get(ratingTenths).add(book);
+                newestEditionByRatingTenths.get(ratingTenths).merge(workKey, book, BookRepositoryImpl::newerEdition);
+            }
+        }
+        
+        this.allBooksInDataset = Collections.unmodifiableList(indexedBooks);
+        this.booksByAuthorHashMap = freezeIndex(booksByAuthor);
+        OffGridBooks allOffGridBooks = OffGridBooks.of(offGridBooks);
+        this.booksByRatingIndex = new RatingIndex(booksByRatingTenths, allOffGridBooks);
+        this.bookCountByAuthorHashMap = precomputeBookCountByAuthorHashMap(booksByAuthorHashMap);
+        this.uniqueAuthorsList = uniqueAuthors.stream().sorted().toList();
+        this.uniqueBooksByAuthorHashMap = materializeUniqueViews(newestEditionByAuthor);
+        this.uniqueBooksByRatingIndex = new RatingIndex(newestEditionByRatingTenths.stream()
+                .map(newestEditions -> List.copyOf(newestEditions.values()))
+                .toList(), allOffGridBooks.newestEditionPerWork());
+        this.workTimelines = workTimelinesBuilder.build(allBooksInDataset);
+        this.allUniqueBooksList = workTimelines.getLatestEditions();
+        this.bookQueryEngine = new LazyIndex<>(() -> new BookQueryEngine(allBooksInDataset));
+    }
+    
+    /**
+     * Identity of a work across its yearly bestseller entries: the normalized title and author.
+     */
+    record WorkKey(String title, String author) {
+        
+        static WorkKey of(Book book) {
+            return new WorkKey(book.title().toLowerCase().trim(), book.author().toLowerCase().trim());
+        }
+    }
+    
+    private static <T> List<T> newRatingBuckets(Supplier<T> bucketFactory) {
+        List<T> buckets = new ArrayList<>(RatingScale.BUCKET_COUNT);
+        for (int tenths = 0; tenths < RatingScale.BUCKET_COUNT; tenths++) {
+            buckets.add(bucketFactory.get());
+        }
+        return buckets;
     }
     
-    private List<String> precomputeUniqueAuthorsList() {
-        return allBooksInDataset.stream()
-                .map(Book::author)
-                .distinct()
-                .sorted()
-                .toList();
+    static Book newerEdition(Book existing, Book replacement) {
+        return existing.year() > replacement.year() ? existing : replacement;
+    }
+    
+    private static <K> Map<K, List<Book>> materializeUniqueViews(Map<K, Map<WorkKey, Book>> newestEditionsByKey) {
+        Map<K, List<Book>> uniqueViews = new HashMap<>(newestEditionsByKey.size() * 2);
+        newestEditionsByKey.forEach((key, newestEditions) -> uniqueViews.put(key, List.copyOf(newestEditions.values())));
+        return uniqueViews;
+    }
+    
+    private static <K> Map<K, List<Book>> freezeIndex(Map<K, List<Book>> index) {
+        index.replaceAll((key, books) -> Collections.unmodifiableList(books));
+        return index;
+    }
+    
+    private static Map<String, Integer> precomputeBookCountByAuthorHashMap(Map<String, List<Book>> booksByAuthor) {
+        Map<String, Integer> bookCountByAuthor = new HashMap<>(booksByAuthor.size() * 2);
+        booksByAuthor.forEach((author, books) -> bookCountByAuthor.put(author, books.size()));
+        return bookCountByAuthor;
     }
     
     @Override
@@ -60,6 +123,12 @@ public final class BookRepositoryImpl implements BookRepository {
         return getUniqueBooksByAuthor(author);
     }
     
+    @Override
+    public List<Book> getAllBooksIncludingDuplicates() {
+        return allBooksInDataset;
+    }
+    
+    @Override
     public List<Book> getAllBooksByAuthorIncludingDuplicates(String author) {
         if (author == null || author.trim().isEmpty()) {
             return List.of();
@@ -69,22 +138,26 @@ public final class BookRepositoryImpl implements BookRepository {
     
     @Override
     public List<Book> getBooksByRating(double rating) {
-        List<Book> allBooksWithRating = booksByRatingHashMap.getOrDefault(rating, List.of());
-        
-        return allBooksWithRating.stream()
-                .collect(Collectors.toMap(
-                    book -> book.title().toLowerCase().trim() + "|" + book.author().toLowerCase().trim(),
-                    book -> book,
-                    (existing, replacement) -> existing.year() > replacement.year() ? existing : replacement,
-                    LinkedHashMap::new
-                ))
-                .values()
-                .stream()
-                .toList();
+        return uniqueBooksByRatingIndex.booksWithRating(rating);
     }
     
+    @Override
     public List<Book> getAllBooksByRatingIncludingDuplicates(double rating) {
-        return booksByRatingHashMap.getOrDefault(rating, List.of());
+        return booksByRatingIndex.booksWithRating(rating);
+    }
+    
+    @Override
+    public List<Book> getBooksByRatingRange(double minRating, double maxRating) {
+        return uniqueBooksByRatingIndex.booksWithRatingBetween(minRating, maxRating);
+    }
+    
+    public List<Book> getAllBooksByRatingRangeIncludingDuplicates(double minRating, double maxRating) {
+        return booksByRatingIndex.booksWithRatingBetween(minRating, maxRating);
+    }
+    
+    @Override
+    public List<Book> findBooks(BookQuery query) {
+        return bookQueryEngine.get().execute(query);
     }
     
     @Override
@@ -122,33 +195,12 @@ public final class BookRepositoryImpl implements BookRepository {
         if (author == null || author.trim().isEmpty()) {
             return List.of();
         }
-        
-        List<Book> authorBooks = booksByAuthorHashMap.getOrDefault(author.toLowerCase().trim(), List.of());
-        
-        return authorBooks.stream()
-                .collect(Collectors.toMap(
-                    book -> book.title().toLowerCase().trim(),
-                    book -> book,
-                    (existing, replacement) -> existing.year() > replacement.year() ? existing : replacement,
-                    LinkedHashMap::new
-                ))
-                .values()
-                .stream()
-                .toList();
+        return uniqueBooksByAuthorHashMap.getOrDefault(author.toLowerCase().trim(), List.of());
     }
     
     @Override
     public List<Book> getAllUniqueBooks() {
-        return allBooksInDataset.stream()
-                .collect(Collectors.toMap(
-                    book -> book.title().toLowerCase().trim() + "|" + book.author().toLowerCase().trim(),
-                    book -> book,
-                    (existing, replacement) -> existing.year() > replacement.year() ? existing : replacement,
-                    LinkedHashMap::new
-                ))
-                .values()
-                .stream()
-                .toList();
+        return allUniqueBooksList;
     }
     
     public Map<String, Object> getPerformanceOptimizationStats() {
@@ -160,7 +212,7 @@ public final class BookRepositoryImpl implements BookRepository {
             "uniqueBooks", uniqueBooks.size(),
             "duplicateEntries", allBooksInDataset.size() - uniqueBooks.size(),
             "uniqueAuthors", uniqueAuthorsList.size(),
-            "uniqueRatings", booksByRatingHashMap.size(),
+            "uniqueRatings", booksByRatingIndex.distinctRatingCount(),
             "duplicateTitles", duplicates.size(),
             "averageBooksPerAuthor", allBooksInDataset.size() / (double) uniqueAuthorsList.size(),
             "deduplicationRatio", String.format("%.1f%%", (allBooksInDataset.size() - uniqueBooks.size()) * 100.0 / allBooksInDataset.size()),
@@ -168,19 +220,13 @@ public final class BookRepositoryImpl implements BookRepository {
         );
     }
     
+    @Override
     public Map<String, List<Book>> getDuplicateBooksAcrossYears() {
-        return allBooksInDataset.stream()
-                .collect(Collectors.groupingBy(
-                    book -> book.title().toLowerCase().trim() + "|" + book.author().toLowerCase().trim()
-                ))
-                .entrySet()
-                .stream()
-                .filter(entry -> entry.getValue().size() > 1)
-                .collect(Collectors.toMap(
-                    Map.Entry::getKey,
-                    Map.Entry::getValue,
-                    (existing, replacement) -> existing,
-                    LinkedHashMap::new
-                ));
+        return workTimelines.getDuplicateBooksAcrossYears();
+    }
+    
+    @Override
+    public WorkTimelines getWorkTimelines() {
+        return workTimelines;
     }
 }
\ No newline at end of file
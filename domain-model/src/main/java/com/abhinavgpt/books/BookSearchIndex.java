@@ -0,0 +1,246 @@
+package com.abhinavgpt.books;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Inverted index over the words of book titles and author names.
+ * <p>
+ * Documents are numbered in ranking order (most reviews first, then highest rating), so every
+ * posting list is already sorted by rank. A query intersects the posting lists of its words and
+ * the first {@code limit} survivors are the best matches; nothing is scored or sorted at query
+ * time. All words must match. The last word also matches as a prefix, so results show up
+ * while the user is still typing. Prefixes of up to two characters match so many words that
+ * their merged postings are built with the index rather than per query. Typo tolerance, when
+ * enabled, replaces a word that has no match with the indexed words one or two edits away;
+ * words are bucketed by length, so only words whose length is within the edit budget are
+ * compared.
+ */
+public final class BookSearchIndex {
+
+    private static final Comparator<Book> RANKING = BookLeaderboards.MOST_REVIEWED
+            .thenComparing(Comparator.comparingDouble(Book::userRating).reversed());
+
+    private static final int MAX_SHORT_PREFIX_LENGTH = 2;
+
+    private final Book[] documentsByRank;
+    private final String[] terms;
+    private final int[][] postings;
+    private final Map<String, int[]> postingsByShortPrefix = new HashMap<>();
+    /** Term ids by term length, ascending. */
+    private final int[][] termsByLength;
+
+    private BookSearchIndex(List<Book> books) {
+        this.documentsByRank = books.stream().sorted(RANKING).toArray(Book[]::new);
+
+        Map<String, IntArrayList> postingsByTerm = new TreeMap<>();
+        for (int document = 0; document < documentsByRank.length; document++) {
+            Book book = documentsByRank[document];
+            for (String term : tokenize(book.title() + " " + book.author())) {
+                IntArrayList termPostings = postingsByTerm.computeIfAbsent(term, key -> new IntArrayList(4));
+                if (termPostings.size() == 0 || termPostings.get(termPostings.size() - 1) != document) {
+                    termPostings.add(document);
+                }
+            }
+        }
+
+        this.terms = postingsByTerm.keySet().toArray(String[]::new);
+        this.postings = new int[terms.length][];
+        Map<String, BitSet> documentsByShortPrefix = new HashMap<>();
+        List<IntArrayList> termIdsByLength = new ArrayList<>();
+        for (int i = 0; i < terms.length; i++) {
+            postings[i] = postingsByTerm.get(terms[i]).toArray();
+            for (int length = 1; length <= Math.min(MAX_SHORT_PREFIX_LENGTH, terms[i].length()); length++) {
+                BitSet documents = documentsByShortPrefix.computeIfAbsent(terms[i].substring(0, length),
+                    prefix -> new BitSet(documentsByRank.length));
+                for (int document : postings[i]) {
+                    documents.set(document);
+                }
+            }
+            while (termIdsByLength.size() <= terms[i].length()) {
+                termIdsByLength.add(new IntArrayList());
+            }
+            termIdsByLength.get(terms[i].length()).add(i);
+        }
+        documentsByShortPrefix.forEach((prefix, documents) -> postingsByShortPrefix.put(prefix, documents.stream().toArray()));
+        this.termsByLength = termIdsByLength.stream().map(IntArrayList::toArray).toArray(int[][]::new);
+    }
+
+    public static BookSearchIndex fromBooks(List<Book> books) {
+        return new BookSearchIndex(books);
+    }
+
+    public List<Book> search(String query, int limit) {
+        return search(query, limit, false);
+    }
+
+    public List<Book> search(String query, int limit, boolean typoTolerant) {
+        if (limit < 0) {
+            throw new IllegalArgumentException("Limit cannot be negative");
+        }
+        List<String> queryTerms = query == null ? List.of() : tokenize(query);
+        if (queryTerms.isEmpty() || limit == 0) {
+            return List.of();
+        }
+
+        List<int[]> termMatches = new ArrayList<>(queryTerms.size());
+        for (int i = 0; i < queryTerms.size(); i++) {
+            int[] matches = matchingDocuments(queryTerms.get(i), i == queryTerms.size() - 1, typoTolerant);
+            if (matches.length == 0) {
+                return List.of();
+            }
+            termMatches.add(matches);
+        }
+        termMatches.sort(Comparator.comparingInt(matches -> matches.length));
+
+        int[] candidates = termMatches.get(0);
+        for (int i = 1; i < termMatches.size() && candidates.length > 0; i++) {
+            candidates = intersect(candidates, termMatches.get(i));
+        }
+
+        List<Book> results = new ArrayList<>(Math.min(limit, candidates.length));
+        for (int i = 0; i < candidates.length && results.size() < limit; i++) {
+            results.add(documentsByRank[candidates[i]]);
+        }
+        return List.copyOf(results);
+    }
+
+    public int getTermCount() {
+        return terms.length;
+    }
+
+    /**
+     * Splits text into lower-case words made of letters and digits. Apostrophes are dropped
+     * rather than splitting, so "Can't" indexes as "cant".
+     */
+    static List<String> tokenize(String text) {
+        List<String> tokens = new ArrayList<>();
+        StringBuilder token = new StringBuilder();
+        for (int i = 0; i < text.length(); ) {
+            int codePoint = text.codePointAt(i);
+            i += Character.charCount(codePoint);
+            if (Character.isLetterOrDigit(codePoint)) {
+                token.appendCodePoint(Character.toLowerCase(codePoint));
+            } else if (codePoint != '\'' && codePoint != '’' && token.length() > 0) {
+                tokens.add(token.toString());
+                token.setLength(0);
+            }
+        }
+        if (token.length() > 0) {
+            tokens.add(token.toString());
+        }
+        return tokens;
+    }
+
+    private int[] matchingDocuments(String queryTerm, boolean matchAsPrefix, boolean typoTolerant) {
+        if (matchAsPrefix && queryTerm.length() <= MAX_SHORT_PREFIX_LENGTH) {
+            int[] documents = postingsByShortPrefix.get(queryTerm);
+            if (documents != null) {
+                return documents;
+            }
+        }
+        int first = lowerBound(queryTerm);
+        int last = first;
+        if (matchAsPrefix) {
+            while (last < terms.length && terms[last].startsWith(queryTerm)) last++;
+        } else if (last < terms.length && terms[last].equals(queryTerm)) {
+            last++;
+        }
+
+        if (last > first) {
+            return unionOfPostings(first, last);
+        }
+        return typoTolerant ? unionOfNearTerms(queryTerm) : new int[0];
+    }
+
+    private int[] unionOfPostings(int firstTerm, int lastTermExclusive) {
+        if (lastTermExclusive - firstTerm == 1) {
+            return postings[firstTerm];
+        }
+        BitSet documents = new BitSet(documentsByRank.length);
+        for (int term = firstTerm; term < lastTermExclusive; term++) {
+            for (int document : postings[term]) {
+                documents.set(document);
+            }
+        }
+        return documents.stream().toArray();
+    }
+
+    private int[] unionOfNearTerms(String queryTerm) {
+        int maxEdits = queryTerm.length() >= 8 ? 2 : queryTerm.length() >= 4 ? 1 : 0;
+        if (maxEdits == 0) {
+            return new int[0];
+        }
+        BitSet documents = new BitSet(documentsByRank.length);
+        int maxLength = Math.min(termsByLength.length - 1, queryTerm.length() + maxEdits);
+        for (int length = queryTerm.length() - maxEdits; length <= maxLength; length++) {
+            for (int term : termsByLength[length]) {
+                if (withinEditDistance(queryTerm, terms[term], maxEdits)) {
+                    for (int document : postings[term]) {
+                        documents.set(document);
+                    }
+                }
+            }
+        }
+        return documents.stream().toArray();
+    }
+
+    /**
+     * Optimal string alignment distance (Levenshtein plus adjacent transpositions), abandoned as
+     * soon as every alignment exceeds {@code maxEdits}.
+     */
+    private static boolean withinEditDistance(String a, String b, int maxEdits) {
+        int[] previousPrevious = new int[b.length() + 1];
+        int[] previous = new int[b.length() + 1];
+        int[] current = new int[b.length() + 1];
+        for (int j = 0; j <= b.length(); j++) previous[j] = j;
+
+        for (int i = 1; i <= a.length(); i++) {
+            current[0] = i;
+            int rowMinimum = current[0];
+            for (int j = 1; j <= b.length(); j++) {
+                int cost = a.charAt(i - 1) == b.charAt(j - 1) ? 0 : 1;
+                int distance = Math.min(Math.min(previous[j] + 1, current[j - 1] + 1), previous[j - 1] + cost);
+                if (i > 1 && j > 1 && a.charAt(i - 1) == b.charAt(j - 2) && a.charAt(i - 2) == b.charAt(j - 1)) {
+                    distance = Math.min(distance, previousPrevious[j - 2] + 1);
+                }
+                current[j] = distance;
+                rowMinimum = Math.min(rowMinimum, distance);
+            }
+            if (rowMinimum > maxEdits) return false;
+            int[] recycled = previousPrevious;
+            previousPrevious = previous;
+            previous = current;
+            current = recycled;
+        }
+        return previous[b.length()] <= maxEdits;
+    }
+
+    private int lowerBound(String term) {
+        int index = Arrays.binarySearch(terms, term);
+        return index >= 0 ? index : -index - 1;
+    }
+
+    private static int[] intersect(int[] left, int[] right) {
+        int[] result = new int[Math.min(left.length, right.length)];
+        int size = 0;
+        for (int i = 0, j = 0; i < left.length && j < right.length; ) {
+            if (left[i] < right[j]) {
+                i++;
+            } else if (left[i] > right[j]) {
+                j++;
+            } else {
+                result[size++] = left[i];
+                i++;
+                j++;
+            }
+        }
+        return Arrays.copyOf(result, size);
+    }
+}
@@ -1,88 +1,378 @@
 package com.abhinavgpt.books;
 
+import com.abhinavgpt.metrics.InstrumentedBookRepository;
+import com.abhinavgpt.metrics.MetricsRegistry;
+import com.abhinavgpt.metrics.MetricsSnapshot;
+import com.abhinavgpt.metrics.OperationMetrics;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+import java.util.function.Predicate;
 import java.util.stream.Collectors;
 
+/**
+ * Query facade over a {@link BookRepository} and the indexes derived from it. The repository and
+ * its indexes are held together in one immutable state that {@link #replaceRepository} swaps
+ * atomically, so every call runs against a single consistent dataset even while a reload
+ * publishes a new one.
+ * <p>
+ * Given an enabled {@link MetricsRegistry}, the service wraps every repository it is pointed at
+ * in an {@link InstrumentedBookRepository} and also records how long its own indexes take to
+ * build and how its index-backed queries perform.
+ */
 public final class BookService {
     
-    private final BookRepository bookRepository;
-    private final BookRepositoryImpl optimizedBookRepository;
+    private record ServiceState(BookRepository bookRepository,
+                                long epoch,
+                                LazyIndex<BookLeaderboards> leaderboards,
+                                LazyIndex<BookSearchIndex> searchIndex,
+                                LazyIndex<AuthorAutocompleteIndex> authorAutocomplete,
+                                LazyIndex<AggregationCube> aggregationCube,
+                                LazyIndex<WorkTimelines> workTimelines,
+                                LazyIndex<Map<String, Object>> performanceStats,
+                                BoundedCache<Integer, Map<String, Integer>> prolificAuthorsByLimit) {
+        
+        static ServiceState of(BookRepository source, MetricsRegistry metrics) {
+            BookRepositoryImpl optimizedRepository = source instanceof BookRepositoryImpl impl ? impl : null;
+            BookRepository repository = metrics.isEnabled() ? new InstrumentedBookRepository(source, metrics) : source;
+            return new ServiceState(
+                repository,
+                NEXT_EPOCH.getAndIncrement(),
+                new LazyIndex<>(metrics.timed("index.leaderboards", () -> BookLeaderboards.fromRepository(repository)),
+                    repository::getDataVersion),
+                new LazyIndex<>(metrics.timed("index.search", () -> BookSearchIndex.fromBooks(repository.getAllUniqueBooks())),
+                    repository::getDataVersion),
+                new LazyIndex<>(metrics.timed("index.authorAutocomplete", () -> AuthorAutocompleteIndex.fromBooks(
+                    repository.getAllBooksIncludingDuplicates(), repository.getAllUniqueBooks())),
+                    repository::getDataVersion),
+                new LazyIndex<>(metrics.timed("index.aggregationCube",
+                    () -> new AggregationCube(repository.getAllBooksIncludingDuplicates())),
+                    repository::getDataVersion),
+                new LazyIndex<>(metrics.timed("index.workTimelines", repository::getWorkTimelines),
+                    repository::getDataVersion),
+                new LazyIndex<>(() -> optimizedRepository != null
+                    ? optimizedRepository.getPerformanceOptimizationStats()
+                    : Map.of("optimizationEnabled", false)),
+                new BoundedCache<>(RESULT_CACHE_SIZE, repository::getDataVersion));
+        }
+    }
+    
+    private static final int RESULT_CACHE_SIZE = 64;
+    private static final AtomicLong NEXT_EPOCH = new AtomicLong(1);
+    
+    private final MetricsRegistry metrics;
+    private final OperationMetrics searchMetrics;
+    private final OperationMetrics autocompleteMetrics;
+    private final OperationMetrics prolificAuthorsMetrics;
+    private final OperationMetrics aggregationMetrics;
+    private volatile ServiceState state;
     
     public BookService(BookRepository repository) {
-        this.bookRepository = repository;
-        this.optimizedBookRepository = repository instanceof BookRepositoryImpl impl ? impl : null;
+        this(repository, MetricsRegistry.disabled());
+    }
+    
+    public BookService(BookRepository repository, MetricsRegistry metrics) {
+        this.metrics = Objects.requireNonNull(metrics, "metrics");
+        this.searchMetrics = metrics.operation("service.searchBooks");
+        this.autocompleteMetrics = metrics.operation("service.getAuthorSuggestions");
+        this.prolificAuthorsMetrics = metrics.operation("service.getMostProlificAuthorsWithBookCount");
+        this.aggregationMetrics = metrics.operation("service.aggregate");
+        this.state = ServiceState.of(Objects.requireNonNull(repository, "repository"), metrics);
+    }
+    
+    /**
+     * Atomically points the service at another repository. Calls already running finish on the
+     * old one; derived indexes for the new one are built on first use. Page cursors handed out
+     * before the swap are rejected afterwards.
+     */
+    public void replaceRepository(BookRepository repository) {
+        this.state = ServiceState.of(Objects.requireNonNull(repository, "repository"), metrics);
+    }
+    
+    public BookRepository getRepository() {
+        return state.bookRepository();
+    }
+    
+    public MetricsSnapshot getMetricsSnapshot() {
+        return metrics.snapshot();
     }
     
     public int getTotalBookCountByAuthor(String author) {
-        return bookRepository.getBookCountByAuthor(author);
+        return state.bookRepository().getBookCountByAuthor(author);
+    }
+    
+    /**
+     * Book counts for many authors in one pass against one version of the data. Each distinct
+     * normalized name is looked up once; the result is keyed by the names as given.
+     */
+    public Map<String, Integer> getTotalBookCountsByAuthors(Collection<String> authors) {
+        BookRepository repository = state.bookRepository();
+        return lookupEachAuthor(authors, repository::getBookCountByAuthor);
+    }
+    
+    public Map<String, Map<String, Integer>> getBookPricesByAuthors(Collection<String> authors) {
+        BookRepository repository = state.bookRepository();
+        return lookupEachAuthor(authors, repository::getBooksAndPricesByAuthor);
+    }
+    
+    public Map<String, List<String>> getUniqueBookTitlesByAuthors(Collection<String> authors) {
+        BookRepository repository = state.bookRepository();
+        return lookupEachAuthor(authors, author -> repository.getUniqueBooksByAuthor(author)
+                .stream()
+                .map(Book::title)
+                .toList());
+    }
+    
+    public Map<Double, List<Book>> classifyBooksByUserRatings(Collection<Double> ratings) {
+        BookRepository repository = state.bookRepository();
+        Map<Double, List<Book>> booksByRating = new LinkedHashMap<>();
+        for (Double rating : ratings) {
+            booksByRating.computeIfAbsent(rating, repository::getBooksByRating);
+        }
+        return booksByRating;
     }
     
     public List<String> getAllAuthorsInDataset() {
-        return bookRepository.getAllAuthors();
+        return state.bookRepository().getAllAuthors();
+    }
+    
+    /**
+     * Authors a page at a time, in {@link #getAllAuthorsInDataset()} order.
+     */
+    public PagedResult<String> getAllAuthorsInDatasetPaged() {
+        ServiceState current = state;
+        return current.bookRepository().getAllAuthorsPaged().withEpoch(current.epoch());
+    }
+    
+    /**
+     * The newest edition of every work, a page at a time in order of first appearance.
+     */
+    public PagedResult<Book> getAllUniqueBooksPaged() {
+        ServiceState current = state;
+        return current.bookRepository().getAllUniqueBooksPaged().withEpoch(current.epoch());
+    }
+    
+    /**
+     * Type-ahead over author names: the most reviewed authors whose name, or any word of it,
+     * starts with the prefix.
+     */
+    public List<String> autocompleteAuthors(String prefix, int limit) {
+        return getAuthorSuggestions(prefix, limit)
+                .stream()
+                .map(AuthorAutocompleteIndex.AuthorSuggestion::author)
+                .toList();
+    }
+    
+    public List<AuthorAutocompleteIndex.AuthorSuggestion> getAuthorSuggestions(String prefix, int limit) {
+        long start = autocompleteMetrics.start();
+        List<AuthorAutocompleteIndex.AuthorSuggestion> suggestions = state.authorAutocomplete().get().suggest(prefix, limit);
+        autocompleteMetrics.record(start, suggestions.size());
+        return suggestions;
     }
     
     public List<String> getBookTitlesByAuthor(String author) {
-        return bookRepository.getBooksByAuthor(author)
+        return state.bookRepository().getBooksByAuthor(author)
                 .stream()
                 .map(Book::title)
                 .toList();
     }
     
     public List<String> getUniqueBookTitlesByAuthor(String author) {
-        return bookRepository.getUniqueBooksByAuthor(author)
+        return state.bookRepository().getUniqueBooksByAuthor(author)
                 .stream()
                 .map(Book::title)
                 .toList();
     }
     
+    public List<Book> getUniqueBooksByAuthor(String author) {
+        return state.bookRepository().getUniqueBooksByAuthor(author);
+    }
+    
     public List<Book> getAllBooksIncludingDuplicatesByAuthor(String author) {
-        return optimizedBookRepository != null 
-            ? optimizedBookRepository.getAllBooksByAuthorIncludingDuplicates(author)
-            : bookRepository.getBooksByAuthor(author);
+        return state.bookRepository().getAllBooksByAuthorIncludingDuplicates(author);
     }
     
     public List<Book> getAllBooksIncludingDuplicatesByRating(double rating) {
-        return optimizedBookRepository != null 
-            ? optimizedBookRepository.getAllBooksByRatingIncludingDuplicates(rating)
-            : bookRepository.getBooksByRating(rating);
+        return state.bookRepository().getAllBooksByRatingIncludingDuplicates(rating);
     }
     
     public List<Book> classifyBooksByUserRating(double rating) {
-        return bookRepository.getBooksByRating(rating);
+        return state.bookRepository().getBooksByRating(rating);
+    }
+    
+    public PagedResult<Book> classifyBooksByUserRatingPaged(double rating) {
+        ServiceState current = state;
+        return current.bookRepository().getBooksByRatingPaged(rating).withEpoch(current.epoch());
+    }
+    
+    public List<Book> getBooksRatedAtLeast(double minRating) {
+        return state.bookRepository().getBooksByRatingRange(minRating, 5.0);
+    }
+    
+    public List<Book> getBooksRatedBetween(double minRating, double maxRating) {
+        return state.bookRepository().getBooksByRatingRange(minRating, maxRating);
+    }
+    
+    public PagedResult<Book> getBooksRatedBetweenPaged(double minRating, double maxRating) {
+        ServiceState current = state;
+        return current.bookRepository().getBooksByRatingRangePaged(minRating, maxRating).withEpoch(current.epoch());
+    }
+    
+    public List<Book> findBooks(BookQuery query) {
+        return state.bookRepository().findBooks(query);
+    }
+    
+    private static <T> Map<String, T> lookupEachAuthor(Collection<String> authors, Function<String, T> lookup) {
+        Map<String, T> resultsByNormalizedAuthor = new HashMap<>();
+        Map<String, T> resultsByAuthor = new LinkedHashMap<>();
+        for (String author : authors) {
+            if (resultsByAuthor.containsKey(author)) continue;
+            T result = author == null || author.trim().isEmpty()
+                ? lookup.apply(author)
+                : resultsByNormalizedAuthor.computeIfAbsent(author.toLowerCase().trim(), lookup);
+            resultsByAuthor.put(author, result);
+        }
+        return resultsByAuthor;
+    }
+    
+    /**
+     * Full-text search over titles and authors. Every word must match, the last one as a prefix;
+     * results are ranked by review count, then rating.
+     */
+    public List<Book> searchBooks(String query, int limit) {
+        return searchBooks(query, limit, false);
+    }
+    
+    public List<Book> searchBooks(String query, int limit, boolean typoTolerant) {
+        long start = searchMetrics.start();
+        List<Book> matches = state.searchIndex().get().search(query, limit, typoTolerant);
+        searchMetrics.record(start, matches.size());
+        return matches;
+    }
+    
+    /**
+     * Groups the dataset and summarizes price, reviews and rating per group in a single pass.
+     * Unfiltered genre and/or year rollups of every entry are served from a cube that is built
+     * on the first such request and kept until the data changes.
+     */
+    public AggregationResult aggregate(BookAggregation aggregation) {
+        long start = aggregationMetrics.start();
+        ServiceState current = state;
+        AggregationResult result;
+        if (AggregationCube.covers(aggregation)) {
+            result = current.aggregationCube().get().get(aggregation);
+        } else {
+            BookRepository repository = current.bookRepository();
+            result = BookAggregator.aggregate(aggregation.isUniqueBooks()
+                ? repository.getAllUniqueBooks()
+                : repository.getAllBooksIncludingDuplicates(), aggregation);
+        }
+        aggregationMetrics.record(start, result.getGroups().size());
+        return result;
     }
     
     public Map<String, Integer> getBookPricesByAuthor(String author) {
-        return bookRepository.getBooksAndPricesByAuthor(author);
+        return state.bookRepository().getBooksAndPricesByAuthor(author);
     }
     
+    /**
+     * Dataset statistics, computed once per repository and then served from memory.
+     */
     public Map<String, Object> getPerformanceOptimizationStats() {
-        return optimizedBookRepository != null 
-            ? optimizedBookRepository.getPerformanceOptimizationStats()
-            : Map.of("optimizationEnabled", false);
+        return state.performanceStats().get();
     }
     
+    /**
+     * Works listed in more than one year, from the service's work timelines, so repositories
+     * that do not keep timelines of their own build them once per version of the data.
+     */
     public Map<String, List<Book>> getMultiYearBestsellerBooks() {
-        return optimizedBookRepository != null 
-            ? optimizedBookRepository.getDuplicateBooksAcrossYears()
-            : Map.of();
+        return state.workTimelines().get().getDuplicateBooksAcrossYears();
+    }
+    
+    public PagedResult<Map.Entry<String, List<Book>>> getMultiYearBestsellerBooksPaged() {
+        ServiceState current = state;
+        return current.bookRepository().getDuplicateBooksAcrossYearsPaged().withEpoch(current.epoch());
+    }
+    
+    /**
+     * Distinct years the work was a bestseller, ascending; empty for an unknown work.
+     */
+    public List<Integer> getYearsOnList(String title, String author) {
+        return state.workTimelines().get().getYearsOnList(title, author);
+    }
+    
+    /**
+     * Years on the list and review, price and rating change between the work's earliest and
+     * latest entry, or null for an unknown work.
+     */
+    public WorkTimelines.WorkTrend getWorkTrend(String title, String author) {
+        return state.workTimelines().get().getTrend(title, author);
+    }
+    
+    public List<WorkTimelines.WorkTrend> getLongestRunningBestsellers(int limit) {
+        return state.workTimelines().get().getLongestRunningBestsellers(limit);
+    }
+    
+    public List<WorkTimelines.WorkTrend> getFastestGrowingBestsellers(int limit) {
+        return state.workTimelines().get().getFastestGrowingBestsellers(limit);
+    }
+    
+    public List<WorkTimelines.WorkTrend> getBiggestPriceChanges(int limit) {
+        return state.workTimelines().get().getBiggestPriceChanges(limit);
     }
     
     public Map<String, Integer> getMostProlificAuthorsWithBookCount(int limit) {
-        return getAllAuthorsInDataset().stream()
-                .collect(Collectors.toMap(
-                    author -> author,
-                    this::getTotalBookCountByAuthor
-                ))
-                .entrySet()
-                .stream()
-                .sorted(Map.Entry.<String, Integer>comparingByValue().reversed())
-                .limit(limit)
+        long start = prolificAuthorsMetrics.start();
+        Map<String, Integer> bookCountByAuthor = computeMostProlificAuthorsWithBookCount(limit);
+        prolificAuthorsMetrics.record(start, bookCountByAuthor.size());
+        return bookCountByAuthor;
+    }
+    
+    private Map<String, Integer> computeMostProlificAuthorsWithBookCount(int limit) {
+        ServiceState current = state;
+        return current.prolificAuthorsByLimit().get(limit, key -> Collections.unmodifiableMap(
+            current.leaderboards().get().getTopAuthorsByBookCount(key).stream()
                 .collect(Collectors.toMap(
-                    Map.Entry::getKey,
-                    Map.Entry::getValue,
+                    BookLeaderboards.AuthorBookCount::author,
+                    BookLeaderboards.AuthorBookCount::bookCount,
                     (existing, replacement) -> existing,
-                    java.util.LinkedHashMap::new
-                ));
+                    LinkedHashMap::new
+                ))));
+    }
+    
+    public BoundedCache.CacheStats getResultCacheStats() {
+        return state.prolificAuthorsByLimit().stats();
+    }
+    
+    public List<Book> getMostReviewedBooks(int limit) {
+        return state.leaderboards().get().getMostReviewedBooks(limit);
+    }
+    
+    public List<Book> getHighestRatedBooks(int limit) {
+        return state.leaderboards().get().getHighestRatedBooks(limit);
+    }
+    
+    public List<Book> getCheapestBooksByGenre(String genre, int limit) {
+        return state.leaderboards().get().getCheapestBooksByGenre(genre, limit);
+    }
+    
+    public List<Book> getCheapestBooksByYear(int year, int limit) {
+        return state.leaderboards().get().getCheapestBooksByYear(year, limit);
+    }
+    
+    /**
+     * Ad-hoc ranking over the deduplicated books, kept to a bounded heap of {@code limit} entries.
+     */
+    public List<Book> getTopBooks(Predicate<Book> filter, Comparator<Book> ranking, int limit) {
+        return BookLeaderboards.topK(state.bookRepository().getAllUniqueBooks(), filter, ranking, limit);
     }
-}
\ No newline at end of file
+}
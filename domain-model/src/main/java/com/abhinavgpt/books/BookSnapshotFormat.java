@@ -0,0 +1,52 @@
+package com.abhinavgpt.books;
+
+/**
+ * Layout of the binary snapshot written by {@link BookSnapshotWriter}.
+ * <pre>
+ * header   magic:int  version:int  rowCount:int  sectionCount:int  checksum:long
+ *          sectionCount x (offset:long, length:long)
+ * sections in {@link Section} order
+ * </pre>
+ * The CRC32C checksum covers the sections and then the header with the checksum slot zeroed,
+ * so a damaged row count or section table is caught as well as damaged data.
+ * Columns are plain arrays of big-endian ints, shorts or doubles. String tables hold a count,
+ * count + 1 byte offsets and the UTF-8 bytes. Posting tables hold a count, count + 1 value
+ * offsets and the row ids. A rating between two steps is {@link BookColumns#OFF_GRID} in the
+ * tenths column; its exact value sits in {@code OFF_GRID_RATINGS} at the row's position in
+ * {@code OFF_GRID_ROWS}.
+ */
+final class BookSnapshotFormat {
+
+    static final int MAGIC = 0x424B534E;
+    static final int VERSION = 3;
+    static final int HEADER_FIXED_BYTES = 24;
+    static final int CHECKSUM_OFFSET = 16;
+    static final int SECTION_ENTRY_BYTES = 16;
+
+    enum Section {
+        TITLE_CODES,
+        AUTHOR_CODES,
+        GENRE_CODES,
+        RATING_TENTHS,
+        REVIEW_COUNTS,
+        PRICES,
+        YEARS,
+        TITLE_DICTIONARY,
+        AUTHOR_DICTIONARY,
+        GENRE_DICTIONARY,
+        AUTHOR_KEYS,
+        ROWS_BY_AUTHOR_KEY,
+        UNIQUE_ROWS_BY_AUTHOR_KEY,
+        ROWS_BY_RATING_TENTHS,
+        UNIQUE_ROWS_BY_RATING_TENTHS,
+        ALL_UNIQUE_ROWS,
+        SORTED_AUTHOR_CODES,
+        OFF_GRID_ROWS,
+        OFF_GRID_RATINGS
+    }
+
+    static final int HEADER_BYTES = HEADER_FIXED_BYTES + Section.values().length * SECTION_ENTRY_BYTES;
+
+    private BookSnapshotFormat() {
+    }
+}
@@ -0,0 +1,205 @@
+package com.abhinavgpt.books;
+
+import com.abhinavgpt.books.BookSnapshotFormat.Section;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.zip.CRC32C;
+
+/**
+ * Writes a loaded repository to the versioned, checksummed binary snapshot read by
+ * {@link SnapshotBookRepository}. The snapshot holds the dictionary-encoded columns together
+ * with the prebuilt indexes, so loading it needs neither CSV parsing nor index construction.
+ * The file is written to a temporary file in the target's directory and moved into place once
+ * complete; the temporary file is removed if writing fails.
+ */
+public final class BookSnapshotWriter {
+
+    private static final int WRITE_BUFFER_BYTES = 1 << 16;
+
+    private BookSnapshotWriter() {
+    }
+
+    public static void write(BookRepository repository, Path target) throws IOException {
+        BookColumns columns = BookColumns.fromBooks(repository.getAllBooksIncludingDuplicates());
+        Path temporaryFile = Files.createTempFile(target.toAbsolutePath().getParent(),
+            target.getFileName().toString(), ".tmp");
+        boolean moved = false;
+        try {
+            try (FileChannel channel = FileChannel.open(temporaryFile, StandardOpenOption.WRITE)) {
+                writeSnapshot(channel, columns);
+            }
+            Files.move(temporaryFile, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            moved = true;
+        } finally {
+            if (!moved) {
+                Files.deleteIfExists(temporaryFile);
+            }
+        }
+    }
+
+    private static void writeSnapshot(FileChannel channel, BookColumns columns) throws IOException {
+        SectionOutput output = new SectionOutput(channel, BookSnapshotFormat.HEADER_BYTES);
+        long[] sectionOffsets = new long[Section.values().length];
+        long[] sectionLengths = new long[Section.values().length];
+
+        for (Section section : Section.values()) {
+            sectionOffsets[section.ordinal()] = output.position();
+            writeSection(output, section, columns);
+            sectionLengths[section.ordinal()] = output.position() - sectionOffsets[section.ordinal()];
+        }
+        output.flush();
+
+        ByteBuffer header = ByteBuffer.allocate(BookSnapshotFormat.HEADER_BYTES);
+        header.putInt(BookSnapshotFormat.MAGIC)
+              .putInt(BookSnapshotFormat.VERSION)
+              .putInt(columns.rowCount)
+              .putInt(Section.values().length)
+              .putLong(0L);
+        for (int i = 0; i < sectionOffsets.length; i++) {
+            header.putLong(sectionOffsets[i]).putLong(sectionLengths[i]);
+        }
+        header.flip();
+        header.putLong(BookSnapshotFormat.CHECKSUM_OFFSET, output.checksumWith(header.duplicate()));
+        channel.position(0);
+        while (header.hasRemaining()) {
+            channel.write(header);
+        }
+        channel.force(true);
+    }
+
+    private static void writeSection(SectionOutput output, Section section, BookColumns columns) throws IOException {
+        switch (section) {
+            case TITLE_CODES -> output.putInts(columns.titleCodes);
+            case AUTHOR_CODES -> output.putInts(columns.authorCodes);
+            case GENRE_CODES -> output.putInts(columns.genreCodes);
+            case RATING_TENTHS -> output.putShorts(columns.ratingTenths);
+            case REVIEW_COUNTS -> output.putInts(columns.reviewCounts);
+            case PRICES -> output.putInts(columns.prices);
+            case YEARS -> output.putInts(columns.years);
+            case TITLE_DICTIONARY -> output.putStringTable(columns.titleDictionary);
+            case AUTHOR_DICTIONARY -> output.putStringTable(columns.authorDictionary);
+            case GENRE_DICTIONARY -> output.putStringTable(columns.genreDictionary);
+            case AUTHOR_KEYS -> output.putStringTable(columns.authorKeys);
+            case ROWS_BY_AUTHOR_KEY -> output.putPostingTable(columns.rowsByAuthorKey);
+            case UNIQUE_ROWS_BY_AUTHOR_KEY -> output.putPostingTable(columns.uniqueRowsByAuthorKey);
+            case ROWS_BY_RATING_TENTHS -> output.putPostingTable(columns.rowsByRatingTenths);
+            case UNIQUE_ROWS_BY_RATING_TENTHS -> output.putPostingTable(columns.uniqueRowsByRatingTenths);
+            case ALL_UNIQUE_ROWS -> output.putInts(columns.allUniqueRows);
+            case SORTED_AUTHOR_CODES -> output.putInts(columns.sortedAuthorCodes);
+            case OFF_GRID_ROWS -> output.putInts(columns.offGridRows);
+            case OFF_GRID_RATINGS -> output.putDoubles(columns.offGridRatings);
+        }
+    }
+
+    /**
+     * Buffered channel writer that checksums everything it writes.
+     */
+    private static final class SectionOutput {
+
+        private final FileChannel channel;
+        private final ByteBuffer buffer = ByteBuffer.allocateDirect(WRITE_BUFFER_BYTES);
+        private final CRC32C checksum = new CRC32C();
+        private long position;
+
+        SectionOutput(FileChannel channel, long startPosition) throws IOException {
+            this.channel = channel;
+            this.position = startPosition;
+            channel.position(startPosition);
+        }
+
+        long position() {
+            return position;
+        }
+
+        /**
+         * The checksum of everything written so far followed by {@code header}.
+         */
+        long checksumWith(ByteBuffer header) {
+            checksum.update(header);
+            return checksum.getValue();
+        }
+
+        void putInts(int[] values) throws IOException {
+            for (int value : values) {
+                ensureCapacity(Integer.BYTES);
+                buffer.putInt(value);
+            }
+            position += (long) values.length * Integer.BYTES;
+        }
+
+        void putShorts(short[] values) throws IOException {
+            for (short value : values) {
+                ensureCapacity(Short.BYTES);
+                buffer.putShort(value);
+            }
+            position += (long) values.length * Short.BYTES;
+        }
+
+        void putDoubles(double[] values) throws IOException {
+            for (double value : values) {
+                ensureCapacity(Double.BYTES);
+                buffer.putDouble(value);
+            }
+            position += (long) values.length * Double.BYTES;
+        }
+
+        void putStringTable(String[] values) throws IOException {
+            byte[][] encoded = new byte[values.length][];
+            int[] offsets = new int[values.length + 1];
+            for (int i = 0; i < values.length; i++) {
+                encoded[i] = values[i].getBytes(StandardCharsets.UTF_8);
+                offsets[i + 1] = Math.addExact(offsets[i], encoded[i].length);
+            }
+            putInts(new int[] {values.length});
+            putInts(offsets);
+            for (byte[] bytes : encoded) {
+                putBytes(bytes);
+            }
+        }
+
+        void putPostingTable(int[][] postings) throws IOException {
+            int[] offsets = new int[postings.length + 1];
+            for (int i = 0; i < postings.length; i++) {
+                offsets[i + 1] = Math.addExact(offsets[i], postings[i].length);
+            }
+            putInts(new int[] {postings.length});
+            putInts(offsets);
+            for (int[] rows : postings) {
+                putInts(rows);
+            }
+        }
+
+        void flush() throws IOException {
+            buffer.flip();
+            checksum.update(buffer.duplicate());
+            while (buffer.hasRemaining()) {
+                channel.write(buffer);
+            }
+            buffer.clear();
+        }
+
+        private void putBytes(byte[] bytes) throws IOException {
+            int written = 0;
+            while (written < bytes.length) {
+                ensureCapacity(1);
+                int chunk = Math.min(buffer.remaining(), bytes.length - written);
+                buffer.put(bytes, written, chunk);
+                written += chunk;
+            }
+            position += bytes.length;
+        }
+
+        private void ensureCapacity(int bytes) throws IOException {
+            if (buffer.remaining() < bytes) {
+                flush();
+            }
+        }
+    }
+}
@@ -0,0 +1,142 @@
+package com.abhinavgpt.books;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+import java.util.function.LongSupplier;
+
+/**
+ * Size-bounded, thread-safe LRU cache for derived query results.
+ * <p>
+ * Keys are spread over independently locked stripes, each an access-ordered map that evicts
+ * its least recently used entry when full, so concurrent readers of different keys rarely
+ * contend. Recency is tracked per stripe, so the evicted entry is the oldest of its stripe
+ * rather than of the whole cache; stripes hold at least 32 entries each, so small caches use
+ * fewer stripes and one of up to 63 entries is a single, exact LRU. Every entry remembers the data version it was computed from; once the version
+ * source moves on, older entries count as misses and are recomputed, which invalidates the
+ * whole cache in O(1). Hits, misses and evictions are counted with {@link LongAdder}s.
+ * <p>
+ * Loaders run outside the stripe lock, so two threads missing the same key at once may both
+ * compute it; the later result wins.
+ */
+public final class BoundedCache<K, V> {
+
+    public record CacheStats(long hits, long misses, long evictions, int size, int maxSize) {
+
+        public double hitRate() {
+            long requests = hits + misses;
+            return requests == 0 ? 0.0 : hits / (double) requests;
+        }
+    }
+
+    private static final int MAX_STRIPES = 16;
+    private static final int MIN_ENTRIES_PER_STRIPE = 32;
+
+    private record Entry<V>(long version, V value) {
+    }
+
+    private final List<Stripe<K, V>> stripes;
+    private final int maxSize;
+    private final LongSupplier versionSource;
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+
+    @SuppressWarnings("serial") // caches are never serialized
+    private static final class Stripe<K, V> extends LinkedHashMap<K, Entry<V>> {
+
+        private final int capacity;
+        private final LongAdder evictions;
+
+        private Stripe(int capacity, LongAdder evictions) {
+            super(16, 0.75f, true);
+            this.capacity = capacity;
+            this.evictions = evictions;
+        }
+
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<K, Entry<V>> eldest) {
+            if (size() > capacity) {
+                evictions.increment();
+                return true;
+            }
+            return false;
+        }
+    }
+
+    public BoundedCache(int maxSize) {
+        this(maxSize, () -> 0L);
+    }
+
+    public BoundedCache(int maxSize, LongSupplier versionSource) {
+        if (maxSize < 1) {
+            throw new IllegalArgumentException("Cache size must be at least 1");
+        }
+        int stripeCount = Math.min(MAX_STRIPES, Integer.highestOneBit(Math.max(1, maxSize / MIN_ENTRIES_PER_STRIPE)));
+        this.maxSize = maxSize;
+        this.versionSource = versionSource;
+        List<Stripe<K, V>> stripeList = new ArrayList<>(stripeCount);
+        for (int i = 0; i < stripeCount; i++) {
+            int capacity = maxSize / stripeCount + (i < maxSize % stripeCount ? 1 : 0);
+            stripeList.add(new Stripe<>(capacity, evictions));
+        }
+        this.stripes = List.copyOf(stripeList);
+    }
+
+    /**
+     * Returns the cached value for the key, computing and caching it on a miss. Null results
+     * are returned but not cached.
+     */
+    public V get(K key, Function<? super K, ? extends V> loader) {
+        long version = versionSource.getAsLong();
+        Stripe<K, V> stripe = stripeFor(key);
+        Entry<V> entry;
+        synchronized (stripe) {
+            entry = stripe.get(key);
+        }
+        if (entry != null && entry.version() >= version) {
+            hits.increment();
+            return entry.value();
+        }
+
+        misses.increment();
+        V value = loader.apply(key);
+        if (value != null) {
+            synchronized (stripe) {
+                stripe.put(key, new Entry<>(version, value));
+            }
+        }
+        return value;
+    }
+
+    public void invalidateAll() {
+        for (Stripe<K, V> stripe : stripes) {
+            synchronized (stripe) {
+                stripe.clear();
+            }
+        }
+    }
+
+    public int size() {
+        int size = 0;
+        for (Stripe<K, V> stripe : stripes) {
+            synchronized (stripe) {
+                size += stripe.size();
+            }
+        }
+        return size;
+    }
+
+    public CacheStats stats() {
+        return new CacheStats(hits.sum(), misses.sum(), evictions.sum(), size(), maxSize);
+    }
+
+    private Stripe<K, V> stripeFor(K key) {
+        int hash = key.hashCode();
+        hash ^= hash >>> 16;
+        return stripes.get(hash & (stripes.size() - 1));
+    }
+}
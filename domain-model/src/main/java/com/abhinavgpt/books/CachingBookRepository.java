@@ -0,0 +1,197 @@
+package com.abhinavgpt.books;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.function.Supplier;
+
+/**
+ * Decorator that memoizes another repository's answers in a {@link BoundedCache}.
+ * <p>
+ * Keys are normalized the way the repositories match them, so "Jeff Kinney" and " jeff kinney"
+ * share an entry, and ratings are keyed by their exact value. Entries are tagged with the
+ * delegate's {@link BookRepository#getDataVersion()} and stop matching once it changes, so a
+ * mutable delegate never serves stale results. Only results the delegate has to compute are
+ * cached: the author count and the whole-dataset lists are already held by every repository
+ * and are passed through, as caching them would only add a lock and an entry per call.
+ * {@link #findBooks(BookQuery)} is passed through because queries have no value identity, and
+ * the paged variants are passed through because their windows are read from the delegate's
+ * own lists.
+ */
+public final class CachingBookRepository implements BookRepository {
+
+    public static final int DEFAULT_MAX_ENTRIES = 4_096;
+
+    private enum Lookup {
+        BOOKS_BY_AUTHOR,
+        UNIQUE_BOOKS_BY_AUTHOR,
+        ALL_BOOKS_BY_AUTHOR,
+        PRICES_BY_AUTHOR,
+        BOOKS_BY_RATING,
+        ALL_BOOKS_BY_RATING,
+        BOOKS_BY_RATING_RANGE,
+        DUPLICATES_ACROSS_YEARS,
+        WORK_TIMELINES
+    }
+
+    private record CacheKey(Lookup lookup, Object argument) {
+    }
+
+    private record RatingRange(double minRating, double maxRating) {
+    }
+
+    private final BookRepository delegate;
+    private final BoundedCache<CacheKey, Object> cache;
+
+    public CachingBookRepository(BookRepository delegate) {
+        this(delegate, DEFAULT_MAX_ENTRIES);
+    }
+
+    public CachingBookRepository(BookRepository delegate, int maxEntries) {
+        this.delegate = Objects.requireNonNull(delegate, "delegate");
+        this.cache = new BoundedCache<>(maxEntries, delegate::getDataVersion);
+    }
+
+    @Override
+    public List<Book> getBooksByAuthor(String author) {
+        String authorKey = normalizeAuthor(author);
+        return authorKey == null ? delegate.getBooksByAuthor(author)
+            : cached(Lookup.BOOKS_BY_AUTHOR, authorKey, () -> delegate.getBooksByAuthor(author));
+    }
+
+    @Override
+    public List<Book> getUniqueBooksByAuthor(String author) {
+        String authorKey = normalizeAuthor(author);
+        return authorKey == null ? delegate.getUniqueBooksByAuthor(author)
+            : cached(Lookup.UNIQUE_BOOKS_BY_AUTHOR, authorKey, () -> delegate.getUniqueBooksByAuthor(author));
+    }
+
+    @Override
+    public List<Book> getAllBooksByAuthorIncludingDuplicates(String author) {
+        String authorKey = normalizeAuthor(author);
+        return authorKey == null ? delegate.getAllBooksByAuthorIncludingDuplicates(author)
+            : cached(Lookup.ALL_BOOKS_BY_AUTHOR, authorKey, () -> delegate.getAllBooksByAuthorIncludingDuplicates(author));
+    }
+
+    @Override
+    public int getBookCountByAuthor(String author) {
+        return delegate.getBookCountByAuthor(author);
+    }
+
+    @Override
+    public Map<String, Integer> getBooksAndPricesByAuthor(String author) {
+        String authorKey = normalizeAuthor(author);
+        return authorKey == null ? delegate.getBooksAndPricesByAuthor(author)
+            : cached(Lookup.PRICES_BY_AUTHOR, authorKey,
+                () -> Collections.unmodifiableMap(delegate.getBooksAndPricesByAuthor(author)));
+    }
+
+    @Override
+    public List<Book> getBooksByRating(double rating) {
+        return isOnScale(rating)
+            ? cached(Lookup.BOOKS_BY_RATING, rating, () -> delegate.getBooksByRating(rating))
+            : delegate.getBooksByRating(rating);
+    }
+
+    @Override
+    public List<Book> getAllBooksByRatingIncludingDuplicates(double rating) {
+        return isOnScale(rating)
+            ? cached(Lookup.ALL_BOOKS_BY_RATING, rating,
+                () -> delegate.getAllBooksByRatingIncludingDuplicates(rating))
+            : delegate.getAllBooksByRatingIncludingDuplicates(rating);
+    }
+
+    @Override
+    public List<Book> getBooksByRatingRange(double minRating, double maxRating) {
+        if (!RatingScale.overlapsScale(minRating, maxRating)) {
+            return delegate.getBooksByRatingRange(minRating, maxRating);
+        }
+        RatingRange range = new RatingRange(minRating, maxRating);
+        return cached(Lookup.BOOKS_BY_RATING_RANGE, range, () -> delegate.getBooksByRatingRange(minRating, maxRating));
+    }
+
+    @Override
+    public List<Book> findBooks(BookQuery query) {
+        return delegate.findBooks(query);
+    }
+
+    @Override
+    public List<String> getAllAuthors() {
+        return delegate.getAllAuthors();
+    }
+
+    @Override
+    public List<Book> getAllUniqueBooks() {
+        return delegate.getAllUniqueBooks();
+    }
+
+    @Override
+    public List<Book> getAllBooksIncludingDuplicates() {
+        return delegate.getAllBooksIncludingDuplicates();
+    }
+
+    @Override
+    public Map<String, List<Book>> getDuplicateBooksAcrossYears() {
+        return cached(Lookup.DUPLICATES_ACROSS_YEARS, null, delegate::getDuplicateBooksAcrossYears);
+    }
+
+    @Override
+    public WorkTimelines getWorkTimelines() {
+        return cached(Lookup.WORK_TIMELINES, null, delegate::getWorkTimelines);
+    }
+
+    @Override
+    public PagedResult<String> getAllAuthorsPaged() {
+        return delegate.getAllAuthorsPaged();
+    }
+
+    @Override
+    public PagedResult<Book> getAllUniqueBooksPaged() {
+        return delegate.getAllUniqueBooksPaged();
+    }
+
+    @Override
+    public PagedResult<Book> getBooksByRatingPaged(double rating) {
+        return delegate.getBooksByRatingPaged(rating);
+    }
+
+    @Override
+    public PagedResult<Book> getBooksByRatingRangePaged(double minRating, double maxRating) {
+        return delegate.getBooksByRatingRangePaged(minRating, maxRating);
+    }
+
+    @Override
+    public PagedResult<Map.Entry<String, List<Book>>> getDuplicateBooksAcrossYearsPaged() {
+        return delegate.getDuplicateBooksAcrossYearsPaged();
+    }
+
+    @Override
+    public long getDataVersion() {
+        return delegate.getDataVersion();
+    }
+
+    public BoundedCache.CacheStats getCacheStats() {
+        return cache.stats();
+    }
+
+    public void invalidateAll() {
+        cache.invalidateAll();
+    }
+
+    @SuppressWarnings("unchecked")
+    private <T> T cached(Lookup lookup, Object argument, Supplier<T> loader) {
+        return (T) cache.get(new CacheKey(lookup, argument), key -> loader.get());
+    }
+
+    private static String normalizeAuthor(String author) {
+        if (author == null || author.trim().isEmpty()) {
+            return null;
+        }
+        return author.toLowerCase().trim();
+    }
+
+    private static boolean isOnScale(double rating) {
+        return rating >= 0 && rating <= 5;
+    }
+}
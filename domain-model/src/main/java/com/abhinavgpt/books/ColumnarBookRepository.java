@@ -0,0 +1,167 @@
+package com.abhinavgpt.books;
+
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Stream;
+
+/**
+ * Struct-of-arrays repository for very large datasets. Rows live in primitive columns
+ * ({@code int} prices, years and review counts, ratings as {@code short} tenths) with
+ * titles, authors and genres dictionary-encoded, and every index is an {@code int[]}
+ * posting list of rows instead of a {@code List<Book>}. {@link Book} records are only
+ * created for the rows a query returns, when the caller reads them.
+ * <p>
+ * Ratings between two steps of 0.1 are kept exactly in a side table and answered through
+ * {@link OffGridBooks}, which is materialized once since such ratings are rare. Work
+ * timelines are built once from the work id column, and queries run on bitmaps built from
+ * the columns; both are built on first use.
+ */
+public final class ColumnarBookRepository implements BookRepository {
+
+    private final BookColumns columns;
+    private final Map<String, Integer> authorKeyIndex;
+    private final List<String> sortedAuthors;
+    private final OffGridBooks offGridBooks;
+    private final OffGridBooks uniqueOffGridBooks;
+    private final LazyIndex<WorkTimelines> workTimelines;
+    private final LazyIndex<BookQueryEngine> bookQueryEngine;
+
+    public ColumnarBookRepository(List<Book> books) {
+        this(BookColumns.fromBooks(books != null ? books : List.of()));
+    }
+
+    /**
+     * Builds the columns straight from a stream of books, so no intermediate list of
+     * {@link Book} objects is ever held. The stream is closed once it has been consumed.
+     */
+    public static ColumnarBookRepository fromStream(Stream<Book> books) {
+        try (books) {
+            return new ColumnarBookRepository(BookColumns.fromBooks(books.iterator()));
+        }
+    }
+
+    private ColumnarBookRepository(BookColumns columns) {
+        this.columns = columns;
+        this.authorKeyIndex = new HashMap<>(columns.authorKeys.length * 2);
+        for (int key = 0; key < columns.authorKeys.length; key++) {
+            authorKeyIndex.put(columns.authorKeys[key], key);
+        }
+        int[] sortedAuthorCodes = columns.sortedAuthorCodes;
+        this.sortedAuthors = new LazyMaterializedList<>(sortedAuthorCodes.length,
+            index -> columns.authorDictionary[sortedAuthorCodes[index]]);
+        this.offGridBooks = OffGridBooks.of(LazyMaterializedList.ofRows(columns.offGridRows, columns));
+        this.uniqueOffGridBooks = offGridBooks.newestEditionPerWork();
+        this.workTimelines = new LazyIndex<>(() -> WorkTimelines.fromColumns(columns));
+        this.bookQueryEngine = new LazyIndex<>(() -> BookQueryEngine.fromColumns(columns));
+    }
+
+    @Override
+    public List<Book> getBooksByAuthor(String author) {
+        return getUniqueBooksByAuthor(author);
+    }
+
+    @Override
+    public List<Book> getBooksByRating(double rating) {
+        if (!RatingScale.isRepresentable(rating)) {
+            return uniqueOffGridBooks.withRating(rating);
+        }
+        return LazyMaterializedList.ofRows(columns.uniqueRowsByRatingTenths[RatingScale.toTenths(rating)], columns);
+    }
+
+    @Override
+    public List<Book> getBooksByRatingRange(double minRating, double maxRating) {
+        if (!RatingScale.overlapsScale(minRating, maxRating)) {
+            return List.of();
+        }
+        IntArrayList rows = new IntArrayList();
+        for (int tenths = RatingScale.floorTenths(maxRating); tenths >= RatingScale.ceilTenths(minRating); tenths--) {
+            for (int row : columns.uniqueRowsByRatingTenths[tenths]) {
+                rows.add(row);
+            }
+        }
+        return uniqueOffGridBooks.mergeBetween(LazyMaterializedList.ofRows(rows.toArray(), columns), minRating, maxRating);
+    }
+
+    @Override
+    public List<String> getAllAuthors() {
+        return sortedAuthors;
+    }
+
+    @Override
+    public int getBookCountByAuthor(String author) {
+        int authorKey = findAuthorKey(author);
+        return authorKey < 0 ? 0 : columns.rowsByAuthorKey[authorKey].length;
+    }
+
+    @Override
+    public Map<String, Integer> getBooksAndPricesByAuthor(String author) {
+        int authorKey = findAuthorKey(author);
+        if (authorKey < 0) {
+            return Map.of();
+        }
+
+        Map<String, Integer> pricesByTitle = new LinkedHashMap<>();
+        for (int row : columns.rowsByAuthorKey[authorKey]) {
+            pricesByTitle.merge(columns.titleDictionary[columns.titleCodes[row]], columns.prices[row], Integer::max);
+        }
+        return pricesByTitle;
+    }
+
+    @Override
+    public List<Book> getUniqueBooksByAuthor(String author) {
+        int authorKey = findAuthorKey(author);
+        return authorKey < 0 ? List.of() : LazyMaterializedList.ofRows(columns.uniqueRowsByAuthorKey[authorKey], columns);
+    }
+
+    @Override
+    public List<Book> getAllUniqueBooks() {
+        return LazyMaterializedList.ofRows(columns.allUniqueRows, columns);
+    }
+
+    @Override
+    public List<Book> getAllBooksIncludingDuplicates() {
+        return new LazyMaterializedList<>(columns.rowCount, columns::materialize);
+    }
+
+    @Override
+    public List<Book> getAllBooksByAuthorIncludingDuplicates(String author) {
+        int authorKey = findAuthorKey(author);
+        return authorKey < 0 ? List.of() : LazyMaterializedList.ofRows(columns.rowsByAuthorKey[authorKey], columns);
+    }
+
+    @Override
+    public List<Book> getAllBooksByRatingIncludingDuplicates(double rating) {
+        if (!RatingScale.isRepresentable(rating)) {
+            return offGridBooks.withRating(rating);
+        }
+        return LazyMaterializedList.ofRows(columns.rowsByRatingTenths[RatingScale.toTenths(rating)], columns);
+    }
+
+    @Override
+    public List<Book> findBooks(BookQuery query) {
+        return bookQueryEngine.get().execute(query);
+    }
+
+    @Override
+    public Map<String, List<Book>> getDuplicateBooksAcrossYears() {
+        return workTimelines.get().getDuplicateBooksAcrossYears();
+    }
+
+    @Override
+    public WorkTimelines getWorkTimelines() {
+        return workTimelines.get();
+    }
+
+    public int getRowCount() {
+        return columns.rowCount;
+    }
+
+    private int findAuthorKey(String author) {
+        if (author == null || author.trim().isEmpty()) {
+            return -1;
+        }
+        return authorKeyIndex.getOrDefault(author.toLowerCase().trim(), -1);
+    }
+}
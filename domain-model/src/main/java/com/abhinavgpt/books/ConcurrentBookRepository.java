@@ -0,0 +1,574 @@
+package com.abhinavgpt.books;
+
+import com.abhinavgpt.books.WorkTimelines.Work;
+
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Objects;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Mutable repository that keeps its indexes up to date one row at a time. Readers never lock
+ * or wait.
+ * <p>
+ * Every index is a {@link PersistentSortedMap}, so a write copies only the entries a row
+ * belongs to: its author's view, its work's timeline and unique entries, and its rating
+ * bucket. Writers are serialized by a lock and, after each change, publish an immutable
+ * {@link State} holding the new version of every index through a volatile field. A reader
+ * takes the current state once and answers from it, so each call sees a single version and
+ * the lists it returns stay valid while later writes land. A read that spans several calls
+ * can observe writes in between; {@link #snapshot()} returns an immutable
+ * {@link BookRepositoryImpl} of a single version for that.
+ * <p>
+ * Results match {@link BookRepositoryImpl} built from the same rows in the same order. An
+ * updated row keeps its position.
+ */
+public final class ConcurrentBookRepository implements BookRepository {
+
+    private static final Comparator<BookRepositoryImpl.WorkKey> WORK_ORDER =
+        Comparator.comparing(BookRepositoryImpl.WorkKey::title).thenComparing(BookRepositoryImpl.WorkKey::author);
+
+    private record Row(long sequence, Book book) {
+    }
+
+    private record AuthorView(List<Book> books, List<Book> uniqueBooks, Map<String, Integer> pricesByTitle) {
+    }
+
+    /**
+     * One version of every index, as published by the writer. Rows are keyed by their
+     * sequence number, and unique entries by the sequence of the work's first row they stand
+     * for, so every list is in dataset order.
+     */
+    private static final class State {
+
+        final long version;
+        final PersistentSortedMap<Long, Book> books;
+        final PersistentSortedMap<Long, Book> uniqueBooks;
+        final List<PersistentSortedMap<Long, Book>> booksByRatingTenths;
+        final List<PersistentSortedMap<Long, Book>> uniqueBooksByRatingTenths;
+        final OffGridBooks offGridBooks;
+        final OffGridBooks uniqueOffGridBooks;
+        final PersistentSortedMap<String, AuthorView> authorViewsByKey;
+        final PersistentSortedMap<String, Integer> rowCountByAuthorName;
+        final WorkTimelines workTimelines;
+        final LazyIndex<BookRepositoryImpl> snapshot;
+
+        State(long version, PersistentSortedMap<Long, Book> books, PersistentSortedMap<Long, Book> uniqueBooks,
+              List<PersistentSortedMap<Long, Book>> booksByRatingTenths,
+              List<PersistentSortedMap<Long, Book>> uniqueBooksByRatingTenths,
+              OffGridBooks offGridBooks, OffGridBooks uniqueOffGridBooks,
+              PersistentSortedMap<String, AuthorView> authorViewsByKey,
+              PersistentSortedMap<String, Integer> rowCountByAuthorName, WorkTimelines workTimelines) {
+            this.version = version;
+            this.books = books;
+            this.uniqueBooks = uniqueBooks;
+            this.booksByRatingTenths = booksByRatingTenths;
+            this.uniqueBooksByRatingTenths = uniqueBooksByRatingTenths;
+            this.offGridBooks = offGridBooks;
+            this.uniqueOffGridBooks = uniqueOffGridBooks;
+            this.authorViewsByKey = authorViewsByKey;
+            this.rowCountByAuthorName = rowCountByAuthorName;
+            this.workTimelines = workTimelines;
+            this.snapshot = new LazyIndex<>(() -> new BookRepositoryImpl(books.values()));
+        }
+    }
+
+    /**
+     * The works of one version, in order of their first row. A work's id is its position, so
+     * it is found in O(log n) from the sequence of its first row.
+     */
+    private record PublishedWorks(PersistentSortedMap<Long, Work> worksByFirstRow,
+                                  PersistentSortedMap<BookRepositoryImpl.WorkKey, Long> firstRowByWork,
+                                  Map<String, List<Book>> duplicatesAcrossYears) implements WorkTimelines.Works {
+
+        @Override
+        public int count() {
+            return worksByFirstRow.size();
+        }
+
+        @Override
+        public int idOf(BookRepositoryImpl.WorkKey workKey) {
+            Long firstRow = firstRowByWork.get(workKey);
+            return firstRow == null ? -1 : worksByFirstRow.indexOf(firstRow);
+        }
+
+        @Override
+        public int editionCount(int workId) {
+            return work(workId).editions().size();
+        }
+
+        @Override
+        public List<Book> editions(int workId) {
+            return work(workId).editions();
+        }
+
+        @Override
+        public Book latestEdition(int workId) {
+            return work(workId).latest();
+        }
+
+        @Override
+        public int yearsOnList(int workId) {
+            return work(workId).yearsOnList();
+        }
+
+        @Override
+        public int reviewGrowth(int workId) {
+            return work(workId).reviewGrowth();
+        }
+
+        @Override
+        public int priceChange(int workId) {
+            return work(workId).priceChange();
+        }
+
+        @Override
+        public WorkTimelines.WorkTrend trend(int workId) {
+            return work(workId).trend(workId);
+        }
+
+        private Work work(int workId) {
+            return worksByFirstRow.values().get(workId);
+        }
+    }
+
+    /**
+     * Works listed more than once, iterated in order of their first row and looked up by key.
+     */
+    private static final class DuplicatesView extends AbstractMap<String, List<Book>> {
+
+        private final PersistentSortedMap<Long, Work> duplicatesByFirstRow;
+        private final PersistentSortedMap<String, Work> duplicatesByKey;
+
+        DuplicatesView(PersistentSortedMap<Long, Work> duplicatesByFirstRow,
+                       PersistentSortedMap<String, Work> duplicatesByKey) {
+            this.duplicatesByFirstRow = duplicatesByFirstRow;
+            this.duplicatesByKey = duplicatesByKey;
+        }
+
+        @Override
+        public List<Book> get(Object key) {
+            Work work = key instanceof String duplicateKey ? duplicatesByKey.get(duplicateKey) : null;
+            return work != null ? work.editions() : null;
+        }
+
+        @Override
+        public boolean containsKey(Object key) {
+            return get(key) != null;
+        }
+
+        @Override
+        public int size() {
+            return duplicatesByFirstRow.size();
+        }
+
+        @Override
+        public Set<Entry<String, List<Book>>> entrySet() {
+            return new AbstractSet<>() {
+
+                @Override
+                public Iterator<Entry<String, List<Book>>> iterator() {
+                    Iterator<Work> works = duplicatesByFirstRow.values().iterator();
+                    return new Iterator<>() {
+
+                        @Override
+                        public boolean hasNext() {
+                            return works.hasNext();
+                        }
+
+                        @Override
+                        public Entry<String, List<Book>> next() {
+                            Work work = works.next();
+                            return Map.entry(work.duplicateKey(), work.editions());
+                        }
+                    };
+                }
+
+                @Override
+                public int size() {
+                    return duplicatesByFirstRow.size();
+                }
+            };
+        }
+    }
+
+    private final ReentrantLock writeLock = new ReentrantLock();
+    private volatile State state;
+
+    // Only touched while holding the write lock; published as a State after each change.
+    private long nextSequence;
+    private PersistentSortedMap<Long, Book> books = PersistentSortedMap.empty();
+    private PersistentSortedMap<Long, Book> uniqueBooks = PersistentSortedMap.empty();
+    private final List<PersistentSortedMap<Long, Book>> booksByRatingTenths = new ArrayList<>(RatingScale.BUCKET_COUNT);
+    private final List<PersistentSortedMap<Long, Book>> uniqueBooksByRatingTenths = new ArrayList<>(RatingScale.BUCKET_COUNT);
+    private PersistentSortedMap<Long, Book> offGridBooks = PersistentSortedMap.empty();
+    private PersistentSortedMap<Long, Book> uniqueOffGridBooks = PersistentSortedMap.empty();
+    private boolean offGridBooksChanged;
+    private PersistentSortedMap<String, AuthorView> authorViewsByKey = PersistentSortedMap.empty();
+    private PersistentSortedMap<String, Integer> rowCountByAuthorName = PersistentSortedMap.empty();
+    private PersistentSortedMap<Long, Work> worksByFirstRow = PersistentSortedMap.empty();
+    private PersistentSortedMap<BookRepositoryImpl.WorkKey, Long> firstRowByWork = PersistentSortedMap.empty(WORK_ORDER);
+    private PersistentSortedMap<Long, Work> duplicatesByFirstRow = PersistentSortedMap.empty();
+    private PersistentSortedMap<String, Work> duplicatesByKey = PersistentSortedMap.empty();
+    private final Map<BookRepositoryImpl.WorkKey, List<Row>> rowsByWork = new HashMap<>();
+    private final Map<String, NavigableMap<Long, Book>> rowsByAuthorKey = new HashMap<>();
+
+    public ConcurrentBookRepository() {
+        this(List.of());
+    }
+
+    public ConcurrentBookRepository(List<Book> books) {
+        for (int tenths = 0; tenths < RatingScale.BUCKET_COUNT; tenths++) {
+            booksByRatingTenths.add(PersistentSortedMap.empty());
+            uniqueBooksByRatingTenths.add(PersistentSortedMap.empty());
+        }
+        for (Book book : books != null ? books : List.<Book>of()) {
+            insertRow(nextSequence++, Objects.requireNonNull(book, "book"));
+        }
+        publish(0);
+    }
+
+    public void addBook(Book book) {
+        addBooks(List.of(book));
+    }
+
+    /**
+     * Appends the books as a single change: a reader sees either none or all of them.
+     */
+    public void addBooks(Collection<Book> books) {
+        List<Book> added = List.copyOf(books);
+        if (added.isEmpty()) {
+            return;
+        }
+        writeLock.lock();
+        try {
+            for (Book book : added) {
+                insertRow(nextSequence++, book);
+            }
+            publish(state.version + 1);
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    /**
+     * Removes one entry equal to the given book. Returns false when there is none.
+     */
+    public boolean removeBook(Book book) {
+        writeLock.lock();
+        try {
+            Row row = findRow(book);
+            if (row == null) {
+                return false;
+            }
+            deleteRow(row);
+            publish(state.version + 1);
+            return true;
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    /**
+     * Replaces one entry equal to {@code existing}, keeping its position in the dataset.
+     * Returns false when there is no such entry.
+     */
+    public boolean updateBook(Book existing, Book replacement) {
+        Objects.requireNonNull(replacement, "replacement");
+        writeLock.lock();
+        try {
+            Row row = findRow(existing);
+            if (row == null) {
+                return false;
+            }
+            deleteRow(row);
+            insertRow(row.sequence(), replacement);
+            publish(state.version + 1);
+            return true;
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    /**
+     * Immutable repository holding exactly the rows that {@link #getAllBooksIncludingDuplicates()}
+     * returns for the current version. It is built on the first request after each write.
+     */
+    public BookRepositoryImpl snapshot() {
+        return state.snapshot.get();
+    }
+
+    @Override
+    public long getDataVersion() {
+        return state.version;
+    }
+
+    @Override
+    public List<Book> getBooksByAuthor(String author) {
+        return getUniqueBooksByAuthor(author);
+    }
+
+    @Override
+    public List<Book> getUniqueBooksByAuthor(String author) {
+        AuthorView view = findAuthorView(author);
+        return view != null ? view.uniqueBooks() : List.of();
+    }
+
+    @Override
+    public List<Book> getAllBooksByAuthorIncludingDuplicates(String author) {
+        AuthorView view = findAuthorView(author);
+        return view != null ? view.books() : List.of();
+    }
+
+    @Override
+    public int getBookCountByAuthor(String author) {
+        AuthorView view = findAuthorView(author);
+        return view != null ? view.books().size() : 0;
+    }
+
+    @Override
+    public Map<String, Integer> getBooksAndPricesByAuthor(String author) {
+        AuthorView view = findAuthorView(author);
+        return view != null ? view.pricesByTitle() : Map.of();
+    }
+
+    @Override
+    public List<Book> getBooksByRating(double rating) {
+        State current = state;
+        if (!RatingScale.isRepresentable(rating)) {
+            return current.uniqueOffGridBooks.withRating(rating);
+        }
+        return current.uniqueBooksByRatingTenths.get(RatingScale.toTenths(rating)).values();
+    }
+
+    @Override
+    public List<Book> getAllBooksByRatingIncludingDuplicates(double rating) {
+        State current = state;
+        if (!RatingScale.isRepresentable(rating)) {
+            return current.offGridBooks.withRating(rating);
+        }
+        return current.booksByRatingTenths.get(RatingScale.toTenths(rating)).values();
+    }
+
+    @Override
+    public List<Book> getBooksByRatingRange(double minRating, double maxRating) {
+        if (!RatingScale.overlapsScale(minRating, maxRating)) {
+            return List.of();
+        }
+        State current = state;
+        List<Book> booksInRange = new ArrayList<>();
+        for (int tenths = RatingScale.floorTenths(maxRating); tenths >= RatingScale.ceilTenths(minRating); tenths--) {
+            booksInRange.addAll(current.uniqueBooksByRatingTenths.get(tenths).values());
+        }
+        return current.uniqueOffGridBooks.mergeBetween(Collections.unmodifiableList(booksInRange), minRating, maxRating);
+    }
+
+    @Override
+    public List<String> getAllAuthors() {
+        return state.rowCountByAuthorName.keys();
+    }
+
+    @Override
+    public List<Book> getAllUniqueBooks() {
+        return state.uniqueBooks.values();
+    }
+
+    @Override
+    public List<Book> getAllBooksIncludingDuplicates() {
+        return state.books.values();
+    }
+
+    @Override
+    public Map<String, List<Book>> getDuplicateBooksAcrossYears() {
+        return state.workTimelines.getDuplicateBooksAcrossYears();
+    }
+
+    @Override
+    public WorkTimelines getWorkTimelines() {
+        return state.workTimelines;
+    }
+
+    private void publish(long version) {
+        State previous = state;
+        boolean rebuildOffGridBooks = previous == null || offGridBooksChanged;
+        state = new State(version, books, uniqueBooks, List.copyOf(booksByRatingTenths),
+            List.copyOf(uniqueBooksByRatingTenths),
+            rebuildOffGridBooks ? OffGridBooks.of(offGridBooks.values()) : previous.offGridBooks,
+            rebuildOffGridBooks ? OffGridBooks.of(uniqueOffGridBooks.values()) : previous.uniqueOffGridBooks,
+            authorViewsByKey, rowCountByAuthorName,
+            WorkTimelines.of(new PublishedWorks(worksByFirstRow, firstRowByWork,
+                new DuplicatesView(duplicatesByFirstRow, duplicatesByKey))));
+        offGridBooksChanged = false;
+    }
+
+    private AuthorView findAuthorView(String author) {
+        if (author == null || author.trim().isEmpty()) {
+            return null;
+        }
+        return state.authorViewsByKey.get(author.toLowerCase().trim());
+    }
+
+    private Row findRow(Book book) {
+        if (book == null) {
+            return null;
+        }
+        for (Row row : rowsByWork.getOrDefault(BookRepositoryImpl.WorkKey.of(book), List.of())) {
+            if (row.book().equals(book)) {
+                return row;
+            }
+        }
+        return null;
+    }
+
+    private void insertRow(long sequence, Book book) {
+        Row row = new Row(sequence, book);
+        books = books.put(sequence, book);
+        if (OffGridBooks.isOffGrid(book)) {
+            offGridBooks = offGridBooks.put(sequence, book);
+            offGridBooksChanged = true;
+        } else {
+            int tenths = RatingScale.toTenths(book.userRating());
+            booksByRatingTenths.set(tenths, booksByRatingTenths.get(tenths).put(sequence, book));
+        }
+        Integer rowCount = rowCountByAuthorName.get(book.author());
+        rowCountByAuthorName = rowCountByAuthorName.put(book.author(), rowCount == null ? 1 : rowCount + 1);
+
+        BookRepositoryImpl.WorkKey workKey = BookRepositoryImpl.WorkKey.of(book);
+        List<Row> previousRows = rowsByWork.getOrDefault(workKey, List.of());
+        List<Row> rows = new ArrayList<>(previousRows);
+        int insertAt = 0;
+        while (insertAt < rows.size() && rows.get(insertAt).sequence() < sequence) insertAt++;
+        rows.add(insertAt, row);
+        replaceWorkRows(workKey, previousRows, rows);
+
+        rowsByAuthorKey.computeIfAbsent(workKey.author(), key -> new TreeMap<>()).put(sequence, book);
+        publishAuthorView(workKey.author());
+    }
+
+    private void deleteRow(Row row) {
+        Book book = row.book();
+        books = books.remove(row.sequence());
+        if (OffGridBooks.isOffGrid(book)) {
+            offGridBooks = offGridBooks.remove(row.sequence());
+            offGridBooksChanged = true;
+        } else {
+            int tenths = RatingScale.toTenths(book.userRating());
+            booksByRatingTenths.set(tenths, booksByRatingTenths.get(tenths).remove(row.sequence()));
+        }
+        int rowCount = rowCountByAuthorName.get(book.author());
+        rowCountByAuthorName = rowCount == 1
+            ? rowCountByAuthorName.remove(book.author())
+            : rowCountByAuthorName.put(book.author(), rowCount - 1);
+
+        BookRepositoryImpl.WorkKey workKey = BookRepositoryImpl.WorkKey.of(book);
+        List<Row> previousRows = rowsByWork.get(workKey);
+        List<Row> rows = new ArrayList<>(previousRows);
+        rows.remove(row);
+        replaceWorkRows(workKey, previousRows, rows);
+
+        rowsByAuthorKey.get(workKey.author()).remove(row.sequence());
+        publishAuthorView(workKey.author());
+    }
+
+    /**
+     * Moves a work from what its old rows produced to what its new rows produce: its timeline,
+     * its place among the works listed more than once, and its unique entries. A work appears
+     * at the position of its first row, as its newest edition, overall; within each rating it
+     * appears at the position of its first row with that rating.
+     */
+    private void replaceWorkRows(BookRepositoryImpl.WorkKey workKey, List<Row> previousRows, List<Row> rows) {
+        if (!previousRows.isEmpty()) {
+            long firstRow = previousRows.get(0).sequence();
+            Work previous = worksByFirstRow.get(firstRow);
+            worksByFirstRow = worksByFirstRow.remove(firstRow);
+            duplicatesByFirstRow = duplicatesByFirstRow.remove(firstRow);
+            duplicatesByKey = duplicatesByKey.remove(previous.duplicateKey());
+            uniqueBooks = uniqueBooks.remove(firstRow);
+            for (Row entry : uniqueEntriesByRating(previousRows).values()) {
+                removeUniqueEntry(entry);
+            }
+        }
+
+        if (rows.isEmpty()) {
+            rowsByWork.remove(workKey);
+            firstRowByWork = firstRowByWork.remove(workKey);
+            return;
+        }
+        rowsByWork.put(workKey, Collections.unmodifiableList(rows));
+        long firstRow = rows.get(0).sequence();
+        Work work = Work.of(workKey, rows.stream().map(Row::book).toList());
+        worksByFirstRow = worksByFirstRow.put(firstRow, work);
+        firstRowByWork = firstRowByWork.put(workKey, firstRow);
+        if (rows.size() > 1) {
+            duplicatesByFirstRow = duplicatesByFirstRow.put(firstRow, work);
+            duplicatesByKey = duplicatesByKey.put(work.duplicateKey(), work);
+        }
+        uniqueBooks = uniqueBooks.put(firstRow, work.latest());
+        for (Row entry : uniqueEntriesByRating(rows).values()) {
+            putUniqueEntry(entry);
+        }
+    }
+
+    /**
+     * The work's unique entry for each rating among its rows: the newest edition with that
+     * rating, at the position of the first row with it.
+     */
+    private static Map<Double, Row> uniqueEntriesByRating(List<Row> rows) {
+        Map<Double, Row> entries = new HashMap<>();
+        for (Row row : rows) {
+            entries.merge(row.book().userRating(), row,
+                (first, later) -> new Row(first.sequence(), BookRepositoryImpl.newerEdition(first.book(), later.book())));
+        }
+        return entries;
+    }
+
+    private void putUniqueEntry(Row entry) {
+        if (OffGridBooks.isOffGrid(entry.book())) {
+            uniqueOffGridBooks = uniqueOffGridBooks.put(entry.sequence(), entry.book());
+            offGridBooksChanged = true;
+        } else {
+            int tenths = RatingScale.toTenths(entry.book().userRating());
+            uniqueBooksByRatingTenths.set(tenths, uniqueBooksByRatingTenths.get(tenths).put(entry.sequence(), entry.book()));
+        }
+    }
+
+    private void removeUniqueEntry(Row entry) {
+        if (OffGridBooks.isOffGrid(entry.book())) {
+            uniqueOffGridBooks = uniqueOffGridBooks.remove(entry.sequence());
+            offGridBooksChanged = true;
+        } else {
+            int tenths = RatingScale.toTenths(entry.book().userRating());
+            uniqueBooksByRatingTenths.set(tenths, uniqueBooksByRatingTenths.get(tenths).remove(entry.sequence()));
+        }
+    }
+
+    private void publishAuthorView(String authorKey) {
+        NavigableMap<Long, Book> rows = rowsByAuthorKey.get(authorKey);
+        if (rows.isEmpty()) {
+            rowsByAuthorKey.remove(authorKey);
+            authorViewsByKey = authorViewsByKey.remove(authorKey);
+            return;
+        }
+
+        Map<String, Book> newestEditionByTitle = new LinkedHashMap<>();
+        Map<String, Integer> pricesByTitle = new LinkedHashMap<>();
+        for (Book book : rows.values()) {
+            newestEditionByTitle.merge(book.title().toLowerCase().trim(), book, BookRepositoryImpl::newerEdition);
+            pricesByTitle.merge(book.title(), book.price(), Integer::max);
+        }
+        authorViewsByKey = authorViewsByKey.put(authorKey, new AuthorView(List.copyOf(rows.values()),
+            List.copyOf(newestEditionByTitle.values()), Collections.unmodifiableMap(pricesByTitle)));
+    }
+}
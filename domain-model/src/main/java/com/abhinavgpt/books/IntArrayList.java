@@ -0,0 +1,43 @@
+package com.abhinavgpt.books;
+
+import java.util.Arrays;
+
+/**
+ * Growable list of primitive ints, used to build row posting lists without boxing.
+ */
+final class IntArrayList {
+    
+    private int[] values;
+    private int size;
+    
+    IntArrayList() {
+        this(8);
+    }
+    
+    IntArrayList(int initialCapacity) {
+        this.values = new int[Math.max(initialCapacity, 1)];
+    }
+    
+    void add(int value) {
+        if (size == values.length) {
+            values = Arrays.copyOf(values, size * 2);
+        }
+        values[size++] = value;
+    }
+    
+    int get(int index) {
+        return values[index];
+    }
+    
+    void set(int index, int value) {
+        values[index] = value;
+    }
+    
+    int size() {
+        return size;
+    }
+    
+    int[] toArray() {
+        return Arrays.copyOf(values, size);
+    }
+}
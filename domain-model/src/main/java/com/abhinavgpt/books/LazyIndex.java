@@ -0,0 +1,43 @@
+package com.abhinavgpt.books;
+
+import java.util.function.LongSupplier;
+import java.util.function.Supplier;
+
+/**
+ * Derived structure that is built on first use and then shared by all readers. When given a
+ * version source, such as {@link BookRepository#getDataVersion()}, it is rebuilt on the first
+ * use after the version moves past the one it was built from.
+ */
+final class LazyIndex<T> {
+    
+    private record Built<T>(long version, T value) {
+    }
+    
+    private final Supplier<T> builder;
+    private final LongSupplier versionSource;
+    private volatile Built<T> built;
+    
+    LazyIndex(Supplier<T> builder) {
+        this(builder, () -> 0L);
+    }
+    
+    LazyIndex(Supplier<T> builder, LongSupplier versionSource) {
+        this.builder = builder;
+        this.versionSource = versionSource;
+    }
+    
+    T get() {
+        long version = versionSource.getAsLong();
+        Built<T> current = built;
+        if (current == null || current.version() < version) {
+            synchronized (this) {
+                current = built;
+                if (current == null || current.version() < version) {
+                    current = new Built<>(version, builder.get());
+                    built = current;
+                }
+            }
+        }
+        return current.value();
+    }
+}
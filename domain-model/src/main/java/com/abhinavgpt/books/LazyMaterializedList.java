@@ -0,0 +1,37 @@
+package com.abhinavgpt.books;
+
+import java.util.AbstractList;
+import java.util.RandomAccess;
+import java.util.function.IntFunction;
+
+/**
+ * Immutable list view whose elements are decoded from columnar storage on access, so a
+ * result can be handed out without materializing every element up front.
+ */
+final class LazyMaterializedList<T> extends AbstractList<T> implements RandomAccess {
+    
+    private final int size;
+    private final IntFunction<T> loader;
+    
+    LazyMaterializedList(int size, IntFunction<T> loader) {
+        this.size = size;
+        this.loader = loader;
+    }
+    
+    static LazyMaterializedList<Book> ofRows(int[] rows, BookColumns columns) {
+        return new LazyMaterializedList<>(rows.length, index -> columns.materialize(rows[index]));
+    }
+    
+    @Override
+    public T get(int index) {
+        if (index < 0 || index >= size) {
+            throw new IndexOutOfBoundsException("Index " + index + " out of " + size);
+        }
+        return loader.apply(index);
+    }
+    
+    @Override
+    public int size() {
+        return size;
+    }
+}
@@ -0,0 +1,99 @@
+package com.abhinavgpt.books;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Books whose rating falls between two steps of {@link RatingScale}, in dataset order. The
+ * rating indexes bucket books by the step, which is exact for every book on a step; the rare
+ * book between steps is kept here instead and matched by its exact rating. With none of them,
+ * which is the bestseller data, every lookup hands back the on-step result untouched.
+ */
+final class OffGridBooks {
+
+    static final OffGridBooks NONE = new OffGridBooks(List.of());
+
+    private static final Comparator<Book> HIGHEST_RATING_FIRST = Comparator.comparingDouble(Book::userRating).reversed();
+
+    private final List<Book> books;
+
+    OffGridBooks(Collection<Book> books) {
+        this.books = List.copyOf(books);
+    }
+
+    static OffGridBooks of(Collection<Book> books) {
+        return books.isEmpty() ? NONE : new OffGridBooks(books);
+    }
+
+    static boolean isOffGrid(Book book) {
+        return !RatingScale.isRepresentable(book.userRating());
+    }
+
+    boolean isEmpty() {
+        return books.isEmpty();
+    }
+
+    /**
+     * The newest edition of each work at each rating, at the position of the work's first entry
+     * with that rating; of two entries from the same year the later one wins, as in the
+     * deduplicated on-step buckets.
+     */
+    OffGridBooks newestEditionPerWork() {
+        if (books.isEmpty()) {
+            return this;
+        }
+        Map<RatedWork, Book> newestEditions = new LinkedHashMap<>();
+        for (Book book : books) {
+            newestEditions.merge(new RatedWork(BookRepositoryImpl.WorkKey.of(book), book.userRating()), book,
+                BookRepositoryImpl::newerEdition);
+        }
+        return of(newestEditions.values());
+    }
+
+    List<Book> withRating(double rating) {
+        if (books.isEmpty() || RatingScale.isRepresentable(rating)) {
+            return List.of();
+        }
+        return books.stream().filter(book -> book.userRating() == rating).toList();
+    }
+
+    /**
+     * Merges the books rated between the bounds, inclusive, into {@code onGridBooks}, which
+     * holds the on-step books in that range highest rating first. The merged list keeps that
+     * order; books with the same rating keep dataset order.
+     */
+    List<Book> mergeBetween(List<Book> onGridBooks, double minRating, double maxRating) {
+        if (books.isEmpty()) {
+            return onGridBooks;
+        }
+        List<Book> matches = books.stream()
+                .filter(book -> book.userRating() >= minRating && book.userRating() <= maxRating)
+                .sorted(HIGHEST_RATING_FIRST)
+                .toList();
+        if (matches.isEmpty()) {
+            return onGridBooks;
+        }
+        List<Book> merged = new ArrayList<>(onGridBooks.size() + matches.size());
+        int next = 0;
+        for (Book book : onGridBooks) {
+            while (next < matches.size() && matches.get(next).userRating() > book.userRating()) {
+                merged.add(matches.get(next++));
+            }
+            merged.add(book);
+        }
+        merged.addAll(matches.subList(next, matches.size()));
+        return Collections.unmodifiableList(merged);
+    }
+
+    int distinctRatingCount() {
+        return (int) books.stream().mapToDouble(Book::userRating).distinct().count();
+    }
+
+    private record RatedWork(BookRepositoryImpl.WorkKey work, double rating) {
+    }
+}
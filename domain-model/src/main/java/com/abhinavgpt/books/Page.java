@@ -0,0 +1,17 @@
+package com.abhinavgpt.books;
+
+import java.util.List;
+
+/**
+ * One window of a paged result.
+ *
+ * @param items      the page's items, in the result's stable order
+ * @param offset     position of the first item within the whole result
+ * @param nextCursor opaque token for the following page, or null when this page is the last
+ */
+public record Page<T>(List<T> items, int offset, String nextCursor) {
+
+    public boolean hasNext() {
+        return nextCursor != null;
+    }
+}
@@ -0,0 +1,32 @@
+package com.abhinavgpt.books;
+
+/**
+ * Which page of a {@link PagedResult} to produce: either an explicit offset, or the cursor
+ * returned with the previous page.
+ */
+public record PageRequest(int offset, int limit, String cursor) {
+
+    public PageRequest {
+        if (offset < 0) {
+            throw new IllegalArgumentException("Offset cannot be negative");
+        }
+        if (limit < 0) {
+            throw new IllegalArgumentException("Limit cannot be negative");
+        }
+    }
+
+    public static PageRequest first(int limit) {
+        return new PageRequest(0, limit, null);
+    }
+
+    public static PageRequest at(int offset, int limit) {
+        return new PageRequest(offset, limit, null);
+    }
+
+    /**
+     * The page following the one that returned {@code cursor}; a null cursor means the first page.
+     */
+    public static PageRequest after(String cursor, int limit) {
+        return new PageRequest(0, limit, cursor);
+    }
+}
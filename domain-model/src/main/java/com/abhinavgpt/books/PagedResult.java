@@ -0,0 +1,140 @@
+package com.abhinavgpt.books;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.List;
+import java.util.RandomAccess;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.function.LongSupplier;
+import java.util.function.Supplier;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+/**
+ * A query result in a stable order that is read a window at a time.
+ * <p>
+ * Windows come from a lazy {@link Spliterator} positioned at the requested offset: list
+ * results are sliced with a {@code subList} view, so reaching any offset is O(1), while other
+ * collections are stepped through without being copied. {@link #page} collects just the
+ * window (plus one look-ahead item to know whether another page exists) and {@link #stream}
+ * hands the window to the caller without collecting anything.
+ * <p>
+ * Cursors are opaque tokens that record the offset together with the query they came from, the
+ * epoch of the dataset and the repository's data version. A cursor from another query, or from
+ * before the data changed, is rejected rather than silently returning a shifted page. Immutable
+ * repositories all report data version 0, so results handed out by {@link BookService} also
+ * carry the epoch of the service's current dataset, which {@link BookService#replaceRepository}
+ * moves forward.
+ */
+public final class PagedResult<T> {
+
+    private static final int CURSOR_BYTES = Integer.BYTES + 3 * Long.BYTES;
+    private static final int MAX_PREALLOCATED_ITEMS = 256;
+
+    private final String queryKey;
+    private final long epoch;
+    private final LongSupplier versionSource;
+    private final Supplier<? extends Collection<T>> source;
+
+    private PagedResult(String queryKey, long epoch, LongSupplier versionSource, Supplier<? extends Collection<T>> source) {
+        this.queryKey = queryKey;
+        this.epoch = epoch;
+        this.versionSource = versionSource;
+        this.source = source;
+    }
+
+    /**
+     * @param queryKey      identifies the query and its arguments, so cursors cannot be replayed
+     *                      against a different one
+     * @param versionSource the repository's data version, e.g. {@link BookRepository#getDataVersion()}
+     * @param source        produces the full result; only called when a window is read
+     */
+    static <T> PagedResult<T> of(String queryKey, LongSupplier versionSource, Supplier<? extends Collection<T>> source) {
+        return new PagedResult<>(queryKey, 0, versionSource, source);
+    }
+
+    /**
+     * The same result, with cursors that are only accepted under the given dataset epoch.
+     */
+    PagedResult<T> withEpoch(long epoch) {
+        return new PagedResult<>(queryKey, epoch, versionSource, source);
+    }
+
+    public Page<T> page(PageRequest request) {
+        long version = versionSource.getAsLong();
+        int offset = resolveOffset(request, version);
+        Spliterator<T> window = spliteratorFrom(offset);
+
+        List<T> items = new ArrayList<>(Math.min(request.limit(), MAX_PREALLOCATED_ITEMS));
+        while (items.size() < request.limit() && window.tryAdvance(items::add)) {
+            // collects the window
+        }
+        boolean hasNext = items.size() == request.limit() && window.tryAdvance(item -> { });
+        return new Page<>(List.copyOf(items), offset, hasNext ? encodeCursor(version, offset + items.size()) : null);
+    }
+
+    /**
+     * The requested window as a lazy stream: items are produced as the stream is consumed and
+     * nothing past the window is touched.
+     */
+    public Stream<T> stream(PageRequest request) {
+        int offset = resolveOffset(request, versionSource.getAsLong());
+        return StreamSupport.stream(spliteratorFrom(offset), false).limit(request.limit());
+    }
+
+    private int resolveOffset(PageRequest request, long version) {
+        return request.cursor() != null ? decodeCursor(request.cursor(), version) : request.offset();
+    }
+
+    private Spliterator<T> spliteratorFrom(int offset) {
+        Collection<T> items = source.get();
+        if (offset >= items.size()) {
+            return Spliterators.emptySpliterator();
+        }
+        if (items instanceof List<T> list && list instanceof RandomAccess) {
+            return list.subList(offset, list.size()).spliterator();
+        }
+        Iterator<T> iterator = items.iterator();
+        for (int skipped = 0; skipped < offset; skipped++) {
+            iterator.next();
+        }
+        return Spliterators.spliterator(iterator, items.size() - offset, Spliterator.ORDERED);
+    }
+
+    private String encodeCursor(long version, long offset) {
+        ByteBuffer cursor = ByteBuffer.allocate(CURSOR_BYTES)
+                .putInt(queryKey.hashCode())
+                .putLong(epoch)
+                .putLong(version)
+                .putLong(offset);
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(cursor.array());
+    }
+
+    private int decodeCursor(String cursor, long version) {
+        byte[] bytes;
+        try {
+            bytes = Base64.getUrlDecoder().decode(cursor);
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Invalid page cursor");
+        }
+        if (bytes.length != CURSOR_BYTES) {
+            throw new IllegalArgumentException("Invalid page cursor");
+        }
+        ByteBuffer buffer = ByteBuffer.wrap(bytes);
+        if (buffer.getInt() != queryKey.hashCode()) {
+            throw new IllegalArgumentException("Page cursor belongs to a different query");
+        }
+        if (buffer.getLong() != epoch || buffer.getLong() != version) {
+            throw new IllegalArgumentException("Page cursor is stale: the dataset has changed");
+        }
+        long offset = buffer.getLong();
+        if (offset < 0 || offset > Integer.MAX_VALUE) {
+            throw new IllegalArgumentException("Invalid page cursor");
+        }
+        return (int) offset;
+    }
+}
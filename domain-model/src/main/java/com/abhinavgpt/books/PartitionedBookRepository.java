@@ -0,0 +1,317 @@
+package com.abhinavgpt.books;
+
+import com.abhinavgpt.utils.DataReader;
+
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.RecursiveTask;
+import java.util.function.Function;
+
+/**
+ * Repository over several datasets, e.g. one file per year or per region, each loaded into its
+ * own {@link BookRepositoryImpl} partition.
+ * <p>
+ * Partitions are loaded and indexed in parallel on a {@link ForkJoinPool}. Every answer equals
+ * that of a single {@link BookRepositoryImpl} over the partitions' rows concatenated in order:
+ * a work's newest edition wins across partitions, at the position of its first row, and
+ * ordered query results merge ties in dataset order. Each partition records its years, genres
+ * and ratings, so a query only visits partitions that can hold a match.
+ * <p>
+ * {@link #findBooks(BookQuery)} scans, so it is scattered across the pool, each partition
+ * returning at most the query's limit, and the partial results are merged. Author and rating
+ * lookups only probe a hash index or slice a list per partition, which is cheaper than handing
+ * the work to another thread, so they visit partitions on the caller's thread.
+ */
+public final class PartitionedBookRepository implements BookRepository {
+
+    private record Partition(BookRepositoryImpl repository, int minYear, int maxYear,
+                             Set<String> genres, BitSet ratingTenths, boolean hasOffGridRatings) {
+
+        static Partition of(BookRepositoryImpl repository) {
+            int minYear = Integer.MAX_VALUE;
+            int maxYear = Integer.MIN_VALUE;
+            Set<String> genres = new HashSet<>();
+            BitSet ratingTenths = new BitSet(RatingScale.BUCKET_COUNT);
+            boolean hasOffGridRatings = false;
+            for (Book book : repository.getAllBooksIncludingDuplicates()) {
+                minYear = Math.min(minYear, book.year());
+                maxYear = Math.max(maxYear, book.year());
+                genres.add(BookQuery.normalize(book.genre()));
+                if (OffGridBooks.isOffGrid(book)) {
+                    hasOffGridRatings = true;
+                } else {
+                    ratingTenths.set(RatingScale.toTenths(book.userRating()));
+                }
+            }
+            return new Partition(repository, minYear, maxYear, genres, ratingTenths, hasOffGridRatings);
+        }
+
+        boolean mayMatch(BookQuery query) {
+            for (BookQuery.Clause clause : query.clauses()) {
+                if (clause.minYear() <= maxYear && clause.maxYear() >= minYear
+                    && (clause.genres().isEmpty() || !Collections.disjoint(clause.genres(), genres))
+                    && hasRatingBetween(clause.minRating(), clause.maxRating())
+                    && (clause.authors().isEmpty() || hasAnyAuthor(clause.authors()))) {
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        private boolean hasRatingBetween(double minRating, double maxRating) {
+            if (!RatingScale.overlapsScale(minRating, maxRating)) {
+                return false;
+            }
+            int lowestRating = ratingTenths.nextSetBit(RatingScale.ceilTenths(minRating));
+            return hasOffGridRatings || (lowestRating >= 0 && lowestRating <= RatingScale.floorTenths(maxRating));
+        }
+
+        boolean hasRating(double rating) {
+            return RatingScale.isRepresentable(rating) ? ratingTenths.get(RatingScale.toTenths(rating)) : hasOffGridRatings;
+        }
+
+        private boolean hasAnyAuthor(Set<String> normalizedAuthors) {
+            for (String author : normalizedAuthors) {
+                if (repository.getBookCountByAuthor(author) > 0) {
+                    return true;
+                }
+            }
+            return false;
+        }
+    }
+
+    private final List<Partition> partitions;
+    private final ForkJoinPool pool;
+    private final LazyIndex<List<Book>> allBooks;
+    private final LazyIndex<List<Book>> allUniqueBooks;
+    private final LazyIndex<List<String>> allAuthors;
+    private final LazyIndex<WorkTimelines> workTimelines;
+
+    private PartitionedBookRepository(List<Partition> partitions, ForkJoinPool pool) {
+        this.partitions = List.copyOf(partitions);
+        this.pool = pool;
+        this.allBooks = new LazyIndex<>(() -> {
+            List<Book> books = new ArrayList<>();
+            for (Partition partition : this.partitions) {
+                books.addAll(partition.repository().getAllBooksIncludingDuplicates());
+            }
+            return Collections.unmodifiableList(books);
+        });
+        this.allUniqueBooks = new LazyIndex<>(() -> mergeUnique(BookRepositoryImpl::getAllUniqueBooks, this.partitions));
+        this.allAuthors = new LazyIndex<>(() -> {
+            Set<String> authors = new TreeSet<>();
+            for (Partition partition : this.partitions) {
+                authors.addAll(partition.repository().getAllAuthors());
+            }
+            return List.copyOf(authors);
+        });
+        this.workTimelines = new LazyIndex<>(() -> WorkTimelines.fromBooks(allBooks.get()));
+    }
+
+    /**
+     * Reads and indexes every source in parallel on the common pool. Sources that yield no
+     * books are left out.
+     */
+    public static PartitionedBookRepository load(List<String> sources, DataReader reader) {
+        return load(sources, reader, ForkJoinPool.commonPool());
+    }
+
+    public static PartitionedBookRepository load(List<String> sources, DataReader reader, ForkJoinPool pool) {
+        return build(sources, source -> BookRepositoryImpl.fromStream(reader.streamBooksFromSource(source)), pool);
+    }
+
+    public static PartitionedBookRepository fromPartitions(List<? extends List<Book>> partitions) {
+        return fromPartitions(partitions, ForkJoinPool.commonPool());
+    }
+
+    public static PartitionedBookRepository fromPartitions(List<? extends List<Book>> partitions, ForkJoinPool pool) {
+        return build(partitions, BookRepositoryImpl::new, pool);
+    }
+
+    private static <S> PartitionedBookRepository build(List<S> sources, Function<S, BookRepositoryImpl> loader,
+                                                       ForkJoinPool pool) {
+        List<Partition> loaded = scatter(pool, sources, source -> Partition.of(loader.apply(source)));
+        List<Partition> nonEmpty = loaded.stream()
+                .filter(partition -> !partition.repository().getAllBooksIncludingDuplicates().isEmpty())
+                .toList();
+        return new PartitionedBookRepository(nonEmpty, pool);
+    }
+
+    public int getPartitionCount() {
+        return partitions.size();
+    }
+
+    @Override
+    public List<Book> getBooksByAuthor(String author) {
+        return getUniqueBooksByAuthor(author);
+    }
+
+    @Override
+    public List<Book> getUniqueBooksByAuthor(String author) {
+        return mergeUnique(partition -> partition.getUniqueBooksByAuthor(author), partitions);
+    }
+
+    @Override
+    public int getBookCountByAuthor(String author) {
+        int bookCount = 0;
+        for (Partition partition : partitions) {
+            bookCount += partition.repository().getBookCountByAuthor(author);
+        }
+        return bookCount;
+    }
+
+    @Override
+    public Map<String, Integer> getBooksAndPricesByAuthor(String author) {
+        Map<String, Integer> pricesByTitle = new LinkedHashMap<>();
+        for (Partition partition : partitions) {
+            partition.repository().getBooksAndPricesByAuthor(author).forEach((title, price) ->
+                pricesByTitle.merge(title, price, Integer::max));
+        }
+        return pricesByTitle;
+    }
+
+    /**
+     * Unique books with the rating; partitions without an entry at that rating are skipped.
+     */
+    @Override
+    public List<Book> getBooksByRating(double rating) {
+        List<Partition> candidates = partitions.stream()
+                .filter(partition -> partition.hasRating(rating))
+                .toList();
+        return mergeUnique(partition -> partition.getBooksByRating(rating), candidates);
+    }
+
+    /**
+     * Walks the rating steps through {@link #getBooksByRating(double)}, then merges in the
+     * ratings between steps from the partitions that hold any, deduplicated per rating.
+     */
+    @Override
+    public List<Book> getBooksByRatingRange(double minRating, double maxRating) {
+        List<Book> onGridBooks = BookRepository.super.getBooksByRatingRange(minRating, maxRating);
+        List<Book> offGridBooks = new ArrayList<>();
+        for (Partition partition : partitions) {
+            if (partition.hasOffGridRatings()) {
+                for (Book book : partition.repository().getBooksByRatingRange(minRating, maxRating)) {
+                    if (OffGridBooks.isOffGrid(book)) {
+                        offGridBooks.add(book);
+                    }
+                }
+            }
+        }
+        return OffGridBooks.of(offGridBooks).newestEditionPerWork().mergeBetween(onGridBooks, minRating, maxRating);
+    }
+
+    @Override
+    public List<Book> getAllBooksByAuthorIncludingDuplicates(String author) {
+        List<Book> books = new ArrayList<>();
+        for (Partition partition : partitions) {
+            books.addAll(partition.repository().getAllBooksByAuthorIncludingDuplicates(author));
+        }
+        return books;
+    }
+
+    @Override
+    public List<Book> getAllBooksByRatingIncludingDuplicates(double rating) {
+        List<Book> books = new ArrayList<>();
+        for (Partition partition : partitions) {
+            if (partition.hasRating(rating)) {
+                books.addAll(partition.repository().getAllBooksByRatingIncludingDuplicates(rating));
+            }
+        }
+        return books;
+    }
+
+    @Override
+    public Map<String, List<Book>> getDuplicateBooksAcrossYears() {
+        return workTimelines.get().getDuplicateBooksAcrossYears();
+    }
+
+    @Override
+    public WorkTimelines getWorkTimelines() {
+        return workTimelines.get();
+    }
+
+    @Override
+    public List<Book> findBooks(BookQuery query) {
+        List<Partition> candidates = partitions.stream()
+                .filter(partition -> partition.mayMatch(query))
+                .toList();
+        List<List<Book>> partialResults = scatter(pool, candidates, partition -> partition.repository().findBooks(query));
+
+        List<Book> matches = new ArrayList<>();
+        for (List<Book> partialResult : partialResults) {
+            matches.addAll(partialResult);
+        }
+        Comparator<Book> comparator = query.getOrder().comparator();
+        if (comparator != null) {
+            matches.sort(comparator);
+        }
+        return matches.size() > query.getLimit() ? List.copyOf(matches.subList(0, query.getLimit())) : matches;
+    }
+
+    @Override
+    public List<String> getAllAuthors() {
+        return allAuthors.get();
+    }
+
+    @Override
+    public List<Book> getAllUniqueBooks() {
+        return allUniqueBooks.get();
+    }
+
+    @Override
+    public List<Book> getAllBooksIncludingDuplicates() {
+        return allBooks.get();
+    }
+
+    /**
+     * Merges per-partition unique views: a work keeps the position of its first appearance and
+     * resolves to its newest edition, later partitions winning ties, as within a partition.
+     */
+    private static List<Book> mergeUnique(Function<BookRepositoryImpl, List<Book>> view, List<Partition> partitions) {
+        if (partitions.size() == 1) {
+            return view.apply(partitions.get(0).repository());
+        }
+        Map<BookRepositoryImpl.WorkKey, Book> newestEditionByWork = new LinkedHashMap<>();
+        for (Partition partition : partitions) {
+            for (Book book : view.apply(partition.repository())) {
+                newestEditionByWork.merge(BookRepositoryImpl.WorkKey.of(book), book, BookRepositoryImpl::newerEdition);
+            }
+        }
+        return List.copyOf(newestEditionByWork.values());
+    }
+
+    /**
+     * Applies the task to every item on the pool and returns the results in item order.
+     */
+    private static <S, T> List<T> scatter(ForkJoinPool pool, List<S> items, Function<S, T> task) {
+        if (items.size() <= 1) {
+            return items.stream().map(task).toList();
+        }
+        return pool.invoke(new RecursiveTask<List<T>>() {
+            @Override
+            protected List<T> compute() {
+                List<ForkJoinTask<T>> subtasks = new ArrayList<>(items.size());
+                for (S item : items) {
+                    subtasks.add(ForkJoinTask.adapt(() -> task.apply(item)));
+                }
+                ForkJoinTask.invokeAll(subtasks);
+                List<T> results = new ArrayList<>(subtasks.size());
+                for (ForkJoinTask<T> subtask : subtasks) {
+                    results.add(subtask.join());
+                }
+                return results;
+            }
+        });
+    }
+}
@@ -0,0 +1,244 @@
+package com.abhinavgpt.books;
+
+import java.util.AbstractList;
+import java.util.ArrayDeque;
+import java.util.Comparator;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.function.Function;
+
+/**
+ * Immutable sorted map that is changed by making a new version. A put or remove copies only
+ * the O(log n) nodes on the path to the key and shares the rest of the tree with the previous
+ * version, so a writer can publish a fresh version after every change without copying the
+ * whole map, and readers holding an older version are never affected.
+ * <p>
+ * The tree is a treap whose priorities are derived from the key hashes, which keeps it
+ * balanced in expectation whatever order the keys arrive in. Each node counts its subtree, so
+ * {@link #keys()} and {@link #values()} are list views with O(log n) positional access and
+ * {@link #indexOf} ranks a key in O(log n).
+ */
+final class PersistentSortedMap<K, V> {
+
+    private record Node<K, V>(K key, V value, int priority, int size, Node<K, V> left, Node<K, V> right) {
+
+        Node(K key, V value, int priority, Node<K, V> left, Node<K, V> right) {
+            this(key, value, priority, 1 + sizeOf(left) + sizeOf(right), left, right);
+        }
+
+        Node<K, V> withChildren(Node<K, V> left, Node<K, V> right) {
+            return new Node<>(key, value, priority, left, right);
+        }
+    }
+
+    private final Comparator<? super K> comparator;
+    private final Node<K, V> root;
+    private final List<K> keys = new View<>(Node::key);
+    private final List<V> values = new View<>(Node::value);
+
+    private PersistentSortedMap(Comparator<? super K> comparator, Node<K, V> root) {
+        this.comparator = comparator;
+        this.root = root;
+    }
+
+    static <K extends Comparable<? super K>, V> PersistentSortedMap<K, V> empty() {
+        return new PersistentSortedMap<>(Comparator.naturalOrder(), null);
+    }
+
+    static <K, V> PersistentSortedMap<K, V> empty(Comparator<? super K> comparator) {
+        return new PersistentSortedMap<>(comparator, null);
+    }
+
+    int size() {
+        return sizeOf(root);
+    }
+
+    V get(K key) {
+        Node<K, V> node = root;
+        while (node != null) {
+            int order = comparator.compare(key, node.key());
+            if (order == 0) {
+                return node.value();
+            }
+            node = order < 0 ? node.left() : node.right();
+        }
+        return null;
+    }
+
+    /**
+     * Position of the key in ascending order, or -1 when it is absent.
+     */
+    int indexOf(K key) {
+        Node<K, V> node = root;
+        int preceding = 0;
+        while (node != null) {
+            int order = comparator.compare(key, node.key());
+            if (order == 0) {
+                return preceding + sizeOf(node.left());
+            }
+            if (order < 0) {
+                node = node.left();
+            } else {
+                preceding += sizeOf(node.left()) + 1;
+                node = node.right();
+            }
+        }
+        return -1;
+    }
+
+    PersistentSortedMap<K, V> put(K key, V value) {
+        return new PersistentSortedMap<>(comparator, insert(root, key, value, priorityOf(key)));
+    }
+
+    PersistentSortedMap<K, V> remove(K key) {
+        Node<K, V> updated = delete(root, key);
+        return updated == root ? this : new PersistentSortedMap<>(comparator, updated);
+    }
+
+    /**
+     * The keys in ascending order. The view belongs to this version, so a caller may hold on
+     * to it while later versions are made.
+     */
+    List<K> keys() {
+        return keys;
+    }
+
+    /**
+     * The values in ascending key order.
+     */
+    List<V> values() {
+        return values;
+    }
+
+    private Node<K, V> insert(Node<K, V> node, K key, V value, int priority) {
+        if (node == null) {
+            return new Node<>(key, value, priority, null, null);
+        }
+        int order = comparator.compare(key, node.key());
+        if (order == 0) {
+            return new Node<>(key, value, node.priority(), node.left(), node.right());
+        }
+        if (order < 0) {
+            Node<K, V> left = insert(node.left(), key, value, priority);
+            return left.priority() > node.priority()
+                ? left.withChildren(left.left(), node.withChildren(left.right(), node.right()))
+                : node.withChildren(left, node.right());
+        }
+        Node<K, V> right = insert(node.right(), key, value, priority);
+        return right.priority() > node.priority()
+            ? right.withChildren(node.withChildren(node.left(), right.left()), right.right())
+            : node.withChildren(node.left(), right);
+    }
+
+    private Node<K, V> delete(Node<K, V> node, K key) {
+        if (node == null) {
+            return null;
+        }
+        int order = comparator.compare(key, node.key());
+        if (order == 0) {
+            return join(node.left(), node.right());
+        }
+        if (order < 0) {
+            Node<K, V> left = delete(node.left(), key);
+            return left == node.left() ? node : node.withChildren(left, node.right());
+        }
+        Node<K, V> right = delete(node.right(), key);
+        return right == node.right() ? node : node.withChildren(node.left(), right);
+    }
+
+    /**
+     * Joins two subtrees where every key on the left is below every key on the right.
+     */
+    private static <K, V> Node<K, V> join(Node<K, V> left, Node<K, V> right) {
+        if (left == null) {
+            return right;
+        }
+        if (right == null) {
+            return left;
+        }
+        return left.priority() > right.priority()
+            ? left.withChildren(left.left(), join(left.right(), right))
+            : right.withChildren(join(left, right.left()), right.right());
+    }
+
+    private static int sizeOf(Node<?, ?> node) {
+        return node == null ? 0 : node.size();
+    }
+
+    private static int priorityOf(Object key) {
+        int hash = key.hashCode() * 0x9E3779B9;
+        return hash ^ (hash >>> 16);
+    }
+
+    /**
+     * One column of the map's entries as an immutable list, walked in order by its iterator.
+     */
+    private final class View<T> extends AbstractList<T> {
+
+        private final Function<Node<K, V>, T> column;
+
+        View(Function<Node<K, V>, T> column) {
+            this.column = column;
+        }
+
+        @Override
+        public T get(int index) {
+            if (index < 0 || index >= size()) {
+                throw new IndexOutOfBoundsException("Index " + index + " out of " + size());
+            }
+            Node<K, V> node = root;
+            while (true) {
+                int leftSize = sizeOf(node.left());
+                if (index == leftSize) {
+                    return column.apply(node);
+                }
+                if (index < leftSize) {
+                    node = node.left();
+                } else {
+                    index -= leftSize + 1;
+                    node = node.right();
+                }
+            }
+        }
+
+        @Override
+        public int size() {
+            return sizeOf(root);
+        }
+
+        @Override
+        public Iterator<T> iterator() {
+            return new Iterator<>() {
+
+                private final Deque<Node<K, V>> path = new ArrayDeque<>();
+
+                {
+                    descendLeft(root);
+                }
+
+                @Override
+                public boolean hasNext() {
+                    return !path.isEmpty();
+                }
+
+                @Override
+                public T next() {
+                    if (path.isEmpty()) {
+                        throw new NoSuchElementException();
+                    }
+                    Node<K, V> node = path.pop();
+                    descendLeft(node.right());
+                    return column.apply(node);
+                }
+
+                private void descendLeft(Node<K, V> node) {
+                    for (; node != null; node = node.left()) {
+                        path.push(node);
+                    }
+                }
+            };
+        }
+    }
+}
@@ -0,0 +1,72 @@
+package com.abhinavgpt.books;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Books grouped by rating in tenths of a star and laid out in one immutable list, highest
+ * rating first, so that every rating owns a contiguous slice. Exact ratings and rating ranges
+ * are answered with sublist views in O(1), without scanning or boxing. Books rated between
+ * two steps are held in {@link OffGridBooks} and merged in by exact rating.
+ */
+final class RatingIndex {
+    
+    private final List<Book> booksByDescendingRating;
+    private final int[] sliceOffsets;
+    private final OffGridBooks offGridBooks;
+    
+    /**
+     * @param booksByRatingTenths the books on each step, which must all have exactly that rating
+     */
+    RatingIndex(List<List<Book>> booksByRatingTenths, OffGridBooks offGridBooks) {
+        List<Book> orderedBooks = new ArrayList<>();
+        sliceOffsets = new int[RatingScale.BUCKET_COUNT + 1];
+        for (int tenths = RatingScale.MAX_TENTHS; tenths >= 0; tenths--) {
+            orderedBooks.addAll(booksByRatingTenths.get(tenths));
+            sliceOffsets[slicePosition(tenths) + 1] = orderedBooks.size();
+        }
+        booksByDescendingRating = Collections.unmodifiableList(orderedBooks);
+        this.offGridBooks = offGridBooks;
+    }
+    
+    List<Book> booksWithRating(double rating) {
+        if (!RatingScale.isRepresentable(rating)) {
+            return offGridBooks.withRating(rating);
+        }
+        int tenths = RatingScale.toTenths(rating);
+        return slice(tenths, tenths);
+    }
+    
+    /**
+     * Books rated between the bounds, inclusive, highest rating first.
+     */
+    List<Book> booksWithRatingBetween(double minRating, double maxRating) {
+        if (!RatingScale.overlapsScale(minRating, maxRating)) {
+            return List.of();
+        }
+        return offGridBooks.mergeBetween(slice(RatingScale.ceilTenths(minRating), RatingScale.floorTenths(maxRating)),
+            minRating, maxRating);
+    }
+    
+    int distinctRatingCount() {
+        int distinctRatings = 0;
+        for (int position = 0; position < RatingScale.BUCKET_COUNT; position++) {
+            if (sliceOffsets[position + 1] > sliceOffsets[position]) {
+                distinctRatings++;
+            }
+        }
+        return distinctRatings + offGridBooks.distinctRatingCount();
+    }
+    
+    private List<Book> slice(int minTenths, int maxTenths) {
+        if (minTenths > maxTenths) {
+            return List.of();
+        }
+        return booksByDescendingRating.subList(sliceOffsets[slicePosition(maxTenths)], sliceOffsets[slicePosition(minTenths) + 1]);
+    }
+    
+    private static int slicePosition(int tenths) {
+        return RatingScale.MAX_TENTHS - tenths;
+    }
+}
@@ -0,0 +1,71 @@
+package com.abhinavgpt.books;
+
+/**
+ * Fixed-point representation of user ratings in tenths of a star (0 to 50), which is the
+ * precision of the bestseller dataset. Integer tenths can index arrays and compare exactly,
+ * unlike the raw double values. A book may still carry a rating between two steps; the
+ * indexes keep those aside in {@link OffGridBooks} and match them by exact value.
+ */
+final class RatingScale {
+    
+    static final int MAX_TENTHS = 50;
+    static final int BUCKET_COUNT = MAX_TENTHS + 1;
+    
+    private RatingScale() {
+    }
+    
+    static int toTenths(double rating) {
+        return (int) Math.round(rating * 10);
+    }
+    
+    static double fromTenths(int tenths) {
+        return tenths / 10.0;
+    }
+    
+    /**
+     * Smallest rating step at or above {@code rating}, clamped to the scale. The step is
+     * compared with the rating exactly, so a bound of {@code 0.1 + 0.2} excludes 0.3.
+     */
+    static int ceilTenths(double rating) {
+        int tenths = clamp((int) Math.ceil(rating * 10));
+        if (tenths > 0 && fromTenths(tenths - 1) >= rating) {
+            tenths--;
+        } else if (tenths < MAX_TENTHS && fromTenths(tenths) < rating) {
+            tenths++;
+        }
+        return tenths;
+    }
+    
+    /**
+     * Largest rating step at or below {@code rating}, clamped to the scale.
+     */
+    static int floorTenths(double rating) {
+        int tenths = clamp((int) Math.floor(rating * 10));
+        if (tenths < MAX_TENTHS && fromTenths(tenths + 1) <= rating) {
+            tenths++;
+        } else if (tenths > 0 && fromTenths(tenths) > rating) {
+            tenths--;
+        }
+        return tenths;
+    }
+    
+    static boolean overlapsScale(double minRating, double maxRating) {
+        return minRating <= 5 && maxRating >= 0 && minRating <= maxRating;
+    }
+    
+    static boolean isRepresentable(double rating) {
+        return rating >= 0 && rating <= 5 && fromTenths(toTenths(rating)) == rating;
+    }
+    
+    /**
+     * {@code to - from}, worked out in tenths when both ratings are on the scale so that
+     * 4.8 - 4.5 gives 0.3 rather than 0.2999999999999998.
+     */
+    static double difference(double to, double from) {
+        return isRepresentable(to) && isRepresentable(from) ? fromTenths(toTenths(to) - toTenths(from)) : to - from;
+    }
+    
+    private static int clamp(int tenths) {
+        return Math.max(0, Math.min(MAX_TENTHS, tenths));
+    }
+}
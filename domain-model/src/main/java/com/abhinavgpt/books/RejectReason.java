@@ -0,0 +1,32 @@
+package com.abhinavgpt.books;
+
+/**
+ * Why a dataset row could not become a {@link Book}. Validation reports one of these codes
+ * instead of throwing, so a feed full of bad rows costs no more to load than a clean one;
+ * the malformed codes cover values that are not numbers at all, which are rejected rather
+ * than read as 0.
+ */
+public enum RejectReason {
+    MISSING_FIELDS("Row has fewer fields than the header"),
+    BLANK_TITLE("Title cannot be null or blank"),
+    BLANK_AUTHOR("Author cannot be null or blank"),
+    MALFORMED_RATING("User rating is not a number"),
+    RATING_OUT_OF_RANGE("User rating must be between 0 and 5"),
+    MALFORMED_REVIEWS("Review count is not a whole number"),
+    NEGATIVE_REVIEWS("Review count cannot be negative"),
+    MALFORMED_PRICE("Price is not a whole number"),
+    NEGATIVE_PRICE("Price cannot be negative"),
+    MALFORMED_YEAR("Year is not a whole number"),
+    YEAR_OUT_OF_RANGE("Year must be between 1900 and 2030"),
+    BLANK_GENRE("Genre cannot be null or blank");
+
+    private final String description;
+
+    RejectReason(String description) {
+        this.description = description;
+    }
+
+    public String description() {
+        return description;
+    }
+}
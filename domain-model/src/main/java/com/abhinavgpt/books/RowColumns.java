@@ -0,0 +1,48 @@
+package com.abhinavgpt.books;
+
+/**
+ * Read access to a column-oriented dataset by row number, shared by the in-memory
+ * {@link BookColumns} and the memory-mapped snapshot, so that {@link WorkTimelines} and
+ * {@link BookQueryEngine} can be built from either without materializing rows.
+ */
+interface RowColumns {
+
+    int rowCount();
+
+    Book materialize(int row);
+
+    int year(int row);
+
+    int price(int row);
+
+    int reviewCount(int row);
+
+    double rating(int row);
+
+    int genreCode(int row);
+
+    int genreCount();
+
+    String genre(int genreCode);
+
+    /**
+     * The row's work, numbered from 0 in order of first appearance.
+     */
+    int workId(int row);
+
+    int workCount();
+
+    BookRepositoryImpl.WorkKey workKey(int workId);
+
+    /**
+     * Number of normalized author names; keys are numbered in the order of their UTF-8 bytes.
+     */
+    int authorKeyCount();
+
+    String authorKey(int authorKey);
+
+    /**
+     * The author's rows, ascending.
+     */
+    int[] rowsOfAuthorKey(int authorKey);
+}
@@ -0,0 +1,420 @@
+package com.abhinavgpt.books;
+
+import com.abhinavgpt.books.BookSnapshotFormat.Section;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.zip.CRC32C;
+
+/**
+ * Read-only repository served straight from a memory-mapped snapshot written by
+ * {@link BookSnapshotWriter}. Opening it maps the sections and validates the header; no
+ * rows are decoded up front. Queries walk the stored posting lists and only materialize
+ * {@link Book}s for the rows they return. Author lookups binary search the stored, sorted
+ * author keys. Work timelines and query bitmaps are derived from the mapped columns on first
+ * use and kept; work ids come from a single pass over the title and author codes.
+ */
+public final class SnapshotBookRepository implements BookRepository {
+
+    private final int rowCount;
+    private final ByteBuffer[] sections;
+    private final List<String> sortedAuthors;
+    private final OffGridBooks uniqueOffGridBooks;
+    private final LazyIndex<MappedColumns> mappedColumns = new LazyIndex<>(MappedColumns::new);
+    private final LazyIndex<WorkTimelines> workTimelines;
+    private final LazyIndex<BookQueryEngine> bookQueryEngine;
+
+    private SnapshotBookRepository(int rowCount, ByteBuffer[] sections) {
+        this.rowCount = rowCount;
+        this.sections = sections;
+        this.sortedAuthors = new LazyMaterializedList<>(section(Section.SORTED_AUTHOR_CODES).capacity() / Integer.BYTES,
+            index -> stringAt(Section.AUTHOR_DICTIONARY, intAt(Section.SORTED_AUTHOR_CODES, index)));
+        this.uniqueOffGridBooks = OffGridBooks.of(new LazyMaterializedList<>(offGridRowCount(),
+            index -> materialize(intAt(Section.OFF_GRID_ROWS, index)))).newestEditionPerWork();
+        this.workTimelines = new LazyIndex<>(() -> WorkTimelines.fromColumns(mappedColumns.get()));
+        this.bookQueryEngine = new LazyIndex<>(() -> BookQueryEngine.fromColumns(mappedColumns.get()));
+    }
+
+    public static SnapshotBookRepository open(Path snapshot) throws IOException {
+        return open(snapshot, true);
+    }
+
+    /**
+     * Maps the snapshot. Checksum verification reads every byte of the file once, so it can be
+     * skipped when the snapshot is known to be intact and startup latency matters most.
+     */
+    public static SnapshotBookRepository open(Path snapshot, boolean verifyChecksum) throws IOException {
+        try (FileChannel channel = FileChannel.open(snapshot, StandardOpenOption.READ)) {
+            ByteBuffer header = ByteBuffer.allocate(BookSnapshotFormat.HEADER_BYTES);
+            while (header.hasRemaining() && channel.read(header) >= 0) {
+                // keep reading until the header is complete or the file ends
+            }
+            if (header.hasRemaining()) {
+                throw new IOException("Snapshot is truncated: " + snapshot);
+            }
+            header.flip();
+
+            if (header.getInt() != BookSnapshotFormat.MAGIC) {
+                throw new IOException("Not a book snapshot: " + snapshot);
+            }
+            int version = header.getInt();
+            if (version != BookSnapshotFormat.VERSION) {
+                throw new IOException("Unsupported snapshot version " + version + ": " + snapshot);
+            }
+            int rowCount = header.getInt();
+            int sectionCount = header.getInt();
+            if (sectionCount != Section.values().length) {
+                throw new IOException("Unexpected section count " + sectionCount + ": " + snapshot);
+            }
+            long expectedChecksum = header.getLong();
+
+            ByteBuffer[] sections = new ByteBuffer[sectionCount];
+            CRC32C checksum = new CRC32C();
+            for (int i = 0; i < sectionCount; i++) {
+                long offset = header.getLong();
+                long length = header.getLong();
+                if (offset < BookSnapshotFormat.HEADER_BYTES || length < 0 || offset + length > channel.size()) {
+                    throw new IOException("Corrupt section table in snapshot: " + snapshot);
+                }
+                sections[i] = channel.map(FileChannel.MapMode.READ_ONLY, offset, length);
+                if (verifyChecksum) {
+                    checksum.update(sections[i].duplicate());
+                }
+            }
+            if (verifyChecksum) {
+                header.putLong(BookSnapshotFormat.CHECKSUM_OFFSET, 0L).rewind();
+                checksum.update(header);
+            }
+            if (verifyChecksum && checksum.getValue() != expectedChecksum) {
+                throw new IOException("Snapshot checksum mismatch: " + snapshot);
+            }
+
+            return new SnapshotBookRepository(rowCount, sections);
+        }
+    }
+
+    @Override
+    public List<Book> getBooksByAuthor(String author) {
+        return getUniqueBooksByAuthor(author);
+    }
+
+    @Override
+    public List<Book> getBooksByRating(double rating) {
+        if (!RatingScale.isRepresentable(rating)) {
+            return uniqueOffGridBooks.withRating(rating);
+        }
+        return materializePosting(Section.UNIQUE_ROWS_BY_RATING_TENTHS, RatingScale.toTenths(rating));
+    }
+
+    @Override
+    public List<Book> getBooksByRatingRange(double minRating, double maxRating) {
+        if (!RatingScale.overlapsScale(minRating, maxRating)) {
+            return List.of();
+        }
+        List<Book> books = new ArrayList<>();
+        for (int tenths = RatingScale.floorTenths(maxRating); tenths >= RatingScale.ceilTenths(minRating); tenths--) {
+            for (int i = 0, length = postingLength(Section.UNIQUE_ROWS_BY_RATING_TENTHS, tenths); i < length; i++) {
+                books.add(materialize(postingValue(Section.UNIQUE_ROWS_BY_RATING_TENTHS, tenths, i)));
+            }
+        }
+        return uniqueOffGridBooks.mergeBetween(Collections.unmodifiableList(books), minRating, maxRating);
+    }
+
+    @Override
+    public List<String> getAllAuthors() {
+        return sortedAuthors;
+    }
+
+    @Override
+    public int getBookCountByAuthor(String author) {
+        int authorKey = findAuthorKey(author);
+        return authorKey < 0 ? 0 : postingLength(Section.ROWS_BY_AUTHOR_KEY, authorKey);
+    }
+
+    @Override
+    public Map<String, Integer> getBooksAndPricesByAuthor(String author) {
+        int authorKey = findAuthorKey(author);
+        if (authorKey < 0) {
+            return Map.of();
+        }
+
+        Map<String, Integer> pricesByTitle = new LinkedHashMap<>();
+        for (int i = 0, length = postingLength(Section.ROWS_BY_AUTHOR_KEY, authorKey); i < length; i++) {
+            int row = postingValue(Section.ROWS_BY_AUTHOR_KEY, authorKey, i);
+            pricesByTitle.merge(stringAt(Section.TITLE_DICTIONARY, intAt(Section.TITLE_CODES, row)),
+                intAt(Section.PRICES, row), Integer::max);
+        }
+        return pricesByTitle;
+    }
+
+    @Override
+    public List<Book> getUniqueBooksByAuthor(String author) {
+        int authorKey = findAuthorKey(author);
+        return authorKey < 0 ? List.of() : materializePosting(Section.UNIQUE_ROWS_BY_AUTHOR_KEY, authorKey);
+    }
+
+    @Override
+    public List<Book> getAllUniqueBooks() {
+        ByteBuffer uniqueRows = section(Section.ALL_UNIQUE_ROWS);
+        return new LazyMaterializedList<>(uniqueRows.capacity() / Integer.BYTES,
+            index -> materialize(uniqueRows.getInt(index * Integer.BYTES)));
+    }
+
+    @Override
+    public List<Book> getAllBooksIncludingDuplicates() {
+        return new LazyMaterializedList<>(rowCount, this::materialize);
+    }
+
+    @Override
+    public Map<String, List<Book>> getDuplicateBooksAcrossYears() {
+        return workTimelines.get().getDuplicateBooksAcrossYears();
+    }
+
+    @Override
+    public WorkTimelines getWorkTimelines() {
+        return workTimelines.get();
+    }
+
+    @Override
+    public List<Book> findBooks(BookQuery query) {
+        return bookQueryEngine.get().execute(query);
+    }
+
+    public int getRowCount() {
+        return rowCount;
+    }
+
+    private Book materialize(int row) {
+        return new Book(
+            stringAt(Section.TITLE_DICTIONARY, intAt(Section.TITLE_CODES, row)),
+            stringAt(Section.AUTHOR_DICTIONARY, intAt(Section.AUTHOR_CODES, row)),
+            ratingAt(row),
+            intAt(Section.REVIEW_COUNTS, row),
+            intAt(Section.PRICES, row),
+            intAt(Section.YEARS, row),
+            stringAt(Section.GENRE_DICTIONARY, intAt(Section.GENRE_CODES, row))
+        );
+    }
+
+    private double ratingAt(int row) {
+        short tenths = section(Section.RATING_TENTHS).getShort(row * Short.BYTES);
+        if (tenths != BookColumns.OFF_GRID) {
+            return RatingScale.fromTenths(tenths);
+        }
+        int low = 0;
+        int high = offGridRowCount() - 1;
+        while (low < high) {
+            int middle = (low + high) >>> 1;
+            if (intAt(Section.OFF_GRID_ROWS, middle) < row) {
+                low = middle + 1;
+            } else {
+                high = middle;
+            }
+        }
+        return section(Section.OFF_GRID_RATINGS).getDouble(low * Double.BYTES);
+    }
+
+    private int offGridRowCount() {
+        return section(Section.OFF_GRID_ROWS).capacity() / Integer.BYTES;
+    }
+
+    private List<Book> materializePosting(Section postingTable, int key) {
+        int length = postingLength(postingTable, key);
+        List<Book> books = new ArrayList<>(length);
+        for (int i = 0; i < length; i++) {
+            books.add(materialize(postingValue(postingTable, key, i)));
+        }
+        return List.copyOf(books);
+    }
+
+    private int findAuthorKey(String author) {
+        if (author == null || author.trim().isEmpty()) {
+            return -1;
+        }
+        byte[] probe = author.toLowerCase().trim().getBytes(StandardCharsets.UTF_8);
+        ByteBuffer keys = section(Section.AUTHOR_KEYS);
+        int low = 0;
+        int high = keys.getInt(0) - 1;
+        while (low <= high) {
+            int middle = (low + high) >>> 1;
+            int comparison = compareStringAt(keys, middle, probe);
+            if (comparison < 0) {
+                low = middle + 1;
+            } else if (comparison > 0) {
+                high = middle - 1;
+            } else {
+                return middle;
+            }
+        }
+        return -1;
+    }
+
+    private static int compareStringAt(ByteBuffer table, int index, byte[] probe) {
+        int start = stringDataStart(table) + table.getInt(Integer.BYTES * (index + 1));
+        int length = table.getInt(Integer.BYTES * (index + 2)) - table.getInt(Integer.BYTES * (index + 1));
+        for (int i = 0, common = Math.min(length, probe.length); i < common; i++) {
+            int comparison = Byte.compareUnsigned(table.get(start + i), probe[i]);
+            if (comparison != 0) {
+                return comparison;
+            }
+        }
+        return Integer.compare(length, probe.length);
+    }
+
+    private String stringAt(Section stringTable, int index) {
+        ByteBuffer table = section(stringTable);
+        int start = table.getInt(Integer.BYTES * (index + 1));
+        byte[] bytes = new byte[table.getInt(Integer.BYTES * (index + 2)) - start];
+        table.get(stringDataStart(table) + start, bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    private int stringCount(Section stringTable) {
+        return section(stringTable).getInt(0);
+    }
+
+    private static int stringDataStart(ByteBuffer table) {
+        return Integer.BYTES * (table.getInt(0) + 2);
+    }
+
+    private int postingLength(Section postingTable, int key) {
+        ByteBuffer table = section(postingTable);
+        return table.getInt(Integer.BYTES * (key + 2)) - table.getInt(Integer.BYTES * (key + 1));
+    }
+
+    private int postingValue(Section postingTable, int key, int position) {
+        ByteBuffer table = section(postingTable);
+        int valuesStart = Integer.BYTES * (table.getInt(0) + 2);
+        return table.getInt(valuesStart + Integer.BYTES * (table.getInt(Integer.BYTES * (key + 1)) + position));
+    }
+
+    private int intAt(Section column, int index) {
+        return section(column).getInt(index * Integer.BYTES);
+    }
+
+    private ByteBuffer section(Section section) {
+        return sections[section.ordinal()];
+    }
+
+    /**
+     * The mapped sections seen as columns. Work ids are not stored, so they are assigned here
+     * from the normalized title and author of each distinct pair of codes.
+     */
+    private final class MappedColumns implements RowColumns {
+
+        private final int[] workIds = new int[rowCount];
+        private final List<BookRepositoryImpl.WorkKey> workKeys = new ArrayList<>();
+
+        MappedColumns() {
+            String[] titleKeys = new String[stringCount(Section.TITLE_DICTIONARY)];
+            String[] authorKeys = new String[stringCount(Section.AUTHOR_DICTIONARY)];
+            Map<BookRepositoryImpl.WorkKey, Integer> workIdByKey = new HashMap<>();
+            for (int row = 0; row < rowCount; row++) {
+                int titleCode = intAt(Section.TITLE_CODES, row);
+                int authorCode = intAt(Section.AUTHOR_CODES, row);
+                if (titleKeys[titleCode] == null) {
+                    titleKeys[titleCode] = BookColumns.normalize(stringAt(Section.TITLE_DICTIONARY, titleCode));
+                }
+                if (authorKeys[authorCode] == null) {
+                    authorKeys[authorCode] = BookColumns.normalize(stringAt(Section.AUTHOR_DICTIONARY, authorCode));
+                }
+                Integer workId = workIdByKey.putIfAbsent(
+                    new BookRepositoryImpl.WorkKey(titleKeys[titleCode], authorKeys[authorCode]), workKeys.size());
+                if (workId == null) {
+                    workId = workKeys.size();
+                    workKeys.add(new BookRepositoryImpl.WorkKey(titleKeys[titleCode], authorKeys[authorCode]));
+                }
+                workIds[row] = workId;
+            }
+        }
+
+        @Override
+        public int rowCount() {
+            return rowCount;
+        }
+
+        @Override
+        public Book materialize(int row) {
+            return SnapshotBookRepository.this.materialize(row);
+        }
+
+        @Override
+        public int year(int row) {
+            return intAt(Section.YEARS, row);
+        }
+
+        @Override
+        public int price(int row) {
+            return intAt(Section.PRICES, row);
+        }
+
+        @Override
+        public int reviewCount(int row) {
+            return intAt(Section.REVIEW_COUNTS, row);
+        }
+
+        @Override
+        public double rating(int row) {
+            return ratingAt(row);
+        }
+
+        @Override
+        public int genreCode(int row) {
+            return intAt(Section.GENRE_CODES, row);
+        }
+
+        @Override
+        public int genreCount() {
+            return stringCount(Section.GENRE_DICTIONARY);
+        }
+
+        @Override
+        public String genre(int genreCode) {
+            return stringAt(Section.GENRE_DICTIONARY, genreCode);
+        }
+
+        @Override
+        public int workId(int row) {
+            return workIds[row];
+        }
+
+        @Override
+        public int workCount() {
+            return workKeys.size();
+        }
+
+        @Override
+        public BookRepositoryImpl.WorkKey workKey(int workId) {
+            return workKeys.get(workId);
+        }
+
+        @Override
+        public int authorKeyCount() {
+            return stringCount(Section.AUTHOR_KEYS);
+        }
+
+        @Override
+        public String authorKey(int authorKey) {
+            return stringAt(Section.AUTHOR_KEYS, authorKey);
+        }
+
+        @Override
+        public int[] rowsOfAuthorKey(int authorKey) {
+            int[] rows = new int[postingLength(Section.ROWS_BY_AUTHOR_KEY, authorKey)];
+            for (int i = 0; i < rows.length; i++) {
+                rows[i] = postingValue(Section.ROWS_BY_AUTHOR_KEY, authorKey, i);
+            }
+            return rows;
+        }
+    }
+}
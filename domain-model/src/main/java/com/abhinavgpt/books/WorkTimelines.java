@@ -0,0 +1,451 @@
+package com.abhinavgpt.books;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.IntToDoubleFunction;
+import java.util.function.IntUnaryOperator;
+import java.util.stream.IntStream;
+
+/**
+ * Every distinct work (normalized title and author) with the timeline of its yearly bestseller
+ * entries.
+ * <p>
+ * Works are numbered from 0 in order of first appearance, so a work keeps its id for as long
+ * as the dataset does. Editions are stored grouped by work in flat primitive arrays (year,
+ * price, reviews, rating, row), with one offset per work marking where its editions
+ * start. While the timelines are built, each work's earliest and latest entry and its number
+ * of years on the list are found once and kept in further int arrays, so a trend is read in
+ * O(1) and a work's years in O(editions). A mutable repository instead keeps one {@link Work}
+ * per work up to date as rows change and hands its current table to {@link #of(Works)}.
+ * Rankings are sorted work ids, built on first use, so a top-k request only materializes k
+ * trends.
+ */
+public final class WorkTimelines {
+
+    /**
+     * How a work did over its time on the list. The change figures compare its latest entry
+     * with its earliest; all are 0 for works listed once.
+     */
+    public record WorkTrend(int workId, String title, String author, int firstYear, int lastYear, int yearsOnList,
+                            int reviewGrowth, int priceChange, double ratingChange) {
+    }
+
+    /**
+     * The works a set of timelines reads from, numbered from 0 in order of first appearance.
+     */
+    interface Works {
+
+        int count();
+
+        /**
+         * The work's id, or -1 when it is absent.
+         */
+        int idOf(BookRepositoryImpl.WorkKey workKey);
+
+        int editionCount(int workId);
+
+        /**
+         * The work's entries in dataset order.
+         */
+        List<Book> editions(int workId);
+
+        /**
+         * The work's newest entry; of two entries from the same year, the later row.
+         */
+        Book latestEdition(int workId);
+
+        int yearsOnList(int workId);
+
+        int reviewGrowth(int workId);
+
+        int priceChange(int workId);
+
+        WorkTrend trend(int workId);
+
+        /**
+         * Works listed more than once, keyed by normalized {@code title|author} in order of
+         * first appearance, each with its entries in dataset order.
+         */
+        Map<String, List<Book>> duplicatesAcrossYears();
+    }
+
+    /**
+     * One work's entries in dataset order, summarized when the work is created so that a trend
+     * is read in O(1).
+     */
+    record Work(BookRepositoryImpl.WorkKey key, List<Book> editions, Book earliest, Book latest, int yearsOnList) {
+
+        static Work of(BookRepositoryImpl.WorkKey key, List<Book> editions) {
+            Span span = summarize(editions.size(), edition -> editions.get(edition).year());
+            return new Work(key, editions, editions.get(span.earliest()), editions.get(span.latest()),
+                span.distinctYears());
+        }
+
+        int reviewGrowth() {
+            return latest.reviewCount() - earliest.reviewCount();
+        }
+
+        int priceChange() {
+            return latest.price() - earliest.price();
+        }
+
+        WorkTrend trend(int workId) {
+            Book first = editions.get(0);
+            return new WorkTrend(workId, first.title(), first.author(), earliest.year(), latest.year(), yearsOnList,
+                reviewGrowth(), priceChange(), RatingScale.difference(latest.userRating(), earliest.userRating()));
+        }
+
+        String duplicateKey() {
+            return key.title() + "|" + key.author();
+        }
+    }
+
+    private record Span(int earliest, int latest, int distinctYears) {
+    }
+
+    /**
+     * Reads the fields a timeline keeps from each row, by row number.
+     */
+    private record RowFields(IntUnaryOperator years, IntUnaryOperator prices, IntUnaryOperator reviewCounts,
+                             IntToDoubleFunction ratings) {
+
+        static RowFields of(List<Book> rows) {
+            return new RowFields(row -> rows.get(row).year(), row -> rows.get(row).price(),
+                row -> rows.get(row).reviewCount(), row -> rows.get(row).userRating());
+        }
+    }
+
+    private final Works works;
+    private final LazyIndex<int[]> longestRunning;
+    private final LazyIndex<int[]> fastestGrowing;
+    private final LazyIndex<int[]> biggestPriceChanges;
+
+    private WorkTimelines(Works works) {
+        this.works = works;
+        this.longestRunning = new LazyIndex<>(() -> rank(1, Comparator.comparingInt(works::yearsOnList)
+                .thenComparingInt(works::reviewGrowth)));
+        this.fastestGrowing = new LazyIndex<>(() -> rank(2, Comparator.comparingInt(works::reviewGrowth)));
+        this.biggestPriceChanges = new LazyIndex<>(() -> rank(2, Comparator.comparingInt(
+                (Integer workId) -> Math.abs(works.priceChange(workId)))));
+    }
+
+    static WorkTimelines of(Works works) {
+        return new WorkTimelines(works);
+    }
+
+    /**
+     * Builds the timelines from columns that already hold each row's work id, reading the
+     * edition fields from the columns so that no row is materialized until it is returned.
+     */
+    static WorkTimelines fromColumns(RowColumns columns) {
+        BookRepositoryImpl.WorkKey[] workKeys = new BookRepositoryImpl.WorkKey[columns.workCount()];
+        Map<BookRepositoryImpl.WorkKey, Integer> workIdByKey = new HashMap<>(workKeys.length * 2);
+        for (int workId = 0; workId < workKeys.length; workId++) {
+            workKeys[workId] = columns.workKey(workId);
+            workIdByKey.put(workKeys[workId], workId);
+        }
+        return new WorkTimelines(new FlatWorks(new LazyMaterializedList<>(columns.rowCount(), columns::materialize),
+            workIdByKey, workKeys, columns::workId, new RowFields(columns::year, columns::price,
+                columns::reviewCount, columns::rating)));
+    }
+
+    public static WorkTimelines fromBooks(List<Book> books) {
+        Builder builder = new Builder();
+        for (Book book : books) {
+            builder.add(BookRepositoryImpl.WorkKey.of(book));
+        }
+        return builder.build(books);
+    }
+
+    /**
+     * Assigns work ids row by row while a repository is loading, so the timelines can be built
+     * without hashing every row a second time.
+     */
+    static final class Builder {
+
+        private final Map<BookRepositoryImpl.WorkKey, Integer> workIdByKey = new HashMap<>();
+        private final List<BookRepositoryImpl.WorkKey> workKeys = new ArrayList<>();
+        private final IntArrayList workIdByRow = new IntArrayList();
+
+        int add(BookRepositoryImpl.WorkKey workKey) {
+            Integer workId = workIdByKey.putIfAbsent(workKey, workKeys.size());
+            if (workId == null) {
+                workId = workKeys.size();
+                workKeys.add(workKey);
+            }
+            workIdByRow.add(workId);
+            return workId;
+        }
+
+        /**
+         * @param rows the rows passed to {@link #add}, in the same order
+         */
+        WorkTimelines build(List<Book> rows) {
+            return new WorkTimelines(new FlatWorks(rows, workIdByKey,
+                workKeys.toArray(BookRepositoryImpl.WorkKey[]::new), workIdByRow::get, RowFields.of(rows)));
+        }
+    }
+
+    public int getWorkCount() {
+        return works.count();
+    }
+
+    /**
+     * The work's id, or -1 when no such work is in the dataset.
+     */
+    public int getWorkId(String title, String author) {
+        if (title == null || author == null) {
+            return -1;
+        }
+        return works.idOf(new BookRepositoryImpl.WorkKey(title.toLowerCase().trim(), author.toLowerCase().trim()));
+    }
+
+    /**
+     * The work's trend, or null when no such work is in the dataset.
+     */
+    public WorkTrend getTrend(String title, String author) {
+        int workId = getWorkId(title, author);
+        return workId < 0 ? null : works.trend(workId);
+    }
+
+    /**
+     * Distinct years the work was on the list, in ascending order.
+     */
+    public List<Integer> getYearsOnList(String title, String author) {
+        int workId = getWorkId(title, author);
+        if (workId < 0) {
+            return List.of();
+        }
+        return works.editions(workId).stream().map(Book::year).distinct().sorted().toList();
+    }
+
+    /**
+     * The work's entries in dataset order.
+     */
+    public List<Book> getEditions(int workId) {
+        return works.editions(workId);
+    }
+
+    /**
+     * Works by years on the list, most first; ties go to the larger review growth.
+     */
+    public List<WorkTrend> getLongestRunningBestsellers(int limit) {
+        return trends(longestRunning.get(), limit);
+    }
+
+    /**
+     * Works listed more than once, by reviews gained between their earliest and latest entry.
+     */
+    public List<WorkTrend> getFastestGrowingBestsellers(int limit) {
+        return trends(fastestGrowing.get(), limit);
+    }
+
+    /**
+     * Works listed more than once, by the size of their price change in either direction.
+     */
+    public List<WorkTrend> getBiggestPriceChanges(int limit) {
+        return trends(biggestPriceChanges.get(), limit);
+    }
+
+    /**
+     * Works listed more than once, keyed by normalized {@code title|author} in order of first
+     * appearance, each with its entries in dataset order.
+     */
+    public Map<String, List<Book>> getDuplicateBooksAcrossYears() {
+        return works.duplicatesAcrossYears();
+    }
+
+    /**
+     * Each work's newest entry, in order of first appearance. Of two entries from the same
+     * year, the later row wins.
+     */
+    List<Book> getLatestEditions() {
+        List<Book> latest = new ArrayList<>(works.count());
+        for (int workId = 0; workId < works.count(); workId++) {
+            latest.add(works.latestEdition(workId));
+        }
+        return Collections.unmodifiableList(latest);
+    }
+
+    /**
+     * Finds the earliest and latest of a work's entries (of two from the same year, the first
+     * row is the earliest and the last row the latest) and counts its distinct years. A work
+     * has only a handful of entries, so the quadratic distinct count beats allocating a set.
+     */
+    private static Span summarize(int editionCount, IntUnaryOperator yearOfEdition) {
+        int earliest = 0;
+        int latest = 0;
+        int distinctYears = 0;
+        for (int edition = 0; edition < editionCount; edition++) {
+            int year = yearOfEdition.applyAsInt(edition);
+            if (year < yearOfEdition.applyAsInt(earliest)) earliest = edition;
+            if (year >= yearOfEdition.applyAsInt(latest)) latest = edition;
+            int previous = 0;
+            while (previous < edition && yearOfEdition.applyAsInt(previous) != year) previous++;
+            if (previous == edition) distinctYears++;
+        }
+        return new Span(earliest, latest, distinctYears);
+    }
+
+    /**
+     * Ids of the works with at least {@code minimumEditions} entries, highest first by the
+     * given key; ties keep the order of first appearance.
+     */
+    private int[] rank(int minimumEditions, Comparator<Integer> ascendingKey) {
+        return IntStream.range(0, works.count())
+                .filter(workId -> works.editionCount(workId) >= minimumEditions)
+                .boxed()
+                .sorted(ascendingKey.reversed().thenComparingInt(workId -> workId))
+                .mapToInt(Integer::intValue)
+                .toArray();
+    }
+
+    private List<WorkTrend> trends(int[] rankedWorkIds, int limit) {
+        if (limit < 0) {
+            throw new IllegalArgumentException("Limit cannot be negative");
+        }
+        int count = Math.min(limit, rankedWorkIds.length);
+        List<WorkTrend> ranked = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            ranked.add(works.trend(rankedWorkIds[i]));
+        }
+        return Collections.unmodifiableList(ranked);
+    }
+
+    /**
+     * Works of an immutable dataset, laid out in the flat edition arrays described above.
+     */
+    private static final class FlatWorks implements Works {
+
+        private final List<Book> rows;
+        private final Map<BookRepositoryImpl.WorkKey, Integer> workIdByKey;
+        private final BookRepositoryImpl.WorkKey[] workKeys;
+        private final int[] editionStarts;
+        private final int[] editionYears;
+        private final int[] editionPrices;
+        private final int[] editionReviews;
+        private final double[] editionRatings;
+        private final int[] editionRows;
+        private final int[] earliestEditions;
+        private final int[] latestEditions;
+        private final int[] yearsOnList;
+        private final LazyIndex<Map<String, List<Book>>> duplicatesAcrossYears;
+
+        FlatWorks(List<Book> rows, Map<BookRepositoryImpl.WorkKey, Integer> workIdByKey,
+                  BookRepositoryImpl.WorkKey[] workKeys, IntUnaryOperator workIdOfRow, RowFields fields) {
+            int workCount = workKeys.length;
+            this.rows = rows;
+            this.workIdByKey = workIdByKey;
+            this.workKeys = workKeys;
+            this.editionStarts = new int[workCount + 1];
+            for (int row = 0; row < rows.size(); row++) {
+                editionStarts[workIdOfRow.applyAsInt(row) + 1]++;
+            }
+            for (int workId = 0; workId < workCount; workId++) {
+                editionStarts[workId + 1] += editionStarts[workId];
+            }
+
+            this.editionYears = new int[rows.size()];
+            this.editionPrices = new int[rows.size()];
+            this.editionReviews = new int[rows.size()];
+            this.editionRatings = new double[rows.size()];
+            this.editionRows = new int[rows.size()];
+            int[] nextEdition = Arrays.copyOf(editionStarts, workCount);
+            for (int row = 0; row < rows.size(); row++) {
+                int edition = nextEdition[workIdOfRow.applyAsInt(row)]++;
+                editionYears[edition] = fields.years().applyAsInt(row);
+                editionPrices[edition] = fields.prices().applyAsInt(row);
+                editionReviews[edition] = fields.reviewCounts().applyAsInt(row);
+                editionRatings[edition] = fields.ratings().applyAsDouble(row);
+                editionRows[edition] = row;
+            }
+
+            this.earliestEditions = new int[workCount];
+            this.latestEditions = new int[workCount];
+            this.yearsOnList = new int[workCount];
+            for (int workId = 0; workId < workCount; workId++) {
+                int start = editionStarts[workId];
+                Span span = summarize(editionStarts[workId + 1] - start, edition -> editionYears[start + edition]);
+                earliestEditions[workId] = start + span.earliest();
+                latestEditions[workId] = start + span.latest();
+                yearsOnList[workId] = span.distinctYears();
+            }
+            this.duplicatesAcrossYears = new LazyIndex<>(this::collectDuplicatesAcrossYears);
+        }
+
+        @Override
+        public int count() {
+            return workKeys.length;
+        }
+
+        @Override
+        public int idOf(BookRepositoryImpl.WorkKey workKey) {
+            return workIdByKey.getOrDefault(workKey, -1);
+        }
+
+        @Override
+        public int editionCount(int workId) {
+            return editionStarts[workId + 1] - editionStarts[workId];
+        }
+
+        @Override
+        public List<Book> editions(int workId) {
+            List<Book> editions = new ArrayList<>(editionCount(workId));
+            for (int edition = editionStarts[workId]; edition < editionStarts[workId + 1]; edition++) {
+                editions.add(rows.get(editionRows[edition]));
+            }
+            return Collections.unmodifiableList(editions);
+        }
+
+        @Override
+        public Book latestEdition(int workId) {
+            return rows.get(editionRows[latestEditions[workId]]);
+        }
+
+        @Override
+        public int yearsOnList(int workId) {
+            return yearsOnList[workId];
+        }
+
+        @Override
+        public int reviewGrowth(int workId) {
+            return editionReviews[latestEditions[workId]] - editionReviews[earliestEditions[workId]];
+        }
+
+        @Override
+        public int priceChange(int workId) {
+            return editionPrices[latestEditions[workId]] - editionPrices[earliestEditions[workId]];
+        }
+
+        @Override
+        public WorkTrend trend(int workId) {
+            int earliest = earliestEditions[workId];
+            int latest = latestEditions[workId];
+            Book first = rows.get(editionRows[editionStarts[workId]]);
+            return new WorkTrend(workId, first.title(), first.author(), editionYears[earliest], editionYears[latest],
+                yearsOnList[workId], reviewGrowth(workId), priceChange(workId),
+                RatingScale.difference(editionRatings[latest], editionRatings[earliest]));
+        }
+
+        @Override
+        public Map<String, List<Book>> duplicatesAcrossYears() {
+            return duplicatesAcrossYears.get();
+        }
+
+        private Map<String, List<Book>> collectDuplicatesAcrossYears() {
+            Map<String, List<Book>> duplicates = new LinkedHashMap<>();
+            for (int workId = 0; workId < workKeys.length; workId++) {
+                if (editionCount(workId) > 1) {
+                    duplicates.put(workKeys[workId].title() + "|" + workKeys[workId].author(), editions(workId));
+                }
+            }
+            return Collections.unmodifiableMap(duplicates);
+        }
+    }
+}
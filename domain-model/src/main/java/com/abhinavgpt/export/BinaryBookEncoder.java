@@ -0,0 +1,82 @@
+package com.abhinavgpt.export;
+
+import com.abhinavgpt.books.Book;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Compact binary rows, read back by {@link BinaryExportReader}.
+ * <pre>
+ * header   magic:int  version:int
+ * row      title:string  author:string  genre:string
+ *          rating  reviews:varint  price:varint  year:varint
+ * trailer  0:varint  rowCount:varint
+ * </pre>
+ * Integers are unsigned LEB128 varints. A string is a varint tag: odd tags
+ * {@code length << 1 | 1} are followed by that many UTF-8 bytes and add the string to the
+ * export's dictionary (until it holds {@link #MAX_DICTIONARY_ENTRIES}); even tags
+ * {@code (id + 1) << 1} repeat dictionary entry {@code id}. Tag 0 in the title position ends
+ * the rows. A rating on the 0.1 grid is the varint {@code tenths << 1}; any other rating is
+ * the varint 1 followed by its eight IEEE 754 bytes. Authors and genres repeat heavily and
+ * titles recur once per edition, so most strings cost one or two bytes, and a typical row
+ * fits in about a dozen.
+ * <p>
+ * Version 1 files wrote every rating as bare tenths, which cannot hold the off-grid ratings,
+ * so the reader rejects them rather than misreading their rating fields.
+ */
+final class BinaryBookEncoder implements BookEncoder {
+
+    static final int MAGIC = 0x424B4558;
+    static final int VERSION = 2;
+    static final int MAX_DICTIONARY_ENTRIES = 1 << 20;
+    static final int END_OF_ROWS = 0;
+    static final int OFF_GRID_RATING = 1;
+
+    private final Map<String, Integer> dictionary = new HashMap<>();
+
+    @Override
+    public void writeHeader(ExportOutput out) throws IOException {
+        out.putInt(MAGIC);
+        out.putInt(VERSION);
+    }
+
+    @Override
+    public void write(Book book, ExportOutput out) throws IOException {
+        putString(out, book.title());
+        putString(out, book.author());
+        putString(out, book.genre());
+        long tenths = Math.round(book.userRating() * 10);
+        if (tenths >= 0 && tenths / 10.0 == book.userRating()) {
+            out.putVarint(tenths << 1);
+        } else {
+            out.putVarint(OFF_GRID_RATING);
+            out.putLong(Double.doubleToLongBits(book.userRating()));
+        }
+        out.putVarint(book.reviewCount());
+        out.putVarint(book.price());
+        out.putVarint(book.year());
+    }
+
+    @Override
+    public void writeTrailer(ExportOutput out, long rowCount) throws IOException {
+        out.putVarint(END_OF_ROWS);
+        out.putVarint(rowCount);
+    }
+
+    private void putString(ExportOutput out, String value) throws IOException {
+        Integer id = dictionary.get(value);
+        if (id != null) {
+            out.putVarint((id + 1L) << 1);
+            return;
+        }
+        if (dictionary.size() < MAX_DICTIONARY_ENTRIES) {
+            dictionary.put(value, dictionary.size());
+        }
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        out.putVarint((long) bytes.length << 1 | 1);
+        out.putBytes(bytes);
+    }
+}
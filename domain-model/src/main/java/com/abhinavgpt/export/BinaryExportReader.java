@@ -0,0 +1,125 @@
+package com.abhinavgpt.export;
+
+import com.abhinavgpt.books.Book;
+
+import java.io.BufferedInputStream;
+import java.io.DataInputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Consumer;
+import java.util.zip.GZIPInputStream;
+
+/**
+ * Reads files written by {@link BookExporter} in {@link ExportFormat#BINARY}, gzipped or not.
+ * The layout is described on {@link BinaryBookEncoder}.
+ */
+public final class BinaryExportReader {
+
+    private static final int READ_BUFFER_BYTES = 1 << 16;
+    private static final int GZIP_MAGIC = 0x1F8B;
+
+    private BinaryExportReader() {
+    }
+
+    public static List<Book> read(Path source) throws IOException {
+        List<Book> books = new ArrayList<>();
+        try (InputStream in = Files.newInputStream(source)) {
+            forEach(in, books::add);
+        }
+        return books;
+    }
+
+    /**
+     * Streams every row to {@code consumer} without collecting them, and returns the row count.
+     * Gzip is detected from the first bytes. Truncated or corrupt input is rejected with an
+     * {@link IOException}.
+     */
+    public static long forEach(InputStream source, Consumer<? super Book> consumer) throws IOException {
+        BufferedInputStream buffered = new BufferedInputStream(source, READ_BUFFER_BYTES);
+        buffered.mark(2);
+        boolean gzipped = (buffered.read() << 8 | buffered.read()) == GZIP_MAGIC;
+        buffered.reset();
+        DataInputStream in = new DataInputStream(gzipped
+            ? new BufferedInputStream(new GZIPInputStream(buffered, READ_BUFFER_BYTES), READ_BUFFER_BYTES)
+            : buffered);
+
+        if (in.readInt() != BinaryBookEncoder.MAGIC) {
+            throw new IOException("Not a binary book export");
+        }
+        int version = in.readInt();
+        if (version != BinaryBookEncoder.VERSION) {
+            throw new IOException("Unsupported binary book export version " + version);
+        }
+
+        List<String> dictionary = new ArrayList<>();
+        long rows = 0;
+        while (true) {
+            long titleTag = readVarint(in);
+            if (titleTag == BinaryBookEncoder.END_OF_ROWS) {
+                break;
+            }
+            String title = readString(in, titleTag, dictionary);
+            String author = readString(in, readVarint(in), dictionary);
+            String genre = readString(in, readVarint(in), dictionary);
+            long ratingTag = readVarint(in);
+            double rating = ratingTag == BinaryBookEncoder.OFF_GRID_RATING
+                ? Double.longBitsToDouble(in.readLong())
+                : (ratingTag >> 1) / 10.0;
+            int reviews = readInt(in);
+            int price = readInt(in);
+            int year = readInt(in);
+            consumer.accept(new Book(title, author, rating, reviews, price, year, genre));
+            rows++;
+        }
+        if (readVarint(in) != rows) {
+            throw new IOException("Binary book export is corrupt: row count does not match");
+        }
+        return rows;
+    }
+
+    private static String readString(DataInputStream in, long tag, List<String> dictionary) throws IOException {
+        if ((tag & 1) == 0) {
+            long id = (tag >> 1) - 1;
+            if (id < 0 || id >= dictionary.size()) {
+                throw new IOException("Binary book export is corrupt: unknown string " + id);
+            }
+            return dictionary.get((int) id);
+        }
+        byte[] bytes = new byte[Math.toIntExact(tag >> 1)];
+        in.readFully(bytes);
+        String value = new String(bytes, StandardCharsets.UTF_8);
+        if (dictionary.size() < BinaryBookEncoder.MAX_DICTIONARY_ENTRIES) {
+            dictionary.add(value);
+        }
+        return value;
+    }
+
+    private static int readInt(DataInputStream in) throws IOException {
+        long value = readVarint(in);
+        if (value > Integer.MAX_VALUE) {
+            throw new IOException("Binary book export is corrupt: value out of range");
+        }
+        return (int) value;
+    }
+
+    private static long readVarint(DataInputStream in) throws IOException {
+        long value = 0;
+        for (int shift = 0; shift < Long.SIZE; shift += 7) {
+            int b = in.read();
+            if (b < 0) {
+                throw new EOFException("Binary book export is truncated");
+            }
+            value |= (long) (b & 0x7F) << shift;
+            if ((b & 0x80) == 0) {
+                return value;
+            }
+        }
+        throw new IOException("Binary book export is corrupt: varint too long");
+    }
+}
@@ -0,0 +1,18 @@
+package com.abhinavgpt.export;
+
+import com.abhinavgpt.books.Book;
+
+import java.io.IOException;
+
+/**
+ * Encodes rows for one export. An encoder keeps whatever state its format needs across rows
+ * (the binary format's string dictionary, for instance), so a new one is created per export.
+ */
+interface BookEncoder {
+
+    void writeHeader(ExportOutput out) throws IOException;
+
+    void write(Book book, ExportOutput out) throws IOException;
+
+    void writeTrailer(ExportOutput out, long rowCount) throws IOException;
+}
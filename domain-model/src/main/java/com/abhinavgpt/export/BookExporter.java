@@ -0,0 +1,131 @@
+package com.abhinavgpt.export;
+
+import com.abhinavgpt.books.Book;
+
+import java.io.FilterOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Iterator;
+import java.util.stream.Stream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Writes books to CSV, JSON Lines or the compact binary format, optionally gzipped.
+ * <p>
+ * Rows are encoded straight into a 1 MiB buffer by a per-export {@link BookEncoder}: no
+ * formatter, no per-row strings, no locks. Plain file exports drain a direct buffer into a
+ * {@link FileChannel}; gzipped ones go through a {@link GZIPOutputStream} with a large deflate
+ * buffer. Any {@code BookService} list result, a {@code PagedResult} window stream or a whole
+ * dataset slice can be exported; streams are consumed as they are written, so nothing is
+ * collected first.
+ */
+public final class BookExporter {
+
+    private static final int WRITE_BUFFER_BYTES = 1 << 20;
+    private static final int GZIP_BUFFER_BYTES = 1 << 16;
+
+    private final ExportFormat format;
+    private final boolean gzip;
+
+    public BookExporter(ExportFormat format, boolean gzip) {
+        if (format == null) {
+            throw new IllegalArgumentException("Export format cannot be null");
+        }
+        this.format = format;
+        this.gzip = gzip;
+    }
+
+    /**
+     * An exporter for the format named by the file's extension, gzipping when it ends in
+     * {@code .gz} (e.g. {@code books.jsonl.gz}).
+     */
+    public static BookExporter forFile(Path target) {
+        return new BookExporter(ExportFormat.forFile(target),
+            target.getFileName().toString().toLowerCase().endsWith(ExportFormat.GZIP_EXTENSION));
+    }
+
+    public ExportFormat getFormat() {
+        return format;
+    }
+
+    public boolean isGzip() {
+        return gzip;
+    }
+
+    /**
+     * Writes the books to {@code target}, replacing it, and returns the number of rows written.
+     */
+    public long export(Iterable<? extends Book> books, Path target) throws IOException {
+        return export(books.iterator(), target);
+    }
+
+    public long export(Stream<? extends Book> books, Path target) throws IOException {
+        return export(books.iterator(), target);
+    }
+
+    /**
+     * Writes the books to {@code out} and returns the number of rows written. The stream is
+     * flushed (and the gzip trailer written) but left open.
+     */
+    public long export(Iterable<? extends Book> books, OutputStream out) throws IOException {
+        return export(books.iterator(), out, ByteBuffer.allocate(WRITE_BUFFER_BYTES));
+    }
+
+    public long export(Stream<? extends Book> books, OutputStream out) throws IOException {
+        return export(books.iterator(), out, ByteBuffer.allocate(WRITE_BUFFER_BYTES));
+    }
+
+    private long export(Iterator<? extends Book> books, Path target) throws IOException {
+        try (FileChannel channel = FileChannel.open(target,
+                StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+            return gzip
+                ? export(books, Channels.newOutputStream(channel), ByteBuffer.allocate(WRITE_BUFFER_BYTES))
+                : write(books, new ExportOutput(channel, ByteBuffer.allocateDirect(WRITE_BUFFER_BYTES)));
+        }
+    }
+
+    private long export(Iterator<? extends Book> books, OutputStream out, ByteBuffer buffer) throws IOException {
+        if (!gzip) {
+            long rows = write(books, new ExportOutput(Channels.newChannel(out), buffer));
+            out.flush();
+            return rows;
+        }
+        // Closing the gzip stream is what frees its Deflater's native memory, so it is always
+        // closed; the close stops at a flush rather than closing the caller's stream
+        try (GZIPOutputStream compressed = new GZIPOutputStream(closeShielded(out), GZIP_BUFFER_BYTES)) {
+            return write(books, new ExportOutput(Channels.newChannel(compressed), buffer));
+        }
+    }
+
+    private static OutputStream closeShielded(OutputStream out) {
+        return new FilterOutputStream(out) {
+            @Override
+            public void write(byte[] bytes, int offset, int length) throws IOException {
+                out.write(bytes, offset, length);
+            }
+
+            @Override
+            public void close() throws IOException {
+                flush();
+            }
+        };
+    }
+
+    private long write(Iterator<? extends Book> books, ExportOutput out) throws IOException {
+        BookEncoder encoder = format.newEncoder();
+        encoder.writeHeader(out);
+        long rows = 0;
+        while (books.hasNext()) {
+            encoder.write(books.next(), out);
+            rows++;
+        }
+        encoder.writeTrailer(out, rows);
+        out.flush();
+        return rows;
+    }
+}
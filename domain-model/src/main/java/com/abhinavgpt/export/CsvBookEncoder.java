@@ -0,0 +1,62 @@
+package com.abhinavgpt.export;
+
+import com.abhinavgpt.books.Book;
+
+import java.io.IOException;
+
+/**
+ * The dataset's own CSV layout, readable by {@link com.abhinavgpt.utils.DatasetReader}. Text
+ * containing a comma, quote or line break is quoted, with quotes doubled.
+ */
+final class CsvBookEncoder implements BookEncoder {
+
+    static final String HEADER = "Name,Author,User Rating,Reviews,Price,Year,Genre\n";
+
+    @Override
+    public void writeHeader(ExportOutput out) throws IOException {
+        out.putUtf8(HEADER);
+    }
+
+    @Override
+    public void write(Book book, ExportOutput out) throws IOException {
+        putText(out, book.title());
+        out.putByte(',');
+        putText(out, book.author());
+        out.putByte(',');
+        out.putRating(book.userRating());
+        out.putByte(',');
+        out.putDecimal(book.reviewCount());
+        out.putByte(',');
+        out.putDecimal(book.price());
+        out.putByte(',');
+        out.putDecimal(book.year());
+        out.putByte(',');
+        putText(out, book.genre());
+        out.putByte('\n');
+    }
+
+    @Override
+    public void writeTrailer(ExportOutput out, long rowCount) {
+    }
+
+    private static void putText(ExportOutput out, String text) throws IOException {
+        boolean needsQuotes = false;
+        for (int i = 0; i < text.length() && !needsQuotes; i++) {
+            char c = text.charAt(i);
+            needsQuotes = c == ',' || c == '"' || c == '\n' || c == '\r';
+        }
+        if (!needsQuotes) {
+            out.putUtf8(text);
+            return;
+        }
+        out.putByte('"');
+        int unescapedFrom = 0;
+        for (int quote = text.indexOf('"'); quote >= 0; quote = text.indexOf('"', quote + 1)) {
+            out.putUtf8(text, unescapedFrom, quote + 1);
+            out.putByte('"');
+            unescapedFrom = quote + 1;
+        }
+        out.putUtf8(text, unescapedFrom, text.length());
+        out.putByte('"');
+    }
+}
@@ -0,0 +1,45 @@
+package com.abhinavgpt.export;
+
+import java.nio.file.Path;
+import java.util.function.Supplier;
+
+public enum ExportFormat {
+    CSV(".csv", CsvBookEncoder::new),
+    JSON_LINES(".jsonl", JsonLinesBookEncoder::new),
+    BINARY(".bkx", BinaryBookEncoder::new);
+
+    static final String GZIP_EXTENSION = ".gz";
+
+    private final String extension;
+    private final Supplier<BookEncoder> encoderFactory;
+
+    ExportFormat(String extension, Supplier<BookEncoder> encoderFactory) {
+        this.extension = extension;
+        this.encoderFactory = encoderFactory;
+    }
+
+    public String extension() {
+        return extension;
+    }
+
+    /**
+     * The format named by the file's extension, ignoring a trailing {@code .gz}.
+     */
+    public static ExportFormat forFile(Path file) {
+        String name = file.getFileName().toString().toLowerCase();
+        if (name.endsWith(GZIP_EXTENSION)) {
+            name = name.substring(0, name.length() - GZIP_EXTENSION.length());
+        }
+        for (ExportFormat format : values()) {
+            if (name.endsWith(format.extension)) {
+                return format;
+            }
+        }
+        throw new IllegalArgumentException("Unknown export format for " + file.getFileName()
+            + "; expected .csv, .jsonl or .bkx, optionally followed by .gz");
+    }
+
+    BookEncoder newEncoder() {
+        return encoderFactory.get();
+    }
+}
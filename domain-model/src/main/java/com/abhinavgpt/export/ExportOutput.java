@@ -0,0 +1,144 @@
+package com.abhinavgpt.export;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.WritableByteChannel;
+
+/**
+ * Byte buffer in front of a channel that encoders write into directly. Text is encoded to
+ * UTF-8 and numbers to decimal digits in place, so writing a row allocates nothing; the buffer
+ * only reaches the channel when it is full or flushed.
+ */
+final class ExportOutput {
+
+    private static final int MAX_UTF8_BYTES_PER_CHAR = 3;
+    private static final int MAX_DECIMAL_BYTES = 20;
+
+    private final WritableByteChannel channel;
+    private final ByteBuffer buffer;
+    private final byte[] digits = new byte[MAX_DECIMAL_BYTES];
+
+    ExportOutput(WritableByteChannel channel, ByteBuffer buffer) {
+        this.channel = channel;
+        this.buffer = buffer;
+    }
+
+    void putByte(int value) throws IOException {
+        ensureCapacity(1);
+        buffer.put((byte) value);
+    }
+
+    void putBytes(byte[] bytes) throws IOException {
+        int written = 0;
+        while (written < bytes.length) {
+            ensureCapacity(1);
+            int chunk = Math.min(buffer.remaining(), bytes.length - written);
+            buffer.put(bytes, written, chunk);
+            written += chunk;
+        }
+    }
+
+    void putLong(long value) throws IOException {
+        ensureCapacity(Long.BYTES);
+        buffer.putLong(value);
+    }
+
+    void putInt(int value) throws IOException {
+        ensureCapacity(Integer.BYTES);
+        buffer.putInt(value);
+    }
+
+    /**
+     * Writes a non-negative value as an unsigned LEB128 varint: seven bits per byte, low bits
+     * first, with the high bit set on every byte but the last.
+     */
+    void putVarint(long value) throws IOException {
+        ensureCapacity(10);
+        while ((value & ~0x7FL) != 0) {
+            buffer.put((byte) ((value & 0x7F) | 0x80));
+            value >>>= 7;
+        }
+        buffer.put((byte) value);
+    }
+
+    void putDecimal(long value) throws IOException {
+        ensureCapacity(MAX_DECIMAL_BYTES);
+        if (value < 0) {
+            buffer.put((byte) '-');
+            if (value == Long.MIN_VALUE) {
+                putUtf8("9223372036854775808");
+                return;
+            }
+            value = -value;
+        }
+        int start = digits.length;
+        do {
+            digits[--start] = (byte) ('0' + value % 10);
+            value /= 10;
+        } while (value != 0);
+        buffer.put(digits, start, digits.length - start);
+    }
+
+    /**
+     * Writes a rating. Ratings on the 0.1 grid, which is every rating in the bestseller data,
+     * are written from their tenths; anything else falls back to {@link Double#toString}.
+     * Both produce the same text for on-grid values.
+     */
+    void putRating(double rating) throws IOException {
+        long tenths = Math.round(rating * 10);
+        if (tenths >= 0 && tenths / 10.0 == rating) {
+            putDecimal(tenths / 10);
+            putByte('.');
+            putByte((int) ('0' + tenths % 10));
+        } else {
+            putUtf8(Double.toString(rating));
+        }
+    }
+
+    void putUtf8(String text) throws IOException {
+        putUtf8(text, 0, text.length());
+    }
+
+    void putUtf8(String text, int from, int to) throws IOException {
+        int i = from;
+        while (i < to) {
+            ensureCapacity(MAX_UTF8_BYTES_PER_CHAR + 1);
+            // A surrogate pair may read one char past the budget, hence the byte held back
+            int end = Math.min(to, i + (buffer.remaining() - 1) / MAX_UTF8_BYTES_PER_CHAR);
+            while (i < end) {
+                char c = text.charAt(i++);
+                if (c < 0x80) {
+                    buffer.put((byte) c);
+                } else if (c < 0x800) {
+                    buffer.put((byte) (0xC0 | c >> 6)).put((byte) (0x80 | c & 0x3F));
+                } else if (Character.isHighSurrogate(c) && i < to && Character.isLowSurrogate(text.charAt(i))) {
+                    int codePoint = Character.toCodePoint(c, text.charAt(i++));
+                    buffer.put((byte) (0xF0 | codePoint >> 18))
+                          .put((byte) (0x80 | codePoint >> 12 & 0x3F))
+                          .put((byte) (0x80 | codePoint >> 6 & 0x3F))
+                          .put((byte) (0x80 | codePoint & 0x3F));
+                } else if (Character.isSurrogate(c)) {
+                    buffer.put((byte) '?');
+                } else {
+                    buffer.put((byte) (0xE0 | c >> 12))
+                          .put((byte) (0x80 | c >> 6 & 0x3F))
+                          .put((byte) (0x80 | c & 0x3F));
+                }
+            }
+        }
+    }
+
+    void flush() throws IOException {
+        buffer.flip();
+        while (buffer.hasRemaining()) {
+            channel.write(buffer);
+        }
+        buffer.clear();
+    }
+
+    private void ensureCapacity(int bytes) throws IOException {
+        if (buffer.remaining() < bytes) {
+            flush();
+        }
+    }
+}
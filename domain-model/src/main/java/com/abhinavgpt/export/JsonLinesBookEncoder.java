@@ -0,0 +1,80 @@
+package com.abhinavgpt.export;
+
+import com.abhinavgpt.books.Book;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * One JSON object per line, with the field names and escaping the query server uses for books.
+ */
+final class JsonLinesBookEncoder implements BookEncoder {
+
+    private static final byte[] TITLE = field("{\"title\":");
+    private static final byte[] AUTHOR = field(",\"author\":");
+    private static final byte[] USER_RATING = field(",\"userRating\":");
+    private static final byte[] REVIEWS = field(",\"reviews\":");
+    private static final byte[] PRICE = field(",\"price\":");
+    private static final byte[] YEAR = field(",\"year\":");
+    private static final byte[] GENRE = field(",\"genre\":");
+    private static final byte[] END = field("}\n");
+    private static final char[] HEX_DIGITS = "0123456789abcdef".toCharArray();
+
+    @Override
+    public void writeHeader(ExportOutput out) {
+    }
+
+    @Override
+    public void write(Book book, ExportOutput out) throws IOException {
+        out.putBytes(TITLE);
+        putString(out, book.title());
+        out.putBytes(AUTHOR);
+        putString(out, book.author());
+        out.putBytes(USER_RATING);
+        out.putRating(book.userRating());
+        out.putBytes(REVIEWS);
+        out.putDecimal(book.reviewCount());
+        out.putBytes(PRICE);
+        out.putDecimal(book.price());
+        out.putBytes(YEAR);
+        out.putDecimal(book.year());
+        out.putBytes(GENRE);
+        putString(out, book.genre());
+        out.putBytes(END);
+    }
+
+    @Override
+    public void writeTrailer(ExportOutput out, long rowCount) {
+    }
+
+    private static void putString(ExportOutput out, String value) throws IOException {
+        out.putByte('"');
+        int unescapedFrom = 0;
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c >= 0x20 && c != '"' && c != '\\') {
+                continue;
+            }
+            out.putUtf8(value, unescapedFrom, i);
+            switch (c) {
+                case '"' -> out.putUtf8("\\\"");
+                case '\\' -> out.putUtf8("\\\\");
+                case '\n' -> out.putUtf8("\\n");
+                case '\r' -> out.putUtf8("\\r");
+                case '\t' -> out.putUtf8("\\t");
+                default -> {
+                    out.putUtf8("\\u00");
+                    out.putByte(HEX_DIGITS[c >> 4]);
+                    out.putByte(HEX_DIGITS[c & 0xF]);
+                }
+            }
+            unescapedFrom = i + 1;
+        }
+        out.putUtf8(value, unescapedFrom, value.length());
+        out.putByte('"');
+    }
+
+    private static byte[] field(String text) {
+        return text.getBytes(StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,220 @@
+package com.abhinavgpt.metrics;
+
+import com.abhinavgpt.books.Book;
+import com.abhinavgpt.books.BookQuery;
+import com.abhinavgpt.books.BookRepository;
+import com.abhinavgpt.books.PagedResult;
+import com.abhinavgpt.books.WorkTimelines;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * Decorator that records the call count, latency and result size of every query made to
+ * another repository, under {@code repository.<method>}. Paged variants are recorded when the
+ * result is requested; their windows are read lazily from the delegate's own lookups.
+ */
+public final class InstrumentedBookRepository implements BookRepository {
+
+    private final BookRepository delegate;
+    private final OperationMetrics booksByAuthor;
+    private final OperationMetrics uniqueBooksByAuthor;
+    private final OperationMetrics allBooksByAuthor;
+    private final OperationMetrics bookCountByAuthor;
+    private final OperationMetrics pricesByAuthor;
+    private final OperationMetrics booksByRating;
+    private final OperationMetrics allBooksByRating;
+    private final OperationMetrics booksByRatingRange;
+    private final OperationMetrics findBooks;
+    private final OperationMetrics allAuthors;
+    private final OperationMetrics allUniqueBooks;
+    private final OperationMetrics allBooks;
+    private final OperationMetrics duplicatesAcrossYears;
+    private final OperationMetrics workTimelines;
+    private final OperationMetrics allAuthorsPaged;
+    private final OperationMetrics allUniqueBooksPaged;
+    private final OperationMetrics booksByRatingPaged;
+    private final OperationMetrics booksByRatingRangePaged;
+    private final OperationMetrics duplicatesAcrossYearsPaged;
+
+    public InstrumentedBookRepository(BookRepository delegate, MetricsRegistry metrics) {
+        this.delegate = Objects.requireNonNull(delegate, "delegate");
+        this.booksByAuthor = metrics.operation("repository.getBooksByAuthor");
+        this.uniqueBooksByAuthor = metrics.operation("repository.getUniqueBooksByAuthor");
+        this.allBooksByAuthor = metrics.operation("repository.getAllBooksByAuthorIncludingDuplicates");
+        this.bookCountByAuthor = metrics.operation("repository.getBookCountByAuthor");
+        this.pricesByAuthor = metrics.operation("repository.getBooksAndPricesByAuthor");
+        this.booksByRating = metrics.operation("repository.getBooksByRating");
+        this.allBooksByRating = metrics.operation("repository.getAllBooksByRatingIncludingDuplicates");
+        this.booksByRatingRange = metrics.operation("repository.getBooksByRatingRange");
+        this.findBooks = metrics.operation("repository.findBooks");
+        this.allAuthors = metrics.operation("repository.getAllAuthors");
+        this.allUniqueBooks = metrics.operation("repository.getAllUniqueBooks");
+        this.allBooks = metrics.operation("repository.getAllBooksIncludingDuplicates");
+        this.duplicatesAcrossYears = metrics.operation("repository.getDuplicateBooksAcrossYears");
+        this.workTimelines = metrics.operation("repository.getWorkTimelines");
+        this.allAuthorsPaged = metrics.operation("repository.getAllAuthorsPaged");
+        this.allUniqueBooksPaged = metrics.operation("repository.getAllUniqueBooksPaged");
+        this.booksByRatingPaged = metrics.operation("repository.getBooksByRatingPaged");
+        this.booksByRatingRangePaged = metrics.operation("repository.getBooksByRatingRangePaged");
+        this.duplicatesAcrossYearsPaged = metrics.operation("repository.getDuplicateBooksAcrossYearsPaged");
+    }
+
+    @Override
+    public List<Book> getBooksByAuthor(String author) {
+        long start = booksByAuthor.start();
+        List<Book> books = delegate.getBooksByAuthor(author);
+        booksByAuthor.record(start, books.size());
+        return books;
+    }
+
+    @Override
+    public List<Book> getUniqueBooksByAuthor(String author) {
+        long start = uniqueBooksByAuthor.start();
+        List<Book> books = delegate.getUniqueBooksByAuthor(author);
+        uniqueBooksByAuthor.record(start, books.size());
+        return books;
+    }
+
+    @Override
+    public List<Book> getAllBooksByAuthorIncludingDuplicates(String author) {
+        long start = allBooksByAuthor.start();
+        List<Book> books = delegate.getAllBooksByAuthorIncludingDuplicates(author);
+        allBooksByAuthor.record(start, books.size());
+        return books;
+    }
+
+    @Override
+    public int getBookCountByAuthor(String author) {
+        long start = bookCountByAuthor.start();
+        int bookCount = delegate.getBookCountByAuthor(author);
+        bookCountByAuthor.record(start, 1);
+        return bookCount;
+    }
+
+    @Override
+    public Map<String, Integer> getBooksAndPricesByAuthor(String author) {
+        long start = pricesByAuthor.start();
+        Map<String, Integer> pricesByTitle = delegate.getBooksAndPricesByAuthor(author);
+        pricesByAuthor.record(start, pricesByTitle.size());
+        return pricesByTitle;
+    }
+
+    @Override
+    public List<Book> getBooksByRating(double rating) {
+        long start = booksByRating.start();
+        List<Book> books = delegate.getBooksByRating(rating);
+        booksByRating.record(start, books.size());
+        return books;
+    }
+
+    @Override
+    public List<Book> getAllBooksByRatingIncludingDuplicates(double rating) {
+        long start = allBooksByRating.start();
+        List<Book> books = delegate.getAllBooksByRatingIncludingDuplicates(rating);
+        allBooksByRating.record(start, books.size());
+        return books;
+    }
+
+    @Override
+    public List<Book> getBooksByRatingRange(double minRating, double maxRating) {
+        long start = booksByRatingRange.start();
+        List<Book> books = delegate.getBooksByRatingRange(minRating, maxRating);
+        booksByRatingRange.record(start, books.size());
+        return books;
+    }
+
+    @Override
+    public List<Book> findBooks(BookQuery query) {
+        long start = findBooks.start();
+        List<Book> books = delegate.findBooks(query);
+        findBooks.record(start, books.size());
+        return books;
+    }
+
+    @Override
+    public List<String> getAllAuthors() {
+        long start = allAuthors.start();
+        List<String> authors = delegate.getAllAuthors();
+        allAuthors.record(start, authors.size());
+        return authors;
+    }
+
+    @Override
+    public List<Book> getAllUniqueBooks() {
+        long start = allUniqueBooks.start();
+        List<Book> books = delegate.getAllUniqueBooks();
+        allUniqueBooks.record(start, books.size());
+        return books;
+    }
+
+    @Override
+    public List<Book> getAllBooksIncludingDuplicates() {
+        long start = allBooks.start();
+        List<Book> books = delegate.getAllBooksIncludingDuplicates();
+        allBooks.record(start, books.size());
+        return books;
+    }
+
+    @Override
+    public Map<String, List<Book>> getDuplicateBooksAcrossYears() {
+        long start = duplicatesAcrossYears.start();
+        Map<String, List<Book>> duplicates = delegate.getDuplicateBooksAcrossYears();
+        duplicatesAcrossYears.record(start, duplicates.size());
+        return duplicates;
+    }
+
+    @Override
+    public WorkTimelines getWorkTimelines() {
+        long start = workTimelines.start();
+        WorkTimelines timelines = delegate.getWorkTimelines();
+        workTimelines.record(start, timelines.getWorkCount());
+        return timelines;
+    }
+
+    @Override
+    public PagedResult<String> getAllAuthorsPaged() {
+        long start = allAuthorsPaged.start();
+        PagedResult<String> authors = delegate.getAllAuthorsPaged();
+        allAuthorsPaged.record(start, 0);
+        return authors;
+    }
+
+    @Override
+    public PagedResult<Book> getAllUniqueBooksPaged() {
+        long start = allUniqueBooksPaged.start();
+        PagedResult<Book> books = delegate.getAllUniqueBooksPaged();
+        allUniqueBooksPaged.record(start, 0);
+        return books;
+    }
+
+    @Override
+    public PagedResult<Book> getBooksByRatingPaged(double rating) {
+        long start = booksByRatingPaged.start();
+        PagedResult<Book> books = delegate.getBooksByRatingPaged(rating);
+        booksByRatingPaged.record(start, 0);
+        return books;
+    }
+
+    @Override
+    public PagedResult<Book> getBooksByRatingRangePaged(double minRating, double maxRating) {
+        long start = booksByRatingRangePaged.start();
+        PagedResult<Book> books = delegate.getBooksByRatingRangePaged(minRating, maxRating);
+        booksByRatingRangePaged.record(start, 0);
+        return books;
+    }
+
+    @Override
+    public PagedResult<Map.Entry<String, List<Book>>> getDuplicateBooksAcrossYearsPaged() {
+        long start = duplicatesAcrossYearsPaged.start();
+        PagedResult<Map.Entry<String, List<Book>>> duplicates = delegate.getDuplicateBooksAcrossYearsPaged();
+        duplicatesAcrossYearsPaged.record(start, 0);
+        return duplicates;
+    }
+
+    @Override
+    public long getDataVersion() {
+        return delegate.getDataVersion();
+    }
+}
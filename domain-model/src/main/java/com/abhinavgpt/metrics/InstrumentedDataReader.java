@@ -0,0 +1,98 @@
+package com.abhinavgpt.metrics;
+
+import com.abhinavgpt.books.Book;
+import com.abhinavgpt.utils.DataReader;
+import com.abhinavgpt.utils.DatasetReader;
+import com.abhinavgpt.utils.MappedDatasetReader;
+import com.abhinavgpt.utils.RejectedRowSink;
+
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.stream.Stream;
+
+/**
+ * Decorator that times loads from another {@link DataReader} and counts the rows they produce.
+ * <p>
+ * {@code reader.readBooksFromSource} covers reading and parsing a whole source into a list.
+ * {@code reader.streamBooksFromSource} runs from opening a stream to closing it, so when the
+ * stream feeds an index builder such as {@code BookRepositoryImpl.fromStream} it covers the
+ * build as well. Books delivered are counted in {@code reader.rows}; the {@link #csv} and
+ * {@link #mapped} factories also wire the reader's rejected rows into
+ * {@code reader.rejectedRows} and per-reason counters beneath it.
+ */
+public final class InstrumentedDataReader implements DataReader {
+
+    private final DataReader delegate;
+    private final OperationMetrics readMetrics;
+    private final OperationMetrics streamMetrics;
+    private final LongAdder rows;
+
+    public InstrumentedDataReader(DataReader delegate, MetricsRegistry metrics) {
+        this.delegate = Objects.requireNonNull(delegate, "delegate");
+        this.readMetrics = metrics.operation("reader.readBooksFromSource");
+        this.streamMetrics = metrics.operation("reader.streamBooksFromSource");
+        this.rows = metrics.counter("reader.rows");
+    }
+
+    public static InstrumentedDataReader csv(MetricsRegistry metrics) {
+        return csv(metrics, RejectedRowSink.IGNORE);
+    }
+
+    /**
+     * @param rejectedRows also told about every rejected row, e.g. a {@code RejectedRowsReport}
+     */
+    public static InstrumentedDataReader csv(MetricsRegistry metrics, RejectedRowSink rejectedRows) {
+        return new InstrumentedDataReader(new DatasetReader(rejectedRowCounter(metrics).andThen(rejectedRows)), metrics);
+    }
+
+    public static InstrumentedDataReader mapped(MetricsRegistry metrics) {
+        return new InstrumentedDataReader(new MappedDatasetReader(ForkJoinPool.commonPool(),
+            MappedDatasetReader.DEFAULT_SEGMENT_SIZE, rejectedRowCounter(metrics)), metrics);
+    }
+
+    /**
+     * Counts rejections in total and, under {@code reader.rejectedRows.<REASON>}, per reason.
+     * The per-reason counters are only looked up when a row is rejected, so a clean load
+     * registers none of them.
+     */
+    private static RejectedRowSink rejectedRowCounter(MetricsRegistry metrics) {
+        LongAdder rejectedRows = metrics.counter("reader.rejectedRows");
+        return (lineNumber, reason) -> {
+            rejectedRows.increment();
+            metrics.counter("reader.rejectedRows." + reason.name()).increment();
+        };
+    }
+
+    @Override
+    public List<Book> readBooksFromSource(String source) {
+        long start = readMetrics.start();
+        List<Book> books = delegate.readBooksFromSource(source);
+        readMetrics.record(start, books.size());
+        rows.add(books.size());
+        return books;
+    }
+
+    @Override
+    public Stream<Book> streamBooksFromSource(String source) {
+        long start = streamMetrics.start();
+        LongAdder streamed = new LongAdder();
+        return delegate.streamBooksFromSource(source)
+                .peek(book -> streamed.increment())
+                .onClose(() -> {
+                    streamMetrics.record(start, streamed.sum());
+                    rows.add(streamed.sum());
+                });
+    }
+
+    @Override
+    public boolean isValidDataSource(String source) {
+        return delegate.isValidDataSource(source);
+    }
+
+    @Override
+    public String getReaderTypeName() {
+        return delegate.getReaderTypeName();
+    }
+}
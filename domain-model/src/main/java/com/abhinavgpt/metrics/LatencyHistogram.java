@@ -0,0 +1,93 @@
+package com.abhinavgpt.metrics;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Lock-free log-linear histogram of durations in nanoseconds.
+ * <p>
+ * Values below {@value #SUB_BUCKETS} get a bucket each; above that every power of two is split
+ * into {@value #SUB_BUCKETS} equal buckets, so a reported percentile is within about 3% of the
+ * true value while the whole range up to ~18 minutes fits in about a thousand counters.
+ * Recording is one atomic increment, one {@link LongAdder} add and, only when a new maximum is
+ * seen, a compare-and-set; nothing blocks. Snapshots read the counters without stopping
+ * writers, so a snapshot taken under load may be off by the few values recorded while it ran.
+ */
+public final class LatencyHistogram {
+
+    public record Snapshot(long count, long totalNanos, long p50Nanos, long p99Nanos, long maxNanos) {
+
+        public long meanNanos() {
+            return count == 0 ? 0 : totalNanos / count;
+        }
+    }
+
+    private static final int SUB_BUCKET_BITS = 5;
+    private static final int SUB_BUCKETS = 1 << SUB_BUCKET_BITS;
+    private static final int MAX_VALUE_BITS = 40;
+    private static final long MAX_TRACKED_NANOS = (1L << MAX_VALUE_BITS) - 1;
+    private static final int BUCKET_COUNT = bucketIndex(MAX_TRACKED_NANOS) + 1;
+
+    private final AtomicLongArray counts = new AtomicLongArray(BUCKET_COUNT);
+    private final LongAdder totalNanos = new LongAdder();
+    private final AtomicLong maxNanos = new AtomicLong();
+
+    public void record(long nanos) {
+        long value = Math.max(0, nanos);
+        counts.incrementAndGet(bucketIndex(Math.min(value, MAX_TRACKED_NANOS)));
+        totalNanos.add(value);
+        long max = maxNanos.get();
+        while (value > max && !maxNanos.compareAndSet(max, value)) {
+            max = maxNanos.get();
+        }
+    }
+
+    public Snapshot snapshot() {
+        long[] bucketCounts = new long[BUCKET_COUNT];
+        long count = 0;
+        for (int i = 0; i < BUCKET_COUNT; i++) {
+            bucketCounts[i] = counts.get(i);
+            count += bucketCounts[i];
+        }
+        long max = maxNanos.get();
+        return new Snapshot(count, totalNanos.sum(),
+            percentile(bucketCounts, count, 0.50, max), percentile(bucketCounts, count, 0.99, max), max);
+    }
+
+    /**
+     * The highest value that falls in the bucket holding the requested rank, capped at the
+     * observed maximum.
+     */
+    private static long percentile(long[] bucketCounts, long count, double percentile, long max) {
+        if (count == 0) {
+            return 0;
+        }
+        long rank = Math.max(1, (long) Math.ceil(percentile * count));
+        long seen = 0;
+        for (int i = 0; i < bucketCounts.length; i++) {
+            seen += bucketCounts[i];
+            if (seen >= rank) {
+                return Math.min(bucketUpperBound(i), max);
+            }
+        }
+        return max;
+    }
+
+    static int bucketIndex(long value) {
+        if (value < SUB_BUCKETS) {
+            return (int) value;
+        }
+        int shift = 63 - Long.numberOfLeadingZeros(value) - SUB_BUCKET_BITS;
+        return shift * SUB_BUCKETS + (int) (value >>> shift);
+    }
+
+    static long bucketUpperBound(int index) {
+        if (index < 2 * SUB_BUCKETS) {
+            return index;
+        }
+        int shift = index / SUB_BUCKETS - 1;
+        long mantissa = index - (long) shift * SUB_BUCKETS;
+        return ((mantissa + 1) << shift) - 1;
+    }
+}
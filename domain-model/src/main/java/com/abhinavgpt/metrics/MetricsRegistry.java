@@ -0,0 +1,89 @@
+package com.abhinavgpt.metrics;
+
+import java.time.Instant;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+/**
+ * Named operations and counters shared by the instrumented components of one application.
+ * <p>
+ * Lookups go through a {@link ConcurrentHashMap}, so components should resolve their
+ * {@link OperationMetrics} once and keep them. A {@link #disabled()} registry hands out one
+ * shared operation that records nothing and is never registered, which lets components be
+ * instrumented unconditionally at the cost of a branch per call.
+ */
+public final class MetricsRegistry {
+
+    private static final MetricsRegistry DISABLED = new MetricsRegistry(false);
+    private static final OperationMetrics DISABLED_OPERATION = new OperationMetrics(false);
+
+    private final boolean enabled;
+    private final Map<String, OperationMetrics> operations = new ConcurrentHashMap<>();
+    private final Map<String, LongAdder> counters = new ConcurrentHashMap<>();
+
+    public MetricsRegistry() {
+        this(true);
+    }
+
+    private MetricsRegistry(boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    public static MetricsRegistry disabled() {
+        return DISABLED;
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public OperationMetrics operation(String name) {
+        return enabled ? operations.computeIfAbsent(name, key -> new OperationMetrics(true)) : DISABLED_OPERATION;
+    }
+
+    public LongAdder counter(String name) {
+        return enabled ? counters.computeIfAbsent(name, key -> new LongAdder()) : new LongAdder();
+    }
+
+    /**
+     * Runs the action and records its duration under the operation name.
+     */
+    public <T> T time(String name, Supplier<T> action) {
+        if (!enabled) {
+            return action.get();
+        }
+        OperationMetrics operation = operation(name);
+        long start = operation.start();
+        T result = action.get();
+        operation.record(start, 0);
+        return result;
+    }
+
+    /**
+     * Wraps the action so that every call to it is timed, e.g. an index builder handed to a
+     * lazily built index.
+     */
+    public <T> Supplier<T> timed(String name, Supplier<T> action) {
+        if (!enabled) {
+            return action;
+        }
+        OperationMetrics operation = operation(name);
+        return () -> {
+            long start = operation.start();
+            T result = action.get();
+            operation.record(start, 0);
+            return result;
+        };
+    }
+
+    public MetricsSnapshot snapshot() {
+        Map<String, OperationMetrics.OperationStats> operationStats = new TreeMap<>();
+        operations.forEach((name, operation) -> operationStats.put(name, operation.stats()));
+        Map<String, Long> counterValues = new TreeMap<>();
+        counters.forEach((name, counter) -> counterValues.put(name, counter.sum()));
+        return new MetricsSnapshot(Instant.now(), operationStats, counterValues);
+    }
+}
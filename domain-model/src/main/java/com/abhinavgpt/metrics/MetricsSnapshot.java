@@ -0,0 +1,86 @@
+package com.abhinavgpt.metrics;
+
+import com.abhinavgpt.utils.JsonWriter;
+
+import java.io.IOException;
+import java.io.StringWriter;
+import java.io.UncheckedIOException;
+import java.time.Instant;
+import java.util.Collections;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Point-in-time copy of a {@link MetricsRegistry}, with operations and counters sorted by name.
+ */
+public record MetricsSnapshot(Instant capturedAt, Map<String, OperationMetrics.OperationStats> operations,
+                              Map<String, Long> counters) {
+
+    public MetricsSnapshot {
+        operations = Collections.unmodifiableMap(operations);
+        counters = Collections.unmodifiableMap(counters);
+    }
+
+    /**
+     * Human-readable table; operations that were never called are left out.
+     */
+    public String toText() {
+        StringBuilder text = new StringBuilder();
+        text.append("Metrics at ").append(capturedAt).append('\n');
+        if (!operations.isEmpty()) {
+            int width = Math.max(9, operations.keySet().stream().mapToInt(String::length).max().orElse(0));
+            text.append(String.format(Locale.ROOT, "  %-" + width + "s %10s %10s %10s %10s %10s %10s%n",
+                "operation", "calls", "p50", "p99", "max", "mean", "avg size"));
+            operations.forEach((name, stats) -> {
+                if (stats.calls() > 0) {
+                    text.append(String.format(Locale.ROOT, "  %-" + width + "s %10d %10s %10s %10s %10s %10.1f%n",
+                        name, stats.calls(), formatNanos(stats.p50Nanos()), formatNanos(stats.p99Nanos()),
+                        formatNanos(stats.maxNanos()), formatNanos(stats.meanNanos()), stats.meanResultSize()));
+                }
+            });
+        }
+        counters.forEach((name, value) -> text.append(String.format(Locale.ROOT, "  %s: %,d%n", name, value)));
+        return text.toString();
+    }
+
+    public void writeJson(JsonWriter json) {
+        json.beginObject().name("capturedAt").value(capturedAt.toString());
+        json.name("operations").beginObject();
+        operations.forEach((name, stats) -> json.name(name).beginObject()
+                .name("calls").value(stats.calls())
+                .name("p50Nanos").value(stats.p50Nanos())
+                .name("p99Nanos").value(stats.p99Nanos())
+                .name("maxNanos").value(stats.maxNanos())
+                .name("meanNanos").value(stats.meanNanos())
+                .name("totalResultSize").value(stats.totalResultSize())
+                .endObject());
+        json.endObject();
+        json.name("counters").beginObject();
+        counters.forEach((name, value) -> json.name(name).value(value));
+        json.endObject();
+        json.endObject();
+    }
+
+    public String toJson() {
+        StringWriter out = new StringWriter();
+        try (JsonWriter json = new JsonWriter(out)) {
+            writeJson(json);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return out.toString();
+    }
+
+    private static String formatNanos(long nanos) {
+        if (nanos < 1_000) {
+            return nanos + " ns";
+        }
+        if (nanos < 1_000_000) {
+            return String.format(Locale.ROOT, "%.1f us", nanos / 1e3);
+        }
+        if (nanos < 1_000_000_000) {
+            return String.format(Locale.ROOT, "%.1f ms", nanos / 1e6);
+        }
+        return String.format(Locale.ROOT, "%.2f s", nanos / 1e9);
+    }
+}
@@ -0,0 +1,55 @@
+package com.abhinavgpt.metrics;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Calls, latency and result sizes of one named operation. Obtain instances from
+ * {@link MetricsRegistry#operation(String)} and keep them in a field; recording is lock-free.
+ */
+public final class OperationMetrics {
+
+    public record OperationStats(long calls, long totalNanos, long p50Nanos, long p99Nanos, long maxNanos,
+                                 long totalResultSize) {
+
+        public long meanNanos() {
+            return calls == 0 ? 0 : totalNanos / calls;
+        }
+
+        public double meanResultSize() {
+            return calls == 0 ? 0.0 : totalResultSize / (double) calls;
+        }
+    }
+
+    private final boolean enabled;
+    private final LatencyHistogram latency = new LatencyHistogram();
+    private final LongAdder totalResultSize = new LongAdder();
+
+    OperationMetrics(boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    /**
+     * Start time to pass to {@link #record(long, long)}; 0 when recording is disabled, so a
+     * disabled registry does not even read the clock.
+     */
+    public long start() {
+        return enabled ? System.nanoTime() : 0;
+    }
+
+    /**
+     * Records a call that started at {@code startNanos} and returned {@code resultSize} items.
+     */
+    public void record(long startNanos, long resultSize) {
+        if (!enabled) {
+            return;
+        }
+        latency.record(System.nanoTime() - startNanos);
+        totalResultSize.add(resultSize);
+    }
+
+    public OperationStats stats() {
+        LatencyHistogram.Snapshot snapshot = latency.snapshot();
+        return new OperationStats(snapshot.count(), snapshot.totalNanos(), snapshot.p50Nanos(),
+            snapshot.p99Nanos(), snapshot.maxNanos(), totalResultSize.sum());
+    }
+}
@@ -0,0 +1,384 @@
+package com.abhinavgpt.server;
+
+import com.abhinavgpt.books.AggregateStats;
+import com.abhinavgpt.books.AggregationResult;
+import com.abhinavgpt.books.Book;
+import com.abhinavgpt.books.BookAggregation;
+import com.abhinavgpt.books.BookRepositoryImpl;
+import com.abhinavgpt.books.BookService;
+import com.abhinavgpt.metrics.InstrumentedDataReader;
+import com.abhinavgpt.metrics.MetricsRegistry;
+import com.abhinavgpt.utils.JsonWriter;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.net.InetSocketAddress;
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Read-only JSON API over a {@link BookService}, served by the JDK's built-in HTTP server.
+ * <p>
+ * Each request is handled on its own virtual thread. Responses are written with chunked
+ * encoding through a {@link JsonWriter} straight onto the response body, so a large result is
+ * never held as a String. Parameters are validated before anything is written, which is what
+ * lets a bad request still get a proper 400. Connections are kept alive between requests.
+ * A {@code limit} above {@value #MAX_LIMIT} is lowered to it.
+ * <p>
+ * Chunked responses go out as several small segments, so without TCP_NODELAY Nagle's algorithm
+ * and the client's delayed ACK add about 40 ms to every keep-alive request. The JDK server only
+ * sets it when launched with {@code -Dsun.net.httpserver.nodelay=true}; {@link #main} sets that
+ * property for itself, and an application embedding the server should pass the flag at launch.
+ *
+ * <pre>
+ * GET /authors                          all author names
+ * GET /authors/count?author=Jeff+Kinney total yearly entries by the author
+ * GET /authors/books?author=...         the author's books, one per title
+ * GET /authors/prices?author=...        title to highest price
+ * GET /ratings?rating=4.8               books with the rating
+ * GET /ratings?min=4.7&amp;max=4.9          books rated within the range
+ * GET /search?q=hunger+games&amp;limit=10   full-text search (add fuzzy=true for typo tolerance)
+ * GET /top-authors?limit=10             authors with the most entries
+ * GET /aggregate?by=genre,year          price/reviews/rating summaries per group
+ *                                       (by: author, genre, year, rating; add unique=true)
+ * GET /stats                            dataset statistics
+ * GET /metrics                          call counts, latencies and build timings
+ * </pre>
+ */
+public final class BookQueryServer implements AutoCloseable {
+
+    public static final int DEFAULT_PORT = 8080;
+
+    public static final int MAX_LIMIT = 1_000;
+
+    private static final int DEFAULT_LIMIT = 10;
+    private static final int WRITE_BUFFER_CHARS = 16 * 1024;
+
+    /**
+     * Validates the request and returns the body to stream. Throwing
+     * {@link IllegalArgumentException} here turns into a 400 response.
+     */
+    @FunctionalInterface
+    private interface Endpoint {
+        ResponseBody handle(Map<String, String> parameters);
+    }
+
+    @FunctionalInterface
+    private interface ResponseBody {
+        void writeTo(JsonWriter json);
+    }
+
+    private final BookService bookService;
+    private final HttpServer httpServer;
+    private final ExecutorService executor;
+
+    private BookQueryServer(BookService bookService, HttpServer httpServer) {
+        this.bookService = bookService;
+        this.httpServer = httpServer;
+        this.executor = Executors.newVirtualThreadPerTaskExecutor();
+        httpServer.setExecutor(executor);
+
+        register("/authors", this::allAuthors);
+        register("/authors/count", this::bookCountByAuthor);
+        register("/authors/books", this::booksByAuthor);
+        register("/authors/prices", this::pricesByAuthor);
+        register("/ratings", this::booksByRating);
+        register("/search", this::search);
+        register("/top-authors", this::topAuthors);
+        register("/aggregate", this::aggregate);
+        register("/stats", this::stats);
+        register("/metrics", this::metrics);
+    }
+
+    /**
+     * Binds to the port (0 picks a free one) and starts serving.
+     */
+    public static BookQueryServer start(BookService bookService, int port) throws IOException {
+        HttpServer httpServer = HttpServer.create(new InetSocketAddress(port), 0);
+        BookQueryServer server = new BookQueryServer(bookService, httpServer);
+        httpServer.start();
+        return server;
+    }
+
+    public int getPort() {
+        return httpServer.getAddress().getPort();
+    }
+
+    @Override
+    public void close() {
+        httpServer.stop(0);
+        executor.close();
+    }
+
+    public static void main(String[] args) throws IOException {
+        if (System.getProperty("sun.net.httpserver.nodelay") == null) {
+            System.setProperty("sun.net.httpserver.nodelay", "true");
+        }
+        int port = args.length > 0 ? Integer.parseInt(args[0]) : DEFAULT_PORT;
+        String source = args.length > 1 ? args[1] : "data.csv";
+
+        MetricsRegistry metrics = new MetricsRegistry();
+        BookRepositoryImpl repository = metrics.time("load.repository",
+            () -> BookRepositoryImpl.fromStream(InstrumentedDataReader.csv(metrics).streamBooksFromSource(source)));
+        if (repository.getAllBooksIncludingDuplicates().isEmpty()) {
+            System.err.println("No books were loaded from " + source + ".");
+            return;
+        }
+        BookQueryServer server = start(new BookService(repository, metrics), port);
+        System.out.println("Serving " + repository.getAllBooksIncludingDuplicates().size()
+            + " books on http://localhost:" + server.getPort() + "/");
+    }
+
+    private ResponseBody allAuthors(Map<String, String> parameters) {
+        List<String> authors = bookService.getAllAuthorsInDataset();
+        return json -> {
+            json.beginArray();
+            for (String author : authors) {
+                json.value(author);
+            }
+            json.endArray();
+        };
+    }
+
+    private ResponseBody bookCountByAuthor(Map<String, String> parameters) {
+        String author = required(parameters, "author");
+        int bookCount = bookService.getTotalBookCountByAuthor(author);
+        return json -> json.beginObject()
+                .name("author").value(author)
+                .name("bookCount").value(bookCount)
+                .endObject();
+    }
+
+    private ResponseBody booksByAuthor(Map<String, String> parameters) {
+        return books(bookService.getUniqueBooksByAuthor(required(parameters, "author")));
+    }
+
+    private ResponseBody pricesByAuthor(Map<String, String> parameters) {
+        Map<String, Integer> pricesByTitle = bookService.getBookPricesByAuthor(required(parameters, "author"));
+        return json -> {
+            json.beginObject();
+            pricesByTitle.forEach((title, price) -> json.name(title).value(price));
+            json.endObject();
+        };
+    }
+
+    private ResponseBody booksByRating(Map<String, String> parameters) {
+        if (parameters.containsKey("rating")) {
+            return books(bookService.classifyBooksByUserRating(number(parameters, "rating")));
+        }
+        double min = parameters.containsKey("min") ? number(parameters, "min") : 0.0;
+        double max = parameters.containsKey("max") ? number(parameters, "max") : 5.0;
+        return books(bookService.getBooksRatedBetween(min, max));
+    }
+
+    private ResponseBody search(Map<String, String> parameters) {
+        return books(bookService.searchBooks(required(parameters, "q"), limit(parameters),
+            Boolean.parseBoolean(parameters.get("fuzzy"))));
+    }
+
+    private ResponseBody topAuthors(Map<String, String> parameters) {
+        Map<String, Integer> bookCountByAuthor = bookService.getMostProlificAuthorsWithBookCount(limit(parameters));
+        return json -> {
+            json.beginArray();
+            bookCountByAuthor.forEach((author, bookCount) -> json.beginObject()
+                    .name("author").value(author)
+                    .name("bookCount").value(bookCount)
+                    .endObject());
+            json.endArray();
+        };
+    }
+
+    private ResponseBody aggregate(Map<String, String> parameters) {
+        BookAggregation.Builder aggregation = BookAggregation.builder();
+        String dimensions = parameters.getOrDefault("by", "");
+        for (String dimension : dimensions.split(",")) {
+            if (dimension.isBlank()) continue;
+            try {
+                aggregation.groupBy(BookAggregation.Dimension.valueOf(dimension.trim().toUpperCase(Locale.ROOT)));
+            } catch (IllegalArgumentException e) {
+                throw new IllegalArgumentException("Unknown dimension: " + dimension.trim());
+            }
+        }
+        if (Boolean.parseBoolean(parameters.get("unique"))) {
+            aggregation.uniqueBooks();
+        }
+        AggregationResult result = bookService.aggregate(aggregation.build());
+        return json -> {
+            json.beginArray();
+            for (AggregationResult.Group group : result.getGroups()) {
+                json.beginObject();
+                BookAggregation.GroupKey key = group.key();
+                if (key.author() != null) json.name("author").value(key.author());
+                if (key.genre() != null) json.name("genre").value(key.genre());
+                if (key.year() != null) json.name("year").value(key.year());
+                if (key.rating() != null) json.name("rating").value(key.rating());
+                json.name("count").value(group.count());
+                for (BookAggregation.Measure measure : BookAggregation.Measure.values()) {
+                    writeStats(json, measure.name().toLowerCase(Locale.ROOT), group.stats(measure));
+                }
+                json.endObject();
+            }
+            json.endArray();
+        };
+    }
+
+    private static void writeStats(JsonWriter json, String name, AggregateStats stats) {
+        json.name(name).beginObject()
+                .name("sum").value(stats.sum())
+                .name("min").value(stats.min())
+                .name("max").value(stats.max())
+                .name("mean").value(stats.mean())
+                .name("p50").value(stats.p50())
+                .name("p90").value(stats.p90())
+                .name("p99").value(stats.p99())
+                .endObject();
+    }
+
+    private ResponseBody stats(Map<String, String> parameters) {
+        Map<String, Object> stats = bookService.getPerformanceOptimizationStats();
+        return json -> {
+            json.beginObject();
+            stats.forEach((key, value) -> {
+                json.name(key);
+                if (value instanceof Integer || value instanceof Long) {
+                    json.value(((Number) value).longValue());
+                } else if (value instanceof Number number) {
+                    json.value(number.doubleValue());
+                } else if (value instanceof Boolean flag) {
+                    json.value(flag);
+                } else {
+                    json.value(String.valueOf(value));
+                }
+            });
+            json.endObject();
+        };
+    }
+
+    private ResponseBody metrics(Map<String, String> parameters) {
+        return bookService.getMetricsSnapshot()::writeJson;
+    }
+
+    private static ResponseBody books(List<Book> books) {
+        return json -> {
+            json.beginArray();
+            for (Book book : books) {
+                writeBook(json, book);
+            }
+            json.endArray();
+        };
+    }
+
+    private static void writeBook(JsonWriter json, Book book) {
+        json.beginObject()
+                .name("title").value(book.title())
+                .name("author").value(book.author())
+                .name("userRating").value(book.userRating())
+                .name("reviews").value(book.reviewCount())
+                .name("price").value(book.price())
+                .name("year").value(book.year())
+                .name("genre").value(book.genre())
+                .endObject();
+    }
+
+    private void register(String path, Endpoint endpoint) {
+        httpServer.createContext(path, exchange -> {
+            try (exchange) {
+                if (!exchange.getRequestURI().getPath().equals(path)) {
+                    sendError(exchange, 404, "Not found");
+                    return;
+                }
+                if (!"GET".equals(exchange.getRequestMethod())) {
+                    exchange.getResponseHeaders().set("Allow", "GET");
+                    sendError(exchange, 405, "Only GET is supported");
+                    return;
+                }
+
+                ResponseBody body;
+                try {
+                    body = endpoint.handle(parseQuery(exchange.getRequestURI().getRawQuery()));
+                } catch (IllegalArgumentException e) {
+                    sendError(exchange, 400, e.getMessage());
+                    return;
+                }
+                stream(exchange, 200, body);
+            } catch (UncheckedIOException e) {
+                // The client went away mid-response; nothing left to tell it.
+            } catch (RuntimeException e) {
+                System.err.println("Error handling " + exchange.getRequestURI() + " - " + e);
+            }
+        });
+    }
+
+    private static void sendError(HttpExchange exchange, int status, String message) {
+        stream(exchange, status, json -> json.beginObject().name("error").value(message).endObject());
+    }
+
+    private static void stream(HttpExchange exchange, int status, ResponseBody body) {
+        try {
+            exchange.getResponseHeaders().set("Content-Type", "application/json; charset=utf-8");
+            exchange.sendResponseHeaders(status, 0);
+            JsonWriter json = new JsonWriter(new BufferedWriter(
+                new OutputStreamWriter(exchange.getResponseBody(), StandardCharsets.UTF_8), WRITE_BUFFER_CHARS));
+            body.writeTo(json);
+            json.close();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static Map<String, String> parseQuery(String rawQuery) {
+        Map<String, String> parameters = new HashMap<>();
+        if (rawQuery == null || rawQuery.isEmpty()) {
+            return parameters;
+        }
+        for (String pair : rawQuery.split("&")) {
+            int separator = pair.indexOf('=');
+            String name = separator < 0 ? pair : pair.substring(0, separator);
+            String value = separator < 0 ? "" : pair.substring(separator + 1);
+            parameters.putIfAbsent(URLDecoder.decode(name, StandardCharsets.UTF_8),
+                URLDecoder.decode(value, StandardCharsets.UTF_8));
+        }
+        return parameters;
+    }
+
+    private static String required(Map<String, String> parameters, String name) {
+        String value = parameters.get(name);
+        if (value == null || value.isBlank()) {
+            throw new IllegalArgumentException("Missing required parameter: " + name);
+        }
+        return value;
+    }
+
+    private static double number(Map<String, String> parameters, String name) {
+        try {
+            return Double.parseDouble(required(parameters, name));
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Parameter " + name + " must be a number");
+        }
+    }
+
+    private static int limit(Map<String, String> parameters) {
+        if (!parameters.containsKey("limit")) {
+            return DEFAULT_LIMIT;
+        }
+        try {
+            int limit = Integer.parseInt(parameters.get("limit"));
+            if (limit < 0) {
+                throw new IllegalArgumentException("Parameter limit cannot be negative");
+            }
+            return Math.min(limit, MAX_LIMIT);
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Parameter limit must be an integer");
+        }
+    }
+}
@@ -0,0 +1,122 @@
+package com.abhinavgpt.server;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * Closed-loop load generator for {@link BookQueryServer}. Each worker is a virtual thread that
+ * sends its next request as soon as the previous response has been read, cycling through a mix
+ * of endpoints over the client's pooled keep-alive connections. Latencies are kept per worker
+ * and merged at the end for exact percentiles.
+ *
+ * <pre>
+ * java com.abhinavgpt.server.LoadTestClient [baseUrl] [concurrency] [requestsPerWorker]
+ * </pre>
+ */
+public final class LoadTestClient {
+
+    public static final List<String> DEFAULT_PATHS = List.of(
+        "/authors/count?author=Jeff%20Kinney",
+        "/authors/books?author=Suzanne%20Collins",
+        "/authors/prices?author=Rick%20Riordan",
+        "/ratings?rating=4.8",
+        "/ratings?min=4.7&max=4.9",
+        "/search?q=harry%20pot&limit=5",
+        "/top-authors?limit=10",
+        "/stats");
+
+    public record LoadTestResult(long requests, long failures, Duration elapsed,
+                                 long p50Micros, long p99Micros, long maxMicros) {
+
+        public double throughputPerSecond() {
+            return elapsed.isZero() ? 0.0 : requests * 1e9 / elapsed.toNanos();
+        }
+    }
+
+    private LoadTestClient() {
+    }
+
+    public static LoadTestResult run(URI baseUri, List<String> paths, int concurrency, int requestsPerWorker)
+            throws InterruptedException {
+        if (concurrency < 1 || requestsPerWorker < 1 || paths.isEmpty()) {
+            throw new IllegalArgumentException("Concurrency, request count and paths must all be positive");
+        }
+        List<HttpRequest> requests = paths.stream()
+                .map(path -> HttpRequest.newBuilder(baseUri.resolve(path)).GET().build())
+                .toList();
+
+        try (ExecutorService workers = Executors.newVirtualThreadPerTaskExecutor();
+             HttpClient client = HttpClient.newBuilder()
+                     .version(HttpClient.Version.HTTP_1_1)
+                     .executor(workers)
+                     .build()) {
+            long startNanos = System.nanoTime();
+            Future<?>[] futures = new Future<?>[concurrency];
+            long[][] latencies = new long[concurrency][requestsPerWorker];
+            long[] failures = new long[concurrency];
+            for (int worker = 0; worker < concurrency; worker++) {
+                int id = worker;
+                futures[worker] = workers.submit(() -> {
+                    for (int i = 0; i < requestsPerWorker; i++) {
+                        HttpRequest request = requests.get((id + i) % requests.size());
+                        long sentNanos = System.nanoTime();
+                        try {
+                            HttpResponse<Void> response = client.send(request, HttpResponse.BodyHandlers.discarding());
+                            if (response.statusCode() != 200) failures[id]++;
+                        } catch (IOException e) {
+                            failures[id]++;
+                        } catch (InterruptedException e) {
+                            Thread.currentThread().interrupt();
+                            return;
+                        }
+                        latencies[id][i] = System.nanoTime() - sentNanos;
+                    }
+                });
+            }
+            for (Future<?> future : futures) {
+                try {
+                    future.get();
+                } catch (ExecutionException e) {
+                    throw new IllegalStateException("Load test worker failed", e.getCause());
+                }
+            }
+            Duration elapsed = Duration.ofNanos(System.nanoTime() - startNanos);
+
+            long[] allLatencies = Arrays.stream(latencies).flatMapToLong(Arrays::stream).sorted().toArray();
+            return new LoadTestResult(allLatencies.length, Arrays.stream(failures).sum(), elapsed,
+                percentileMicros(allLatencies, 0.50), percentileMicros(allLatencies, 0.99),
+                allLatencies[allLatencies.length - 1] / 1_000);
+        }
+    }
+
+    public static void main(String[] args) throws InterruptedException {
+        URI baseUri = URI.create(args.length > 0 ? args[0] : "http://localhost:" + BookQueryServer.DEFAULT_PORT + "/");
+        int concurrency = args.length > 1 ? Integer.parseInt(args[1]) : 64;
+        int requestsPerWorker = args.length > 2 ? Integer.parseInt(args[2]) : 1_000;
+
+        System.out.println("Warming up...");
+        run(baseUri, DEFAULT_PATHS, concurrency, Math.max(1, requestsPerWorker / 10));
+
+        LoadTestResult result = run(baseUri, DEFAULT_PATHS, concurrency, requestsPerWorker);
+        System.out.printf("Requests: %,d (%d failed) in %d ms%n", result.requests(), result.failures(),
+            result.elapsed().toMillis());
+        System.out.printf("Throughput: %,.0f req/s%n", result.throughputPerSecond());
+        System.out.printf("Latency: p50 %,d us | p99 %,d us | max %,d us%n",
+            result.p50Micros(), result.p99Micros(), result.maxMicros());
+    }
+
+    private static long percentileMicros(long[] sortedNanos, double percentile) {
+        int index = (int) Math.ceil(percentile * sortedNanos.length) - 1;
+        return sortedNanos[Math.max(0, index)] / 1_000;
+    }
+}
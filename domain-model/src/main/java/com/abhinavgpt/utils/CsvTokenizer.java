@@ -0,0 +1,398 @@
+package com.abhinavgpt.utils;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.Reader;
+import java.util.Arrays;
+
+/**
+ * Single-pass, RFC 4180 CSV tokenizer driven by a small state machine.
+ * <p>
+ * Records are read straight from a char buffer into one reusable field buffer, so
+ * tokenizing a row allocates nothing; Strings are only created when a caller asks
+ * for a field's text. Quoted fields may contain commas, escaped quotes ({@code ""})
+ * and line breaks. Whitespace around unquoted fields is trimmed, matching the
+ * behaviour of the previous regex-based parser.
+ * <p>
+ * Numeric accessors parse directly from the field's chars. {@link #fieldAsInt} and
+ * {@link #fieldAsDouble} keep the lenient semantics of the old {@code replaceAll}-based
+ * helpers: formatting characters such as {@code $} or thousands separators are skipped
+ * and unparseable values yield 0. The strict variants accept only well-formed numbers and
+ * report anything else with a sentinel instead of an exception.
+ */
+public final class CsvTokenizer implements Closeable {
+
+    /**
+     * Returned by {@link #fieldAsStrictInt} for a field that is not a well-formed int.
+     */
+    public static final long NOT_AN_INT = Long.MIN_VALUE;
+
+    private static final int DEFAULT_BUFFER_SIZE = 64 * 1024;
+    private static final int MAX_FAST_PATH_DIGITS = 15;
+    private static final double[] POWERS_OF_TEN = {
+        1e0, 1e1, 1e2, 1e3, 1e4, 1e5, 1e6, 1e7, 1e8, 1e9, 1e10,
+        1e11, 1e12, 1e13, 1e14, 1e15, 1e16, 1e17, 1e18, 1e19, 1e20, 1e21, 1e22
+    };
+
+    private static final int FIELD_START = 0;
+    private static final int UNQUOTED = 1;
+    private static final int QUOTED = 2;
+    private static final int QUOTE_IN_QUOTED = 3;
+    private static final int AFTER_QUOTED = 4;
+
+    private final Reader reader;
+    private final char[] buffer;
+    private int position;
+    private int limit;
+
+    private char[] recordChars = new char[256];
+    private int recordLength;
+    private int[] fieldStarts = new int[16];
+    private int[] fieldEnds = new int[16];
+    private int fieldCount;
+    private int significantLength;
+
+    private long lineNumber = 1;
+    private long recordLineNumber;
+
+    public CsvTokenizer(Reader reader) {
+        this(reader, DEFAULT_BUFFER_SIZE);
+    }
+
+    public CsvTokenizer(Reader reader, int bufferSize) {
+        this.reader = reader;
+        this.buffer = new char[Math.max(bufferSize, 1)];
+    }
+
+    /**
+     * Tokenizes an in-memory slice of chars without copying it.
+     */
+    public CsvTokenizer(char[] chars, int offset, int length) {
+        this.reader = null;
+        this.buffer = chars;
+        this.position = offset;
+        this.limit = offset + length;
+    }
+
+    /**
+     * Advances to the next record.
+     *
+     * @return false once the input is exhausted
+     */
+    public boolean nextRecord() throws IOException {
+        fieldCount = 0;
+        recordLength = 0;
+        significantLength = 0;
+        if (position == limit && !fill()) {
+            return false;
+        }
+        recordLineNumber = lineNumber;
+
+        int state = FIELD_START;
+        while (true) {
+            if (position == limit && !fill()) {
+                endField();
+                return true;
+            }
+            char c = buffer[position++];
+            switch (state) {
+                case FIELD_START -> {
+                    if (c == '"') {
+                        state = QUOTED;
+                    } else if (c == ',') {
+                        endField();
+                    } else if (c == '\n' || c == '\r') {
+                        endField();
+                        consumeLineBreak(c);
+                        return true;
+                    } else if (c > ' ') {
+                        appendSignificant(c);
+                        state = UNQUOTED;
+                    }
+                }
+                case UNQUOTED -> {
+                    if (c == ',') {
+                        endField();
+                        state = FIELD_START;
+                    } else if (c == '\n' || c == '\r') {
+                        endField();
+                        consumeLineBreak(c);
+                        return true;
+                    } else if (c > ' ') {
+                        appendSignificant(c);
+                    } else {
+                        append(c);
+                    }
+                }
+                case QUOTED -> {
+                    if (c == '"') {
+                        state = QUOTE_IN_QUOTED;
+                    } else {
+                        if (c == '\n') {
+                            lineNumber++;
+                        }
+                        appendSignificant(c);
+                    }
+                }
+                case QUOTE_IN_QUOTED, AFTER_QUOTED -> {
+                    if (c == '"' && state == QUOTE_IN_QUOTED) {
+                        appendSignificant(c);
+                        state = QUOTED;
+                    } else if (c == ',') {
+                        endField();
+                        state = FIELD_START;
+                    } else if (c == '\n' || c == '\r') {
+                        endField();
+                        consumeLineBreak(c);
+                        return true;
+                    } else if (c > ' ') {
+                        appendSignificant(c);
+                        state = UNQUOTED;
+                    } else {
+                        state = AFTER_QUOTED;
+                    }
+                }
+                default -> throw new IllegalStateException("Unknown tokenizer state: " + state);
+            }
+        }
+    }
+
+    public int fieldCount() {
+        return fieldCount;
+    }
+
+    /**
+     * Physical line on which the current record starts, counting from 1.
+     */
+    public long recordLineNumber() {
+        return recordLineNumber;
+    }
+
+    public String field(int index) {
+        checkFieldIndex(index);
+        return new String(recordChars, fieldStarts[index], fieldEnds[index] - fieldStarts[index]);
+    }
+
+    public int fieldLength(int index) {
+        checkFieldIndex(index);
+        return fieldEnds[index] - fieldStarts[index];
+    }
+
+    /**
+     * Parses the field as an int, skipping every character other than digits and '-'.
+     * Returns 0 when what remains is not a valid int.
+     */
+    public int fieldAsInt(int index) {
+        checkFieldIndex(index);
+        boolean negative = false;
+        boolean sawDigit = false;
+        boolean sawNumericChar = false;
+        long value = 0;
+
+        for (int i = fieldStarts[index], end = fieldEnds[index]; i < end; i++) {
+            char c = recordChars[i];
+            if (c >= '0' && c <= '9') {
+                value = value * 10 + (c - '0');
+                if (value > Integer.MAX_VALUE + 1L) return 0;
+                sawDigit = true;
+                sawNumericChar = true;
+            } else if (c == '-') {
+                if (sawNumericChar) return 0;
+                negative = true;
+                sawNumericChar = true;
+            }
+        }
+
+        if (!sawDigit) return 0;
+        long signed = negative ? -value : value;
+        return signed > Integer.MAX_VALUE ? 0 : (int) signed;
+    }
+
+    /**
+     * Parses the field as a double, skipping every character other than digits, '.'
+     * and '-'. Returns 0.0 when what remains is not a valid number.
+     */
+    public double fieldAsDouble(int index) {
+        checkFieldIndex(index);
+        boolean negative = false;
+        boolean sawDigit = false;
+        boolean sawNumericChar = false;
+        boolean sawDecimalPoint = false;
+        int digits = 0;
+        int fractionDigits = 0;
+        long mantissa = 0;
+
+        for (int i = fieldStarts[index], end = fieldEnds[index]; i < end; i++) {
+            char c = recordChars[i];
+            if (c >= '0' && c <= '9') {
+                if (digits > 0 || c != '0') {
+                    digits++;
+                }
+                if (digits > MAX_FAST_PATH_DIGITS) return parseDoubleSlowPath(index);
+                mantissa = mantissa * 10 + (c - '0');
+                if (sawDecimalPoint) fractionDigits++;
+                sawDigit = true;
+                sawNumericChar = true;
+            } else if (c == '.') {
+                if (sawDecimalPoint) return 0.0;
+                sawDecimalPoint = true;
+                sawNumericChar = true;
+            } else if (c == '-') {
+                if (sawNumericChar) return 0.0;
+                negative = true;
+                sawNumericChar = true;
+            }
+        }
+
+        if (!sawDigit) return 0.0;
+        if (fractionDigits >= POWERS_OF_TEN.length) return parseDoubleSlowPath(index);
+        double value = mantissa / POWERS_OF_TEN[fractionDigits];
+        return negative ? -value : value;
+    }
+
+    /**
+     * Parses the field as an int that may carry a leading '-' or '$' and comma thousands
+     * separators (e.g. {@code 17,350}): one to three digits before the first comma and exactly
+     * three after each one. Returns {@link #NOT_AN_INT} when the field is empty, holds any
+     * other character, groups its digits any other way or does not fit in an int.
+     */
+    public long fieldAsStrictInt(int index) {
+        checkFieldIndex(index);
+        int i = fieldStarts[index];
+        int end = fieldEnds[index];
+        boolean negative = i < end && recordChars[i] == '-';
+        if (negative) i++;
+        if (i < end && recordChars[i] == '$') i++;
+        if (i == end) return NOT_AN_INT;
+
+        long value = 0;
+        int digitsInGroup = 0;
+        boolean grouped = false;
+        for (; i < end; i++) {
+            char c = recordChars[i];
+            if (c >= '0' && c <= '9') {
+                value = value * 10 + (c - '0');
+                if (value > Integer.MAX_VALUE + 1L) return NOT_AN_INT;
+                digitsInGroup++;
+            } else if (c == ',' && (grouped ? digitsInGroup == 3 : digitsInGroup > 0 && digitsInGroup <= 3)) {
+                grouped = true;
+                digitsInGroup = 0;
+            } else {
+                return NOT_AN_INT;
+            }
+        }
+        if (grouped && digitsInGroup != 3) return NOT_AN_INT;
+
+        long signed = negative ? -value : value;
+        return signed > Integer.MAX_VALUE ? NOT_AN_INT : signed;
+    }
+
+    /**
+     * Parses the field as a plain decimal number: an optional '-', digits and at most one
+     * '.', with at least one digit. Returns NaN for anything else, including an empty field.
+     */
+    public double fieldAsStrictDouble(int index) {
+        checkFieldIndex(index);
+        int i = fieldStarts[index];
+        int end = fieldEnds[index];
+        boolean negative = i < end && recordChars[i] == '-';
+        if (negative) i++;
+
+        boolean sawDigit = false;
+        boolean sawDecimalPoint = false;
+        int digits = 0;
+        int fractionDigits = 0;
+        long mantissa = 0;
+        for (; i < end; i++) {
+            char c = recordChars[i];
+            if (c >= '0' && c <= '9') {
+                if (digits > 0 || c != '0') {
+                    digits++;
+                }
+                mantissa = mantissa * 10 + (c - '0');
+                if (sawDecimalPoint) fractionDigits++;
+                sawDigit = true;
+            } else if (c == '.' && !sawDecimalPoint) {
+                sawDecimalPoint = true;
+            } else {
+                return Double.NaN;
+            }
+        }
+
+        if (!sawDigit) return Double.NaN;
+        if (digits > MAX_FAST_PATH_DIGITS || fractionDigits >= POWERS_OF_TEN.length) {
+            return parseDoubleSlowPath(index);
+        }
+        double value = mantissa / POWERS_OF_TEN[fractionDigits];
+        return negative ? -value : value;
+    }
+
+    @Override
+    public void close() throws IOException {
+        if (reader != null) {
+            reader.close();
+        }
+    }
+
+    private double parseDoubleSlowPath(int index) {
+        StringBuilder numericChars = new StringBuilder(fieldLength(index));
+        for (int i = fieldStarts[index], end = fieldEnds[index]; i < end; i++) {
+            char c = recordChars[i];
+            if ((c >= '0' && c <= '9') || c == '.' || c == '-') {
+                numericChars.append(c);
+            }
+        }
+        try {
+            return Double.parseDouble(numericChars.toString());
+        } catch (NumberFormatException e) {
+            return 0.0;
+        }
+    }
+
+    private void consumeLineBreak(char lineBreak) throws IOException {
+        lineNumber++;
+        if (lineBreak == '\r' && (position < limit || fill()) && buffer[position] == '\n') {
+            position++;
+        }
+    }
+
+    private boolean fill() throws IOException {
+        if (reader == null) return false;
+        int read = reader.read(buffer, 0, buffer.length);
+        if (read <= 0) return false;
+        position = 0;
+        limit = read;
+        return true;
+    }
+
+    private void append(char c) {
+        if (recordLength == recordChars.length) {
+            recordChars = Arrays.copyOf(recordChars, recordChars.length * 2);
+        }
+        recordChars[recordLength++] = c;
+    }
+
+    private void appendSignificant(char c) {
+        append(c);
+        significantLength = recordLength;
+    }
+
+    private void endField() {
+        if (fieldCount == fieldStarts.length) {
+            fieldStarts = Arrays.copyOf(fieldStarts, fieldCount * 2);
+            fieldEnds = Arrays.copyOf(fieldEnds, fieldCount * 2);
+        }
+        int fieldStart = fieldCount == 0 ? 0 : fieldEnds[fieldCount - 1];
+        fieldStarts[fieldCount] = fieldStart;
+        fieldEnds[fieldCount] = Math.max(fieldStart, significantLength);
+        fieldCount++;
+        recordLength = fieldEnds[fieldCount - 1];
+        significantLength = recordLength;
+    }
+
+    private void checkFieldIndex(int index) {
+        if (index < 0 || index >= fieldCount) {
+            throw new IndexOutOfBoundsException("Field " + index + " out of " + fieldCount);
+        }
+    }
+}
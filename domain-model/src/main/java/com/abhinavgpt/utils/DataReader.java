@@ -1,13 +1,36 @@
 package com.abhinavgpt.utils;
 
 import com.abhinavgpt.books.Book;
+import java.util.Iterator;
 import java.util.List;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
 
 public interface DataReader {
     
     List<Book> readBooksFromSource(String source);
     boolean isValidDataSource(String source);
     
+    /**
+     * Streams books lazily from the source. The returned stream holds an open
+     * handle on the source and must be closed, e.g. with try-with-resources.
+     */
+    default Stream<Book> streamBooksFromSource(String source) {
+        return readBooksFromSource(source).stream();
+    }
+    
+    default long forEachBookInSource(String source, Consumer<? super Book> consumer) {
+        long booksRead = 0;
+        try (Stream<Book> books = streamBooksFromSource(source)) {
+            Iterator<Book> iterator = books.iterator();
+            while (iterator.hasNext()) {
+                consumer.accept(iterator.next());
+                booksRead++;
+            }
+        }
+        return booksRead;
+    }
+    
     default String getReaderTypeName() {
         return this.getClass().getSimpleName();
     }
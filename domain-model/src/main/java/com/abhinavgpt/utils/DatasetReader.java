@@ -1,13 +1,22 @@
 package com.abhinavgpt.utils;
 
 import com.abhinavgpt.books.Book;
+import com.abhinavgpt.books.RejectReason;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
 import java.nio.file.Path;
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
 import java.util.Map;
-import java.util.function.Function;
-import java.util.stream.IntStream;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.function.Consumer;
+import java.util.function.LongConsumer;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
 
 public final class DatasetReader implements DataReader {
     
@@ -21,26 +30,59 @@ public final class DatasetReader implements DataReader {
         Map.entry("genre", 6), Map.entry("category", 6), Map.entry("type", 6), Map.entry("book genre", 6)
     );
     
+    private final RejectedRowSink rejectedRows;
+    
+    public DatasetReader() {
+        this(RejectedRowSink.IGNORE);
+    }
+    
+    /**
+     * @param rejectedRowListener told the line number of every record that could not be
+     *                            turned into a book and was skipped
+     */
+    public DatasetReader(LongConsumer rejectedRowListener) {
+        this(RejectedRowSink.ofLineNumbers(rejectedRowListener));
+    }
+    
+    /**
+     * @param rejectedRows told the line number and reason of every record that could not be
+     *                     turned into a book and was skipped
+     */
+    public DatasetReader(RejectedRowSink rejectedRows) {
+        this.rejectedRows = rejectedRows;
+    }
+    
     @Override
     public List<Book> readBooksFromSource(String source) {
-        if (!isValidDataSource(source)) return List.of();
+        try (Stream<Book> books = streamBooksFromSource(source)) {
+            return books.toList();
+        } catch (Exception e) {
+            System.err.println("Error reading file: " + source + " - " + e.getMessage());
+            return List.of();
+        }
+    }
+    
+    @Override
+    public Stream<Book> streamBooksFromSource(String source) {
+        if (!isValidDataSource(source)) return Stream.empty();
         
+        CsvTokenizer tokenizer = null;
         try {
-            List<String> lines = Files.readAllLines(Path.of(source));
-            if (lines.isEmpty()) return List.of();
-            
-            int[] columnIndices = mapHeaderColumns(lines.get(0));
-            if (columnIndices == null) return List.of();
+            tokenizer = new CsvTokenizer(Files.newBufferedReader(Path.of(source), StandardCharsets.UTF_8));
+            int[] columnIndices = tokenizer.nextRecord() ? mapHeaderColumns(tokenizer) : null;
+            if (columnIndices == null) {
+                tokenizer.close();
+                return Stream.empty();
+            }
             
-            return lines.stream()
-                    .skip(1)
-                    .map(line -> parseBookFromLine(line, columnIndices))
-                    .filter(book -> book != null)
-                    .toList();
+            CsvTokenizer openTokenizer = tokenizer;
+            return StreamSupport.stream(new BookRecordSpliterator(openTokenizer, columnIndices, rejectedRows), false)
+                    .onClose(() -> closeQuietly(openTokenizer));
                     
         } catch (Exception e) {
             System.err.println("Error reading file: " + source + " - " + e.getMessage());
-            return List.of();
+            closeQuietly(tokenizer);
+            return Stream.empty();
         }
     }
     
@@ -54,67 +96,107 @@ public final class DatasetReader implements DataReader {
         }
     }
     
-    private int[] mapHeaderColumns(String headerLine) {
-        String[] headers = parseCsvLine(headerLine);
+    private static void closeQuietly(CsvTokenizer tokenizer) {
+        if (tokenizer == null) return;
+        try {
+            tokenizer.close();
+        } catch (IOException e) {
+            System.err.println("Error closing reader - " + e.getMessage());
+        }
+    }
+    
+    static int[] mapHeaderColumns(CsvTokenizer headerRecord) {
         int[] indices = new int[7];
         Arrays.fill(indices, -1);
         
-        IntStream.range(0, headers.length)
-                .forEach(i -> {
-                    String cleanHeader = cleanString(headers[i]).toLowerCase();
-                    Integer columnIndex = COLUMN_MAPPING.get(cleanHeader);
-                    if (columnIndex != null) indices[columnIndex] = i;
-                });
+        for (int i = 0; i < headerRecord.fieldCount(); i++) {
+            Integer columnIndex = COLUMN_MAPPING.get(headerRecord.field(i).toLowerCase());
+            if (columnIndex != null) indices[columnIndex] = i;
+        }
         
         boolean allFound = Arrays.stream(indices).allMatch(i -> i != -1);
         if (!allFound) {
-            System.err.println("Missing columns. Found headers: " + Arrays.toString(headers));
+            List<String> headers = new ArrayList<>(headerRecord.fieldCount());
+            for (int i = 0; i < headerRecord.fieldCount(); i++) {
+                headers.add(headerRecord.field(i));
+            }
+            System.err.println("Missing columns. Found headers: " + headers);
             System.err.println("Mapped indices: " + Arrays.toString(indices));
         }
         
         return allFound ? indices : null;
     }
     
-    private Book parseBookFromLine(String line, int[] columnIndices) {
-        try {
-            String[] fields = parseCsvLine(line);
-            if (fields.length <= Arrays.stream(columnIndices).max().orElse(0)) return null;
-            
-            return new Book(
-                cleanString(fields[columnIndices[0]]),
-                cleanString(fields[columnIndices[1]]),
-                parseDouble(fields[columnIndices[2]]),
-                parseInt(fields[columnIndices[3]]),
-                parseInt(fields[columnIndices[4]]),
-                parseInt(fields[columnIndices[5]]),
-                cleanString(fields[columnIndices[6]])
-            );
-        } catch (Exception e) {
-            return null;
-        }
+    static boolean isBlankRecord(CsvTokenizer record) {
+        return record.fieldCount() == 1 && record.fieldLength(0) == 0;
     }
     
-    private String[] parseCsvLine(String line) {
-        return line.split(",(?=(?:[^\"]*\"[^\"]*\")*[^\"]*$)", -1);
+    /**
+     * Builds a book from the record without throwing. Blank records are skipped silently;
+     * any other record that fails validation is reported to {@code rejectedRows} and skipped.
+     * Numbers must be well formed, so a value such as {@code n/a} rejects the row instead of
+     * being read as 0, and field Strings are only created once the numbers have parsed. The
+     * values are validated once, here, and the book is built with {@link Book#validated}.
+     *
+     * @return the book, or null when the record was skipped
+     */
+    static Book parseBookFromRecord(CsvTokenizer record, int[] columnIndices, long lineNumber, RejectedRowSink rejectedRows) {
+        if (isBlankRecord(record)) return null;
+        for (int columnIndex : columnIndices) {
+            if (columnIndex >= record.fieldCount()) return reject(rejectedRows, lineNumber, RejectReason.MISSING_FIELDS);
+        }
+        
+        if (record.fieldLength(columnIndices[0]) == 0) return reject(rejectedRows, lineNumber, RejectReason.BLANK_TITLE);
+        if (record.fieldLength(columnIndices[1]) == 0) return reject(rejectedRows, lineNumber, RejectReason.BLANK_AUTHOR);
+        double userRating = record.fieldAsStrictDouble(columnIndices[2]);
+        if (Double.isNaN(userRating)) return reject(rejectedRows, lineNumber, RejectReason.MALFORMED_RATING);
+        long reviewCount = record.fieldAsStrictInt(columnIndices[3]);
+        if (reviewCount == CsvTokenizer.NOT_AN_INT) return reject(rejectedRows, lineNumber, RejectReason.MALFORMED_REVIEWS);
+        long price = record.fieldAsStrictInt(columnIndices[4]);
+        if (price == CsvTokenizer.NOT_AN_INT) return reject(rejectedRows, lineNumber, RejectReason.MALFORMED_PRICE);
+        long year = record.fieldAsStrictInt(columnIndices[5]);
+        if (year == CsvTokenizer.NOT_AN_INT) return reject(rejectedRows, lineNumber, RejectReason.MALFORMED_YEAR);
+        
+        String title = record.field(columnIndices[0]);
+        String author = record.field(columnIndices[1]);
+        String genre = record.field(columnIndices[6]);
+        RejectReason violation = Book.validate(title, author, userRating, (int) reviewCount, (int) price, (int) year, genre);
+        if (violation != null) return reject(rejectedRows, lineNumber, violation);
+        return Book.validated(title, author, userRating, (int) reviewCount, (int) price, (int) year, genre);
     }
     
-    private String cleanString(String value) {
-        return value == null ? "" : value.trim().replaceAll("^\"|\"$", "");
+    private static Book reject(RejectedRowSink rejectedRows, long lineNumber, RejectReason reason) {
+        rejectedRows.rejected(lineNumber, reason);
+        return null;
     }
     
-    private int parseInt(String value) {
-        try {
-            return Integer.parseInt(cleanString(value).replaceAll("[^0-9-]", ""));
-        } catch (Exception e) {
-            return 0;
+    private static final class BookRecordSpliterator extends Spliterators.AbstractSpliterator<Book> {
+        
+        private final CsvTokenizer tokenizer;
+        private final int[] columnIndices;
+        private final RejectedRowSink rejectedRows;
+        
+        BookRecordSpliterator(CsvTokenizer tokenizer, int[] columnIndices, RejectedRowSink rejectedRows) {
+            super(Long.MAX_VALUE, Spliterator.ORDERED | Spliterator.NONNULL);
+            this.tokenizer = tokenizer;
+            this.columnIndices = columnIndices;
+            this.rejectedRows = rejectedRows;
         }
-    }
-    
-    private double parseDouble(String value) {
-        try {
-            return Double.parseDouble(cleanString(value).replaceAll("[^0-9.-]", ""));
-        } catch (Exception e) {
-            return 0.0;
+        
+        @Override
+        public boolean tryAdvance(Consumer<? super Book> action) {
+            try {
+                while (tokenizer.nextRecord()) {
+                    Book book = parseBookFromRecord(tokenizer, columnIndices, tokenizer.recordLineNumber(), rejectedRows);
+                    if (book != null) {
+                        action.accept(book);
+                        return true;
+                    }
+                }
+                return false;
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
         }
     }
-}
\ No newline at end of file
+}
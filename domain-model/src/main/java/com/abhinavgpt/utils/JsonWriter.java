@@ -0,0 +1,187 @@
+package com.abhinavgpt.utils;
+
+import java.io.Closeable;
+import java.io.Flushable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.util.Arrays;
+
+/**
+ * Minimal streaming JSON writer. Tokens go straight to the underlying {@link Writer} as they
+ * are produced, so arbitrarily large arrays are written without building the document (or any
+ * part of it) as a String. Commas and nesting are tracked here; callers only open, name and
+ * close. I/O failures are rethrown as {@link UncheckedIOException} so writers can be used
+ * from lambdas.
+ */
+public final class JsonWriter implements Closeable, Flushable {
+
+    private static final char[] HEX_DIGITS = "0123456789abcdef".toCharArray();
+
+    private final Writer out;
+    private boolean[] scopeHasElements = new boolean[16];
+    private int depth;
+    private boolean afterName;
+
+    public JsonWriter(Writer out) {
+        this.out = out;
+    }
+
+    public JsonWriter beginObject() {
+        return open('{');
+    }
+
+    public JsonWriter endObject() {
+        return close('}');
+    }
+
+    public JsonWriter beginArray() {
+        return open('[');
+    }
+
+    public JsonWriter endArray() {
+        return close(']');
+    }
+
+    public JsonWriter name(String name) {
+        beforeValue();
+        writeString(name);
+        write(':');
+        afterName = true;
+        return this;
+    }
+
+    public JsonWriter value(String value) {
+        if (value == null) {
+            return nullValue();
+        }
+        beforeValue();
+        writeString(value);
+        return this;
+    }
+
+    public JsonWriter value(long value) {
+        beforeValue();
+        write(Long.toString(value));
+        return this;
+    }
+
+    /**
+     * Writes a number; NaN and infinities, which JSON cannot represent, are written as null.
+     */
+    public JsonWriter value(double value) {
+        if (Double.isNaN(value) || Double.isInfinite(value)) {
+            return nullValue();
+        }
+        beforeValue();
+        write(Double.toString(value));
+        return this;
+    }
+
+    public JsonWriter value(boolean value) {
+        beforeValue();
+        write(value ? "true" : "false");
+        return this;
+    }
+
+    public JsonWriter nullValue() {
+        beforeValue();
+        write("null");
+        return this;
+    }
+
+    @Override
+    public void flush() {
+        try {
+            out.flush();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        out.close();
+    }
+
+    private JsonWriter open(char bracket) {
+        beforeValue();
+        write(bracket);
+        if (++depth == scopeHasElements.length) {
+            scopeHasElements = Arrays.copyOf(scopeHasElements, depth * 2);
+        }
+        scopeHasElements[depth] = false;
+        return this;
+    }
+
+    private JsonWriter close(char bracket) {
+        if (depth == 0) {
+            throw new IllegalStateException("Nothing to close");
+        }
+        depth--;
+        write(bracket);
+        return this;
+    }
+
+    private void beforeValue() {
+        if (afterName) {
+            afterName = false;
+            return;
+        }
+        if (depth > 0) {
+            if (scopeHasElements[depth]) {
+                write(',');
+            }
+            scopeHasElements[depth] = true;
+        }
+    }
+
+    private void writeString(String value) {
+        write('"');
+        int unescapedFrom = 0;
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c >= 0x20 && c != '"' && c != '\\') {
+                continue;
+            }
+            writeRange(value, unescapedFrom, i);
+            switch (c) {
+                case '"' -> write("\\\"");
+                case '\\' -> write("\\\\");
+                case '\n' -> write("\\n");
+                case '\r' -> write("\\r");
+                case '\t' -> write("\\t");
+                default -> {
+                    write("\\u00");
+                    write(HEX_DIGITS[c >> 4]);
+                    write(HEX_DIGITS[c & 0xF]);
+                }
+            }
+            unescapedFrom = i + 1;
+        }
+        writeRange(value, unescapedFrom, value.length());
+        write('"');
+    }
+
+    private void writeRange(String value, int from, int to) {
+        if (to > from) {
+            try {
+                out.write(value, from, to - from);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+    }
+
+    private void write(String text) {
+        writeRange(text, 0, text.length());
+    }
+
+    private void write(char c) {
+        try {
+            out.write(c);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
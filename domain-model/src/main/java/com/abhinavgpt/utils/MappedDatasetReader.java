@@ -0,0 +1,275 @@
+package com.abhinavgpt.utils;
+
+import com.abhinavgpt.books.Book;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.RecursiveTask;
+import java.util.function.LongConsumer;
+
+/**
+ * CSV reader for large files that memory-maps the source and parses it on several cores.
+ * <p>
+ * The file is cut into fixed-size segments. A first parallel pass counts the quote bytes
+ * and line feeds in every segment; because an escaped quote ({@code ""}) contributes two
+ * quotes, the parity of the running count tells whether a segment starts inside a quoted
+ * field. Each segment then starts parsing at its first line break outside quotes, so records
+ * are never split, and the per-segment results are concatenated in file order. The running
+ * line feed count gives each chunk the line it starts on, so rejected rows are reported with
+ * the same line numbers as {@link DatasetReader} for files with {@code \n} or {@code \r\n}
+ * line breaks.
+ */
+public final class MappedDatasetReader implements DataReader {
+
+    public static final long DEFAULT_SEGMENT_SIZE = 8L * 1024 * 1024;
+
+    private final ForkJoinPool parserPool;
+    private final long segmentSize;
+    private final RejectedRowSink rejectedRows;
+
+    public MappedDatasetReader() {
+        this(ForkJoinPool.commonPool(), DEFAULT_SEGMENT_SIZE);
+    }
+
+    public MappedDatasetReader(ForkJoinPool parserPool, long segmentSize) {
+        this(parserPool, segmentSize, RejectedRowSink.IGNORE);
+    }
+
+    /**
+     * @param rejectedRowListener told the line number of every record that could not be turned
+     *                            into a book; segments are parsed independently, so it may be
+     *                            called from several threads and out of line order
+     */
+    public MappedDatasetReader(ForkJoinPool parserPool, long segmentSize, LongConsumer rejectedRowListener) {
+        this(parserPool, segmentSize, RejectedRowSink.ofLineNumbers(rejectedRowListener));
+    }
+
+    /**
+     * @param rejectedRows told the line number and reason for every record that could not be
+     *                     turned into a book, from several threads as above
+     */
+    public MappedDatasetReader(ForkJoinPool parserPool, long segmentSize, RejectedRowSink rejectedRows) {
+        if (segmentSize <= 0 || segmentSize > Integer.MAX_VALUE) {
+            throw new IllegalArgumentException("Segment size must be between 1 and " + Integer.MAX_VALUE);
+        }
+        this.parserPool = parserPool;
+        this.segmentSize = segmentSize;
+        this.rejectedRows = rejectedRows;
+    }
+
+    @Override
+    public List<Book> readBooksFromSource(String source) {
+        if (!isValidDataSource(source)) return List.of();
+
+        try (FileChannel channel = FileChannel.open(Path.of(source), StandardOpenOption.READ)) {
+            long fileSize = channel.size();
+            if (fileSize == 0) return List.of();
+
+            MappedByteBuffer[] segments = mapSegments(channel, fileSize);
+            return parserPool.invoke(new LoadTask(segments, fileSize));
+
+        } catch (Exception e) {
+            System.err.println("Error reading file: " + source + " - " + e.getMessage());
+            return List.of();
+        }
+    }
+
+    @Override
+    public boolean isValidDataSource(String source) {
+        return new DatasetReader().isValidDataSource(source);
+    }
+
+    private MappedByteBuffer[] mapSegments(FileChannel channel, long fileSize) throws IOException {
+        int segmentCount = (int) ((fileSize + segmentSize - 1) / segmentSize);
+        MappedByteBuffer[] segments = new MappedByteBuffer[segmentCount];
+        for (int i = 0; i < segmentCount; i++) {
+            long start = i * segmentSize;
+            segments[i] = channel.map(FileChannel.MapMode.READ_ONLY, start, Math.min(segmentSize, fileSize - start));
+        }
+        return segments;
+    }
+
+    @SuppressWarnings("serial") // fork/join tasks are never serialized
+    private final class LoadTask extends RecursiveTask<List<Book>> {
+
+        private final MappedByteBuffer[] segments;
+        private final long fileSize;
+
+        LoadTask(MappedByteBuffer[] segments, long fileSize) {
+            this.segments = segments;
+            this.fileSize = fileSize;
+        }
+
+        @Override
+        protected List<Book> compute() {
+            List<SegmentCountTask> segmentCounts = new ArrayList<>(segments.length);
+            for (MappedByteBuffer segment : segments) {
+                segmentCounts.add(new SegmentCountTask(segment));
+            }
+            ForkJoinTask.invokeAll(segmentCounts);
+
+            long headerEnd = findRecordBoundary(0, false);
+            int[] columnIndices = parseHeader(headerEnd);
+            if (columnIndices == null) return List.of();
+
+            long[] chunkStarts = new long[segments.length + 1];
+            long[] lineFeedsBefore = new long[segments.length + 1];
+            long quotesBefore = 0;
+            for (int i = 0; i < segments.length; i++) {
+                long segmentStart = i * segmentSize;
+                chunkStarts[i] = i == 0 ? headerEnd : Math.max(headerEnd, findRecordBoundary(segmentStart, quotesBefore % 2 == 1));
+                SegmentCounts counts = segmentCounts.get(i).join();
+                quotesBefore += counts.quotes();
+                lineFeedsBefore[i + 1] = lineFeedsBefore[i] + counts.lineFeeds();
+            }
+            chunkStarts[segments.length] = fileSize;
+
+            List<ParseChunkTask> chunks = new ArrayList<>(segments.length);
+            for (int i = 0; i < segments.length; i++) {
+                long chunkEnd = Math.max(chunkStarts[i], chunkStarts[i + 1]);
+                chunkStarts[i + 1] = chunkEnd;
+                chunks.add(new ParseChunkTask(chunkStarts[i], chunkEnd, lineAt(chunkStarts[i], lineFeedsBefore), columnIndices));
+            }
+            ForkJoinTask.invokeAll(chunks);
+
+            int totalBooks = 0;
+            for (ParseChunkTask chunk : chunks) {
+                totalBooks += chunk.join().size();
+            }
+            List<Book> books = new ArrayList<>(totalBooks);
+            for (ParseChunkTask chunk : chunks) {
+                books.addAll(chunk.join());
+            }
+            return Collections.unmodifiableList(books);
+        }
+
+        /**
+         * Returns the offset just past the first line break at or after {@code from} that is
+         * not inside a quoted field, or the file size when there is none.
+         */
+        private long findRecordBoundary(long from, boolean insideQuotes) {
+            for (long position = from; position < fileSize; position++) {
+                byte b = byteAt(position);
+                if (b == '"') {
+                    insideQuotes = !insideQuotes;
+                } else if (b == '\n' && !insideQuotes) {
+                    return position + 1;
+                }
+            }
+            return fileSize;
+        }
+
+        /**
+         * The 1-based line that {@code position} is on: the line feeds of the segments before
+         * it plus those between the start of its own segment and the position.
+         */
+        private long lineAt(long position, long[] lineFeedsBefore) {
+            int segment = (int) (position / segmentSize);
+            long line = 1 + lineFeedsBefore[segment];
+            for (long before = segment * segmentSize; before < position; before++) {
+                if (byteAt(before) == '\n') line++;
+            }
+            return line;
+        }
+
+        private int[] parseHeader(long headerEnd) {
+            try {
+                CsvTokenizer header = tokenizerFor(0, headerEnd);
+                return header.nextRecord() ? DatasetReader.mapHeaderColumns(header) : null;
+            } catch (IOException e) {
+                return null;
+            }
+        }
+
+        private byte byteAt(long position) {
+            return segments[(int) (position / segmentSize)].get((int) (position % segmentSize));
+        }
+
+        private CsvTokenizer tokenizerFor(long start, long end) {
+            byte[] bytes = new byte[Math.toIntExact(end - start)];
+            long position = start;
+            int copied = 0;
+            while (position < end) {
+                MappedByteBuffer segment = segments[(int) (position / segmentSize)];
+                int offset = (int) (position % segmentSize);
+                int length = (int) Math.min(segment.limit() - offset, end - position);
+                segment.get(offset, bytes, copied, length);
+                copied += length;
+                position += length;
+            }
+            CharBuffer chars = StandardCharsets.UTF_8.decode(ByteBuffer.wrap(bytes));
+            return new CsvTokenizer(chars.array(), chars.arrayOffset() + chars.position(), chars.remaining());
+        }
+
+        @SuppressWarnings("serial") // fork/join tasks are never serialized
+        private final class ParseChunkTask extends RecursiveTask<List<Book>> {
+
+            private final long start;
+            private final long end;
+            private final long startLine;
+            private final int[] columnIndices;
+
+            ParseChunkTask(long start, long end, long startLine, int[] columnIndices) {
+                this.start = start;
+                this.end = end;
+                this.startLine = startLine;
+                this.columnIndices = columnIndices;
+            }
+
+            @Override
+            protected List<Book> compute() {
+                if (start >= end) return List.of();
+
+                List<Book> books = new ArrayList<>();
+                try {
+                    CsvTokenizer tokenizer = tokenizerFor(start, end);
+                    while (tokenizer.nextRecord()) {
+                        Book book = DatasetReader.parseBookFromRecord(tokenizer, columnIndices,
+                            startLine + tokenizer.recordLineNumber() - 1, rejectedRows);
+                        if (book != null) {
+                            books.add(book);
+                        }
+                    }
+                } catch (IOException e) {
+                    throw new IllegalStateException("In-memory tokenizer failed", e);
+                }
+                return books;
+            }
+        }
+    }
+
+    private record SegmentCounts(long quotes, long lineFeeds) {
+    }
+
+    @SuppressWarnings("serial") // fork/join tasks are never serialized
+    private static final class SegmentCountTask extends RecursiveTask<SegmentCounts> {
+
+        private final MappedByteBuffer segment;
+
+        SegmentCountTask(MappedByteBuffer segment) {
+            this.segment = segment;
+        }
+
+        @Override
+        protected SegmentCounts compute() {
+            long quotes = 0;
+            long lineFeeds = 0;
+            for (int i = 0, limit = segment.limit(); i < limit; i++) {
+                byte b = segment.get(i);
+                if (b == '"') quotes++;
+                else if (b == '\n') lineFeeds++;
+            }
+            return new SegmentCounts(quotes, lineFeeds);
+        }
+    }
+}
@@ -0,0 +1,32 @@
+package com.abhinavgpt.utils;
+
+import com.abhinavgpt.books.RejectReason;
+
+import java.util.function.LongConsumer;
+
+/**
+ * Receives every non-blank record a reader skips, as it is skipped, with the line the record
+ * starts on. Readers that parse in parallel may call a sink from several threads and out of
+ * line order.
+ */
+@FunctionalInterface
+public interface RejectedRowSink {
+
+    RejectedRowSink IGNORE = (lineNumber, reason) -> { };
+
+    void rejected(long lineNumber, RejectReason reason);
+
+    default RejectedRowSink andThen(RejectedRowSink next) {
+        return (lineNumber, reason) -> {
+            rejected(lineNumber, reason);
+            next.rejected(lineNumber, reason);
+        };
+    }
+
+    /**
+     * Adapts a listener that only wants the line numbers.
+     */
+    static RejectedRowSink ofLineNumbers(LongConsumer listener) {
+        return (lineNumber, reason) -> listener.accept(lineNumber);
+    }
+}
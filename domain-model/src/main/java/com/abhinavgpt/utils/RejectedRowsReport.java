@@ -0,0 +1,82 @@
+package com.abhinavgpt.utils;
+
+import com.abhinavgpt.books.RejectReason;
+
+import java.io.BufferedWriter;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * {@link RejectedRowSink} that streams each rejection as a {@code line,code,description} CSV
+ * row while the load runs, so the report never has to be held in memory, and keeps a count
+ * per reason for a summary. Safe to share between the threads of a parallel reader.
+ */
+public final class RejectedRowsReport implements RejectedRowSink, Closeable {
+
+    private static final int WRITE_BUFFER_CHARS = 1 << 16;
+    private static final RejectReason[] REASONS = RejectReason.values();
+
+    private final Writer out;
+    private final AtomicLongArray counts = new AtomicLongArray(REASONS.length);
+
+    public RejectedRowsReport(Writer out) {
+        this.out = out instanceof BufferedWriter ? out : new BufferedWriter(out, WRITE_BUFFER_CHARS);
+        write("Line,Code,Reason\n");
+    }
+
+    public static RejectedRowsReport toFile(Path target) throws IOException {
+        return new RejectedRowsReport(Files.newBufferedWriter(target, StandardCharsets.UTF_8));
+    }
+
+    @Override
+    public void rejected(long lineNumber, RejectReason reason) {
+        counts.incrementAndGet(reason.ordinal());
+        String row = lineNumber + "," + reason.name() + "," + reason.description() + "\n";
+        synchronized (out) {
+            write(row);
+        }
+    }
+
+    public long getRejectedCount() {
+        long total = 0;
+        for (int i = 0; i < REASONS.length; i++) {
+            total += counts.get(i);
+        }
+        return total;
+    }
+
+    /**
+     * Rejections so far by reason, leaving out reasons that never occurred.
+     */
+    public Map<RejectReason, Long> getCountsByReason() {
+        Map<RejectReason, Long> countsByReason = new EnumMap<>(RejectReason.class);
+        for (RejectReason reason : REASONS) {
+            long count = counts.get(reason.ordinal());
+            if (count > 0) countsByReason.put(reason, count);
+        }
+        return countsByReason;
+    }
+
+    @Override
+    public void close() throws IOException {
+        synchronized (out) {
+            out.close();
+        }
+    }
+
+    private void write(String text) {
+        try {
+            out.write(text);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
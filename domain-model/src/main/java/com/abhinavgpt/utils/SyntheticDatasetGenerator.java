@@ -0,0 +1,346 @@
+package com.abhinavgpt.utils;
+
+import com.abhinavgpt.books.Book;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.SplittableRandom;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+/**
+ * Seeded generator of bestseller datasets of any size, for exercising the readers and
+ * repositories far beyond the bundled {@code data.csv}. The same seed and row count always
+ * produce the same rows.
+ * <p>
+ * The shape follows the real list: author popularity is Zipf-skewed (the top author holds
+ * roughly 2% of the rows), authors mostly stick to one genre, and each work stays on the
+ * list for a run of consecutive years (about 1.6 editions on average) with growing review
+ * counts and drifting prices and ratings. Editions of a work are written next to each other.
+ * Some titles contain commas or quotes, so the CSV quoting paths are covered too, and
+ * {@link #withAliasedHeader()} writes the columns in a seed-dependent order under the
+ * alternative header names {@link DatasetReader} accepts.
+ *
+ * <pre>
+ * java com.abhinavgpt.utils.SyntheticDatasetGenerator rows target.csv [seed]
+ * </pre>
+ */
+public final class SyntheticDatasetGenerator {
+
+    public static final int FIRST_YEAR = 2009;
+    public static final int LAST_YEAR = 2019;
+
+    private static final int WRITE_BUFFER_CHARS = 1 << 16;
+    private static final int ROWS_PER_AUTHOR = 25;
+    private static final double AUTHOR_SKEW = 0.9;
+    private static final double NEXT_EDITION_PROBABILITY = 0.38;
+    private static final int WORKS_PER_VOLUME = 64;
+
+    private static final String[][] HEADER_ALIASES = {
+        {"Name", "Title", "Book Name", "Book Title"},
+        {"Author", "Author Name", "Writer"},
+        {"User Rating", "Rating", "user_rating", "UserRating"},
+        {"Reviews", "Review Count", "Number of Reviews", "review_count"},
+        {"Price", "Cost", "Book Price"},
+        {"Year", "Publication Year", "Pub Year", "Published Year"},
+        {"Genre", "Category", "Type", "Book Genre"}
+    };
+
+    private static final String[] FIRST_NAMES = {
+        "James", "Mary", "John", "Patricia", "Robert", "Jennifer", "Michael", "Linda", "David", "Elizabeth",
+        "William", "Barbara", "Richard", "Susan", "Joseph", "Jessica", "Thomas", "Sarah", "Charles", "Karen",
+        "Daniel", "Nancy", "Matthew", "Lisa", "Anthony", "Betty", "Mark", "Margaret", "Paul", "Sandra",
+        "Steven", "Ashley", "Andrew", "Emily", "Kenneth", "Donna", "Joshua", "Michelle", "Kevin", "Carol"
+    };
+
+    private static final String[] LAST_NAMES = {
+        "Smith", "Johnson", "Williams", "Brown", "Jones", "Garcia", "Miller", "Davis", "Rodriguez", "Martinez",
+        "Hernandez", "Lopez", "Gonzalez", "Wilson", "Anderson", "Thomas", "Taylor", "Moore", "Jackson", "Martin",
+        "Lee", "Perez", "Thompson", "White", "Harris", "Sanchez", "Clark", "Ramirez", "Lewis", "Robinson",
+        "Walker", "Young", "Allen", "King", "Wright", "Scott", "Torres", "Nguyen", "Hill", "Flores",
+        "Green", "Adams", "Nelson", "Baker", "Hall", "Rivera", "Campbell", "Mitchell", "Carter", "Roberts"
+    };
+
+    private static final String[] ADJECTIVES = {
+        "Silent", "Hidden", "Last", "Lost", "Broken", "Golden", "Wild", "Secret", "Dark", "Bright",
+        "Little", "Great", "Forgotten", "Endless", "Midnight", "Crimson", "Quiet", "Burning", "Frozen", "Hungry",
+        "Brave", "Curious", "Tiny", "Ancient", "Hollow", "Radical", "Simple", "Whole", "Deep", "Gentle"
+    };
+
+    private static final String[] NOUNS = {
+        "Garden", "River", "House", "Girl", "Boy", "Kingdom", "Habit", "Mind", "Journey", "Promise",
+        "Mountain", "Ocean", "Storm", "Letter", "Island", "Fire", "Forest", "Night", "Road", "Heart",
+        "Kitchen", "Diet", "Game", "Wolf", "Star", "Bridge", "Queen", "Secret", "Teacher", "Cleanse",
+        "Wimpy Kid", "Life", "Money", "Truth", "Shadow", "Crown", "Dragon", "Thief", "Year", "Daughter"
+    };
+
+    private static final String[] SUBTITLES = {
+        "A Novel", "A Memoir", "The Complete Guide", "Lessons for Living", "Recipes for Every Day",
+        "A Thriller", "An Illustrated Edition", "How to Change Everything"
+    };
+
+    private final long seed;
+    private final boolean aliasedHeader;
+
+    public SyntheticDatasetGenerator(long seed) {
+        this(seed, false);
+    }
+
+    private SyntheticDatasetGenerator(long seed, boolean aliasedHeader) {
+        this.seed = seed;
+        this.aliasedHeader = aliasedHeader;
+    }
+
+    /**
+     * Returns a generator for the same rows whose header uses alternative column names in a
+     * shuffled order.
+     */
+    public SyntheticDatasetGenerator withAliasedHeader() {
+        return new SyntheticDatasetGenerator(seed, true);
+    }
+
+    /**
+     * Streams the rows without writing them anywhere, e.g. to build a repository directly.
+     */
+    public Stream<Book> books(long rows) {
+        if (rows < 0) {
+            throw new IllegalArgumentException("Row count cannot be negative");
+        }
+        RowGenerator generator = new RowGenerator(seed, rows);
+        return StreamSupport.stream(new Spliterators.AbstractSpliterator<Book>(rows,
+                Spliterator.ORDERED | Spliterator.NONNULL | Spliterator.SIZED) {
+            @Override
+            public boolean tryAdvance(Consumer<? super Book> action) {
+                Book book = generator.next();
+                if (book == null) return false;
+                action.accept(book);
+                return true;
+            }
+        }, false);
+    }
+
+    public void writeCsv(Path target, long rows) throws IOException {
+        try (Writer out = Files.newBufferedWriter(target, StandardCharsets.UTF_8)) {
+            writeCsv(out, rows);
+        }
+    }
+
+    public void writeCsv(Writer out, long rows) throws IOException {
+        Writer buffered = out instanceof BufferedWriter ? out : new BufferedWriter(out, WRITE_BUFFER_CHARS);
+        int[] columnOrder = columnOrder();
+        StringBuilder line = new StringBuilder(160);
+
+        SplittableRandom headerRandom = new SplittableRandom(seed);
+        for (int i = 0; i < columnOrder.length; i++) {
+            String[] aliases = HEADER_ALIASES[columnOrder[i]];
+            if (i > 0) line.append(',');
+            line.append(aliasedHeader ? aliases[headerRandom.nextInt(aliases.length)] : aliases[0]);
+        }
+        buffered.append(line).append('\n');
+
+        try {
+            books(rows).forEach(book -> {
+                line.setLength(0);
+                for (int i = 0; i < columnOrder.length; i++) {
+                    if (i > 0) line.append(',');
+                    appendField(line, book, columnOrder[i]);
+                }
+                line.append('\n');
+                try {
+                    buffered.append(line);
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+        buffered.flush();
+    }
+
+    public static void main(String[] args) throws IOException {
+        if (args.length < 2) {
+            System.err.println("Usage: SyntheticDatasetGenerator rows target.csv [seed]");
+            return;
+        }
+        long rows = Long.parseLong(args[0]);
+        long seed = args.length > 2 ? Long.parseLong(args[2]) : 42L;
+
+        long startNanos = System.nanoTime();
+        new SyntheticDatasetGenerator(seed).writeCsv(Path.of(args[1]), rows);
+        long elapsedMillis = Math.max(1, (System.nanoTime() - startNanos) / 1_000_000);
+        System.out.printf("Wrote %,d rows (%,d MB) to %s in %,d ms%n",
+            rows, Files.size(Path.of(args[1])) >> 20, args[1], elapsedMillis);
+    }
+
+    private int[] columnOrder() {
+        int[] order = {0, 1, 2, 3, 4, 5, 6};
+        if (aliasedHeader) {
+            SplittableRandom random = new SplittableRandom(~seed);
+            for (int i = order.length - 1; i > 0; i--) {
+                int j = random.nextInt(i + 1);
+                int swapped = order[i];
+                order[i] = order[j];
+                order[j] = swapped;
+            }
+        }
+        return order;
+    }
+
+    private static void appendField(StringBuilder line, Book book, int column) {
+        switch (column) {
+            case 0 -> appendText(line, book.title());
+            case 1 -> appendText(line, book.author());
+            case 2 -> {
+                int tenths = (int) Math.round(book.userRating() * 10);
+                line.append(tenths / 10).append('.').append(tenths % 10);
+            }
+            case 3 -> line.append(book.reviewCount());
+            case 4 -> line.append(book.price());
+            case 5 -> line.append(book.year());
+            default -> appendText(line, book.genre());
+        }
+    }
+
+    private static void appendText(StringBuilder line, String text) {
+        boolean needsQuotes = false;
+        for (int i = 0; i < text.length() && !needsQuotes; i++) {
+            char c = text.charAt(i);
+            needsQuotes = c == ',' || c == '"' || c == '\n' || c == '\r';
+        }
+        if (!needsQuotes) {
+            line.append(text);
+            return;
+        }
+        line.append('"');
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            if (c == '"') line.append('"');
+            line.append(c);
+        }
+        line.append('"');
+    }
+
+    /**
+     * Produces rows work by work. A work's shared attributes are drawn once and each of its
+     * editions perturbs them; only the per-author work counters are kept, so memory stays
+     * small however many rows are requested.
+     */
+    private static final class RowGenerator {
+
+        private final SplittableRandom random;
+        private final long rows;
+        private final int[] worksByAuthor;
+        private long produced;
+
+        private String title;
+        private String author;
+        private String genre;
+        private int ratingTenths;
+        private int reviews;
+        private int price;
+        private int year;
+        private int editionsLeft;
+
+        RowGenerator(long seed, long rows) {
+            this.random = new SplittableRandom(seed);
+            this.rows = rows;
+            this.worksByAuthor = new int[(int) Math.min(Integer.MAX_VALUE - 8, Math.max(20, rows / ROWS_PER_AUTHOR))];
+        }
+
+        Book next() {
+            if (produced == rows) return null;
+            if (editionsLeft == 0) {
+                startWork();
+            } else {
+                nextEdition();
+            }
+            editionsLeft--;
+            produced++;
+            return new Book(title, author, ratingTenths / 10.0, reviews, price, year, genre);
+        }
+
+        private void startWork() {
+            int authorId = skewedAuthor();
+            author = authorName(authorId);
+            genre = (authorId % 3 == 0) == (random.nextInt(10) != 0) ? "Fiction" : "Non Fiction";
+            title = title(worksByAuthor[authorId]++);
+
+            int editions = 1;
+            while (editions < LAST_YEAR - FIRST_YEAR + 1 && random.nextDouble() < NEXT_EDITION_PROBABILITY) {
+                editions++;
+            }
+            editionsLeft = editions;
+            year = FIRST_YEAR + random.nextInt(LAST_YEAR - FIRST_YEAR + 2 - editions);
+            ratingTenths = clamp((int) Math.round(46 + random.nextGaussian() * 2.5), 33, 49);
+            reviews = clamp((int) Math.exp(8.5 + random.nextGaussian() * 1.3), 1, 1_000_000);
+            price = random.nextInt(20) == 0 ? 0 : clamp((int) Math.round(Math.exp(2.4 + random.nextGaussian() * 0.6)), 1, 200);
+        }
+
+        private void nextEdition() {
+            year++;
+            reviews = (int) Math.min(2_000_000, reviews * (1.1 + random.nextDouble() * 0.7));
+            if (random.nextInt(3) == 0) {
+                ratingTenths = clamp(ratingTenths + random.nextInt(3) - 1, 33, 50);
+            }
+            if (price > 0 && random.nextInt(2) == 0) {
+                price = Math.max(1, price + random.nextInt(5) - 2);
+            }
+        }
+
+        /**
+         * Inverts the continuous approximation of a Zipf distribution, so author ids are
+         * drawn in O(1) without a table of cumulative weights.
+         */
+        private int skewedAuthor() {
+            double exponent = 1 - AUTHOR_SKEW;
+            double span = Math.pow(worksByAuthor.length + 1, exponent) - 1;
+            double rank = Math.pow(random.nextDouble() * span + 1, 1 / exponent);
+            return Math.min(worksByAuthor.length - 1, (int) rank - 1);
+        }
+
+        private String authorName(int authorId) {
+            int first = authorId % FIRST_NAMES.length;
+            int rest = authorId / FIRST_NAMES.length;
+            int last = rest % LAST_NAMES.length;
+            int initial = (rest / LAST_NAMES.length) % 27;
+            int generation = rest / (LAST_NAMES.length * 27);
+
+            StringBuilder name = new StringBuilder(FIRST_NAMES[first]).append(' ');
+            if (initial > 0) name.append((char) ('A' + initial - 1)).append(". ");
+            name.append(LAST_NAMES[last]);
+            if (generation > 0) name.append(' ').append(generation + 1);
+            return name.toString();
+        }
+
+        private String title(int authorWorkIndex) {
+            String adjective = ADJECTIVES[random.nextInt(ADJECTIVES.length)];
+            String noun = NOUNS[random.nextInt(NOUNS.length)];
+            String otherNoun = NOUNS[random.nextInt(NOUNS.length)];
+            String base = switch (random.nextInt(8)) {
+                case 0 -> "The " + noun + " of the " + adjective + " " + otherNoun;
+                case 1 -> adjective + " " + noun + ": " + SUBTITLES[random.nextInt(SUBTITLES.length)];
+                case 2 -> noun + ", " + otherNoun + ", and the " + adjective + " " + NOUNS[random.nextInt(NOUNS.length)];
+                case 3 -> "Diary of a " + adjective + " " + noun + " (Book " + (1 + random.nextInt(16)) + ")";
+                case 4 -> random.nextInt(8) == 0
+                    ? "The \"" + adjective + "\" " + noun
+                    : "The " + adjective + " " + noun + " and the " + otherNoun;
+                default -> "The " + adjective + " " + noun;
+            };
+            int volume = authorWorkIndex / WORKS_PER_VOLUME;
+            return volume == 0 ? base : base + ", Volume " + (volume + 1);
+        }
+
+        private static int clamp(int value, int min, int max) {
+            return Math.max(min, Math.min(max, value));
+        }
+    }
+}
@@ -0,0 +1,103 @@
+package com.abhinavgpt.books;
+
+import com.abhinavgpt.utils.DatasetReader;
+import junit.framework.TestCase;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicInteger;
+
+public class AsyncBookServiceTest extends TestCase {
+
+    private BookService service;
+
+    @Override
+    protected void setUp() {
+        service = new BookService(new BookRepositoryImpl(new DatasetReader().readBooksFromSource("data.csv")));
+    }
+
+    public void testBatchLookupsMatchSingleCalls() {
+        List<String> authors = new ArrayList<>(service.getAllAuthorsInDataset());
+        authors.add(" jeff kinney ");
+        authors.add("NonExistentAuthor");
+
+        Map<String, Integer> counts = service.getTotalBookCountsByAuthors(authors);
+        Map<String, Map<String, Integer>> prices = service.getBookPricesByAuthors(authors);
+
+        assertEquals(authors.size(), counts.size());
+        for (String author : authors) {
+            assertEquals(author, service.getTotalBookCountByAuthor(author), (int) counts.get(author));
+            assertEquals(author, service.getBookPricesByAuthor(author), prices.get(author));
+        }
+        assertEquals(service.classifyBooksByUserRating(4.9), service.classifyBooksByUserRatings(List.of(4.9, 4.9)).get(4.9));
+    }
+
+    public void testBatchLookupsQueryEachNormalizedAuthorOnce() {
+        BookRepositoryImpl books = new BookRepositoryImpl(new DatasetReader().readBooksFromSource("data.csv"));
+        List<String> lookedUp = new ArrayList<>();
+        BookService recordingService = new BookService(new BookRepository() {
+            @Override
+            public List<Book> getBooksByAuthor(String author) {
+                return books.getBooksByAuthor(author);
+            }
+
+            @Override
+            public List<Book> getBooksByRating(double rating) {
+                return books.getBooksByRating(rating);
+            }
+
+            @Override
+            public List<String> getAllAuthors() {
+                return books.getAllAuthors();
+            }
+
+            @Override
+            public int getBookCountByAuthor(String author) {
+                lookedUp.add(author);
+                return books.getBookCountByAuthor(author);
+            }
+
+            @Override
+            public Map<String, Integer> getBooksAndPricesByAuthor(String author) {
+                return books.getBooksAndPricesByAuthor(author);
+            }
+        });
+
+        Map<String, Integer> counts = recordingService.getTotalBookCountsByAuthors(
+            List.of("Jeff Kinney", " jeff kinney ", "JEFF KINNEY"));
+        assertEquals(List.of("jeff kinney"), lookedUp);
+        assertEquals(List.of(12, 12, 12), List.copyOf(counts.values()));
+    }
+
+    public void testAsyncCallsStayWithinTheConcurrencyLimit() {
+        AtomicInteger running = new AtomicInteger();
+        AtomicInteger peak = new AtomicInteger();
+
+        try (AsyncBookService asyncService = new AsyncBookService(service, 4)) {
+            List<CompletableFuture<Integer>> counts = new ArrayList<>();
+            for (int i = 0; i < 200; i++) {
+                counts.add(asyncService.submit(bookService -> {
+                    peak.accumulateAndGet(running.incrementAndGet(), Math::max);
+                    try {
+                        Thread.sleep(1);
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                    }
+                    running.decrementAndGet();
+                    return bookService.getTotalBookCountByAuthor("Jeff Kinney");
+                }));
+            }
+
+            for (CompletableFuture<Integer> count : counts) {
+                assertEquals(12, (int) count.join());
+            }
+            assertEquals(service.getBookPricesByAuthor("Suzanne Collins"),
+                asyncService.getBookPricesByAuthor("Suzanne Collins").join());
+            assertEquals(4, asyncService.getAvailablePermits());
+        }
+        assertTrue(peak.get() <= 4);
+        assertTrue(peak.get() >= 1);
+    }
+}
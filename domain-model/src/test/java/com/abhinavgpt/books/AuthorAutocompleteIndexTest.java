@@ -0,0 +1,149 @@
+package com.abhinavgpt.books;
+
+import com.abhinavgpt.books.AuthorAutocompleteIndex.AuthorSuggestion;
+import com.abhinavgpt.utils.DatasetReader;
+import junit.framework.TestCase;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeSet;
+
+public class AuthorAutocompleteIndexTest extends TestCase {
+
+    private static final Comparator<AuthorSuggestion> RANKING = Comparator
+            .comparingLong(AuthorSuggestion::totalReviews).reversed()
+            .thenComparing(Comparator.comparingInt(AuthorSuggestion::bookCount).reversed())
+            .thenComparing(AuthorSuggestion::author);
+
+    private List<Book> allBooks;
+    private List<Book> uniqueBooks;
+
+    @Override
+    protected void setUp() {
+        BookRepositoryImpl repository = new BookRepositoryImpl(new DatasetReader().readBooksFromSource("data.csv"));
+        allBooks = repository.getAllBooksIncludingDuplicates();
+        uniqueBooks = repository.getAllUniqueBooks();
+    }
+
+    public void testPrefixAndWordPrefixMatchesMatchAFullScan() {
+        AuthorAutocompleteIndex index = AuthorAutocompleteIndex.fromBooks(allBooks, uniqueBooks);
+        List<AuthorSuggestion> ranked = rankedAuthors(allBooks, uniqueBooks);
+        assertEquals(ranked.size(), index.getAuthorCount());
+
+        for (String prefix : new String[] {"", "j", "jeff", "KIN", "  kinney", "dr. ", "the", "s", "collins", "e l "}) {
+            for (int limit : new int[] {1, 5, AuthorAutocompleteIndex.DEFAULT_TOP_N, 25, Integer.MAX_VALUE}) {
+                assertEquals(prefix + "/" + limit, expectedSuggestions(ranked, prefix, limit), index.suggest(prefix, limit));
+            }
+        }
+        assertEquals("Jeff Kinney", index.suggest("kin", 1).get(0).author());
+        assertEquals(index.suggest("", 3), index.suggest(null, 3));
+    }
+
+    public void testEveryNodeKeepsItsOwnTopN() {
+        int topN = 3;
+        AuthorAutocompleteIndex index = AuthorAutocompleteIndex.fromBooks(allBooks, uniqueBooks, topN);
+        List<AuthorSuggestion> ranked = rankedAuthors(allBooks, uniqueBooks);
+
+        TreeSet<String> prefixes = new TreeSet<>();
+        for (AuthorSuggestion suggestion : ranked) {
+            String name = suggestion.author().toLowerCase();
+            for (int length = 1; length <= Math.min(3, name.length()); length++) {
+                prefixes.add(name.substring(0, length));
+            }
+        }
+        for (String prefix : prefixes) {
+            assertEquals(prefix, expectedSuggestions(ranked, prefix, topN), index.suggest(prefix, topN));
+            assertEquals(prefix, expectedSuggestions(ranked, prefix, topN + 4), index.suggest(prefix, topN + 4));
+        }
+    }
+
+    public void testTiesAreBrokenByBookCountThenName() {
+        List<Book> books = List.of(
+            new Book("One", "Beta Writer", 4.0, 100, 5, 2010, "Fiction"),
+            new Book("Two", "Alpha Writer", 4.0, 100, 5, 2010, "Fiction"),
+            new Book("Three", "Gamma Writer", 4.0, 50, 5, 2010, "Fiction"),
+            new Book("Three", "Gamma Writer", 4.0, 50, 5, 2011, "Fiction"),
+            new Book("Four", "Delta Writer", 4.0, 400, 5, 2012, "Fiction"));
+        AuthorAutocompleteIndex index = AuthorAutocompleteIndex.fromBooks(books, new BookRepositoryImpl(books).getAllUniqueBooks());
+
+        assertEquals(List.of(
+                new AuthorSuggestion("Delta Writer", 1, 400),
+                new AuthorSuggestion("Alpha Writer", 1, 100),
+                new AuthorSuggestion("Beta Writer", 1, 100),
+                new AuthorSuggestion("Gamma Writer", 2, 50)),
+            index.suggest("writer", 10));
+    }
+
+    public void testEmptyAndUnknownPrefixes() {
+        List<Book> books = List.of(
+            new Book("One", "Adult Author", 4.0, 10, 5, 2010, "Fiction"),
+            new Book("Two", "Adults Club", 4.0, 20, 5, 2010, "Fiction"));
+        AuthorAutocompleteIndex index = AuthorAutocompleteIndex.fromBooks(books, books);
+
+        assertEquals(List.of("Adults Club", "Adult Author"), authors(index.suggest("", 10)));
+        assertEquals(List.of("Adults Club", "Adult Author"), authors(index.suggest("   ", 10)));
+        assertEquals(List.of("Adult Author"), authors(index.suggest("adult ", 10)));
+        assertEquals(List.of("Adult Author"), authors(index.suggest("aut", 10)));
+        assertEquals(List.of(), index.suggest("zzz", 10));
+        assertEquals(List.of(), index.suggest("adultss", 10));
+        assertEquals(List.of(), index.suggest("", 0));
+        assertEquals(List.of(), AuthorAutocompleteIndex.fromBooks(List.of(), List.of()).suggest("", 10));
+
+        try {
+            index.suggest("a", -1);
+            fail("negative limit accepted");
+        } catch (IllegalArgumentException expected) {
+            assertEquals("Limit cannot be negative", expected.getMessage());
+        }
+        try {
+            AuthorAutocompleteIndex.fromBooks(books, books, 0);
+            fail("top-N of 0 accepted");
+        } catch (IllegalArgumentException expected) {
+            assertEquals("Top-N must be at least 1", expected.getMessage());
+        }
+    }
+
+    private static List<AuthorSuggestion> rankedAuthors(List<Book> allBooks, List<Book> uniqueBooks) {
+        Map<String, AuthorSuggestion> authorsByKey = new LinkedHashMap<>();
+        for (Book book : allBooks) {
+            String key = book.author().toLowerCase().trim();
+            AuthorSuggestion existing = authorsByKey.get(key);
+            authorsByKey.put(key, existing == null
+                ? new AuthorSuggestion(book.author(), 1, 0)
+                : new AuthorSuggestion(existing.author(), existing.bookCount() + 1, 0));
+        }
+        for (Book book : uniqueBooks) {
+            authorsByKey.computeIfPresent(book.author().toLowerCase().trim(), (key, existing) ->
+                new AuthorSuggestion(existing.author(), existing.bookCount(), existing.totalReviews() + book.reviewCount()));
+        }
+        return authorsByKey.values().stream().sorted(RANKING).toList();
+    }
+
+    private static List<AuthorSuggestion> expectedSuggestions(List<AuthorSuggestion> ranked, String prefix, int limit) {
+        String normalizedPrefix = prefix.toLowerCase().stripLeading();
+        List<AuthorSuggestion> matches = new ArrayList<>();
+        for (AuthorSuggestion suggestion : ranked) {
+            if (matches.size() < limit && matchesSomeWord(suggestion.author().toLowerCase().trim(), normalizedPrefix)) {
+                matches.add(suggestion);
+            }
+        }
+        return matches;
+    }
+
+    private static boolean matchesSomeWord(String name, String prefix) {
+        for (int start = 0; start < name.length(); start++) {
+            boolean wordStart = start == 0 || (name.charAt(start - 1) == ' ' && name.charAt(start) != ' ');
+            if (wordStart && name.startsWith(prefix, start)) {
+                return true;
+            }
+        }
+        return prefix.isEmpty();
+    }
+
+    private static List<String> authors(List<AuthorSuggestion> suggestions) {
+        return suggestions.stream().map(AuthorSuggestion::author).toList();
+    }
+}
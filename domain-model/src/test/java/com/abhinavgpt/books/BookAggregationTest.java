@@ -0,0 +1,86 @@
+package com.abhinavgpt.books;
+
+import com.abhinavgpt.books.BookAggregation.Dimension;
+import com.abhinavgpt.books.BookAggregation.GroupKey;
+import com.abhinavgpt.utils.DatasetReader;
+import junit.framework.TestCase;
+
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+public class BookAggregationTest extends TestCase {
+
+    private List<Book> dataset;
+    private BookService service;
+
+    @Override
+    protected void setUp() {
+        dataset = new DatasetReader().readBooksFromSource("data.csv");
+        service = new BookService(new BookRepositoryImpl(dataset));
+    }
+
+    public void testGenreYearCubeMatchesStreams() {
+        AggregationResult cube = service.aggregate(BookAggregation.builder()
+                .groupBy(Dimension.GENRE, Dimension.YEAR)
+                .build());
+        Map<String, Double> averagePriceByCell = dataset.stream().collect(Collectors.groupingBy(
+            book -> book.genre() + "|" + book.year(), Collectors.averagingInt(Book::price)));
+
+        assertEquals(averagePriceByCell.size(), cube.getGroups().size());
+        for (AggregationResult.Group group : cube.getGroups()) {
+            String cell = group.key().genre() + "|" + group.key().year();
+            assertEquals(averagePriceByCell.get(cell), group.price().mean(), 1e-9);
+            assertNull(group.key().author());
+        }
+        AggregationResult.Group fiction2019 = cube.getGroup(new GroupKey(null, "Fiction", 2019, null));
+        assertEquals(dataset.stream().filter(book -> book.genre().equals("Fiction") && book.year() == 2019).count(),
+            fiction2019.count());
+
+        AggregationResult total = service.aggregate(BookAggregation.builder().build());
+        assertEquals(1, total.getGroups().size());
+        AggregateStats reviews = total.getGroups().get(0).reviews();
+        assertEquals(dataset.size(), reviews.count());
+        assertEquals(dataset.stream().mapToInt(Book::reviewCount).max().getAsInt(), (int) reviews.max());
+        assertSame(cube, service.aggregate(BookAggregation.builder().groupBy(Dimension.YEAR, Dimension.GENRE).build()));
+    }
+
+    public void testFilteredAuthorTotalsOverUniqueBooks() {
+        AggregationResult result = service.aggregate(BookAggregation.builder()
+                .groupBy(Dimension.AUTHOR)
+                .uniqueBooks()
+                .filter(BookQuery.builder().genre("fiction").build())
+                .build());
+        Map<String, Long> reviewsByAuthor = new BookRepositoryImpl(dataset).getAllUniqueBooks().stream()
+                .filter(book -> book.genre().equals("Fiction"))
+                .collect(Collectors.groupingBy(Book::author, Collectors.summingLong(Book::reviewCount)));
+
+        assertEquals(reviewsByAuthor.size(), result.getGroups().size());
+        for (AggregationResult.Group group : result.getGroups()) {
+            assertEquals(reviewsByAuthor.get(group.key().author()), Long.valueOf((long) group.reviews().sum()));
+        }
+    }
+
+    public void testPercentilesAndRatingBuckets() {
+        List<Book> books = List.of(
+            new Book("A", "Author", 4.5, 10, 1, 2010, "Fiction"),
+            new Book("B", "Author", 4.7, 20, 2, 2010, "Fiction"),
+            new Book("C", "Author", 4.7, 30, 3, 2011, "Fiction"),
+            new Book("D", "Author", 4.9, 40, 4, 2011, "Non Fiction"));
+        BookService smallService = new BookService(new BookRepositoryImpl(books));
+
+        AggregationResult byGenre = smallService.aggregate(BookAggregation.builder().groupBy(Dimension.GENRE).build());
+        AggregateStats fictionPrices = byGenre.getGroup(new GroupKey(null, "Fiction", null, null)).price();
+        assertEquals(new AggregateStats(3, 6, 1, 3, 2, 3, 3), fictionPrices);
+        assertEquals(2.0, fictionPrices.mean(), 1e-9);
+
+        AggregationResult byRating = smallService.aggregate(BookAggregation.builder()
+                .groupBy(Dimension.GENRE, Dimension.RATING)
+                .build());
+        assertEquals(3, byRating.getGroups().size());
+        AggregationResult.Group fiction47 = byRating.getGroups().get(1);
+        assertEquals(new GroupKey(null, "Fiction", null, 4.7), fiction47.key());
+        assertEquals(2, fiction47.count());
+        assertEquals(new AggregateStats(2, 9.4, 4.7, 4.7, 4.7, 4.7, 4.7), fiction47.rating());
+    }
+}
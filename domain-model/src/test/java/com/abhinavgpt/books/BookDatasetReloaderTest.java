@@ -0,0 +1,82 @@
+package com.abhinavgpt.books;
+
+import com.abhinavgpt.utils.DatasetReader;
+import junit.framework.TestCase;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+
+public class BookDatasetReloaderTest extends TestCase {
+
+    private static final String NEW_ROW = "Reloaded Test Book,Reload Test Author,4.8,1234,9,2020,Fiction\n";
+
+    private final DatasetReader reader = new DatasetReader();
+    private Path dataset;
+    private BookService service;
+
+    @Override
+    protected void setUp() throws IOException {
+        dataset = Files.createTempFile("books", ".csv");
+        Files.copy(Path.of("data.csv"), dataset, StandardCopyOption.REPLACE_EXISTING);
+        service = new BookService(new BookRepositoryImpl(reader.readBooksFromSource(dataset.toString())));
+    }
+
+    @Override
+    protected void tearDown() throws IOException {
+        Files.deleteIfExists(dataset);
+    }
+
+    public void testChangedFileIsPickedUpInTheBackground() throws Exception {
+        int originalRows = service.getRepository().getAllBooksIncludingDuplicates().size();
+
+        try (BookDatasetReloader reloader = BookDatasetReloader.watch(service, dataset,
+                path -> reader.streamBooksFromSource(path.toString()), Duration.ofMillis(10), result -> { })) {
+            Files.writeString(dataset, NEW_ROW, StandardCharsets.UTF_8, StandardOpenOption.APPEND);
+
+            long deadline = System.nanoTime() + Duration.ofSeconds(10).toNanos();
+            while (reloader.getSuccessfulReloadCount() == 0 && System.nanoTime() < deadline) {
+                Thread.sleep(10);
+            }
+
+            assertEquals(1, reloader.getSuccessfulReloadCount());
+            assertEquals(originalRows + 1, reloader.getLastReload().bookCount());
+        }
+        assertEquals(1, service.getTotalBookCountByAuthor("Reload Test Author"));
+        assertEquals(originalRows + 1, service.getRepository().getAllBooksIncludingDuplicates().size());
+        assertEquals("Reloaded Test Book", service.searchBooks("reloaded test", 1).get(0).title());
+    }
+
+    public void testReloadBuildsTheRepositoryWithTheGivenFactory() throws Exception {
+        Files.writeString(dataset, NEW_ROW, StandardCharsets.UTF_8, StandardOpenOption.APPEND);
+
+        try (BookDatasetReloader reloader = BookDatasetReloader.watch(service, dataset,
+                path -> reader.streamBooksFromSource(path.toString()), ColumnarBookRepository::fromStream,
+                Duration.ofHours(1), null)) {
+            assertTrue(reloader.reloadNow().succeeded());
+        }
+        assertTrue(service.getRepository() instanceof ColumnarBookRepository);
+        assertEquals(1, service.getTotalBookCountByAuthor("Reload Test Author"));
+    }
+
+    public void testFailedReloadKeepsServingThePreviousData() throws Exception {
+        BookRepository original = service.getRepository();
+
+        try (BookDatasetReloader reloader = BookDatasetReloader.watch(service, dataset,
+                path -> reader.streamBooksFromSource(path.toString()), Duration.ofHours(1), result -> { })) {
+            Files.writeString(dataset, "Name,Author,User Rating,Reviews,Price,Year,Genre\n", StandardCharsets.UTF_8);
+
+            BookDatasetReloader.ReloadResult result = reloader.reloadNow();
+
+            assertFalse(result.succeeded());
+            assertNotNull(result.error());
+            assertEquals(1, reloader.getFailedReloadCount());
+        }
+        assertSame(original, service.getRepository());
+        assertEquals(12, service.getTotalBookCountByAuthor("Jeff Kinney"));
+    }
+}
@@ -0,0 +1,108 @@
+package com.abhinavgpt.books;
+
+import com.abhinavgpt.utils.DatasetReader;
+import junit.framework.TestCase;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Predicate;
+
+public class BookLeaderboardsTest extends TestCase {
+
+    /**
+     * Implements only the core lookups, as repositories written against the original
+     * interface do.
+     */
+    private static final class MinimalRepository implements BookRepository {
+
+        private final Map<String, List<Book>> booksByAuthor = new LinkedHashMap<>();
+
+        MinimalRepository(List<Book> books) {
+            books.forEach(book -> booksByAuthor.computeIfAbsent(book.author(), author -> new ArrayList<>()).add(book));
+        }
+
+        @Override
+        public List<Book> getBooksByAuthor(String author) {
+            return booksByAuthor.getOrDefault(author, List.of());
+        }
+
+        @Override
+        public List<Book> getBooksByRating(double rating) {
+            return booksByAuthor.values().stream().flatMap(List::stream).filter(book -> book.userRating() == rating).toList();
+        }
+
+        @Override
+        public List<String> getAllAuthors() {
+            return List.copyOf(booksByAuthor.keySet());
+        }
+
+        @Override
+        public int getBookCountByAuthor(String author) {
+            return getBooksByAuthor(author).size();
+        }
+
+        @Override
+        public Map<String, Integer> getBooksAndPricesByAuthor(String author) {
+            return Map.of();
+        }
+    }
+
+    public void testProlificAuthorsFromARepositoryWithoutRows() {
+        BookService service = new BookService(new MinimalRepository(List.of(
+            new Book("One", "B", 4.0, 10, 5, 2010, "Fiction"),
+            new Book("Two", "A", 4.1, 10, 5, 2010, "Fiction"),
+            new Book("Three", "A", 4.2, 10, 5, 2011, "Fiction"),
+            new Book("Four", "A", 4.3, 10, 5, 2012, "Fiction"))));
+
+        assertEquals(List.of(Map.entry("A", 3), Map.entry("B", 1)),
+            List.copyOf(service.getMostProlificAuthorsWithBookCount(10).entrySet()));
+        assertEquals(List.of(Map.entry("A", 3)), List.copyOf(service.getMostProlificAuthorsWithBookCount(1).entrySet()));
+        assertEquals(List.of(), service.getMostReviewedBooks(5));
+    }
+
+    public void testRankingsMatchSortingTheDataset() {
+        BookRepositoryImpl repository = new BookRepositoryImpl(new DatasetReader().readBooksFromSource("data.csv"));
+        List<Book> unique = repository.getAllUniqueBooks();
+        BookLeaderboards leaderboards = BookLeaderboards.fromRepository(repository);
+
+        assertEquals(unique.stream().sorted(BookLeaderboards.MOST_REVIEWED).limit(10).toList(),
+            leaderboards.getMostReviewedBooks(10));
+        assertEquals(unique.stream().sorted(BookLeaderboards.HIGHEST_RATED).limit(10).toList(),
+            leaderboards.getHighestRatedBooks(10));
+        assertEquals(unique.stream().filter(book -> book.genre().equals("Fiction"))
+                .sorted(BookLeaderboards.CHEAPEST).limit(5).toList(),
+            leaderboards.getCheapestBooksByGenre(" fiction ", 5));
+        assertEquals(repository.getAllBooksIncludingDuplicates().stream().filter(book -> book.year() == 2015)
+                .sorted(BookLeaderboards.CHEAPEST).limit(5).toList(),
+            leaderboards.getCheapestBooksByYear(2015, 5));
+
+        BookLeaderboards.AuthorBookCount top = leaderboards.getTopAuthorsByBookCount(1).get(0);
+        assertEquals("Jeff Kinney", top.author());
+        assertEquals(repository.getBookCountByAuthor("Jeff Kinney"), top.bookCount());
+        assertEquals(List.of(), leaderboards.getCheapestBooksByGenre(null, 5));
+        assertEquals(List.of(), leaderboards.getCheapestBooksByYear(1990, 5));
+        assertEquals(unique.size(), leaderboards.getMostReviewedBooks(Integer.MAX_VALUE).size());
+    }
+
+    public void testTopKMatchesAFullSortAndKeepsTiesInInputOrder() {
+        List<Book> books = new DatasetReader().readBooksFromSource("data.csv");
+        Predicate<Book> fiction = book -> book.genre().equals("Fiction");
+        Comparator<Book> byPrice = Comparator.comparingInt(Book::price);
+
+        for (int limit : new int[] {0, 1, 7, 50, 10_000}) {
+            assertEquals(books.stream().filter(fiction).sorted(byPrice).limit(limit).toList(),
+                BookLeaderboards.topK(books, fiction, byPrice, limit));
+        }
+        assertEquals(List.of("b", "c", "a"), BookLeaderboards.topK(List.of("a", "b", "c", "dd"),
+            word -> word.length() == 1, Comparator.comparing((String word) -> word.equals("a")), 3));
+        try {
+            BookLeaderboards.topK(books, fiction, byPrice, -1);
+            fail("negative limit accepted");
+        } catch (IllegalArgumentException expected) {
+            assertEquals("Limit cannot be negative", expected.getMessage());
+        }
+    }
+}
@@ -0,0 +1,80 @@
+package com.abhinavgpt.books;
+
+import com.abhinavgpt.utils.DatasetReader;
+import com.abhinavgpt.utils.SyntheticDatasetGenerator;
+import junit.framework.TestCase;
+
+import java.util.List;
+import java.util.Map;
+import java.util.function.Predicate;
+import java.util.stream.Stream;
+
+public class BookQueryEngineTest extends TestCase {
+
+    private static final int[] LIMITS = {0, 1, 7, 100, Integer.MAX_VALUE};
+
+    public void testMatchesAPlainStreamFilterOnTheDataset() {
+        assertMatchesStreamFilter(new DatasetReader().readBooksFromSource("data.csv"));
+    }
+
+    public void testMatchesAPlainStreamFilterOnSyntheticData() {
+        // Large enough that ordered queries take both the sort-the-hits and the walk-the-order path
+        assertMatchesStreamFilter(new SyntheticDatasetGenerator(3).books(30_000).toList());
+    }
+
+    public void testRatingBoundsBetweenStepsRoundInward() {
+        List<Book> books = List.of(
+            new Book("A", "Author", 4.2, 1, 1, 2010, "Fiction"),
+            new Book("B", "Author", 4.3, 1, 1, 2010, "Fiction"),
+            new Book("C", "Author", 4.7, 1, 1, 2010, "Fiction"),
+            new Book("D", "Author", 4.8, 1, 1, 2010, "Fiction"));
+        BookQueryEngine engine = new BookQueryEngine(books);
+
+        assertEquals(books.subList(1, 3), engine.execute(BookQuery.builder().ratingBetween(4.25, 4.75).build()));
+        assertEquals(books.subList(2, 4), engine.execute(BookQuery.builder().ratingAtLeast(4.65).build()));
+        assertEquals(books.subList(0, 2), engine.execute(BookQuery.builder().ratingBetween(-3, 4.3).build()));
+        assertEquals(List.of(), engine.execute(BookQuery.builder().ratingBetween(4.71, 4.79).build()));
+        assertEquals(List.of(), engine.execute(BookQuery.builder().ratingBetween(4.8, 4.2).build()));
+        assertEquals(List.of(), engine.execute(BookQuery.builder().ratingAtLeast(5.1).build()));
+        assertEquals(List.of(), new BookQueryEngine(List.of()).execute(BookQuery.builder().build()));
+    }
+
+    private static void assertMatchesStreamFilter(List<Book> rows) {
+        BookQueryEngine engine = new BookQueryEngine(rows);
+        Book sample = rows.get(rows.size() / 2);
+        String author = sample.author();
+        int year = sample.year();
+
+        Map<BookQuery.Builder, Predicate<Book>> cases = Map.of(
+            BookQuery.builder().year(year),
+                book -> book.year() == year,
+            BookQuery.builder().genre(" FICTION ").yearBetween(year - 2, year),
+                book -> book.genre().equals("Fiction") && book.year() >= year - 2 && book.year() <= year,
+            BookQuery.builder().ratingBetween(4.45, 4.75),
+                book -> book.userRating() >= 4.45 && book.userRating() <= 4.75,
+            BookQuery.builder().ratingAtLeast(4.85).genre("non fiction"),
+                book -> book.userRating() >= 4.85 && book.genre().equals("Non Fiction"),
+            BookQuery.builder().author(author.toUpperCase(), "Nobody At All").or().year(year).ratingBetween(0, 4.05),
+                book -> book.author().equalsIgnoreCase(author) || (book.year() == year && book.userRating() <= 4.05),
+            BookQuery.builder().year(year).or().year(year + 1).or().genre("fiction").ratingBetween(4.9, 5),
+                book -> book.year() == year || book.year() == year + 1
+                    || (book.genre().equals("Fiction") && book.userRating() >= 4.9),
+            BookQuery.builder().yearBetween(year, year - 1).or().author(author),
+                book -> book.author().equals(author),
+            BookQuery.builder(),
+                book -> true);
+
+        cases.forEach((builder, filter) -> {
+            for (BookQuery.Order order : BookQuery.Order.values()) {
+                for (int limit : LIMITS) {
+                    BookQuery query = builder.orderBy(order).limit(limit).build();
+                    Stream<Book> matches = rows.stream().filter(filter);
+                    if (order.comparator() != null) {
+                        matches = matches.sorted(order.comparator());
+                    }
+                    assertEquals(order + "/" + limit, matches.limit(limit).toList(), engine.execute(query));
+                }
+            }
+        });
+    }
+}
@@ -0,0 +1,101 @@
+package com.abhinavgpt.books;
+
+import com.abhinavgpt.utils.DatasetReader;
+import junit.framework.TestCase;
+
+import java.util.Comparator;
+import java.util.List;
+
+public class BookSearchIndexTest extends TestCase {
+
+    private static final Comparator<Book> RANKING = BookLeaderboards.MOST_REVIEWED
+            .thenComparing(Comparator.comparingDouble(Book::userRating).reversed());
+
+    private static final List<Book> BOOKS = List.of(
+        new Book("Harry Potter and the Sorcerer's Stone", "J.K. Rowling", 4.7, 10_000, 10, 2017, "Fiction"),
+        new Book("Harriet the Spy", "Louise Fitzhugh", 4.5, 2_000, 8, 2015, "Fiction"),
+        new Book("Wonder", "R. J. Palacio", 4.8, 2_000, 9, 2016, "Fiction"),
+        new Book("To Kill a Mockingbird", "Harper Lee", 4.8, 26_000, 7, 2019, "Fiction"),
+        new Book("The Cat in the Hat", "Dr. Seuss", 4.9, 8_000, 6, 2014, "Fiction"),
+        new Book("Strangeabc Tales", "Some Author", 4.0, 100, 5, 2010, "Fiction"),
+        new Book("Wonderland Spy", "Lewis Carroll", 4.6, 2_000, 5, 2012, "Fiction"));
+
+    public void testResultsMatchAFullScanInRankOrder() {
+        List<Book> uniqueBooks = new BookRepositoryImpl(new DatasetReader().readBooksFromSource("data.csv")).getAllUniqueBooks();
+        BookSearchIndex index = BookSearchIndex.fromBooks(uniqueBooks);
+        List<Book> ranked = uniqueBooks.stream().sorted(RANKING).toList();
+
+        for (String query : new String[] {"harry", "harry pot", "the", "THE HUNGER g", "jeff k", "diary wimpy kid",
+                                          "can't", "cant", "dr. seuss", "1984", "zzz", "kinney zzz",
+                                          "h", "ha", "the h", "diary of a w", "1", "zz", "q"}) {
+            for (int limit : new int[] {1, 5, 1_000}) {
+                assertEquals(query + "/" + limit, fullScan(ranked, query, limit), index.search(query, limit));
+            }
+        }
+        assertFalse(index.search("harry pot", 5).isEmpty());
+    }
+
+    public void testRankingAndLastWordPrefix() {
+        BookSearchIndex index = BookSearchIndex.fromBooks(BOOKS);
+
+        assertEquals(List.of(BOOKS.get(0), BOOKS.get(4), BOOKS.get(1)), index.search("the", 10));
+        assertEquals(List.of(BOOKS.get(6), BOOKS.get(1)), index.search("spy", 10));
+        assertEquals(List.of(BOOKS.get(0), BOOKS.get(1)), index.search("harr", 10));
+        assertEquals(List.of(BOOKS.get(0)), index.search("harr", 1));
+        assertEquals(List.of(), index.search("harr potter", 10));
+        assertEquals(List.of(BOOKS.get(0)), index.search("Potter, HARR", 10));
+        assertEquals(List.of(BOOKS.get(0)), index.search("sorcerers", 10));
+        assertEquals(List.of(BOOKS.get(3)), index.search("harper", 10));
+        assertEquals(List.of(BOOKS.get(4)), index.search("the hat", 10));
+    }
+
+    public void testTypoToleranceCutoffs() {
+        BookSearchIndex index = BookSearchIndex.fromBooks(BOOKS);
+
+        assertEquals(List.of(), index.search("wondre", 10));
+        assertEquals(List.of(BOOKS.get(2)), index.search("wondre", 10, true));
+        assertEquals(List.of(BOOKS.get(2)), index.search("wnder palacio", 10, true));
+        assertEquals(List.of(), index.search("wndr", 10, true));
+        assertEquals(List.of(), index.search("cta", 10, true));
+        assertEquals(List.of(BOOKS.get(3)), index.search("mockinbrid", 10, true));
+        assertEquals(List.of(), index.search("mokinbrid", 10, true));
+        // Optimal string alignment, not full Damerau-Levenshtein: "ca" to "abc" costs three edits
+        assertEquals(List.of(), index.search("strangeca", 10, true));
+        assertEquals(List.of(BOOKS.get(5)), index.search("strangecab", 10, true));
+    }
+
+    public void testEmptyQueriesAndLimits() {
+        BookSearchIndex index = BookSearchIndex.fromBooks(BOOKS);
+
+        for (String query : new String[] {null, "", "   ", "!!", "'"}) {
+            assertEquals(List.of(), index.search(query, 10));
+        }
+        assertEquals(List.of(), index.search("harry", 0));
+        assertEquals(List.of(), BookSearchIndex.fromBooks(List.of()).search("harry", 10, true));
+        assertEquals(List.of("cant", "zoë", "中文", "diary", "of"), BookSearchIndex.tokenize("Can't  Zoë—中文 diary-of"));
+        try {
+            index.search("harry", -1);
+            fail("negative limit accepted");
+        } catch (IllegalArgumentException expected) {
+            assertEquals("Limit cannot be negative", expected.getMessage());
+        }
+    }
+
+    private static List<Book> fullScan(List<Book> ranked, String query, int limit) {
+        List<String> queryTerms = BookSearchIndex.tokenize(query);
+        return ranked.stream()
+                .filter(book -> {
+                    List<String> words = BookSearchIndex.tokenize(book.title() + " " + book.author());
+                    for (int i = 0; i < queryTerms.size(); i++) {
+                        String term = queryTerms.get(i);
+                        boolean last = i == queryTerms.size() - 1;
+                        if (words.stream().noneMatch(word -> last ? word.startsWith(term) : word.equals(term))) {
+                            return false;
+                        }
+                    }
+                    return !queryTerms.isEmpty();
+                })
+                .limit(limit)
+                .toList();
+    }
+}
@@ -0,0 +1,39 @@
+package com.abhinavgpt.books;
+
+import com.abhinavgpt.utils.DatasetReader;
+import junit.framework.TestCase;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Map;
+
+public class BookServiceTest extends TestCase {
+
+    public void testMultiYearBestsellersOnEveryRepositoryType() throws IOException {
+        List<Book> books = new DatasetReader().readBooksFromSource("data.csv");
+        BookRepositoryImpl impl = new BookRepositoryImpl(books);
+        Map<String, List<Book>> expected = impl.getDuplicateBooksAcrossYears();
+        assertFalse(expected.isEmpty());
+
+        Path snapshot = Files.createTempFile("books", ".snapshot");
+        try {
+            BookSnapshotWriter.write(impl, snapshot);
+            List<BookRepository> repositories = List.of(
+                impl,
+                new ColumnarBookRepository(books),
+                SnapshotBookRepository.open(snapshot),
+                new ConcurrentBookRepository(books),
+                new CachingBookRepository(impl),
+                PartitionedBookRepository.fromPartitions(List.of(books.subList(0, 200), books.subList(200, books.size()))));
+            for (BookRepository repository : repositories) {
+                String name = repository.getClass().getSimpleName();
+                assertEquals(name, expected, repository.getDuplicateBooksAcrossYears());
+                assertEquals(name, expected, new BookService(repository).getMultiYearBestsellerBooks());
+            }
+        } finally {
+            Files.deleteIfExists(snapshot);
+        }
+    }
+}
@@ -0,0 +1,95 @@
+package com.abhinavgpt.books;
+
+import com.abhinavgpt.utils.DatasetReader;
+import junit.framework.TestCase;
+
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.util.List;
+
+public class CachingBookRepositoryTest extends TestCase {
+
+    private List<Book> dataset;
+
+    @Override
+    protected void setUp() {
+        dataset = new DatasetReader().readBooksFromSource("data.csv");
+    }
+
+    public void testNormalizedLookupsShareAnEntry() {
+        BookRepositoryImpl source = new BookRepositoryImpl(dataset);
+        CachingBookRepository repository = new CachingBookRepository(source);
+
+        assertEquals(source.getBooksByAuthor("Jeff Kinney"), repository.getBooksByAuthor("Jeff Kinney"));
+        assertEquals(source.getBooksByAuthor("Jeff Kinney"), repository.getBooksByAuthor(" jeff kinney"));
+        assertEquals(source.getBooksAndPricesByAuthor("Jeff Kinney"), repository.getBooksAndPricesByAuthor("JEFF KINNEY "));
+        assertEquals(source.getBooksByRating(4.8), repository.getBooksByRating(4.8));
+        assertEquals(source.getBooksByRating(4.8), repository.getBooksByRating(4.8));
+        assertEquals(source.getBooksByRatingRange(4.55, 4.8), repository.getBooksByRatingRange(4.6, 4.8));
+
+        BoundedCache.CacheStats stats = repository.getCacheStats();
+        assertEquals(4, stats.misses());
+        assertEquals(2, stats.hits());
+        assertEquals(0, repository.getBookCountByAuthor("  "));
+    }
+
+    public void testHeldResultsAreNotCached() {
+        BookRepositoryImpl source = new BookRepositoryImpl(dataset);
+        CachingBookRepository repository = new CachingBookRepository(source);
+
+        assertEquals(source.getBookCountByAuthor("Jeff Kinney"), repository.getBookCountByAuthor("Jeff Kinney"));
+        assertSame(source.getAllAuthors(), repository.getAllAuthors());
+        assertSame(source.getAllUniqueBooks(), repository.getAllUniqueBooks());
+        assertSame(source.getAllBooksIncludingDuplicates(), repository.getAllBooksIncludingDuplicates());
+
+        BoundedCache.CacheStats stats = repository.getCacheStats();
+        assertEquals(0, stats.hits() + stats.misses());
+    }
+
+    public void testEveryRepositoryMethodIsForwarded() {
+        for (Method method : BookRepository.class.getMethods()) {
+            if (Modifier.isStatic(method.getModifiers())) continue;
+            try {
+                CachingBookRepository.class.getDeclaredMethod(method.getName(), method.getParameterTypes());
+            } catch (NoSuchMethodException e) {
+                fail(method.getName() + " falls through to the interface default");
+            }
+        }
+
+        BookRepositoryImpl source = new BookRepositoryImpl(dataset);
+        BookService service = new BookService(new CachingBookRepository(source));
+        assertEquals(source.getAllBooksByAuthorIncludingDuplicates("Jeff Kinney"),
+            service.getAllBooksIncludingDuplicatesByAuthor("jeff kinney"));
+        assertEquals(source.getAllBooksByRatingIncludingDuplicates(4.8), service.getAllBooksIncludingDuplicatesByRating(4.8));
+        assertEquals(source.getDuplicateBooksAcrossYears(), service.getMultiYearBestsellerBooks());
+        assertSame(source.getWorkTimelines(), service.getRepository().getWorkTimelines());
+    }
+
+    public void testCacheStaysWithinItsBoundAndCountsEvictions() {
+        CachingBookRepository repository = new CachingBookRepository(new BookRepositoryImpl(dataset), 32);
+
+        for (String author : repository.getAllAuthors()) {
+            repository.getBooksAndPricesByAuthor(author);
+        }
+
+        BoundedCache.CacheStats stats = repository.getCacheStats();
+        assertEquals(32, stats.size());
+        assertEquals(stats.misses() - stats.size(), stats.evictions());
+    }
+
+    public void testChangesToTheDelegateInvalidateCachedResults() {
+        ConcurrentBookRepository source = new ConcurrentBookRepository(dataset);
+        CachingBookRepository repository = new CachingBookRepository(source);
+        BookService service = new BookService(repository);
+        int kinneyBooks = repository.getBookCountByAuthor("Jeff Kinney");
+        int kinneyUnique = service.getUniqueBookTitlesByAuthor("Jeff Kinney").size();
+        assertEquals(kinneyBooks, (int) service.getMostProlificAuthorsWithBookCount(1).get("Jeff Kinney"));
+
+        source.addBook(new Book("Diary of a Wimpy Kid: Cache Miss", "Jeff Kinney", 4.8, 10, 5, 2021, "Fiction"));
+
+        assertEquals(kinneyBooks + 1, repository.getBookCountByAuthor("Jeff Kinney"));
+        assertEquals(kinneyUnique + 1, service.getUniqueBookTitlesByAuthor("jeff kinney").size());
+        assertEquals(kinneyBooks + 1, (int) service.getMostProlificAuthorsWithBookCount(1).get("Jeff Kinney"));
+        assertEquals("Diary of a Wimpy Kid: Cache Miss", service.searchBooks("cache miss", 1).get(0).title());
+    }
+}
@@ -0,0 +1,119 @@
+package com.abhinavgpt.books;
+
+import com.abhinavgpt.utils.DatasetReader;
+import com.abhinavgpt.utils.SyntheticDatasetGenerator;
+import junit.framework.TestCase;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+public class ColumnarBookRepositoryTest extends TestCase {
+
+    public void testAnswersLikeTheObjectRepositoryOnTheDataset() {
+        List<Book> dataset = new DatasetReader().readBooksFromSource("data.csv");
+        assertMatchesObjectRepository(dataset, new ColumnarBookRepository(dataset));
+        assertMatchesObjectRepository(dataset, ColumnarBookRepository.fromStream(dataset.stream()));
+    }
+
+    public void testAnswersLikeTheObjectRepositoryOnSyntheticData() {
+        List<Book> books = new ArrayList<>(new SyntheticDatasetGenerator(11).books(20_000).toList());
+        books.add(new Book("Mixed Case", "  Someone Else", 4.1, 1, 2, 2019, "Fiction"));
+        books.add(new Book("mixed case ", "someone else", 4.9, 3, 4, 2020, "Fiction"));
+        assertMatchesObjectRepository(books, ColumnarBookRepository.fromStream(books.stream()));
+    }
+
+    public void testLookupsOutsideTheDataAreEmpty() {
+        ColumnarBookRepository empty = new ColumnarBookRepository(null);
+        assertEquals(0, empty.getRowCount());
+        assertEquals(List.of(), empty.getAllUniqueBooks());
+        assertEquals(List.of(), empty.getAllAuthors());
+
+        ColumnarBookRepository repository = new ColumnarBookRepository(new DatasetReader().readBooksFromSource("data.csv"));
+        for (String author : new String[] {null, "", "   ", "Nobody At All"}) {
+            assertEquals(List.of(), repository.getBooksByAuthor(author));
+            assertEquals(List.of(), repository.getAllBooksByAuthorIncludingDuplicates(author));
+            assertEquals(0, repository.getBookCountByAuthor(author));
+            assertEquals(Map.of(), repository.getBooksAndPricesByAuthor(author));
+        }
+        for (double rating : new double[] {4.75, -0.1, 5.1, Double.NaN}) {
+            assertEquals(List.of(), repository.getBooksByRating(rating));
+            assertEquals(List.of(), repository.getAllBooksByRatingIncludingDuplicates(rating));
+        }
+        assertEquals(List.of(), repository.getBooksByRatingRange(4.8, 4.2));
+        assertEquals(List.of(), repository.getBooksByRatingRange(5.5, 9));
+    }
+
+    public void testMaterializedListsBehaveLikeImmutableLists() {
+        List<Book> dataset = new DatasetReader().readBooksFromSource("data.csv");
+        List<Book> rows = new ColumnarBookRepository(dataset).getAllBooksIncludingDuplicates();
+
+        assertTrue(rows instanceof LazyMaterializedList);
+        assertEquals(dataset, rows);
+        assertEquals(dataset.hashCode(), rows.hashCode());
+        assertEquals(dataset.subList(10, 20), rows.subList(10, 20));
+        assertEquals(dataset.get(dataset.size() - 1), rows.get(rows.size() - 1));
+        for (int index : new int[] {-1, rows.size()}) {
+            try {
+                rows.get(index);
+                fail("index " + index + " accepted");
+            } catch (IndexOutOfBoundsException expected) {
+                // rejected as intended
+            }
+        }
+        try {
+            rows.set(0, dataset.get(1));
+            fail("list is mutable");
+        } catch (UnsupportedOperationException expected) {
+            // rejected as intended
+        }
+    }
+
+    private static void assertMatchesObjectRepository(List<Book> books, ColumnarBookRepository actual) {
+        BookRepositoryImpl expected = new BookRepositoryImpl(books);
+
+        assertEquals(books.size(), actual.getRowCount());
+        assertEquals(expected.getAllBooksIncludingDuplicates(), actual.getAllBooksIncludingDuplicates());
+        assertEquals(expected.getAllUniqueBooks(), actual.getAllUniqueBooks());
+        assertEquals(expected.getAllAuthors(), actual.getAllAuthors());
+        for (String author : expected.getAllAuthors()) {
+            String messyAuthor = " " + author.toUpperCase() + " ";
+            assertEquals(author, expected.getBooksByAuthor(author), actual.getBooksByAuthor(messyAuthor));
+            assertEquals(author, expected.getUniqueBooksByAuthor(author), actual.getUniqueBooksByAuthor(author));
+            assertEquals(author, expected.getBookCountByAuthor(author), actual.getBookCountByAuthor(messyAuthor));
+            assertEquals(author, expected.getAllBooksByAuthorIncludingDuplicates(author),
+                actual.getAllBooksByAuthorIncludingDuplicates(author));
+            assertEquals(author, List.copyOf(expected.getBooksAndPricesByAuthor(author).entrySet()),
+                List.copyOf(actual.getBooksAndPricesByAuthor(author).entrySet()));
+        }
+        for (int tenths = 0; tenths <= 50; tenths++) {
+            double rating = tenths / 10.0;
+            assertEquals(expected.getBooksByRating(rating), actual.getBooksByRating(rating));
+            assertEquals(expected.getAllBooksByRatingIncludingDuplicates(rating),
+                actual.getAllBooksByRatingIncludingDuplicates(rating));
+        }
+        for (double[] range : new double[][] {{4.2, 4.8}, {0, 5}, {4.25, 4.75}, {-1, 3.3}, {4.9, 4.9}}) {
+            assertEquals(expected.getBooksByRatingRange(range[0], range[1]), actual.getBooksByRatingRange(range[0], range[1]));
+        }
+        assertEquals(List.copyOf(expected.getDuplicateBooksAcrossYears().entrySet()),
+            List.copyOf(actual.getDuplicateBooksAcrossYears().entrySet()));
+
+        WorkTimelines expectedTimelines = expected.getWorkTimelines();
+        WorkTimelines actualTimelines = actual.getWorkTimelines();
+        assertEquals(expectedTimelines.getWorkCount(), actualTimelines.getWorkCount());
+        assertEquals(expectedTimelines.getLongestRunningBestsellers(20), actualTimelines.getLongestRunningBestsellers(20));
+        assertEquals(expectedTimelines.getFastestGrowingBestsellers(20), actualTimelines.getFastestGrowingBestsellers(20));
+        assertEquals(expectedTimelines.getBiggestPriceChanges(20), actualTimelines.getBiggestPriceChanges(20));
+
+        Book sample = books.get(books.size() / 2);
+        for (BookQuery.Builder query : List.of(
+                BookQuery.builder(),
+                BookQuery.builder().genre("fiction").ratingBetween(4.25, 4.75).or().author(sample.author().toUpperCase()),
+                BookQuery.builder().yearBetween(sample.year() - 1, sample.year()).ratingAtLeast(4.8))) {
+            for (BookQuery.Order order : BookQuery.Order.values()) {
+                BookQuery built = query.orderBy(order).limit(25).build();
+                assertEquals(order.name(), expected.findBooks(built), actual.findBooks(built));
+            }
+        }
+    }
+}
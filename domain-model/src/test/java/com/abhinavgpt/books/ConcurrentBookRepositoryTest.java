@@ -0,0 +1,154 @@
+package com.abhinavgpt.books;
+
+import com.abhinavgpt.utils.DatasetReader;
+import junit.framework.TestCase;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+public class ConcurrentBookRepositoryTest extends TestCase {
+
+    private static final String TEST_AUTHOR = "Concurrency Test Author";
+
+    private List<Book> dataset;
+
+    @Override
+    protected void setUp() {
+        dataset = new DatasetReader().readBooksFromSource("data.csv");
+    }
+
+    public void testIncrementalEditsMatchARepositoryBuiltFromScratch() {
+        List<Book> expectedRows = new ArrayList<>(dataset.subList(0, dataset.size() / 2));
+        ConcurrentBookRepository repository = new ConcurrentBookRepository(expectedRows);
+
+        for (Book book : dataset.subList(dataset.size() / 2, dataset.size())) {
+            repository.addBook(book);
+            expectedRows.add(book);
+        }
+        for (int i = 0; i < dataset.size(); i += 7) {
+            Book book = dataset.get(i);
+            assertTrue(repository.removeBook(book));
+            expectedRows.remove(book);
+        }
+        for (int i = 3; i < expectedRows.size(); i += 11) {
+            Book existing = expectedRows.get(i);
+            Book replacement = new Book(existing.title(), existing.author(), 4.0, existing.reviewCount() + 1,
+                existing.price() + 1, 2021, existing.genre());
+            assertTrue(repository.updateBook(existing, replacement));
+            expectedRows.set(i, replacement);
+        }
+        assertFalse(repository.removeBook(new Book("Missing", "Nobody", 4.0, 1, 1, 2020, "Fiction")));
+
+        assertMatches(new BookRepositoryImpl(expectedRows), repository);
+        assertMatches(new BookRepositoryImpl(expectedRows), repository.snapshot());
+
+        List<Book> uniqueBooks = repository.getAllUniqueBooks();
+        assertSame(uniqueBooks, repository.getAllUniqueBooks());
+        assertSame(repository.getAllAuthors(), repository.getAllAuthors());
+        assertSame(repository.getBooksByRating(4.7), repository.getBooksByRating(4.7));
+        repository.addBook(new Book("Concurrency Test Book", TEST_AUTHOR, 4.7, 1, 1, 2020, "Fiction"));
+        assertEquals(uniqueBooks.size() + 1, repository.getAllUniqueBooks().size());
+    }
+
+    public void testReadersSeeConsistentStateWhileAWriterMutates() throws InterruptedException {
+        ConcurrentBookRepository repository = new ConcurrentBookRepository(dataset);
+        List<Book> batch = List.of(
+            new Book("Concurrency Test Book", TEST_AUTHOR, 4.5, 100, 10, 2018, "Fiction"),
+            new Book("Concurrency Test Book", TEST_AUTHOR, 4.6, 200, 12, 2019, "Fiction"),
+            new Book("Concurrency Test Book", TEST_AUTHOR, 4.7, 300, 14, 2020, "Fiction"));
+        Book priced = dataset.get(0);
+        Book repriced = new Book(priced.title(), priced.author(), priced.userRating(), priced.reviewCount(),
+            priced.price() + 1, priced.year(), priced.genre());
+
+        AtomicBoolean writing = new AtomicBoolean(true);
+        ConcurrentLinkedQueue<String> failures = new ConcurrentLinkedQueue<>();
+        int readerCount = 4;
+        CountDownLatch readersDone = new CountDownLatch(readerCount);
+        for (int reader = 0; reader < readerCount; reader++) {
+            new Thread(() -> {
+                try {
+                    while (writing.get()) {
+                        int count = repository.getBookCountByAuthor(TEST_AUTHOR);
+                        if (count < 0 || count > batch.size()) {
+                            failures.add("Unexpected author count " + count);
+                        }
+                        List<Book> unique = repository.getUniqueBooksByAuthor(TEST_AUTHOR);
+                        if (unique.size() > 1) {
+                            failures.add("Duplicate editions in unique view: " + unique);
+                        }
+                        long listed = repository.getAllUniqueBooks().stream()
+                            .filter(book -> book.author().equals(TEST_AUTHOR)).count();
+                        if (listed > 1) {
+                            failures.add("Work listed " + listed + " times in the unique books");
+                        }
+
+                        BookRepositoryImpl snapshot = repository.snapshot();
+                        int snapshotCount = snapshot.getBookCountByAuthor(TEST_AUTHOR);
+                        if (snapshot.getAllBooksIncludingDuplicates().size() != dataset.size() + snapshotCount) {
+                            failures.add("Snapshot row count does not add up");
+                        }
+                        if ((snapshotCount == 0) != snapshot.getUniqueBooksByAuthor(TEST_AUTHOR).isEmpty()) {
+                            failures.add("Snapshot author views disagree");
+                        }
+                    }
+                } catch (RuntimeException e) {
+                    failures.add(e.toString());
+                } finally {
+                    readersDone.countDown();
+                }
+            }).start();
+        }
+
+        for (int round = 0; round < 2_000; round++) {
+            repository.addBooks(batch);
+            repository.updateBook(priced, repriced);
+            for (Book book : batch) {
+                assertTrue(repository.removeBook(book));
+            }
+            repository.updateBook(repriced, priced);
+        }
+        writing.set(false);
+        assertTrue(readersDone.await(30, TimeUnit.SECONDS));
+
+        assertTrue(failures.toString(), failures.isEmpty());
+        assertEquals(2_000 * 6, repository.getDataVersion());
+        assertMatches(new BookRepositoryImpl(dataset), repository);
+    }
+
+    private static void assertMatches(BookRepository expected, BookRepository actual) {
+        assertEquals(expected.getAllBooksIncludingDuplicates(), actual.getAllBooksIncludingDuplicates());
+        assertEquals(expected.getAllUniqueBooks(), actual.getAllUniqueBooks());
+        assertEquals(expected.getAllAuthors(), actual.getAllAuthors());
+        for (String author : expected.getAllAuthors()) {
+            assertEquals(author, expected.getBooksByAuthor(author), actual.getBooksByAuthor(author));
+            assertEquals(author, expected.getBookCountByAuthor(author), actual.getBookCountByAuthor(author));
+            assertEquals(author, expected.getBooksAndPricesByAuthor(author), actual.getBooksAndPricesByAuthor(author));
+            assertEquals(author, expected.getAllBooksByAuthorIncludingDuplicates(author),
+                actual.getAllBooksByAuthorIncludingDuplicates(author));
+        }
+        for (int tenths = 0; tenths <= 50; tenths++) {
+            double rating = tenths / 10.0;
+            assertEquals(expected.getBooksByRating(rating), actual.getBooksByRating(rating));
+            assertEquals(expected.getAllBooksByRatingIncludingDuplicates(rating),
+                actual.getAllBooksByRatingIncludingDuplicates(rating));
+        }
+        assertEquals(expected.getDuplicateBooksAcrossYears(), actual.getDuplicateBooksAcrossYears());
+        assertEquals(expected.getBooksByRatingRange(4.2, 4.7), actual.getBooksByRatingRange(4.2, 4.7));
+
+        WorkTimelines expectedTimelines = expected.getWorkTimelines();
+        WorkTimelines actualTimelines = actual.getWorkTimelines();
+        assertEquals(expectedTimelines.getWorkCount(), actualTimelines.getWorkCount());
+        for (int workId = 0; workId < expectedTimelines.getWorkCount(); workId++) {
+            Book first = expectedTimelines.getEditions(workId).get(0);
+            assertEquals(expectedTimelines.getEditions(workId), actualTimelines.getEditions(workId));
+            assertEquals(expectedTimelines.getTrend(first.title(), first.author()),
+                actualTimelines.getTrend(first.title(), first.author()));
+        }
+        assertEquals(expectedTimelines.getLongestRunningBestsellers(10), actualTimelines.getLongestRunningBestsellers(10));
+        assertEquals(expectedTimelines.getBiggestPriceChanges(10), actualTimelines.getBiggestPriceChanges(10));
+    }
+}
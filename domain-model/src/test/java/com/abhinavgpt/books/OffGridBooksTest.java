@@ -0,0 +1,82 @@
+package com.abhinavgpt.books;
+
+import com.abhinavgpt.books.BookAggregation.Dimension;
+import com.abhinavgpt.books.BookAggregation.GroupKey;
+import junit.framework.TestCase;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+public class OffGridBooksTest extends TestCase {
+
+    private static final List<Book> BOOKS = List.of(
+        new Book("Half Step", "Some Author", 4.75, 100, 10, 2018, "Fiction"),
+        new Book("Full Step", "Some Author", 4.8, 200, 12, 2018, "Fiction"),
+        new Book("Half Step", "Some Author", 4.75, 150, 11, 2019, "Fiction"),
+        new Book("Half Step", "Some Author", 4.8, 160, 11, 2020, "Fiction"),
+        new Book("Sum", "Other Author", 0.1 + 0.2, 5, 1, 2015, "Non Fiction"),
+        new Book("Quarter", "Other Author", 4.25, 5, 1, 2015, "Non Fiction"),
+        new Book("Tenth", "Other Author", 0.3, 5, 1, 2016, "Non Fiction"));
+
+    public void testEveryRepositoryMatchesRatingsExactly() throws IOException {
+        assertExactRatings(new BookRepositoryImpl(BOOKS));
+        assertExactRatings(new ColumnarBookRepository(BOOKS));
+        assertExactRatings(new ConcurrentBookRepository(BOOKS));
+        assertExactRatings(new CachingBookRepository(new BookRepositoryImpl(BOOKS)));
+        assertExactRatings(PartitionedBookRepository.fromPartitions(List.of(BOOKS.subList(0, 2), BOOKS.subList(2, 7))));
+
+        Path snapshot = Files.createTempFile("books", ".snapshot");
+        try {
+            BookSnapshotWriter.write(new BookRepositoryImpl(BOOKS), snapshot);
+            SnapshotBookRepository snapshotRepository = SnapshotBookRepository.open(snapshot);
+            assertEquals(BOOKS, snapshotRepository.getAllBooksIncludingDuplicates());
+            assertExactRatings(snapshotRepository);
+        } finally {
+            Files.deleteIfExists(snapshot);
+        }
+    }
+
+    public void testQueriesTimelinesAndAggregatesUseExactRatings() {
+        BookRepositoryImpl repository = new BookRepositoryImpl(BOOKS);
+
+        assertEquals(List.of(BOOKS.get(0), BOOKS.get(2)),
+            repository.findBooks(BookQuery.builder().ratingBetween(4.7, 4.79).build()));
+        assertEquals(List.of(BOOKS.get(6)), repository.findBooks(BookQuery.builder().ratingBetween(0, 0.3).build()));
+        assertEquals(0.8 - 0.75, repository.getWorkTimelines().getTrend("Half Step", "Some Author").ratingChange(), 1e-12);
+        BookRepository columnar = new ColumnarBookRepository(BOOKS);
+        assertEquals(List.of(BOOKS.get(0), BOOKS.get(2)), columnar.findBooks(BookQuery.builder().ratingBetween(4.7, 4.79).build()));
+        assertEquals(List.of(BOOKS.get(1), BOOKS.get(3)),
+            columnar.findBooks(BookQuery.builder().ratingAtLeast(4.7).orderBy(BookQuery.Order.RATING_DESC).limit(2).build()));
+        assertEquals(0.8 - 0.75, columnar.getWorkTimelines().getTrend("Half Step", "Some Author").ratingChange(), 1e-12);
+
+        AggregateStats ratings = BookAggregator.aggregate(BOOKS, BookAggregation.builder().build()).getGroups().get(0).rating();
+        assertEquals(0.3, ratings.min());
+        assertEquals(4.8, ratings.max());
+        assertEquals(4.75, ratings.p50());
+        assertEquals(BOOKS.stream().mapToDouble(Book::userRating).sum(), ratings.sum(), 1e-9);
+
+        AggregationResult byRating = BookAggregator.aggregate(BOOKS, BookAggregation.builder().groupBy(Dimension.RATING).build());
+        assertEquals(4, byRating.getGroup(new GroupKey(null, null, null, 4.8)).count());
+        assertEquals(4.75, byRating.getGroup(new GroupKey(null, null, null, 4.8)).rating().min());
+    }
+
+    private static void assertExactRatings(BookRepository repository) {
+        String name = repository.getClass().getSimpleName();
+        assertEquals(name, List.of(BOOKS.get(2)), repository.getBooksByRating(4.75));
+        assertEquals(name, List.of(BOOKS.get(1), BOOKS.get(3)), repository.getBooksByRating(4.8));
+        assertEquals(name, List.of(BOOKS.get(4)), repository.getBooksByRating(0.1 + 0.2));
+        assertEquals(name, List.of(BOOKS.get(6)), repository.getBooksByRating(0.3));
+        assertEquals(name, List.of(), repository.getBooksByRating(4.7));
+        assertEquals(name, List.of(), repository.getBooksByRating(Double.NaN));
+        assertEquals(name, List.of(BOOKS.get(1), BOOKS.get(3), BOOKS.get(2), BOOKS.get(5)),
+            repository.getBooksByRatingRange(4.25, 4.8));
+        assertEquals(name, List.of(BOOKS.get(2)), repository.getBooksByRatingRange(4.71, 4.79));
+        assertEquals(name, List.of(BOOKS.get(4)), repository.getBooksByRatingRange(0.1 + 0.2, 1));
+        assertEquals(name, List.of(BOOKS.get(6)), repository.getBooksByRatingRange(0, 0.3));
+        if (!(repository instanceof SnapshotBookRepository)) {
+            assertEquals(name, List.of(BOOKS.get(0), BOOKS.get(2)), repository.getAllBooksByRatingIncludingDuplicates(4.75));
+        }
+    }
+}
@@ -0,0 +1,87 @@
+package com.abhinavgpt.books;
+
+import com.abhinavgpt.utils.DatasetReader;
+import junit.framework.TestCase;
+
+import java.util.ArrayList;
+import java.util.List;
+
+public class PaginationTest extends TestCase {
+
+    public void testCursorPagesConcatenateToTheFullResult() {
+        BookRepositoryImpl repository = new BookRepositoryImpl(new DatasetReader().readBooksFromSource("data.csv"));
+        BookService service = new BookService(repository);
+
+        assertEquals(service.getAllAuthorsInDataset(), readAllPages(service.getAllAuthorsInDatasetPaged(), 7));
+        assertEquals(service.getBooksRatedBetween(4.5, 4.8), readAllPages(service.getBooksRatedBetweenPaged(4.5, 4.8), 50));
+        assertEquals(service.classifyBooksByUserRating(4.7), readAllPages(service.classifyBooksByUserRatingPaged(4.7), 1));
+        assertEquals(List.copyOf(service.getMultiYearBestsellerBooks().entrySet()),
+            readAllPages(service.getMultiYearBestsellerBooksPaged(), 9));
+
+        PagedResult<Book> uniqueBooks = service.getAllUniqueBooksPaged();
+        List<Book> allUniqueBooks = repository.getAllUniqueBooks();
+        Page<Book> window = uniqueBooks.page(PageRequest.at(100, 25));
+        assertEquals(allUniqueBooks.subList(100, 125), window.items());
+        assertEquals(100, window.offset());
+        assertEquals(allUniqueBooks.subList(125, 135), uniqueBooks.page(PageRequest.after(window.nextCursor(), 10)).items());
+        assertEquals(allUniqueBooks.subList(100, 125), uniqueBooks.stream(PageRequest.at(100, 25)).toList());
+
+        Page<Book> pastTheEnd = uniqueBooks.page(PageRequest.at(allUniqueBooks.size(), 10));
+        assertEquals(List.of(), pastTheEnd.items());
+        assertFalse(pastTheEnd.hasNext());
+        assertFalse(uniqueBooks.page(PageRequest.at(allUniqueBooks.size() - 10, 10)).hasNext());
+    }
+
+    public void testCursorsAreTiedToTheirQueryAndDataVersion() {
+        ConcurrentBookRepository repository = new ConcurrentBookRepository(
+            new DatasetReader().readBooksFromSource("data.csv"));
+        Page<String> authors = repository.getAllAuthorsPaged().page(PageRequest.first(10));
+        assertTrue(authors.hasNext());
+
+        assertRejected(() -> repository.getAllUniqueBooksPaged().page(PageRequest.after(authors.nextCursor(), 10)));
+        assertRejected(() -> repository.getAllAuthorsPaged().page(PageRequest.after("not a cursor", 10)));
+        assertRejected(() -> PageRequest.first(-1));
+        assertRejected(() -> PageRequest.at(-1, 10));
+
+        repository.addBook(new Book("Pagination Test Title", "Pagination Test Author", 4.5, 10, 10, 2019, "Fiction"));
+        assertRejected(() -> repository.getAllAuthorsPaged().page(PageRequest.after(authors.nextCursor(), 10)));
+    }
+
+    public void testCursorsFromBeforeAReloadAreRejected() {
+        List<Book> books = new DatasetReader().readBooksFromSource("data.csv");
+        BookService service = new BookService(new BookRepositoryImpl(books));
+        Page<String> firstPage = service.getAllAuthorsInDatasetPaged().page(PageRequest.first(10));
+        Page<String> secondPage = service.getAllAuthorsInDatasetPaged().page(PageRequest.after(firstPage.nextCursor(), 10));
+        assertEquals(service.getAllAuthorsInDataset().subList(10, 20), secondPage.items());
+        Page<Book> ratedPage = service.getBooksRatedBetweenPaged(4.0, 5.0).page(PageRequest.first(10));
+
+        service.replaceRepository(new BookRepositoryImpl(books.subList(100, books.size())));
+        assertEquals(0, service.getRepository().getDataVersion());
+        assertRejected(() -> service.getAllAuthorsInDatasetPaged().page(PageRequest.after(secondPage.nextCursor(), 10)));
+        assertRejected(() -> service.getBooksRatedBetweenPaged(4.0, 5.0).stream(PageRequest.after(ratedPage.nextCursor(), 10)));
+        Page<String> restarted = service.getAllAuthorsInDatasetPaged().page(PageRequest.first(10));
+        assertEquals(service.getAllAuthorsInDataset().subList(10, 20),
+            service.getAllAuthorsInDatasetPaged().page(PageRequest.after(restarted.nextCursor(), 10)).items());
+    }
+
+    private static <T> List<T> readAllPages(PagedResult<T> result, int pageSize) {
+        List<T> items = new ArrayList<>();
+        Page<T> page = result.page(PageRequest.first(pageSize));
+        items.addAll(page.items());
+        while (page.hasNext()) {
+            assertEquals(pageSize, page.items().size());
+            page = result.page(PageRequest.after(page.nextCursor(), pageSize));
+            items.addAll(page.items());
+        }
+        return items;
+    }
+
+    private static void assertRejected(Runnable request) {
+        try {
+            request.run();
+            fail("request accepted");
+        } catch (IllegalArgumentException expected) {
+            // rejected as intended
+        }
+    }
+}
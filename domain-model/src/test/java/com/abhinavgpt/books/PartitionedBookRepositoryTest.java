@@ -0,0 +1,101 @@
+package com.abhinavgpt.books;
+
+import com.abhinavgpt.utils.DatasetReader;
+import junit.framework.TestCase;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.stream.Collectors;
+
+public class PartitionedBookRepositoryTest extends TestCase {
+
+    private List<Book> dataset;
+
+    @Override
+    protected void setUp() {
+        dataset = new DatasetReader().readBooksFromSource("data.csv");
+    }
+
+    public void testYearPartitionsAnswerLikeOneRepository() {
+        List<List<Book>> partitions = new ArrayList<>(dataset.stream()
+                .collect(Collectors.groupingBy(Book::year, TreeMap::new, Collectors.toList()))
+                .values());
+        assertMatchesSingleRepository(partitions);
+    }
+
+    public void testInterleavedPartitionsAnswerLikeOneRepository() {
+        List<List<Book>> partitions = List.of(new ArrayList<>(), new ArrayList<>(), new ArrayList<>());
+        for (int row = 0; row < dataset.size(); row++) {
+            partitions.get(row * 7 % 3).add(dataset.get(row));
+        }
+        assertMatchesSingleRepository(partitions);
+    }
+
+    public void testLoadsSourcesInParallelAndSkipsEmptyOnes() throws IOException {
+        String header = "Name,Author,User Rating,Reviews,Price,Year,Genre\n";
+        Path first = Files.createTempFile("books-2019", ".csv");
+        Path second = Files.createTempFile("books-2020", ".csv");
+        Path empty = Files.createTempFile("books-empty", ".csv");
+        try {
+            Files.writeString(first, header + "Same Book,Same Author,4.5,100,10,2019,Fiction\n", StandardCharsets.UTF_8);
+            Files.writeString(second, header + "same book ,SAME AUTHOR,4.6,200,12,2020,Fiction\n", StandardCharsets.UTF_8);
+            Files.writeString(empty, header, StandardCharsets.UTF_8);
+
+            PartitionedBookRepository repository = PartitionedBookRepository.load(
+                List.of(first.toString(), empty.toString(), second.toString()), new DatasetReader());
+
+            assertEquals(2, repository.getPartitionCount());
+            assertEquals(2, repository.getBookCountByAuthor("same author"));
+            List<Book> unique = repository.getAllUniqueBooks();
+            assertEquals(1, unique.size());
+            assertEquals(2020, unique.get(0).year());
+            assertEquals(List.of("SAME AUTHOR", "Same Author"), repository.getAllAuthors());
+        } finally {
+            Files.deleteIfExists(first);
+            Files.deleteIfExists(second);
+            Files.deleteIfExists(empty);
+        }
+    }
+
+    private static void assertMatchesSingleRepository(List<List<Book>> partitions) {
+        List<Book> concatenated = partitions.stream().flatMap(List::stream).toList();
+        BookRepositoryImpl expected = new BookRepositoryImpl(concatenated);
+        PartitionedBookRepository actual = PartitionedBookRepository.fromPartitions(partitions);
+
+        assertEquals(expected.getAllBooksIncludingDuplicates(), actual.getAllBooksIncludingDuplicates());
+        assertEquals(expected.getAllUniqueBooks(), actual.getAllUniqueBooks());
+        assertEquals(expected.getAllAuthors(), actual.getAllAuthors());
+        for (String author : expected.getAllAuthors()) {
+            assertEquals(expected.getBooksByAuthor(author), actual.getBooksByAuthor(author));
+            assertEquals(expected.getBookCountByAuthor(author), actual.getBookCountByAuthor(author));
+            assertEquals(expected.getAllBooksByAuthorIncludingDuplicates(author), actual.getAllBooksByAuthorIncludingDuplicates(author));
+            Map<String, Integer> expectedPrices = expected.getBooksAndPricesByAuthor(author);
+            assertEquals(List.copyOf(expectedPrices.entrySet()), List.copyOf(actual.getBooksAndPricesByAuthor(author).entrySet()));
+        }
+        for (int tenths = 0; tenths <= 50; tenths++) {
+            assertEquals(expected.getBooksByRating(tenths / 10.0), actual.getBooksByRating(tenths / 10.0));
+            assertEquals(expected.getAllBooksByRatingIncludingDuplicates(tenths / 10.0),
+                actual.getAllBooksByRatingIncludingDuplicates(tenths / 10.0));
+        }
+        assertEquals(expected.getBooksByRatingRange(4.2, 4.8), actual.getBooksByRatingRange(4.2, 4.8));
+        assertEquals(List.copyOf(expected.getDuplicateBooksAcrossYears().entrySet()),
+            List.copyOf(actual.getDuplicateBooksAcrossYears().entrySet()));
+
+        List<BookQuery> queries = List.of(
+            BookQuery.builder().year(2012).build(),
+            BookQuery.builder().genre("fiction").yearBetween(2014, 2016).orderBy(BookQuery.Order.REVIEWS_DESC).limit(7).build(),
+            BookQuery.builder().ratingAtLeast(4.8).orderBy(BookQuery.Order.PRICE_ASC).build(),
+            BookQuery.builder().author("jeff kinney").or().year(2009).genre("Non Fiction").limit(5).build(),
+            BookQuery.builder().orderBy(BookQuery.Order.YEAR_DESC).limit(20).build(),
+            BookQuery.builder().year(1990).build());
+        for (BookQuery query : queries) {
+            assertEquals(expected.findBooks(query), actual.findBooks(query));
+        }
+    }
+}
@@ -0,0 +1,113 @@
+package com.abhinavgpt.books;
+
+import com.abhinavgpt.utils.DatasetReader;
+import junit.framework.TestCase;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+import java.util.stream.Stream;
+
+public class SnapshotBookRepositoryTest extends TestCase {
+
+    private BookRepositoryImpl repository;
+    private Path snapshot;
+
+    @Override
+    protected void setUp() throws IOException {
+        repository = new BookRepositoryImpl(new DatasetReader().readBooksFromSource("data.csv"));
+        snapshot = Files.createTempFile("books", ".snapshot");
+        BookSnapshotWriter.write(repository, snapshot);
+    }
+
+    @Override
+    protected void tearDown() throws IOException {
+        Files.deleteIfExists(snapshot);
+    }
+
+    public void testSnapshotAnswersQueriesLikeTheSourceRepository() throws IOException {
+        SnapshotBookRepository snapshotRepository = SnapshotBookRepository.open(snapshot);
+
+        assertEquals(repository.getAllBooksIncludingDuplicates(), snapshotRepository.getAllBooksIncludingDuplicates());
+        assertEquals(repository.getAllUniqueBooks(), snapshotRepository.getAllUniqueBooks());
+        assertEquals(repository.getAllAuthors(), snapshotRepository.getAllAuthors());
+
+        for (String author : repository.getAllAuthors()) {
+            String lookup = " " + author.toUpperCase() + " ";
+            assertEquals(author, repository.getBooksByAuthor(author), snapshotRepository.getBooksByAuthor(lookup));
+            assertEquals(author, repository.getBookCountByAuthor(author), snapshotRepository.getBookCountByAuthor(lookup));
+            assertEquals(author, repository.getBooksAndPricesByAuthor(author), snapshotRepository.getBooksAndPricesByAuthor(lookup));
+        }
+        for (int tenths = 0; tenths <= 50; tenths++) {
+            double rating = tenths / 10.0;
+            assertEquals(repository.getBooksByRating(rating), snapshotRepository.getBooksByRating(rating));
+        }
+        assertEquals(0, snapshotRepository.getBookCountByAuthor("NonExistentAuthor"));
+        assertTrue(snapshotRepository.getBooksByRating(4.75).isEmpty());
+    }
+
+    public void testSnapshotDerivesTimelinesAndQueriesLikeTheSourceRepository() throws IOException {
+        SnapshotBookRepository snapshotRepository = SnapshotBookRepository.open(snapshot);
+
+        assertEquals(List.copyOf(repository.getDuplicateBooksAcrossYears().entrySet()),
+            List.copyOf(snapshotRepository.getDuplicateBooksAcrossYears().entrySet()));
+        WorkTimelines expected = repository.getWorkTimelines();
+        WorkTimelines actual = snapshotRepository.getWorkTimelines();
+        assertSame(actual, snapshotRepository.getWorkTimelines());
+        assertEquals(expected.getWorkCount(), actual.getWorkCount());
+        assertEquals(expected.getLongestRunningBestsellers(20), actual.getLongestRunningBestsellers(20));
+        assertEquals(expected.getFastestGrowingBestsellers(20), actual.getFastestGrowingBestsellers(20));
+        assertEquals(expected.getBiggestPriceChanges(20), actual.getBiggestPriceChanges(20));
+
+        for (BookQuery.Builder query : List.of(
+                BookQuery.builder(),
+                BookQuery.builder().genre("Fiction").ratingBetween(4.5, 4.8).or().author("SUZANNE COLLINS"),
+                BookQuery.builder().yearBetween(2012, 2014).ratingAtLeast(4.8))) {
+            for (BookQuery.Order order : BookQuery.Order.values()) {
+                BookQuery built = query.orderBy(order).limit(25).build();
+                assertEquals(order.name(), repository.findBooks(built), snapshotRepository.findBooks(built));
+            }
+        }
+    }
+
+    public void testCorruptedSnapshotIsRejected() throws IOException {
+        try (FileChannel channel = FileChannel.open(snapshot, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            ByteBuffer lastByte = ByteBuffer.allocate(1);
+            channel.read(lastByte, channel.size() - 1);
+            lastByte.put(0, (byte) ~lastByte.get(0));
+            lastByte.rewind();
+            channel.write(lastByte, channel.size() - 1);
+        }
+
+        try {
+            SnapshotBookRepository.open(snapshot);
+            fail("Expected the checksum mismatch to be detected");
+        } catch (IOException expected) {
+            assertTrue(expected.getMessage().contains("checksum"));
+        }
+    }
+
+    public void testCorruptedHeaderIsRejected() throws IOException {
+        try (FileChannel channel = FileChannel.open(snapshot, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            channel.write(ByteBuffer.allocate(Integer.BYTES).putInt(0, 549), 8);
+        }
+
+        try {
+            SnapshotBookRepository.open(snapshot);
+            fail("Expected the changed row count to be detected");
+        } catch (IOException expected) {
+            assertTrue(expected.getMessage().contains("checksum"));
+        }
+    }
+
+    public void testWritingLeavesOnlyTheSnapshotBehind() throws IOException {
+        try (Stream<Path> files = Files.list(snapshot.getParent())) {
+            String prefix = snapshot.getFileName().toString();
+            assertEquals(List.of(snapshot), files.filter(file -> file.getFileName().toString().startsWith(prefix)).toList());
+        }
+    }
+}
@@ -0,0 +1,89 @@
+package com.abhinavgpt.books;
+
+import com.abhinavgpt.utils.DatasetReader;
+import junit.framework.TestCase;
+
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+public class WorkTimelinesTest extends TestCase {
+
+    public void testTimelinesMatchRegroupingTheDataset() {
+        List<Book> books = new DatasetReader().readBooksFromSource("data.csv");
+        BookRepositoryImpl repository = new BookRepositoryImpl(books);
+        WorkTimelines timelines = repository.getWorkTimelines();
+
+        Map<String, List<Book>> entriesByWork = books.stream().collect(Collectors.groupingBy(
+            book -> book.title().toLowerCase().trim() + "|" + book.author().toLowerCase().trim(),
+            LinkedHashMap::new, Collectors.toList()));
+        assertEquals(entriesByWork.size(), timelines.getWorkCount());
+        assertEquals(entriesByWork.entrySet().stream()
+                .filter(entry -> entry.getValue().size() > 1)
+                .collect(Collectors.toMap(Map.Entry::getKey, Map.Entry::getValue)),
+            repository.getDuplicateBooksAcrossYears());
+
+        Map<BookRepositoryImpl.WorkKey, Book> newestEditions = new LinkedHashMap<>();
+        books.forEach(book -> newestEditions.merge(BookRepositoryImpl.WorkKey.of(book), book, BookRepositoryImpl::newerEdition));
+        assertEquals(List.copyOf(newestEditions.values()), repository.getAllUniqueBooks());
+
+        for (List<Book> entries : entriesByWork.values()) {
+            Book first = entries.get(0);
+            List<Integer> years = entries.stream().map(Book::year).distinct().sorted().toList();
+            Book earliest = entries.stream().min(Comparator.comparingInt(Book::year)).orElseThrow();
+            Book latest = newestEditions.get(BookRepositoryImpl.WorkKey.of(first));
+
+            WorkTimelines.WorkTrend trend = timelines.getTrend(first.title().toUpperCase(), " " + first.author());
+            assertEquals(years, timelines.getYearsOnList(first.title(), first.author()));
+            assertEquals(first.title(), trend.title());
+            assertEquals(years.size(), trend.yearsOnList());
+            assertEquals(earliest.year(), trend.firstYear());
+            assertEquals(latest.year(), trend.lastYear());
+            assertEquals(latest.reviewCount() - earliest.reviewCount(), trend.reviewGrowth());
+            assertEquals(latest.price() - earliest.price(), trend.priceChange());
+            assertEquals(entries, timelines.getEditions(trend.workId()));
+        }
+
+        List<WorkTimelines.WorkTrend> longestRunning = timelines.getLongestRunningBestsellers(5);
+        assertEquals(10, longestRunning.get(0).yearsOnList());
+        assertTrue(longestRunning.stream().map(WorkTimelines.WorkTrend::title)
+            .anyMatch("Publication Manual of the American Psychological Association, 6th Edition"::equals));
+        for (int i = 1; i < longestRunning.size(); i++) {
+            WorkTimelines.WorkTrend previous = longestRunning.get(i - 1);
+            WorkTimelines.WorkTrend current = longestRunning.get(i);
+            assertTrue(previous.yearsOnList() > current.yearsOnList()
+                || previous.yearsOnList() == current.yearsOnList() && previous.reviewGrowth() >= current.reviewGrowth());
+        }
+    }
+
+    public void testRankingsAndUnknownWorks() {
+        WorkTimelines timelines = WorkTimelines.fromBooks(List.of(
+            new Book("Steady", "Author", 4.5, 100, 10, 2010, "Fiction"),
+            new Book("Riser", "Author", 4.2, 50, 20, 2012, "Fiction"),
+            new Book("Steady", "Author", 4.6, 300, 10, 2011, "Fiction"),
+            new Book("Riser", "Author", 4.7, 5050, 8, 2013, "Fiction"),
+            new Book("Steady", "Author", 4.6, 400, 12, 2012, "Fiction"),
+            new Book("Once", "Author", 4.9, 90000, 99, 2019, "Fiction")));
+
+        assertEquals(List.of("Steady", "Riser", "Once"), timelines.getLongestRunningBestsellers(10).stream()
+            .map(WorkTimelines.WorkTrend::title).toList());
+        assertEquals(List.of("Riser", "Steady"), timelines.getFastestGrowingBestsellers(10).stream()
+            .map(WorkTimelines.WorkTrend::title).toList());
+        assertEquals(5000, timelines.getFastestGrowingBestsellers(1).get(0).reviewGrowth());
+        assertEquals(-12, timelines.getBiggestPriceChanges(1).get(0).priceChange());
+        assertEquals(0.5, timelines.getTrend("riser", "author").ratingChange(), 1e-9);
+        assertEquals(List.of(), timelines.getBiggestPriceChanges(0));
+
+        assertEquals(-1, timelines.getWorkId("Missing", "Author"));
+        assertNull(timelines.getTrend("Missing", "Author"));
+        assertEquals(List.of(), timelines.getYearsOnList(null, "Author"));
+        try {
+            timelines.getLongestRunningBestsellers(-1);
+            fail("negative limit accepted");
+        } catch (IllegalArgumentException expected) {
+            assertEquals("Limit cannot be negative", expected.getMessage());
+        }
+    }
+}
@@ -0,0 +1,141 @@
+package com.abhinavgpt.export;
+
+import com.abhinavgpt.books.Book;
+import com.abhinavgpt.books.BookRepositoryImpl;
+import com.abhinavgpt.books.BookService;
+import com.abhinavgpt.books.PageRequest;
+import com.abhinavgpt.utils.DatasetReader;
+import com.abhinavgpt.utils.JsonWriter;
+import com.abhinavgpt.utils.SyntheticDatasetGenerator;
+import junit.framework.TestCase;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.StringWriter;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.zip.GZIPInputStream;
+
+public class BookExporterTest extends TestCase {
+
+    private static final List<Book> AWKWARD_BOOKS = List.of(
+        new Book("Quote \"and\", comma", "Back\\slash\tTab", 4.25, 1, 2, 2019, "Fiction"),
+        new Book("Line\nbreak \u0001 control", "Zoë 中文 📚", 0.0, 0, 0, 1900, "Non Fiction"));
+
+    public void testEveryFormatRoundTripsPlainAndGzipped() throws IOException {
+        List<Book> books = new ArrayList<>(new SyntheticDatasetGenerator(5).books(60_000).toList());
+        Path target = Files.createTempFile("export", ".csv");
+        try {
+            for (boolean gzip : new boolean[] {false, true}) {
+                BookExporter csv = new BookExporter(ExportFormat.CSV, gzip);
+                assertEquals(books.size(), csv.export(books, target));
+                assertEquals(books, new DatasetReader().readBooksFromSource(decompressedCopy(target, gzip).toString()));
+
+                BookExporter binary = new BookExporter(ExportFormat.BINARY, gzip);
+                List<Book> withAwkwardBooks = new ArrayList<>(books);
+                withAwkwardBooks.addAll(AWKWARD_BOOKS);
+                assertEquals(withAwkwardBooks.size(), binary.export(withAwkwardBooks.stream(), target));
+                assertEquals(withAwkwardBooks, BinaryExportReader.read(target));
+            }
+        } finally {
+            Files.deleteIfExists(target);
+            Files.deleteIfExists(decompressedCopyOf(target));
+        }
+    }
+
+    public void testJsonLinesMatchTheServerEncoding() throws IOException {
+        List<Book> books = new ArrayList<>(new DatasetReader().readBooksFromSource("data.csv"));
+        books.addAll(AWKWARD_BOOKS);
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        assertEquals(books.size(), new BookExporter(ExportFormat.JSON_LINES, false).export(books, out));
+
+        StringWriter expected = new StringWriter();
+        for (Book book : books) {
+            JsonWriter json = new JsonWriter(expected);
+            json.beginObject()
+                .name("title").value(book.title())
+                .name("author").value(book.author())
+                .name("userRating").value(book.userRating())
+                .name("reviews").value(book.reviewCount())
+                .name("price").value(book.price())
+                .name("year").value(book.year())
+                .name("genre").value(book.genre())
+                .endObject();
+            expected.write('\n');
+        }
+        assertEquals(expected.toString(), out.toString(StandardCharsets.UTF_8));
+
+        boolean[] closed = {false};
+        ByteArrayOutputStream gzipped = new ByteArrayOutputStream() {
+            @Override
+            public void close() {
+                closed[0] = true;
+            }
+        };
+        new BookExporter(ExportFormat.JSON_LINES, true).export(books.stream(), gzipped);
+        assertFalse("caller's stream was closed", closed[0]);
+        try (InputStream in = new GZIPInputStream(new ByteArrayInputStream(gzipped.toByteArray()))) {
+            assertEquals(expected.toString(), new String(in.readAllBytes(), StandardCharsets.UTF_8));
+        }
+    }
+
+    public void testServiceResultsAndFormatsByFileName() throws IOException {
+        BookService service = new BookService(new BookRepositoryImpl(new DatasetReader().readBooksFromSource("data.csv")));
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        BookExporter binary = new BookExporter(ExportFormat.BINARY, false);
+        assertEquals(20, binary.export(service.getAllUniqueBooksPaged().stream(PageRequest.at(40, 20)), out));
+        List<Book> exported = new ArrayList<>();
+        BinaryExportReader.forEach(new ByteArrayInputStream(out.toByteArray()), exported::add);
+        assertEquals(service.getAllUniqueBooksPaged().page(PageRequest.at(40, 20)).items(), exported);
+
+        assertEquals(ExportFormat.JSON_LINES, BookExporter.forFile(Path.of("out", "books.JSONL.gz")).getFormat());
+        assertTrue(BookExporter.forFile(Path.of("books.jsonl.gz")).isGzip());
+        assertEquals(ExportFormat.BINARY, ExportFormat.forFile(Path.of("books.bkx")));
+        assertFalse(BookExporter.forFile(Path.of("books.csv")).isGzip());
+        try {
+            ExportFormat.forFile(Path.of("books.txt"));
+            fail("unknown extension accepted");
+        } catch (IllegalArgumentException expected) {
+            assertTrue(expected.getMessage().startsWith("Unknown export format"));
+        }
+
+        byte[] truncated = new byte[out.size() - 3];
+        System.arraycopy(out.toByteArray(), 0, truncated, 0, truncated.length);
+        try {
+            BinaryExportReader.forEach(new ByteArrayInputStream(truncated), book -> { });
+            fail("truncated export accepted");
+        } catch (IOException expected) {
+            // rejected as intended
+        }
+
+        byte[] olderVersion = out.toByteArray().clone();
+        olderVersion[7] = 1;
+        try {
+            BinaryExportReader.forEach(new ByteArrayInputStream(olderVersion), book -> { });
+            fail("version 1 export accepted");
+        } catch (IOException expected) {
+            assertEquals("Unsupported binary book export version 1", expected.getMessage());
+        }
+    }
+
+    private static Path decompressedCopy(Path export, boolean gzip) throws IOException {
+        if (!gzip) {
+            return export;
+        }
+        Path copy = decompressedCopyOf(export);
+        try (InputStream in = new GZIPInputStream(Files.newInputStream(export))) {
+            Files.copy(in, copy, StandardCopyOption.REPLACE_EXISTING);
+        }
+        return copy;
+    }
+
+    private static Path decompressedCopyOf(Path export) {
+        return export.resolveSibling("decompressed-" + export.getFileName());
+    }
+}
@@ -0,0 +1,113 @@
+package com.abhinavgpt.metrics;
+
+import com.abhinavgpt.books.BookRepository;
+import com.abhinavgpt.books.BookRepositoryImpl;
+import com.abhinavgpt.books.BookService;
+import junit.framework.TestCase;
+
+import java.io.IOException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+public class MetricsRegistryTest extends TestCase {
+
+    public void testHistogramPercentilesStayWithinBucketPrecision() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        for (long nanos = 1; nanos <= 100_000; nanos++) {
+            histogram.record(nanos * 1_000);
+        }
+
+        LatencyHistogram.Snapshot snapshot = histogram.snapshot();
+        assertEquals(100_000, snapshot.count());
+        assertEquals(100_000_000L, snapshot.maxNanos());
+        assertEquals(50_000_000.0, snapshot.p50Nanos(), 50_000_000 * 0.04);
+        assertEquals(99_000_000.0, snapshot.p99Nanos(), 99_000_000 * 0.04);
+        assertEquals(50_000_500L, snapshot.meanNanos());
+        for (long value = 0; value < 1L << 40; value = value * 3 + 1) {
+            int index = LatencyHistogram.bucketIndex(value);
+            assertTrue(value <= LatencyHistogram.bucketUpperBound(index));
+            assertTrue(index == 0 || value > LatencyHistogram.bucketUpperBound(index - 1));
+        }
+    }
+
+    public void testServiceRecordsRepositoryCallsAndIndexBuilds() {
+        MetricsRegistry metrics = new MetricsRegistry();
+        BookRepositoryImpl repository = BookRepositoryImpl.fromStream(
+            InstrumentedDataReader.csv(metrics).streamBooksFromSource("data.csv"));
+        BookService service = new BookService(repository, metrics);
+
+        int kinneyBooks = service.getTotalBookCountByAuthor("Jeff Kinney");
+        service.getTotalBookCountByAuthor("Suzanne Collins");
+        int matches = service.searchBooks("hunger games", 5).size();
+        service.searchBooks("wimpy", 5);
+
+        MetricsSnapshot snapshot = service.getMetricsSnapshot();
+        assertEquals(12, kinneyBooks);
+        assertEquals(2, snapshot.operations().get("repository.getBookCountByAuthor").calls());
+        assertEquals(2, snapshot.operations().get("service.searchBooks").calls());
+        assertTrue(snapshot.operations().get("service.searchBooks").totalResultSize() >= matches);
+        assertEquals(1, snapshot.operations().get("index.search").calls());
+        assertEquals(550L, (long) snapshot.counters().get("reader.rows"));
+        assertEquals(0L, (long) snapshot.counters().get("reader.rejectedRows"));
+        assertTrue(snapshot.toJson().contains("\"service.searchBooks\":{\"calls\":2,"));
+        assertTrue(snapshot.toText().contains("repository.getBookCountByAuthor"));
+    }
+
+    public void testEveryRepositoryMethodIsForwardedAndTimed() {
+        for (Method method : BookRepository.class.getMethods()) {
+            if (Modifier.isStatic(method.getModifiers())) continue;
+            try {
+                InstrumentedBookRepository.class.getDeclaredMethod(method.getName(), method.getParameterTypes());
+            } catch (NoSuchMethodException e) {
+                fail(method.getName() + " falls through to the interface default");
+            }
+        }
+
+        MetricsRegistry metrics = new MetricsRegistry();
+        BookRepositoryImpl repository = new BookRepositoryImpl(InstrumentedDataReader.csv(metrics).readBooksFromSource("data.csv"));
+        BookService service = new BookService(repository, metrics);
+        assertEquals(repository.getAllBooksByAuthorIncludingDuplicates("Jeff Kinney"),
+            service.getAllBooksIncludingDuplicatesByAuthor("Jeff Kinney"));
+        assertEquals(repository.getAllBooksByRatingIncludingDuplicates(4.8), service.getAllBooksIncludingDuplicatesByRating(4.8));
+        service.getMultiYearBestsellerBooksPaged();
+
+        MetricsSnapshot snapshot = service.getMetricsSnapshot();
+        assertEquals(1, snapshot.operations().get("repository.getAllBooksByAuthorIncludingDuplicates").calls());
+        assertEquals(1, snapshot.operations().get("repository.getAllBooksByRatingIncludingDuplicates").calls());
+        assertEquals(1, snapshot.operations().get("repository.getDuplicateBooksAcrossYearsPaged").calls());
+    }
+
+    public void testRejectedRowsAreCounted() throws IOException {
+        Path dataset = Files.createTempFile("books", ".csv");
+        try {
+            Files.writeString(dataset, "Name,Author,User Rating,Reviews,Price,Year,Genre\n"
+                + "Good Book,Some Author,4.5,100,10,2019,Fiction\n"
+                + "Broken Row,Some Author\n"
+                + "\n"
+                + "Another Good Book,Some Author,4.1,50,12,2020,Fiction\n", StandardCharsets.UTF_8);
+            MetricsRegistry metrics = new MetricsRegistry();
+
+            assertEquals(2, InstrumentedDataReader.csv(metrics).readBooksFromSource(dataset.toString()).size());
+            assertEquals(2, InstrumentedDataReader.mapped(metrics).readBooksFromSource(dataset.toString()).size());
+            assertEquals(2L, (long) metrics.snapshot().counters().get("reader.rejectedRows"));
+            assertEquals(2, metrics.snapshot().operations().get("reader.readBooksFromSource").calls());
+        } finally {
+            Files.deleteIfExists(dataset);
+        }
+    }
+
+    public void testDisabledRegistryRecordsNothing() {
+        MetricsRegistry metrics = MetricsRegistry.disabled();
+        BookService service = new BookService(new BookRepositoryImpl(
+            InstrumentedDataReader.csv(metrics).readBooksFromSource("data.csv")), metrics);
+        service.getMostProlificAuthorsWithBookCount(5);
+
+        assertFalse(metrics.isEnabled());
+        assertSame(metrics.operation("service.searchBooks"), metrics.operation("repository.getAllAuthors"));
+        assertTrue(service.getMetricsSnapshot().operations().isEmpty());
+        assertTrue(service.getMetricsSnapshot().counters().isEmpty());
+    }
+}
@@ -0,0 +1,68 @@
+package com.abhinavgpt.server;
+
+import com.abhinavgpt.books.BookRepositoryImpl;
+import com.abhinavgpt.books.BookService;
+import com.abhinavgpt.utils.DatasetReader;
+import junit.framework.TestCase;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+
+public class BookQueryServerTest extends TestCase {
+
+    private BookQueryServer server;
+    private HttpClient client;
+
+    @Override
+    protected void setUp() throws IOException {
+        BookService service = new BookService(new BookRepositoryImpl(new DatasetReader().readBooksFromSource("data.csv")));
+        server = BookQueryServer.start(service, 0);
+        client = HttpClient.newBuilder().version(HttpClient.Version.HTTP_1_1).build();
+    }
+
+    @Override
+    protected void tearDown() {
+        server.close();
+    }
+
+    public void testEndpointsStreamJson() throws Exception {
+        assertEquals("{\"author\":\" jeff kinney\",\"bookCount\":12}",
+            get("/authors/count?author=%20jeff%20kinney").body());
+        assertEquals("[{\"author\":\"Jeff Kinney\",\"bookCount\":12}]", get("/top-authors?limit=1").body());
+
+        String books = get("/ratings?rating=3.3").body();
+        assertTrue(books, books.startsWith("[{\"title\":\""));
+        assertTrue(books, books.contains("\"userRating\":3.3"));
+
+        HttpResponse<String> allAuthors = get("/authors");
+        assertEquals(200, allAuthors.statusCode());
+        assertEquals("application/json; charset=utf-8", allAuthors.headers().firstValue("Content-Type").orElse(""));
+        assertTrue(allAuthors.body().contains("\"Suzanne Collins\""));
+        assertTrue(get("/metrics").body().startsWith("{\"capturedAt\":"));
+        assertTrue(get("/aggregate?by=genre,year").body().startsWith("[{\"genre\":\"Fiction\",\"year\":2009,\"count\":"));
+
+        String kinneyBooks = get("/authors/books?author=JEFF%20KINNEY").body();
+        assertTrue(kinneyBooks, kinneyBooks.startsWith("[{\"title\":\"Cabin Fever (Diary of a Wimpy Kid, Book 6)\""));
+        assertEquals(get("/top-authors?limit=" + BookQueryServer.MAX_LIMIT).body(),
+            get("/top-authors?limit=" + Integer.MAX_VALUE).body());
+    }
+
+    public void testBadRequestsAreRejectedBeforeStreaming() throws Exception {
+        HttpResponse<String> missing = get("/authors/count");
+        assertEquals(400, missing.statusCode());
+        assertEquals("{\"error\":\"Missing required parameter: author\"}", missing.body());
+
+        assertEquals(400, get("/ratings?rating=high").statusCode());
+        assertEquals(400, get("/top-authors?limit=-1").statusCode());
+        assertEquals(404, get("/authors/unknown").statusCode());
+        assertEquals(400, get("/aggregate?by=publisher").statusCode());
+    }
+
+    private HttpResponse<String> get(String path) throws IOException, InterruptedException {
+        HttpRequest request = HttpRequest.newBuilder(URI.create("http://localhost:" + server.getPort() + path)).build();
+        return client.send(request, HttpResponse.BodyHandlers.ofString());
+    }
+}
@@ -0,0 +1,144 @@
+package com.abhinavgpt.utils;
+
+import com.abhinavgpt.books.Book;
+import junit.framework.TestCase;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Checks the hand-written tokenizer against the regex-based parser it replaced.
+ */
+public class CsvTokenizerTest extends TestCase {
+
+    private static final String LEGACY_SPLIT_PATTERN = ",(?=(?:[^\"]*\"[^\"]*\")*[^\"]*$)";
+
+    public void testParityWithLegacyParserOnBundledDataset() throws IOException {
+        List<String> lines = Files.readAllLines(Path.of("data.csv"));
+        try (CsvTokenizer tokenizer = new CsvTokenizer(Files.newBufferedReader(Path.of("data.csv")))) {
+            for (String line : lines) {
+                assertTrue(tokenizer.nextRecord());
+                String[] legacyFields = line.split(LEGACY_SPLIT_PATTERN, -1);
+                assertEquals(line, legacyFields.length, tokenizer.fieldCount());
+
+                for (int i = 0; i < legacyFields.length; i++) {
+                    String expected = legacyCleanString(legacyFields[i]).replace("\"\"", "\"");
+                    assertEquals(line, expected, tokenizer.field(i));
+                    assertEquals(line, legacyParseInt(legacyFields[i]), tokenizer.fieldAsInt(i));
+                    assertEquals(line, legacyParseDouble(legacyFields[i]), tokenizer.fieldAsDouble(i), 0.0);
+                }
+            }
+            assertFalse(tokenizer.nextRecord());
+        }
+    }
+
+    public void testDatasetReaderLoadsSameBooksAsLegacyParser() throws IOException {
+        List<String> lines = Files.readAllLines(Path.of("data.csv"));
+        List<Book> legacyBooks = new ArrayList<>();
+        for (String line : lines.subList(1, lines.size())) {
+            String[] fields = line.split(LEGACY_SPLIT_PATTERN, -1);
+            legacyBooks.add(new Book(
+                legacyCleanString(fields[0]).replace("\"\"", "\""),
+                legacyCleanString(fields[1]),
+                legacyParseDouble(fields[2]),
+                legacyParseInt(fields[3]),
+                legacyParseInt(fields[4]),
+                legacyParseInt(fields[5]),
+                legacyCleanString(fields[6])
+            ));
+        }
+
+        assertEquals(legacyBooks, new DatasetReader().readBooksFromSource("data.csv"));
+    }
+
+    public void testEscapedQuotesAndEmbeddedNewlines() throws IOException {
+        String csv = "\"He said \"\"hi\"\"\",\"line one\nline two\", plain \r\n\"a,b\",,\"\"\n";
+        CsvTokenizer tokenizer = new CsvTokenizer(new StringReader(csv), 4);
+
+        assertTrue(tokenizer.nextRecord());
+        assertEquals(1, tokenizer.recordLineNumber());
+        assertEquals(3, tokenizer.fieldCount());
+        assertEquals("He said \"hi\"", tokenizer.field(0));
+        assertEquals("line one\nline two", tokenizer.field(1));
+        assertEquals("plain", tokenizer.field(2));
+
+        assertTrue(tokenizer.nextRecord());
+        assertEquals(3, tokenizer.recordLineNumber());
+        assertEquals(3, tokenizer.fieldCount());
+        assertEquals("a,b", tokenizer.field(0));
+        assertEquals("", tokenizer.field(1));
+        assertEquals("", tokenizer.field(2));
+
+        assertFalse(tokenizer.nextRecord());
+    }
+
+    public void testNumericParsingMatchesLegacyHelpers() throws IOException {
+        String[] values = {
+            "8", "$8", "17,350", "-3", "3-", "--3", "abc", "", "-", "2147483647", "2147483648",
+            "-2147483648", "99999999999", "4.7", "4.", ".5", "-.5", "1.2.3", ".", "0.1234567890123456789",
+            "12345678901234567890.5", "4.7 stars"
+        };
+        for (String value : values) {
+            CsvTokenizer tokenizer = new CsvTokenizer(new StringReader("\"" + value + "\""));
+            assertTrue(tokenizer.nextRecord());
+            assertEquals(value, legacyParseInt(value), tokenizer.fieldAsInt(0));
+            assertEquals(value, legacyParseDouble(value), tokenizer.fieldAsDouble(0), 0.0);
+        }
+    }
+
+    public void testStrictNumericParsingRejectsInsteadOfCoercing() throws IOException {
+        String[] ints = {"8", "$8", "17,350", "-3", "2147483647", "-2147483648", "-$5", "1,234,567", "-$1,000", "2,147,483,647"};
+        long[] expectedInts = {8, 8, 17_350, -3, Integer.MAX_VALUE, Integer.MIN_VALUE, -5, 1_234_567, -1_000, Integer.MAX_VALUE};
+        for (int i = 0; i < ints.length; i++) {
+            assertEquals(ints[i], expectedInts[i], strictInt(ints[i]));
+        }
+        for (String malformed : new String[] {"", "-", "$", "3-", "--3", "abc", "n/a", "4.7", "2147483648", "1,,2", ",5", "5,", "8 USD",
+                "12,5", "1,2,3", "1,2345", "1234,567", "12,345,67", "-$1,23"}) {
+            assertEquals(malformed, CsvTokenizer.NOT_AN_INT, strictInt(malformed));
+        }
+
+        String[] doubles = {"4.7", "4.", ".5", "-.5", "0", "0.1234567890123456789", "12345678901234567890.5"};
+        for (String value : doubles) {
+            assertEquals(value, Double.parseDouble(value), strictDouble(value), 0.0);
+        }
+        for (String malformed : new String[] {"", "-", ".", "1.2.3", "abc", "4.7 stars", "$4.7", "4,7"}) {
+            assertTrue(malformed, Double.isNaN(strictDouble(malformed)));
+        }
+    }
+
+    private static long strictInt(String value) throws IOException {
+        CsvTokenizer tokenizer = new CsvTokenizer(new StringReader("\"" + value + "\""));
+        assertTrue(tokenizer.nextRecord());
+        return tokenizer.fieldAsStrictInt(0);
+    }
+
+    private static double strictDouble(String value) throws IOException {
+        CsvTokenizer tokenizer = new CsvTokenizer(new StringReader("\"" + value + "\""));
+        assertTrue(tokenizer.nextRecord());
+        return tokenizer.fieldAsStrictDouble(0);
+    }
+
+    private static String legacyCleanString(String value) {
+        return value == null ? "" : value.trim().replaceAll("^\"|\"$", "");
+    }
+
+    private static int legacyParseInt(String value) {
+        try {
+            return Integer.parseInt(legacyCleanString(value).replaceAll("[^0-9-]", ""));
+        } catch (Exception e) {
+            return 0;
+        }
+    }
+
+    private static double legacyParseDouble(String value) {
+        try {
+            return Double.parseDouble(legacyCleanString(value).replaceAll("[^0-9.-]", ""));
+        } catch (Exception e) {
+            return 0.0;
+        }
+    }
+}
@@ -0,0 +1,110 @@
+package com.abhinavgpt.utils;
+
+import com.abhinavgpt.books.Book;
+import com.abhinavgpt.books.RejectReason;
+import junit.framework.TestCase;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.stream.Stream;
+
+public class DatasetReaderTest extends TestCase {
+
+    private static final Path OPEN_FILES = Path.of("/proc/self/fd");
+
+    private final DatasetReader reader = new DatasetReader();
+    private Path dataset;
+
+    @Override
+    protected void setUp() throws IOException {
+        dataset = Files.createTempFile("books", ".csv");
+        Files.copy(Path.of("data.csv"), dataset, StandardCopyOption.REPLACE_EXISTING);
+    }
+
+    @Override
+    protected void tearDown() throws IOException {
+        Files.deleteIfExists(dataset);
+    }
+
+    public void testStreamingReturnsTheRowsOfAFullRead() {
+        List<Book> books = reader.readBooksFromSource("data.csv");
+
+        try (Stream<Book> streamed = reader.streamBooksFromSource("data.csv")) {
+            assertEquals(books, streamed.toList());
+        }
+        assertEquals(550, books.size());
+        assertEquals(List.of(), reader.streamBooksFromSource("missing.csv").toList());
+    }
+
+    public void testClosingAPartlyConsumedStreamClosesTheFile() throws IOException {
+        Stream<Book> books = reader.streamBooksFromSource(dataset.toString());
+        Iterator<Book> iterator = books.iterator();
+        for (int i = 0; i < 5; i++) {
+            assertTrue(iterator.hasNext());
+            iterator.next();
+        }
+        if (Files.isDirectory(OPEN_FILES)) {
+            assertEquals(1, openHandlesOn(dataset));
+        }
+
+        books.close();
+
+        if (Files.isDirectory(OPEN_FILES)) {
+            assertEquals(0, openHandlesOn(dataset));
+        }
+    }
+
+    public void testForEachBookVisitsEveryRowAndClosesTheFile() throws IOException {
+        List<Book> visited = new ArrayList<>();
+
+        assertEquals(550, reader.forEachBookInSource(dataset.toString(), visited::add));
+        assertEquals(reader.readBooksFromSource("data.csv"), visited);
+
+        try {
+            reader.forEachBookInSource(dataset.toString(), book -> {
+                throw new IllegalStateException("stop");
+            });
+            fail("consumer failure swallowed");
+        } catch (IllegalStateException expected) {
+            assertEquals("stop", expected.getMessage());
+        }
+        if (Files.isDirectory(OPEN_FILES)) {
+            assertEquals(0, openHandlesOn(dataset));
+        }
+    }
+
+    public void testParsedBooksAreOrdinaryValidatedBooks() {
+        Book parsed = reader.readBooksFromSource("data.csv").get(0);
+        Book constructed = new Book(parsed.title(), parsed.author(), parsed.userRating(), parsed.reviewCount(),
+            parsed.price(), parsed.year(), parsed.genre());
+
+        assertEquals(constructed, parsed);
+        assertEquals(constructed.hashCode(), parsed.hashCode());
+        assertEquals(constructed.toString(), parsed.toString());
+        try {
+            new Book(" ", parsed.author(), parsed.userRating(), parsed.reviewCount(), parsed.price(), parsed.year(),
+                parsed.genre());
+            fail("blank title accepted");
+        } catch (IllegalArgumentException expected) {
+            assertEquals(RejectReason.BLANK_TITLE.description(), expected.getMessage());
+        }
+    }
+
+    private static long openHandlesOn(Path file) throws IOException {
+        Path target = file.toRealPath();
+        try (Stream<Path> descriptors = Files.list(OPEN_FILES)) {
+            return descriptors.filter(descriptor -> {
+                try {
+                    return Files.readSymbolicLink(descriptor).equals(target);
+                } catch (IOException e) {
+                    return false; // closed while listing
+                }
+            }).count();
+        }
+    }
+}
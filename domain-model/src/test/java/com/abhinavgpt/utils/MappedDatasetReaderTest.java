@@ -0,0 +1,44 @@
+package com.abhinavgpt.utils;
+
+import junit.framework.TestCase;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.ForkJoinPool;
+
+public class MappedDatasetReaderTest extends TestCase {
+
+    public void testMatchesSequentialReaderAcrossSegmentSizes() {
+        DatasetReader sequentialReader = new DatasetReader();
+        ForkJoinPool pool = new ForkJoinPool(4);
+        try {
+            for (long segmentSize : new long[] {7, 64, 1000, 1 << 20}) {
+                MappedDatasetReader mappedReader = new MappedDatasetReader(pool, segmentSize);
+                assertEquals("segment size " + segmentSize,
+                    sequentialReader.readBooksFromSource("data.csv"), mappedReader.readBooksFromSource("data.csv"));
+            }
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    public void testQuotedFieldsSpanningSegmentBoundaries() throws IOException {
+        Path csv = Files.createTempFile("mapped-reader", ".csv");
+        try {
+            Files.writeString(csv, """
+                Name,Author,User Rating,Reviews,Price,Year,Genre
+                "A title, with ""quotes""
+                and a line break",Some Author,4.5,100,10,2015,Fiction
+                Plain Title,Other Author,4.1,200,12,2016,Non Fiction
+                """);
+
+            for (long segmentSize : new long[] {3, 17, 50, 4096}) {
+                assertEquals(new DatasetReader().readBooksFromSource(csv.toString()),
+                    new MappedDatasetReader(ForkJoinPool.commonPool(), segmentSize).readBooksFromSource(csv.toString()));
+            }
+        } finally {
+            Files.deleteIfExists(csv);
+        }
+    }
+}
@@ -0,0 +1,96 @@
+package com.abhinavgpt.utils;
+
+import com.abhinavgpt.books.Book;
+import com.abhinavgpt.books.RejectReason;
+import junit.framework.TestCase;
+
+import java.io.IOException;
+import java.io.StringWriter;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
+
+public class RejectedRowsReportTest extends TestCase {
+
+    private static final String DIRTY_FEED = """
+        Name,Author,User Rating,Reviews,Price,Year,Genre
+        Good Book,Some Author,4.5,"17,350",$10,2019,Fiction
+        Short Row,Some Author
+        ,Some Author,4.5,100,10,2019,Fiction
+        No Rating,Some Author,,100,10,2019,Fiction
+        Bad Reviews,Some Author,4.5,lots,10,2019,Fiction
+        Bad Price,Some Author,4.5,100,n/a,2019,Fiction
+        Bad Year,Some Author,4.5,100,10,20l9,Fiction
+        Too Good,Some Author,5.5,100,10,2019,Fiction
+        Negative Price,Some Author,4.5,100,-1,2019,Fiction
+
+        Too Old,Some Author,4.5,100,10,1850,Fiction
+        "   ",Some Author,4.5,100,10,2019,Fiction
+        Other Good Book,Some Author,4.1,50,0,2020,Non Fiction
+        """;
+
+    public void testDirtyRowsAreReportedWithLineAndReason() throws IOException {
+        Path csv = Files.createTempFile("dirty", ".csv");
+        try {
+            Files.writeString(csv, DIRTY_FEED);
+            StringWriter reportText = new StringWriter();
+            List<Book> books;
+            RejectedRowsReport report = new RejectedRowsReport(reportText);
+            try (report) {
+                books = new DatasetReader(report).readBooksFromSource(csv.toString());
+            }
+
+            assertEquals(2, books.size());
+            assertEquals(17_350, books.get(0).reviewCount());
+            assertEquals(10, books.get(0).price());
+            assertEquals(0, books.get(1).price());
+
+            assertEquals(10, report.getRejectedCount());
+            assertEquals(2L, (long) report.getCountsByReason().get(RejectReason.BLANK_TITLE));
+            assertEquals(1L, (long) report.getCountsByReason().get(RejectReason.MALFORMED_RATING));
+            assertFalse(report.getCountsByReason().containsKey(RejectReason.BLANK_GENRE));
+
+            List<String> lines = reportText.toString().lines().toList();
+            assertEquals("Line,Code,Reason", lines.get(0));
+            assertEquals("3,MISSING_FIELDS,Row has fewer fields than the header", lines.get(1));
+            assertEquals(List.of("3", "4", "5", "6", "7", "8", "9", "10", "12", "13"),
+                lines.subList(1, 11).stream().map(line -> line.substring(0, line.indexOf(','))).toList());
+            assertTrue(lines.contains("6,MALFORMED_REVIEWS,Review count is not a whole number"));
+            assertTrue(lines.contains("7,MALFORMED_PRICE,Price is not a whole number"));
+            assertTrue(lines.contains("8,MALFORMED_YEAR,Year is not a whole number"));
+            assertTrue(lines.contains("9,RATING_OUT_OF_RANGE,User rating must be between 0 and 5"));
+            assertTrue(lines.contains("10,NEGATIVE_PRICE,Price cannot be negative"));
+            assertTrue(lines.contains("12,YEAR_OUT_OF_RANGE,Year must be between 1900 and 2030"));
+        } finally {
+            Files.deleteIfExists(csv);
+        }
+    }
+
+    public void testMappedReaderReportsTheSameReasons() throws IOException {
+        Path csv = Files.createTempFile("dirty", ".csv");
+        try {
+            Files.writeString(csv, DIRTY_FEED);
+            StringWriter sequentialText = new StringWriter();
+            RejectedRowsReport sequential = new RejectedRowsReport(sequentialText);
+            List<Book> expected = new DatasetReader(sequential).readBooksFromSource(csv.toString());
+
+            for (long segmentSize : new long[] {5, 64, 4096}) {
+                StringWriter mappedText = new StringWriter();
+                RejectedRowsReport mapped = new RejectedRowsReport(mappedText);
+                assertEquals(expected, new MappedDatasetReader(ForkJoinPool.commonPool(), segmentSize, mapped)
+                    .readBooksFromSource(csv.toString()));
+                Map<RejectReason, Long> expectedCounts = sequential.getCountsByReason();
+                assertEquals(expectedCounts, mapped.getCountsByReason());
+                assertEquals("segment size " + segmentSize, sortedLines(sequentialText), sortedLines(mappedText));
+            }
+        } finally {
+            Files.deleteIfExists(csv);
+        }
+    }
+
+    private static List<String> sortedLines(StringWriter report) {
+        return report.toString().lines().sorted().toList();
+    }
+}
@@ -0,0 +1,68 @@
+package com.abhinavgpt.utils;
+
+import com.abhinavgpt.books.Book;
+import com.abhinavgpt.books.BookRepositoryImpl;
+import junit.framework.TestCase;
+
+import java.io.IOException;
+import java.io.StringWriter;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+public class SyntheticDatasetGeneratorTest extends TestCase {
+
+    public void testSameSeedProducesSameRows() throws IOException {
+        StringWriter first = new StringWriter();
+        StringWriter second = new StringWriter();
+        new SyntheticDatasetGenerator(7).writeCsv(first, 2_000);
+        new SyntheticDatasetGenerator(7).writeCsv(second, 2_000);
+        assertEquals(first.toString(), second.toString());
+
+        StringWriter otherSeed = new StringWriter();
+        new SyntheticDatasetGenerator(8).writeCsv(otherSeed, 2_000);
+        assertFalse(first.toString().equals(otherSeed.toString()));
+    }
+
+    public void testWrittenCsvReadsBackUnderEveryHeaderVariant() throws IOException {
+        List<Book> expected = new SyntheticDatasetGenerator(11).books(5_000).toList();
+        assertEquals(5_000, expected.size());
+        assertTrue(expected.stream().anyMatch(book -> book.title().contains(",")));
+        assertTrue(expected.stream().anyMatch(book -> book.title().contains("\"")));
+
+        Path csv = Files.createTempFile("synthetic", ".csv");
+        try {
+            for (SyntheticDatasetGenerator generator : List.of(
+                    new SyntheticDatasetGenerator(11), new SyntheticDatasetGenerator(11).withAliasedHeader())) {
+                generator.writeCsv(csv, 5_000);
+                assertEquals(expected, new DatasetReader().readBooksFromSource(csv.toString()));
+            }
+        } finally {
+            Files.deleteIfExists(csv);
+        }
+    }
+
+    public void testDistributionIsSkewedWithMultiYearWorks() {
+        List<Book> books = new SyntheticDatasetGenerator(3).books(50_000).toList();
+        BookRepositoryImpl repository = new BookRepositoryImpl(books);
+
+        Map<String, Long> rowsByAuthor = books.stream()
+                .collect(Collectors.groupingBy(Book::author, Collectors.counting()));
+        long busiestAuthorRows = rowsByAuthor.values().stream().mapToLong(Long::longValue).max().orElse(0);
+        double meanRowsPerAuthor = (double) books.size() / rowsByAuthor.size();
+        assertTrue("busiest author " + busiestAuthorRows, busiestAuthorRows > 20 * meanRowsPerAuthor);
+
+        double editionsPerWork = (double) books.size() / repository.getAllUniqueBooks().size();
+        assertTrue("editions per work " + editionsPerWork, editionsPerWork > 1.3 && editionsPerWork < 2.0);
+        assertFalse(repository.getDuplicateBooksAcrossYears().isEmpty());
+
+        Map<String, Long> rowsByGenre = books.stream()
+                .collect(Collectors.groupingBy(Book::genre, Collectors.counting()));
+        assertEquals(2, rowsByGenre.size());
+        assertTrue(books.stream().map(Book::year).collect(Collectors.toMap(Function.identity(), year -> 1, Integer::sum))
+                .keySet().containsAll(List.of(SyntheticDatasetGenerator.FIRST_YEAR, SyntheticDatasetGenerator.LAST_YEAR)));
+    }
+}